@@ -1,6 +1,8 @@
 package org.digidoc4j.ddoc;
 
+import org.digidoc4j.ddoc.factory.DigiDocVerifyFactory;
 import org.digidoc4j.ddoc.factory.DigiDocXmlGenFactory;
+import org.digidoc4j.ddoc.utils.ConfigManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,6 +12,9 @@ import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 /**
  * Represents an instance of signed doc
@@ -92,6 +97,9 @@ public class SignedDoc implements Serializable
     public static String xmlns_digidoc13 = "http://www.sk.ee/DigiDoc/v1.3.0#";
     /** Xades namespace */
     public static String xmlns_xades_123 = "http://uri.etsi.org/01903/v1.3.2#";
+    /** buffer size used when writing digidoc to a stream */
+    private static final int WRITE_BUFFER_SIZE = 65536;
+    private static final byte[] LINE_SEPARATOR = { '\n' };
 
     /**
      * Creates new SignedDoc
@@ -548,12 +556,10 @@ public class SignedDoc implements Serializable
     public void writeToFile(File outputFile)
             throws DigiDocException
     {
-        try {
-            OutputStream os = new FileOutputStream(outputFile);
+        try(OutputStream os = new FileOutputStream(outputFile)) {
             // make a copy of old file if it exists
             //File fCopy = copyOldFile(outputFile);
             writeToStream(os);
-            os.close();
             // delete temp file
     		/*if(fCopy != null) {
     			if(m_logger.isDebugEnabled())
@@ -568,11 +574,11 @@ public class SignedDoc implements Serializable
     }
 
     /**
-     * Writes the SignedDoc to an output file
+     * Writes the SignedDoc to an output stream
      * and automatically calculates DataFile sizes
-     * and digests
-     * @param outputFile output file name
-     * @param fTempSdoc temporrary file, copy of original for copying items
+     * and digests. Output is buffered and the stream
+     * is flushed but not closed.
+     * @param os output stream
      * @throws DigiDocException for all errors
      */
     public void writeToStream(OutputStream os)
@@ -583,21 +589,24 @@ public class SignedDoc implements Serializable
         try {
             DigiDocXmlGenFactory genFac = new DigiDocXmlGenFactory(this);
             if(m_format.equals(SignedDoc.FORMAT_DIGIDOC_XML)){ // ddoc format
-                os.write(xmlHeader().getBytes());
+                // DataFile bodies are written in small blocks, collect them before writing to os
+                BufferedOutputStream bos = new BufferedOutputStream(os, WRITE_BUFFER_SIZE);
+                bos.write(xmlHeader().getBytes());
                 for(int i = 0; i < countDataFiles(); i++) {
                     DataFile df = getDataFile(i);
-                    df.writeToFile(os);
-                    os.write("\n".getBytes());
+                    df.writeToFile(bos);
+                    bos.write(LINE_SEPARATOR);
                 }
                 for(int i = 0; i < countSignatures(); i++) {
                     Signature sig = getSignature(i);
                     if(sig.getOrigContent() != null)
-                        os.write(sig.getOrigContent());
+                        bos.write(sig.getOrigContent());
                     else
-                        os.write(genFac.signatureToXML(sig));
-                    os.write("\n".getBytes());
+                        bos.write(genFac.signatureToXML(sig));
+                    bos.write(LINE_SEPARATOR);
                 }
-                os.write(xmlTrailer().getBytes());
+                bos.write(xmlTrailer().getBytes());
+                bos.flush();
             }
         } catch(DigiDocException ex) {
             throw ex; // allready handled
@@ -783,17 +792,48 @@ public class SignedDoc implements Serializable
      * @return a possibly empty list of DigiDocException objects
      */
     public ArrayList verify(boolean checkDate, boolean demandConfirmation)
+    {
+        return verify(checkDate, demandConfirmation, null);
+    }
+
+    /**
+     * Helper method to verify the whole SignedDoc object.
+     * Every signature is verified by a task and the tasks are
+     * executed with the given function, e.g. in parallel. DataFile
+     * digests are calculated once before that and shared by all
+     * signatures.
+     * @param checkDate Date on which to check the signature validity
+     * @param demandConfirmation true if you demand OCSP confirmation from
+     * every signature
+     * @param taskExecutor function executing the verification tasks and
+     * returning their results in the order of the tasks, null to verify
+     * the signatures one by one in the current thread
+     * @return a possibly empty list of DigiDocException objects
+     */
+    public ArrayList verify(boolean checkDate, boolean demandConfirmation,
+                            Function<List<Callable<ArrayList>>, List<ArrayList>> taskExecutor)
     {
         ArrayList errs = validate(true);
         // check fatal errs
         if(hasFatalErrs(errs))
             return errs;
         // verification
-        for(int i = 0; i < countSignatures(); i++) {
-            Signature sig = getSignature(i);
-            ArrayList e = sig.verify(this, checkDate, demandConfirmation);
-            if(!e.isEmpty())
+        if(taskExecutor != null && countSignatures() > 1) {
+            prepareParallelVerification();
+            List<Callable<ArrayList>> tasks = new ArrayList<>();
+            for(int i = 0; i < countSignatures(); i++) {
+                final Signature sig = getSignature(i);
+                tasks.add(() -> sig.verify(this, checkDate, demandConfirmation));
+            }
+            for(ArrayList e : taskExecutor.apply(tasks))
                 errs.addAll(e);
+        } else {
+            for(int i = 0; i < countSignatures(); i++) {
+                Signature sig = getSignature(i);
+                ArrayList e = sig.verify(this, checkDate, demandConfirmation);
+                if(!e.isEmpty())
+                    errs.addAll(e);
+            }
         }
         if(countSignatures() == 0) {
             errs.add(new DigiDocException(DigiDocException.ERR_NOT_SIGNED, "This document is not signed!", null));
@@ -801,6 +841,32 @@ public class SignedDoc implements Serializable
         return errs;
     }
 
+    /**
+     * Initializes the shared factories and calculates the DataFile
+     * digests, so that the signatures verified in parallel only read them
+     */
+    private void prepareParallelVerification()
+    {
+        DigiDocVerifyFactory.initProvider();
+        try {
+            ConfigManager.instance().getCanonicalizationFactory();
+            ConfigManager.instance().getNotaryFactory();
+            ConfigManager.instance().getTslFactory();
+        } catch(DigiDocException ex) {
+            // reported by the verification of every signature
+            m_logger.error("Error initializing factories for verification: " + ex);
+        }
+        for(int i = 0; i < countDataFiles(); i++) {
+            DataFile df = getDataFile(i);
+            try {
+                df.getDigestValueOfType(SHA1_DIGEST_TYPE);
+            } catch(DigiDocException ex) {
+                // reported by the verification of every signature
+                m_logger.error("Error calculating hash for df: " + df.getId() + " - " + ex);
+            }
+        }
+    }
+
     /**
      * Helper method to create the xml header
      * @return xml header
@@ -83,7 +83,10 @@ public final class EntityParser_Fragment extends FragmentBase {
 
     private boolean GetMarkupChar(int o)
     {
-        return ("&#;".indexOf(this.GetChar(o)) > -1);
+        char c;
+
+        c = this.GetChar(o);
+        return ((c == '&') || (c == '#') || (c == ';'));
     }
 
     private boolean GetLiteralChar(int o)
@@ -61,9 +61,55 @@ public abstract class FragmentBase {
             return false;
         }
 
+
+        if (FragmentBase.IsAscii(e))
+        {
+            return this.BytesEqual(e);
+        }
+
         return Convert.ToString(this.Data, this.Offset, e.length()).equals(e);
     }
 
+    /**
+     * compares the first bytes of this fragment with an ascii string
+     * without decoding them to a string
+     */
+    private boolean BytesEqual(String e)
+    {
+        int i;
+
+
+        for (i = 0; (i < e.length()); i++)
+        {
+
+            if (!(this.Data[(this.Offset + i)] == ((byte)e.charAt(i))))
+            {
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    private static boolean IsAscii(String e)
+    {
+        int i;
+
+
+        for (i = 0; (i < e.length()); i++)
+        {
+
+            if ((e.charAt(i) > 127))
+            {
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
     /**
      * returns a utf8 string that represents the bytes in this fragment
      */
@@ -74,6 +120,12 @@ public abstract class FragmentBase {
 
     public boolean get_Item(String ds)
     {
+
+        if (FragmentBase.IsAscii(ds))
+        {
+            return ((this.Length == ds.length()) && this.BytesEqual(ds));
+        }
+
         return this.get_DataString().equals(ds);
     }
 
@@ -3,7 +3,7 @@ package org.digidoc4j.ddoc.c14n;
 import org.digidoc4j.ddoc.DigiDocException;
 import org.digidoc4j.ddoc.factory.CanonicalizationFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 
 public class TinyXMLCanonicalizer implements CanonicalizationFactory {
 
@@ -39,49 +39,50 @@ public class TinyXMLCanonicalizer implements CanonicalizationFactory {
         return byteArray3;
     }
 
+    /**
+     * replaces CR LF with LF and single CR with LF,
+     * returns the data itself if there are no CR characters
+     */
     public static byte[] NormalizeLineBreaks(byte[] data)
     {
         int len;
-        ByteArrayOutputStream o;
-        byte[] n;
+        byte[] o;
         int i;
+        int j;
         byte c;
-        boolean skip;
 
         len = (data.length);
-        o = new ByteArrayOutputStream(len);
-        n = new byte[]
-                {
-                        10
-                };
         for (i = 0; (i < len); i++)
+        {
+            if ((data[i] == 13))
+            {
+                break;
+            }
+        }
+        if ((i == len))
+        {
+            return data;
+        }
+        o = new byte[len];
+        System.arraycopy(data, 0, o, 0, i);
+        j = i;
+        for (; (i < len); i++)
         {
             c = data[i];
             if ((c == 13))
             {
-                skip = false;
-                if (((i + 1) < len))
+                if ((((i + 1) < len) && (data[(i + 1)] == 10)))
                 {
-                    c = data[(i + 1)];
-
-                    if ((c == 10))
-                    {
-                        skip = true;
-                    }
-
+                    continue;
                 }
-                if (!skip)
-                {
-                    o.write(n, 0, 1);
-                }
-
+                o[j++] = 10;
             }
             else
             {
-                o.write(data, i, 1);
+                o[j++] = c;
             }
         }
-        return o.toByteArray();
+        return Arrays.copyOf(o, j);
     }
 
 }
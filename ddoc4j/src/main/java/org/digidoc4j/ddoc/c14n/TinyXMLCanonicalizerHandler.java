@@ -1,9 +1,9 @@
 package org.digidoc4j.ddoc.c14n;
 
-import org.digidoc4j.ddoc.c14n.common.Convert;
 import org.digidoc4j.ddoc.c14n.common.StringImplementation;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 
@@ -30,7 +30,7 @@ public class TinyXMLCanonicalizerHandler implements TinyXMLParser_Handler {
     {
         byte[] u;
 
-        u = Convert.ToByteArray(e, "UTF-8");
+        u = e.getBytes(StandardCharsets.UTF_8);
         this.BaseStream.write(u, 0, u.length);
     }
 
@@ -1,7 +1,5 @@
 package org.digidoc4j.ddoc.c14n;
 
-import org.digidoc4j.ddoc.c14n.common.StringImplementation;
-
 class TinyXMLCanonicalizerHandler_TextStringNormalizer_EntityHelper {
 
     public String Text;
@@ -15,7 +13,8 @@ class TinyXMLCanonicalizerHandler_TextStringNormalizer_EntityHelper {
 
     public void set_Item(String e, String value)
     {
-        this.Text = StringImplementation.Replace(this.Text, e, value);
+        // literal replacement, none of the replaced strings needs a regex
+        this.Text = this.Text.replace(e, value);
     }
 
 }
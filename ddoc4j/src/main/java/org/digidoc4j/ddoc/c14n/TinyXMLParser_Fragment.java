@@ -5,48 +5,73 @@ public final class TinyXMLParser_Fragment extends FragmentBase {
     public TinyXMLParser_Document OwnerDocument;
     private TinyXMLParser_Fragment _next;
 
+    private static final byte CHAR_LITERAL = 0;
+    private static final byte CHAR_MARKUP = 1;
+    private static final byte CHAR_SPACE = 2;
+    private static final byte CHAR_QUOTE = 3;
+    /**
+     * character classes of ascii characters, all other bytes are literals.
+     * Looked up for every byte of the document so it must be cheap.
+     */
+    private static final byte[] CHAR_CLASSES = new byte[128];
+
+    static
+    {
+        SetCharClass("<?![=]/->", CHAR_MARKUP);
+        SetCharClass("\t\n\r ", CHAR_SPACE);
+        SetCharClass("\"\'", CHAR_QUOTE);
+    }
+
     public TinyXMLParser_Fragment()
     {
         super();
     }
 
 
-    private boolean GetMarkupChar(int o)
+    private static void SetCharClass(String chars, byte charClass)
     {
-        return ("<?![=]/->".indexOf(this.GetChar(o)) > -1);
-    }
+        int i;
 
-    private boolean GetSpaceChar(int o)
-    {
-        return ("\t\n\r ".indexOf(this.GetChar(o)) > -1);
-    }
 
-    private boolean GetQuoteChar(int o)
-    {
-        return ("\"\'".indexOf(this.GetChar(o)) > -1);
+        for (i = 0; (i < chars.length()); i++)
+        {
+            CHAR_CLASSES[chars.charAt(i)] = charClass;
+        }
+
     }
 
-    private boolean GetLiteralChar(int o)
+    private byte GetCharClass(int o)
     {
+        char c;
 
-        if (this.GetMarkupChar(o))
+        c = this.GetChar(o);
+
+        if ((c < CHAR_CLASSES.length))
         {
-            return false;
+            return CHAR_CLASSES[c];
         }
 
+        return CHAR_LITERAL;
+    }
 
-        if (this.GetSpaceChar(o))
-        {
-            return false;
-        }
+    private boolean GetMarkupChar(int o)
+    {
+        return (this.GetCharClass(o) == CHAR_MARKUP);
+    }
 
+    private boolean GetSpaceChar(int o)
+    {
+        return (this.GetCharClass(o) == CHAR_SPACE);
+    }
 
-        if (this.GetQuoteChar(o))
-        {
-            return false;
-        }
+    private boolean GetQuoteChar(int o)
+    {
+        return (this.GetCharClass(o) == CHAR_QUOTE);
+    }
 
-        return true;
+    private boolean GetLiteralChar(int o)
+    {
+        return (this.GetCharClass(o) == CHAR_LITERAL);
     }
 
     public boolean get_IsMarkup()
@@ -0,0 +1,161 @@
+package org.digidoc4j.ddoc.factory;
+
+import org.digidoc4j.ddoc.DataFile;
+import org.digidoc4j.ddoc.DigiDocException;
+import org.digidoc4j.ddoc.utils.ConfigManager;
+import org.digidoc4j.ddoc.utils.ConvertUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Collects the body of a &lt;DataFile&gt; element while it is being parsed.
+ * The body is kept in memory until it exceeds the given limit and is
+ * moved to the cache file of the DataFile after that, so that only the
+ * current chunk of a big body is held in memory. Text is kept in memory
+ * in the escaped form it had in the XML document and written to the
+ * cache file unescaped.
+ */
+class DataFileBodyCollector {
+
+    private static Logger m_logger = LoggerFactory.getLogger(DataFileBodyCollector.class);
+    private final DataFile m_df;
+    private final long m_lMaxCached;
+    private ByteArrayOutputStream m_memory;
+    /** unescaped body, kept only after escaping has changed some text */
+    private ByteArrayOutputStream m_unescaped;
+    private OutputStream m_file;
+    private long m_lSize;
+
+    private DataFileBodyCollector(DataFile df, long lMaxCached, ByteArrayOutputStream memory, OutputStream file)
+    {
+        m_df = df;
+        m_lMaxCached = lMaxCached;
+        m_memory = memory;
+        m_file = file;
+    }
+
+    /**
+     * Creates a collector that keeps the body in memory until it exceeds the limit
+     * @param df DataFile whose body is collected
+     * @param nExpectedSize expected size of the body in bytes
+     * @param lMaxCached max size of body kept in memory, 0 or less for no limit
+     * @return collector
+     */
+    static DataFileBodyCollector inMemory(DataFile df, int nExpectedSize, long lMaxCached)
+    {
+        int nInitialSize = nExpectedSize;
+        if(lMaxCached > 0 && nInitialSize > lMaxCached)
+            nInitialSize = (int)lMaxCached;
+        return new DataFileBodyCollector(df, lMaxCached, new ByteArrayOutputStream(Math.max(nInitialSize, 32)), null);
+    }
+
+    /**
+     * Creates a collector that writes the body to the cache file
+     * @param df DataFile whose body is collected
+     * @param fCache cache file of the DataFile
+     * @return collector
+     * @throws IOException if the cache file cannot be opened
+     */
+    static DataFileBodyCollector toFile(DataFile df, File fCache)
+            throws IOException
+    {
+        return new DataFileBodyCollector(df, 0, null, new FileOutputStream(fCache));
+    }
+
+    /**
+     * Appends text to the body
+     * @param text text of the body
+     * @throws IOException if writing to the cache file fails
+     * @throws DigiDocException if the text cannot be converted to UTF-8
+     */
+    void writeText(String text)
+            throws IOException, DigiDocException
+    {
+        byte[] data = ConvertUtils.str2data(text);
+        String escaped = (m_memory != null) ? ConvertUtils.escapeTextNode(text) : text;
+        if(escaped.equals(text)) {
+            write(data, data);
+            return;
+        }
+        if(m_unescaped == null) {
+            // up to now the escaped body is the same as the unescaped one
+            m_unescaped = new ByteArrayOutputStream(m_memory.size() + data.length);
+            m_memory.writeTo(m_unescaped);
+        }
+        write(ConvertUtils.str2data(escaped), data);
+    }
+
+    /**
+     * Appends markup of an embedded XML body
+     * @param markup markup of the body
+     * @throws IOException if writing to the cache file fails
+     * @throws DigiDocException if the markup cannot be converted to UTF-8
+     */
+    void writeMarkup(String markup)
+            throws IOException, DigiDocException
+    {
+        byte[] data = ConvertUtils.str2data(markup);
+        write(data, data);
+    }
+
+    private void write(byte[] escaped, byte[] unescaped)
+            throws IOException
+    {
+        if(m_memory != null && m_lMaxCached > 0 && m_lSize + escaped.length > m_lMaxCached)
+            moveToCacheFile();
+        if(m_memory != null) {
+            m_memory.write(escaped, 0, escaped.length);
+            if(m_unescaped != null)
+                m_unescaped.write(unescaped, 0, unescaped.length);
+            m_lSize += escaped.length;
+        } else {
+            m_file.write(unescaped);
+            m_lSize += unescaped.length;
+        }
+    }
+
+    /**
+     * Finishes collecting
+     * @throws IOException if closing the cache file fails
+     */
+    void close()
+            throws IOException
+    {
+        if(m_file != null) {
+            m_file.close();
+            m_file = null;
+        }
+    }
+
+    /**
+     * Returns the collected body if it is kept in memory
+     * @return body or null if it is in the cache file
+     */
+    byte[] getBody()
+    {
+        return (m_memory != null) ? m_memory.toByteArray() : null;
+    }
+
+    private void moveToCacheFile()
+            throws IOException
+    {
+        File fCacheDir = new File(ConfigManager.instance().
+                getStringProperty("DIGIDOC_DF_CACHE_DIR", System.getProperty("java.io.tmpdir")));
+        File fCache = File.createTempFile(Long.toString(System.currentTimeMillis()), ".df", fCacheDir);
+        if(m_logger.isDebugEnabled())
+            m_logger.debug("DF: " + m_df.getId() + " exceeds " + m_lMaxCached + " bytes, moving it to cache-file: " +
+                    fCache.getAbsolutePath());
+        m_file = new FileOutputStream(fCache);
+        ((m_unescaped != null) ? m_unescaped : m_memory).writeTo(m_file);
+        m_memory = null;
+        m_unescaped = null;
+        m_df.setCacheFile(fCache);
+    }
+
+}
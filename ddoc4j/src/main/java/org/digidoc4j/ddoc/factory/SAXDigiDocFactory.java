@@ -1,5 +1,6 @@
 package org.digidoc4j.ddoc.factory;
 
+import org.apache.commons.codec.binary.Base64InputStream;
 import org.digidoc4j.ddoc.*;
 import org.digidoc4j.ddoc.utils.ConfigManager;
 import org.digidoc4j.ddoc.utils.ConvertUtils;
@@ -50,7 +51,7 @@ public class SAXDigiDocFactory
     /** calculation of digest */
     private MessageDigest m_digest, m_altDigest;
     /** temp output stream used to cache DataFile content */
-    private FileOutputStream m_dfCacheOutStream;
+    private DataFileBodyCollector m_dfBody;
     private String m_tempDir;
     /** name of file being loaded */
     private String m_fileName, m_sigComment;
@@ -73,7 +74,7 @@ public class SAXDigiDocFactory
         m_digest = null;
         m_altDigest = null;
         m_bCollectDigest = false;
-        m_dfCacheOutStream = null;
+        m_dfBody = null;
         m_tempDir = null;
         m_errs = null;
         m_elemRoot = null;
@@ -87,12 +88,23 @@ public class SAXDigiDocFactory
      * @param data
      */
     private void updateDigest(byte[] data)
+    {
+        updateDigest(data, 0, data.length);
+    }
+
+    /**
+     * Helper method to update sha1 digest with a part of data
+     * @param data
+     * @param offset offset of the part
+     * @param len length of the part
+     */
+    private void updateDigest(byte[] data, int offset, int len)
     {
         try {
             // if not inited yet then initialize digest
             if(m_digest == null)
                 m_digest = MessageDigest.getInstance("SHA-1");
-            m_digest.update(data);
+            m_digest.update(data, offset, len);
         } catch(Exception ex) {
             m_logger.error("Error calculating digest: " + ex);
             //ex.printStackTrace();
@@ -404,7 +416,7 @@ public class SAXDigiDocFactory
     public void startDocument() throws SAXException {
         m_nCollectMode = 0;
         m_xmlnsAttr = null;
-        m_dfCacheOutStream = null;
+        m_dfBody = null;
         m_nsDsPref = null;
         m_nsXadesPref = null;
         m_nsAsicPref = null;
@@ -679,7 +691,7 @@ public class SAXDigiDocFactory
             if(m_nCollectMode == 0) {
                 try {
                     DataFile df = new DataFile(Id, ContentType, Filename, MimeType, m_doc);
-                    m_dfCacheOutStream = null; // default is don't use cache file
+                    m_dfBody = null; // default is don't use cache file
                     if (Size != null)
                         df.setSize(Long.parseLong(Size));
                     if (DigestValue != null) {
@@ -698,7 +710,7 @@ public class SAXDigiDocFactory
                         if(m_logger.isDebugEnabled())
                             m_logger.debug("Parser temp DF: " + Id + " size: " + df.getSize() +
                                     " cache-file: " + fCache.getAbsolutePath());
-                        m_dfCacheOutStream = new FileOutputStream(fCache);
+                        m_dfBody = DataFileBodyCollector.toFile(df, fCache);
                         df.setCacheFile(fCache);
                     } else if(df.schouldUseTempFile()) {
                         File fCache = df.createCacheFile();
@@ -706,7 +718,7 @@ public class SAXDigiDocFactory
                             m_logger.debug("Df-temp DF: " + Id + " size: " + df.getSize() +
                                     " cache-file: " + fCache.getAbsolutePath());
                         df.setCacheFile(fCache);
-                        m_dfCacheOutStream = new FileOutputStream(fCache);
+                        m_dfBody = DataFileBodyCollector.toFile(df, fCache);
                     }
                     m_doc.addDataFile(df);
                 } catch (IOException ex) {
@@ -722,7 +734,7 @@ public class SAXDigiDocFactory
                     int nSize = Integer.parseInt(Size);
                     if(!ContentType.equals(DataFile.CONTENT_HASHCODE)) {
                         if(ContentType.equals(DataFile.CONTENT_EMBEDDED_BASE64)) {
-                            nSize *= 2;
+                            nSize = nSize / 3 * 4 + nSize / 48 + 4; // base64 with line breaks
                             m_bCollectDigest = true;
                             if(m_logger.isDebugEnabled())
                                 m_logger.debug("Start collecting digest");
@@ -731,8 +743,8 @@ public class SAXDigiDocFactory
                             m_bCollectDigest = false;
                         if(m_logger.isDebugEnabled())
                             m_logger.debug("Allocating buf: " + nSize + " Element: "	+ qName + " lname: "  + lName + " uri: " + namespaceURI);
-                        if(m_dfCacheOutStream == null) // if we use temp files then we don't cache in memory
-                            m_sbCollectChars = new StringBuffer(nSize);
+                        if(m_dfBody == null) // if we use temp files then we don't cache in memory
+                            m_dfBody = DataFileBodyCollector.inMemory(m_doc.getLastDataFile(), nSize, nMaxBdocFilCached);
                     }
                 }
             } catch(Exception ex) {
@@ -939,8 +951,8 @@ public class SAXDigiDocFactory
                 if(m_sbCollectChars != null)
                     m_sbCollectChars.append(sb.toString());
                 try {
-                    if(m_dfCacheOutStream != null)
-                        m_dfCacheOutStream.write(ConvertUtils.str2data(sb.toString()));
+                    if(m_dfBody != null)
+                        m_dfBody.writeMarkup(sb.toString());
                 } catch (IOException ex) {
                     handleSAXError(ex);
                 } catch (DigiDocException ex) {
@@ -1503,55 +1515,55 @@ public class SAXDigiDocFactory
         // if we do cache in mem
         if(m_sbCollectChars != null && sb != null)
             m_sbCollectChars.append(sb.toString());
+        try {
+            if(m_dfBody != null && sb != null)
+                m_dfBody.writeMarkup(sb.toString());
+        } catch (IOException ex) {
+            handleSAXError(ex);
+        } catch (DigiDocException ex) {
+            handleSAXError(ex);
+        }
 
         // </DataFile>
         if(tag.equals("DataFile")) {
             m_nCollectMode--;
             if (m_nCollectMode == 0) {
                 // close DataFile cache if necessary
+                DataFileBodyCollector dfBody = m_dfBody;
+                m_dfBody = null;
                 try {
-                    if(m_dfCacheOutStream != null) {
-                        if(sb != null)
-                            m_dfCacheOutStream.write(ConvertUtils.str2data(sb.toString()));
-                        m_dfCacheOutStream.close();
-                        m_dfCacheOutStream = null;
-                    }
+                    if(dfBody != null)
+                        dfBody.close();
                 } catch (IOException ex) {
                     handleSAXError(ex);
-                } catch (DigiDocException ex) {
-                    handleSAXError(ex);
                 }
 
                 DataFile df = m_doc.getLastDataFile();
                 if(df != null && df.getContentType().equals(DataFile.CONTENT_EMBEDDED_BASE64)) {
                     try {
                         if(m_doc.getFormat().equals(SignedDoc.FORMAT_SK_XML)) {
-                            String sDf = null;
-                            if(m_sbCollectChars != null) {
-                                sDf = m_sbCollectChars.toString();
-                                setDataFileBodyAsData(df);
-                                m_sbCollectChars = null;
+                            InputStream isDf = null;
+                            if(df.getDfCacheFile() == null && dfBody != null) {
+                                byte[] body = dfBody.getBody();
+                                setDataFileBodyAsData(df, body);
+                                isDf = new ByteArrayInputStream(body);
                             } else if(df.getDfCacheFile() != null) {
-                                byte[] data = null;
                                 try {
-                                    data = SignedDoc.readFile(df.getDfCacheFile());
-                                    sDf = new String(data);
-                                } catch(Exception ex) {
+                                    isDf = new FileInputStream(df.getDfCacheFile());
+                                } catch(IOException ex) {
                                     m_logger.error("Error reading cache file: " + df.getDfCacheFile() + " - " + ex);
                                 }
                             }
-                            if(sDf != null) {
-                                byte[] bDf = Base64Util.decode(sDf);
-                                updateDigest(bDf);
-                            }
+                            if(isDf != null)
+                                updateDigestWithDecodedBody(df, isDf);
                             df.setDigest(getDigest());
                             if(m_logger.isDebugEnabled())
                                 m_logger.debug("Digest: " + df.getId() + " - " + Base64Util.encode(df.getDigest()) + " size: " + df.getSize());
                         } else {
                             if(m_logger.isDebugEnabled())
                                 m_logger.debug("DF: " + df.getId() + " cache-file: " + df.getDfCacheFile());
-                            if(df.getDfCacheFile() == null) {
-                                setDataFileBodyAsData(df);
+                            if(df.getDfCacheFile() == null && dfBody != null) {
+                                setDataFileBodyAsData(df, dfBody.getBody());
                             }
                             // calc digest over end tag
                             updateDigest("</DataFile>".getBytes());
@@ -2081,13 +2093,46 @@ public class SAXDigiDocFactory
         //} // if(m_nCollectMode == 0)
     }
 
-    private void setDataFileBodyAsData(DataFile df) throws DigiDocException {
+    private void setDataFileBodyAsData(DataFile df, byte[] body) throws DigiDocException {
         long nSize = df.getSize();
-        byte[] b = Base64Util.decode(m_sbCollectChars.toString());
+        long nDecodedSize = getDecodedLength(body);
         if(m_logger.isDebugEnabled())
-            m_logger.debug("DF: " + df.getId() + " orig-size: " + nSize + " new size: " + b.length);
-        if(nSize == 0) nSize = b.length;
-        df.setBodyAsData(ConvertUtils.str2data(m_sbCollectChars.toString(), "UTF-8"), true, nSize);
+            m_logger.debug("DF: " + df.getId() + " orig-size: " + nSize + " new size: " + nDecodedSize);
+        if(nSize == 0) nSize = nDecodedSize;
+        df.setBodyAsData(body, true, nSize);
+    }
+
+    /**
+     * Calculates the length of base64 encoded data after
+     * decoding without decoding it
+     * @param base64 base64 encoded data
+     * @return length of decoded data
+     */
+    private static long getDecodedLength(byte[] base64) {
+        long nChars = 0;
+        for(int i = 0; i < base64.length; i++) {
+            byte b = base64[i];
+            if((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '+' || b == '/')
+                nChars++;
+        }
+        return nChars * 3 / 4;
+    }
+
+    /**
+     * Updates digest with the decoded DataFile body reading
+     * the encoded body in small blocks
+     * @param df DataFile
+     * @param isBody base64 encoded body
+     */
+    private void updateDigestWithDecodedBody(DataFile df, InputStream isBody) {
+        try(InputStream is = new Base64InputStream(isBody)) {
+            byte[] buf = new byte[8192];
+            int n;
+            while((n = is.read(buf)) > 0)
+                updateDigest(buf, 0, n);
+        } catch(IOException ex) {
+            m_logger.error("Error decoding DataFile: " + df.getId() + " - " + ex);
+        }
     }
 
     /**
@@ -2113,13 +2158,17 @@ public class SAXDigiDocFactory
             }
             if (m_sbCollectSignature != null)
                 m_sbCollectSignature.append(ConvertUtils.escapeTextNode(s));
-            if(m_digest != null && m_bCollectDigest)
-                updateDigest(s.getBytes());
-            if(m_altDigest != null && m_bCollectDigest)
-                updateAltDigest(s.getBytes());
+            if(m_bCollectDigest && (m_digest != null || m_altDigest != null)) {
+                byte[] data = s.getBytes();
+                if(m_digest != null)
+                    updateDigest(data);
+                if(m_altDigest != null)
+                    updateAltDigest(data);
+            }
             try {
-                if(m_dfCacheOutStream != null)
-                    m_dfCacheOutStream.write(ConvertUtils.str2data(s));
+                // <DataFile> body is written to memory or cache file chunk by chunk
+                if(m_dfBody != null)
+                    m_dfBody.writeText(s);
             } catch(DigiDocException ex) {
                 handleSAXError(ex);
             } catch(IOException ex) {
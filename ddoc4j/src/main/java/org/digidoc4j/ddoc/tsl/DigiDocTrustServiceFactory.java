@@ -15,9 +15,12 @@ import java.security.Principal;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
 
 /**
  * SAX implementation of TrustServiceFactory
@@ -32,6 +35,17 @@ public class DigiDocTrustServiceFactory
 	private static Logger m_logger = LoggerFactory.getLogger(DigiDocTrustServiceFactory.class);
 	/** TSL list */
 	private List m_tsls;
+	/** index of TSL certs, built on first lookup after changes */
+	private volatile TrustServiceIndex m_index;
+	/** max number of remembered issuer verification results */
+	private static final int MAX_VERIFIED_ISSUERS = 1024;
+	/** results of verifying certs with CA public keys, keyed by [cert, ca] */
+	private final Map<List<X509Certificate>, Boolean> m_verifiedIssuers = Collections.synchronizedMap(
+			new LinkedHashMap<List<X509Certificate>, Boolean>(16, 0.75f, true) {
+				protected boolean removeEldestEntry(Map.Entry<List<X509Certificate>, Boolean> eldest) {
+					return size() > MAX_VERIFIED_ISSUERS;
+				}
+			});
 	
 	
 	/** 
@@ -140,7 +154,7 @@ public class DigiDocTrustServiceFactory
 					}
 				}
 			}
-    		
+			m_index = new TrustServiceIndex(m_tsls);
     	} catch(DigiDocException ex) {
     		m_logger.error("Error init TrustServiceFactory dd: " + ex);
     		ex.printStackTrace();
@@ -178,6 +192,7 @@ public class DigiDocTrustServiceFactory
     {
     	TrustServiceStatusList tsl = findTslByType(SchemeInformation.TYPE_LOCAL);
     	if(tsl != null) {
+    		m_index = null;
     		TrustServiceProvider tsp = new TrustServiceProvider();
     		tsl.addTrustServiceProvider(tsp);
     		TSPInformation tsi = new TSPInformation();
@@ -204,6 +219,7 @@ public class DigiDocTrustServiceFactory
     	tsps.addName(new MultiLangString(null, ConvertUtils.getCommonName(cert.getSubjectDN().getName())));
     	tsps.setCn(ConvertUtils.getCommonName(cert.getSubjectDN().getName()));
     	tspProvider.addTSPService(tsps);
+    	m_index = null;
     	return tsps;
     }
     
@@ -228,6 +244,7 @@ public class DigiDocTrustServiceFactory
 		tsps.setCn(cn);
 		tsps.setCaCn(caCn);
 		tspProvider.addTSPService(tsps);
+		m_index = null;
 		return tsps;
     }
 			
@@ -270,103 +287,48 @@ public class DigiDocTrustServiceFactory
         return cert;
     }
     
-    private X509Certificate findCaForCertInTsl(TrustServiceStatusList tsl, X509Certificate cert, Date dtSigning)
-    {
-    	Principal caP = cert.getIssuerDN();
-    	String subDn = cert.getSubjectDN().getName();
-    	for(int j = 0; j < tsl.getNumProviders(); j++) {
-			TrustServiceProvider tsp = tsl.getTrustServiceProvider(j);
-			for(int l = 0; l < tsp.getNumServices(); l++) {
-			  TSPService tsps = tsp.getTSPService(l);
-			  if(tsps.isCA()) {
-			  for(int m = 0; m < tsps.getNumCertificates(); m++) {
-				  X509Certificate c2 = tsps.getCertificate(m);
-				  if(c2 != null) {
-				  Principal c2p = c2.getSubjectDN();
-				  String ca2Dn = c2.getSubjectDN().getName();
-				  if(c2p.equals(caP) &&
-					((dtSigning == null) ||
-					(dtSigning != null && dtSigning.after(c2.getNotBefore()) && dtSigning.before(c2.getNotAfter())))) {
-					  if(m_logger.isDebugEnabled())
-							m_logger.debug("Found matching CA dn: " + ca2Dn);
-				    try {
-				      cert.verify(c2.getPublicKey());
-				      if(m_logger.isDebugEnabled())
-						  m_logger.debug("CA: " + ca2Dn + " IS issuer of: " + subDn + " serial: " + c2.getSerialNumber().toString());
-				      return c2;
-				    } catch(Exception ex) {
-				    	if(m_logger.isDebugEnabled())
-						  m_logger.debug("CA: " + ca2Dn + " IS NOT issuer of: " + subDn);
-				    }
-				  }
-			  } // if c2
-			  } // for
-			  } // if isCA
-			}
-    	}
-		return null;
-    }
-    
-    private X509Certificate findOcspInTsl(TrustServiceStatusList tsl, String cn)
+    /**
+     * Returns the index of TSL certs, builds it if TSL-s have been
+     * changed. Certs added directly to a TSPService after the first
+     * lookup are not indexed.
+     * @return index
+     */
+    private TrustServiceIndex getIndex()
     {
-    	if(m_logger.isDebugEnabled())
-			m_logger.debug("Search OCSP by cn: " + cn);
-    	for(int j = 0; j < tsl.getNumProviders(); j++) {
-			TrustServiceProvider tsp = tsl.getTrustServiceProvider(j);
-			if(m_logger.isDebugEnabled())
-    			m_logger.debug("TSP: " + tsp.getTSPInformation().getName(0));
-			for(int l = 0; l < tsp.getNumServices(); l++) {
-			  TSPService tsps = tsp.getTSPService(l);
-			  if(m_logger.isDebugEnabled())
-	    			m_logger.debug("Service: " + tsps.getCn() + " ocsp: " + tsps.isOCSP() + " CA: " + tsps.isCA());
-			  if(tsps.isOCSP() && tsps.getCn() != null && tsps.getCn().equalsIgnoreCase(cn)) {
-				  if(m_logger.isDebugEnabled())
-						m_logger.debug("Found OCSP: " + cn);
-				  return tsps.getCertificate(0);
-			  }
-			}
+    	TrustServiceIndex index = m_index;
+    	if(index == null) {
+    		synchronized(this) {
+    			index = m_index;
+    			if(index == null)
+    				m_index = index = new TrustServiceIndex(m_tsls);
+    		}
     	}
-    	if(m_logger.isDebugEnabled())
-			m_logger.debug("Did not find ocsp for: " + cn);
-		return null;
+    	return index;
     }
-    
-    private X509Certificate[] findOcspsInTsl(TrustServiceStatusList tsl, String cn, String serialNr)
+
+    /**
+     * Checks if cert has been signed with the key of ca cert.
+     * Results are remembered for recently used certs.
+     * @param cert user cert
+     * @param ca ca cert
+     * @return true if ca is the issuer of cert
+     */
+    private boolean isIssuedBy(X509Certificate cert, X509Certificate ca)
     {
-    	X509Certificate[] lcert = null;
-    	Vector vec = new Vector();
-    	if(m_logger.isDebugEnabled())
-			m_logger.debug("Search OCSP by cn: " + cn + " serial: " + serialNr);
-    	for(int j = 0; j < tsl.getNumProviders(); j++) {
-			TrustServiceProvider tsp = tsl.getTrustServiceProvider(j);
-			if(m_logger.isDebugEnabled())
-    			m_logger.debug("TSP: " + tsp.getTSPInformation().getName(0));
-			for(int l = 0; l < tsp.getNumServices(); l++) {
-			  TSPService tsps = tsp.getTSPService(l);
-			  if(m_logger.isDebugEnabled())
-	    			m_logger.debug("Service: " + tsps.getCn() + " ocsp: " + tsps.isOCSP() + " CA: " + tsps.isCA());
-			  if(tsps.isOCSP() && tsps.getCn() != null && tsps.getCn().equalsIgnoreCase(cn)) {
-				  if(m_logger.isDebugEnabled())
-						m_logger.debug("Found OCSP: " + cn);
-				  for(int m = 0; m < tsps.getNumCertificates(); m++) {
-					  X509Certificate cert = tsps.getCertificate(m);
-					  if(serialNr == null || (serialNr != null && serialNr.equals(cert.getSerialNumber().toString()))) {
-						  if(m_logger.isDebugEnabled() && cert != null)
-								m_logger.debug("Found cert: " + cert.getSubjectDN().toString() + " serial: " + cert.getSerialNumber().toString());
-						  vec.add(cert);
-					  }
-				  }
-			  }
-			}
+    	List<X509Certificate> key = Arrays.asList(cert, ca);
+    	Boolean bIssued = m_verifiedIssuers.get(key);
+    	if(bIssued == null) {
+    		try {
+    			cert.verify(ca.getPublicKey());
+    			bIssued = Boolean.TRUE;
+    		} catch(Exception ex) {
+    			bIssued = Boolean.FALSE;
+    		}
+    		m_verifiedIssuers.put(key, bIssued);
     	}
-    	if(m_logger.isDebugEnabled())
-			m_logger.debug("Found: " + vec.size() + " certs for: " + cn);
-    	lcert = new X509Certificate[vec.size()];
-    	for(int j = 0; j < vec.size(); j++)
-    		lcert[j] = (X509Certificate)vec.elementAt(j);
-		return lcert;
+    	return bIssued.booleanValue();
     }
-    
+
     /**
      * Finds direct CA cert for given user cert
      * @param cert user cert
@@ -389,16 +351,28 @@ public class DigiDocTrustServiceFactory
     public X509Certificate findCaForCert(X509Certificate cert, boolean bUseLocal, Date dtSigning) 
     {
     	Principal caP = cert.getIssuerDN();
-    	String caDn = cert.getIssuerDN().getName();
+    	String subDn = cert.getSubjectDN().getName();
     	if(m_logger.isDebugEnabled())
-			m_logger.debug("Search CA: " + caDn);
-    	// find in TSL files at first
-    	for(int i = 0; (m_tsls != null) && (i < m_tsls.size()); i++) {
-    		TrustServiceStatusList tsl = (TrustServiceStatusList)m_tsls.get(i);
-    		if((tsl.isLocal() && bUseLocal) || !tsl.isLocal()) {
-    			X509Certificate ca = findCaForCertInTsl(tsl, cert, dtSigning);
-    			if(ca != null)
-    				return ca;
+			m_logger.debug("Search CA: " + caP.getName());
+    	// candidates are in the order of TSL files
+    	List<TrustServiceIndex.CaCert> cas = getIndex().findCaCandidates(cert);
+    	for(int i = 0; i < cas.size(); i++) {
+    		TrustServiceIndex.CaCert ca = cas.get(i);
+    		if((ca.isLocal() && !bUseLocal) || !ca.getCert().getSubjectDN().equals(caP))
+    			continue;
+    		X509Certificate c2 = ca.getCert();
+    		if((dtSigning == null) ||
+    			(dtSigning.after(c2.getNotBefore()) && dtSigning.before(c2.getNotAfter()))) {
+    			String ca2Dn = c2.getSubjectDN().getName();
+    			if(m_logger.isDebugEnabled())
+    				m_logger.debug("Found matching CA dn: " + ca2Dn);
+    			if(isIssuedBy(cert, c2)) {
+    				if(m_logger.isDebugEnabled())
+    					m_logger.debug("CA: " + ca2Dn + " IS issuer of: " + subDn + " serial: " + c2.getSerialNumber().toString());
+    				return c2;
+    			}
+    			if(m_logger.isDebugEnabled())
+    				m_logger.debug("CA: " + ca2Dn + " IS NOT issuer of: " + subDn);
     		}
     	}
     	return null;
@@ -413,20 +387,12 @@ public class DigiDocTrustServiceFactory
      */
     public X509Certificate[] findOcspsByCNAndNr(String cn, boolean bUseLocal, String serialNr) 
     {
-    	X509Certificate[] lcert = null;
     	if(m_logger.isDebugEnabled())
 			m_logger.debug("Search OCSP: " + cn + " use-local: " + bUseLocal + " serial: " + serialNr);
-    	// find in TSL files at first
-    	for(int i = 0; (m_tsls != null) && (lcert == null) && (i < m_tsls.size()); i++) {
-    		TrustServiceStatusList tsl = (TrustServiceStatusList)m_tsls.get(i);
-    		if(m_logger.isDebugEnabled())
-    			m_logger.debug("TSL: " + tsl.getSchemeInformation().getSchemeName(0) + " local: " + tsl.isLocal());
-    		if((tsl.isLocal() && bUseLocal) || !tsl.isLocal()) {
-    			// TODO: find certs
-    			lcert = findOcspsInTsl(tsl, cn, serialNr);
-    			X509Certificate cert = findOcspInTsl(tsl, cn);
-    		}
-    	}
+    	// certs of the first TSL file that may be used
+    	X509Certificate[] lcert = getIndex().findOcsps(cn, bUseLocal, serialNr);
+    	if(m_logger.isDebugEnabled())
+			m_logger.debug("Found: " + ((lcert != null) ? lcert.length : 0) + " certs for: " + cn);
     	return lcert;
     }
 
@@ -0,0 +1,153 @@
+package org.digidoc4j.ddoc.tsl;
+
+import javax.security.auth.x500.X500Principal;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the CA and OCSP responder certificates of
+ * the trust service status lists. Built once from the lists
+ * so that lookups don't have to scan all providers and services.
+ * Certificates are kept in the order of the lists, providers
+ * and services, so that lookups return the same certificate
+ * as a scan would.
+ */
+class TrustServiceIndex {
+
+    /** CA certs by subject */
+    private final Map<X500Principal, List<CaCert>> m_casBySubject;
+    /** OCSP responder certs by responder CN, one map per TSL */
+    private final List<Map<String, List<X509Certificate>>> m_ocspsByCn;
+    /** local flags of the TSL-s */
+    private final boolean[] m_tslLocal;
+
+    /**
+     * CA certificate and the locality of its TSL
+     */
+    static class CaCert {
+        private final X509Certificate m_cert;
+        private final boolean m_bLocal;
+
+        CaCert(X509Certificate cert, boolean bLocal)
+        {
+            m_cert = cert;
+            m_bLocal = bLocal;
+        }
+
+        X509Certificate getCert()
+        {
+            return m_cert;
+        }
+
+        boolean isLocal()
+        {
+            return m_bLocal;
+        }
+    }
+
+    /**
+     * Builds the index
+     * @param tsls list of TrustServiceStatusList objects
+     */
+    TrustServiceIndex(List tsls)
+    {
+        m_casBySubject = new HashMap<>();
+        m_ocspsByCn = new ArrayList<>();
+        m_tslLocal = new boolean[(tsls != null) ? tsls.size() : 0];
+        for(int i = 0; i < m_tslLocal.length; i++) {
+            TrustServiceStatusList tsl = (TrustServiceStatusList)tsls.get(i);
+            m_tslLocal[i] = tsl.isLocal();
+            Map<String, List<X509Certificate>> ocsps = new HashMap<>();
+            for(int j = 0; j < tsl.getNumProviders(); j++) {
+                TrustServiceProvider tsp = tsl.getTrustServiceProvider(j);
+                for(int l = 0; l < tsp.getNumServices(); l++) {
+                    TSPService tsps = tsp.getTSPService(l);
+                    if(tsps.isCA())
+                        addCaCerts(tsps, m_tslLocal[i]);
+                    if(tsps.isOCSP() && tsps.getCn() != null)
+                        addOcspCerts(ocsps, tsps);
+                }
+            }
+            m_ocspsByCn.add(ocsps);
+        }
+    }
+
+    private void addCaCerts(TSPService tsps, boolean bLocal)
+    {
+        for(int m = 0; m < tsps.getNumCertificates(); m++) {
+            X509Certificate cert = tsps.getCertificate(m);
+            if(cert != null) {
+                List<CaCert> certs = m_casBySubject.get(cert.getSubjectX500Principal());
+                if(certs == null) {
+                    certs = new ArrayList<>();
+                    m_casBySubject.put(cert.getSubjectX500Principal(), certs);
+                }
+                certs.add(new CaCert(cert, bLocal));
+            }
+        }
+    }
+
+    private static void addOcspCerts(Map<String, List<X509Certificate>> ocsps, TSPService tsps)
+    {
+        String key = cnKey(tsps.getCn());
+        List<X509Certificate> certs = ocsps.get(key);
+        if(certs == null) {
+            certs = new ArrayList<>();
+            ocsps.put(key, certs);
+        }
+        for(int m = 0; m < tsps.getNumCertificates(); m++)
+            certs.add(tsps.getCertificate(m));
+    }
+
+    /**
+     * Returns CA certs whose subject is the issuer of given cert
+     * @param cert user cert
+     * @return CA certs in the order of TSL-s
+     */
+    List<CaCert> findCaCandidates(X509Certificate cert)
+    {
+        List<CaCert> certs = m_casBySubject.get(cert.getIssuerX500Principal());
+        return (certs != null) ? certs : Collections.<CaCert>emptyList();
+    }
+
+    /**
+     * Finds OCSP responder certs in the first TSL that may be used
+     * @param cn OCSP responder-id
+     * @param bUseLocal use also certs registered in local config file
+     * @param serialNr serial number or NULL
+     * @return OCSP certs or null if no TSL may be used
+     */
+    X509Certificate[] findOcsps(String cn, boolean bUseLocal, String serialNr)
+    {
+        for(int i = 0; i < m_tslLocal.length; i++) {
+            if((m_tslLocal[i] && bUseLocal) || !m_tslLocal[i]) {
+                List<X509Certificate> certs = (cn != null) ? m_ocspsByCn.get(i).get(cnKey(cn)) : null;
+                List<X509Certificate> found = new ArrayList<>();
+                for(int j = 0; (certs != null) && (j < certs.size()); j++) {
+                    X509Certificate cert = certs.get(j);
+                    if(serialNr == null || serialNr.equals(cert.getSerialNumber().toString()))
+                        found.add(cert);
+                }
+                return found.toArray(new X509Certificate[found.size()]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a key that is equal for two CN-s
+     * exactly when String.equalsIgnoreCase() is true for them
+     */
+    private static String cnKey(String cn)
+    {
+        char[] chars = new char[cn.length()];
+        for(int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(Character.toUpperCase(cn.charAt(i)));
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,169 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import eu.europa.esig.dss.spi.DSSUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.DigestAlgorithm;
+import org.digidoc4j.SignatureToken;
+import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Files and configuration shared by the benchmarks.
+ * <p/>
+ * The benchmarks run offline: the TSL consists of the local certificates of the benchmarked containers and the
+ * containers are signed without OCSP and timestamp requests.
+ */
+final class BenchmarkResources {
+
+  static final String TIMESTAMP_CONTAINER = "prodFiles/valid-containers/IB-4183_3.4kaart_RSA2047_TS.asice";
+  static final String DDOC_CONTAINER = "testFiles/valid-containers/ddoc_for_testing.ddoc";
+  private static final String[] TRUSTED_CERTIFICATES = {"prodFiles/certs/ESTEID-SK_2011.pem.crt",
+      "prodFiles/certs/SK_OCSP_RESPONDER_2011.pem.cer", "prodFiles/certs/SK_TSA.pem.crt"};
+
+  private BenchmarkResources() {
+  }
+
+  /**
+   * @return configuration with a local TSL that does not download anything
+   */
+  static Configuration createOfflineConfiguration() {
+    Configuration configuration = new Configuration(Configuration.Mode.PROD);
+    configuration.setAllowASN1UnsafeInteger(true);
+    TSLCertificateSourceImpl tsl = new TSLCertificateSourceImpl();
+    for (String certificate : TRUSTED_CERTIFICATES) {
+      try (InputStream stream = openResource(certificate)) {
+        tsl.addTSLCertificate(DSSUtils.loadCertificate(stream).getCertificate());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    configuration.setTSL(tsl);
+    return configuration;
+  }
+
+  static Path createDirectory() {
+    try {
+      return Files.createTempDirectory("digidoc4j-benchmark");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static void deleteDirectory(Path directory) {
+    if (directory != null) {
+      FileUtils.deleteQuietly(directory.toFile());
+    }
+  }
+
+  /**
+   * @param resource  benchmark resource
+   * @param directory directory to copy the resource to
+   * @return copy of the resource
+   */
+  static Path copyResource(String resource, Path directory) {
+    Path file = directory.resolve(resource.substring(resource.lastIndexOf('/') + 1));
+    try (InputStream stream = openResource(resource)) {
+      Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return file;
+  }
+
+  static byte[] readResource(String resource) {
+    try (InputStream stream = openResource(resource)) {
+      return IOUtils.toByteArray(stream);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * The signing certificates of the test tokens expire, so the benchmarks sign with a new self-signed certificate.
+   *
+   * @return signature token with a self-signed certificate valid for a day
+   */
+  static SignatureToken createSignatureToken() {
+    try {
+      KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+      keyPairGenerator.initialize(2048);
+      KeyPair keyPair = keyPairGenerator.generateKeyPair();
+      X500Name subject = new X500Name("CN=DigiDoc4J benchmark, C=EE");
+      long now = System.currentTimeMillis();
+      X509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(subject,
+          BigInteger.valueOf(now), new Date(now - TimeUnit.HOURS.toMillis(1)),
+          new Date(now + TimeUnit.DAYS.toMillis(1)), subject, keyPair.getPublic());
+      certificateBuilder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.nonRepudiation));
+      ContentSigner contentSigner = new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate());
+      X509Certificate certificate = new JcaX509CertificateConverter()
+          .getCertificate(certificateBuilder.build(contentSigner));
+      return new SignatureToken() {
+
+        @Override
+        public X509Certificate getCertificate() {
+          return certificate;
+        }
+
+        @Override
+        public byte[] sign(DigestAlgorithm digestAlgorithm, byte[] dataToSign) {
+          try {
+            Signature signature = Signature.getInstance(digestAlgorithm.name() + "withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(dataToSign);
+            return signature.sign();
+          } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+
+      };
+    } catch (GeneralSecurityException | OperatorCreationException | CertIOException e) {
+      throw new IllegalStateException("Unable to create the benchmark signature token", e);
+    }
+  }
+
+  private static InputStream openResource(String resource) throws IOException {
+    InputStream stream = BenchmarkResources.class.getClassLoader().getResourceAsStream(resource);
+    if (stream == null) {
+      throw new IOException("Benchmark resource not found: " + resource);
+    }
+    return stream;
+  }
+
+}
@@ -0,0 +1,70 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening an existing container with {@link ContainerBuilder#fromExistingFile(String)}.
+ * <p/>
+ * The large container is benchmarked only when asked for with <code>-p containerSize=LARGE</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContainerOpenBenchmark {
+
+  @Param({"SMALL", "MANY_FILES"})
+  public ContainerSize containerSize;
+
+  private Configuration configuration;
+  private Path directory;
+  private String containerPath;
+
+  @Setup(Level.Trial)
+  public void createContainer() {
+    configuration = BenchmarkResources.createOfflineConfiguration();
+    directory = BenchmarkResources.createDirectory();
+    containerPath = containerSize.createContainer(directory, configuration).toString();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteContainer() {
+    BenchmarkResources.deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public Container openContainer() {
+    return ContainerBuilder.aContainer().withConfiguration(configuration).fromExistingFile(containerPath).build();
+  }
+
+}
@@ -0,0 +1,73 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving an opened container with {@link Container#save(java.io.OutputStream)}. The container is written to a
+ * stream that discards the bytes, so only the serialization of the container is measured.
+ * <p/>
+ * The large container is benchmarked only when asked for with <code>-p containerSize=LARGE</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContainerSaveBenchmark {
+
+  @Param({"SMALL", "MANY_FILES"})
+  public ContainerSize containerSize;
+
+  private Path directory;
+  private Container container;
+
+  @Setup(Level.Trial)
+  public void openContainer() {
+    Configuration configuration = BenchmarkResources.createOfflineConfiguration();
+    directory = BenchmarkResources.createDirectory();
+    Path containerPath = containerSize.createContainer(directory, configuration);
+    container = ContainerBuilder.aContainer().withConfiguration(configuration)
+        .fromExistingFile(containerPath.toString()).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteContainer() {
+    BenchmarkResources.deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public void saveContainer() {
+    container.save(NullOutputStream.NULL_OUTPUT_STREAM);
+  }
+
+}
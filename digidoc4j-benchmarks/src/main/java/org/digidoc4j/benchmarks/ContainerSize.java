@@ -0,0 +1,100 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.DataFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Unsigned ASiC-E containers of different shapes.
+ * <p/>
+ * The size of the {@link #LARGE} container is set with the system property
+ * <code>digidoc4j.benchmark.largeContainerSize</code> in bytes and defaults to 2 GiB.
+ */
+public enum ContainerSize {
+
+  SMALL(1, 1024),
+  MANY_FILES(1000, 1024),
+  LARGE(1, Long.getLong("digidoc4j.benchmark.largeContainerSize", 2L * 1024 * 1024 * 1024));
+
+  private static final int IN_MEMORY_DATA_FILE_LIMIT = 1024 * 1024;
+  private static final String MIME_TYPE = "application/octet-stream";
+  private final int dataFileCount;
+  private final long dataFileSize;
+
+  ContainerSize(int dataFileCount, long dataFileSize) {
+    this.dataFileCount = dataFileCount;
+    this.dataFileSize = dataFileSize;
+  }
+
+  /**
+   * @param directory     directory of the container and its data files
+   * @param configuration configuration
+   * @return path of the saved container
+   */
+  Path createContainer(Path directory, Configuration configuration) {
+    ContainerBuilder builder = ContainerBuilder.aContainer(Container.DocumentType.ASICE)
+        .withConfiguration(configuration);
+    for (int i = 0; i < dataFileCount; i++) {
+      String fileName = "data-file-" + i + ".bin";
+      if (dataFileSize > IN_MEMORY_DATA_FILE_LIMIT) {
+        Path dataFile = writeDataFile(directory.resolve(fileName), dataFileSize, i);
+        builder.withDataFile(dataFile.toString(), MIME_TYPE);
+      } else {
+        builder.withDataFile(new DataFile(createData((int) dataFileSize, i), fileName, MIME_TYPE));
+      }
+    }
+    Path container = directory.resolve(name().toLowerCase() + ".asice");
+    builder.build().saveAsFile(container.toString());
+    return container;
+  }
+
+  /**
+   * @param size size of the data
+   * @param seed seed of the random data
+   * @return incompressible data
+   */
+  static byte[] createData(int size, long seed) {
+    byte[] data = new byte[size];
+    new Random(seed).nextBytes(data);
+    return data;
+  }
+
+  /**
+   * Writes incompressible data to a file without holding all the data in memory.
+   *
+   * @param file file to write
+   * @param size size of the file
+   * @param seed seed of the random data
+   * @return the file
+   */
+  static Path writeDataFile(Path file, long size, long seed) {
+    byte[] block = createData(IN_MEMORY_DATA_FILE_LIMIT, seed);
+    try (OutputStream stream = Files.newOutputStream(file)) {
+      for (long written = 0; written < size; written += block.length) {
+        stream.write(block, 0, (int) Math.min(block.length, size - written));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return file;
+  }
+
+}
@@ -0,0 +1,83 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.ddoc.DigiDocException;
+import org.digidoc4j.ddoc.c14n.TinyXMLCanonicalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canonicalization of the SignedInfo and SignedProperties elements of a DDOC signature with
+ * {@link TinyXMLCanonicalizer}, as done for every signature when a DDOC container is verified. The elements are
+ * benchmarked with the line breaks of the container and with CR LF line breaks that have to be normalized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DDocCanonicalizationBenchmark {
+
+  @Param({"LF", "CRLF"})
+  public String lineBreaks;
+
+  private byte[] signedInfo;
+  private byte[] signedProperties;
+  private TinyXMLCanonicalizer canonicalizer;
+
+  @Setup(Level.Trial)
+  public void readElements() {
+    String container = new String(BenchmarkResources.readResource(BenchmarkResources.DDOC_CONTAINER),
+        StandardCharsets.UTF_8);
+    signedInfo = extractElement(container, "SignedInfo");
+    signedProperties = extractElement(container, "SignedProperties");
+    canonicalizer = new TinyXMLCanonicalizer();
+  }
+
+  @Benchmark
+  public byte[] canonicalizeSignedInfo() throws DigiDocException {
+    return canonicalizer.canonicalize(signedInfo, null);
+  }
+
+  @Benchmark
+  public byte[] canonicalizeSignedProperties() throws DigiDocException {
+    return canonicalizer.canonicalize(signedProperties, null);
+  }
+
+  private byte[] extractElement(String container, String name) {
+    int start = container.indexOf("<" + name);
+    int end = container.indexOf("</" + name + ">", start);
+    if (start < 0 || end < 0) {
+      throw new IllegalStateException(name + " not found in " + BenchmarkResources.DDOC_CONTAINER);
+    }
+    String element = container.substring(start, end + name.length() + 3);
+    if ("CRLF".equals(lineBreaks)) {
+      element = element.replace("\r\n", "\n").replace("\n", "\r\n");
+    }
+    return element.getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,60 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.ddoc.DigiDocException;
+import org.digidoc4j.ddoc.SignedDoc;
+import org.digidoc4j.ddoc.factory.SAXDigiDocFactory;
+import org.digidoc4j.impl.ddoc.ConfigManagerInitializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a DDOC container with {@link SAXDigiDocFactory}. The DDOC configuration is initialized the same way as
+ * when a DDOC container is opened with DigiDoc4J.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DDocReadBenchmark {
+
+  private byte[] container;
+
+  @Setup(Level.Trial)
+  public void readContainer() {
+    new ConfigManagerInitializer().initConfigManager(BenchmarkResources.createOfflineConfiguration());
+    container = BenchmarkResources.readResource(BenchmarkResources.DDOC_CONTAINER);
+  }
+
+  @Benchmark
+  public SignedDoc readSignedDoc() throws DigiDocException {
+    List<DigiDocException> errors = new ArrayList<>();
+    return new SAXDigiDocFactory().readSignedDocFromStream(new ByteArrayInputStream(container), errors);
+  }
+
+}
@@ -0,0 +1,75 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.DataFile;
+import org.digidoc4j.DigestAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculating the digest of a data file with {@link DataFile#calculateDigest(DigestAlgorithm)}. A data file keeps
+ * its digest, so every invocation creates a new data file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DataFileDigestBenchmark {
+
+  private static final String MIME_TYPE = "application/octet-stream";
+
+  @Param({"1024", "1048576", "104857600"})
+  public int dataFileSize;
+
+  private Path directory;
+  private Path dataFilePath;
+  private byte[] data;
+
+  @Setup(Level.Trial)
+  public void createDataFile() {
+    directory = BenchmarkResources.createDirectory();
+    data = ContainerSize.createData(dataFileSize, dataFileSize);
+    dataFilePath = ContainerSize.writeDataFile(directory.resolve("data-file.bin"), dataFileSize, dataFileSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDataFile() {
+    BenchmarkResources.deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public byte[] calculateDigestOfFile() {
+    return new DataFile(dataFilePath.toString(), MIME_TYPE).calculateDigest(DigestAlgorithm.SHA256);
+  }
+
+  @Benchmark
+  public byte[] calculateDigestInMemory() {
+    return new DataFile(data, "data-file.bin", MIME_TYPE).calculateDigest(DigestAlgorithm.SHA256);
+  }
+
+}
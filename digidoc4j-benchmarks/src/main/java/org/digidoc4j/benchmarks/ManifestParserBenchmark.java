@@ -0,0 +1,68 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import eu.europa.esig.dss.model.InMemoryDocument;
+import org.digidoc4j.DataFile;
+import org.digidoc4j.impl.asic.manifest.AsicManifest;
+import org.digidoc4j.impl.asic.manifest.ManifestEntry;
+import org.digidoc4j.impl.asic.manifest.ManifestParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the file entries of a manifest with {@link ManifestParser#getManifestFileItems()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ManifestParserBenchmark {
+
+  @Param({"1", "1000", "10000"})
+  public int entryCount;
+
+  private byte[] manifest;
+
+  @Setup(Level.Trial)
+  public void createManifest() {
+    List<DataFile> dataFiles = new ArrayList<>(entryCount);
+    for (int i = 0; i < entryCount; i++) {
+      dataFiles.add(new DataFile(new byte[]{1}, "data-file-" + i + ".txt", "text/plain"));
+    }
+    AsicManifest asicManifest = new AsicManifest();
+    asicManifest.addFileEntry(dataFiles);
+    manifest = asicManifest.getBytes();
+  }
+
+  @Benchmark
+  public Map<String, ManifestEntry> parseManifest() {
+    return new ManifestParser(new InMemoryDocument(manifest, "META-INF/manifest.xml")).getManifestFileItems();
+  }
+
+}
@@ -0,0 +1,66 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.DataFile;
+import org.digidoc4j.Signature;
+import org.digidoc4j.SignatureBuilder;
+import org.digidoc4j.SignatureProfile;
+import org.digidoc4j.SignatureToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing a new container. The signature has the B_BES profile, so signing does not make OCSP or timestamp
+ * requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SignatureBenchmark {
+
+  private Configuration configuration;
+  private SignatureToken signatureToken;
+  private byte[] data;
+
+  @Setup(Level.Trial)
+  public void createSignatureToken() {
+    configuration = BenchmarkResources.createOfflineConfiguration();
+    signatureToken = BenchmarkResources.createSignatureToken();
+    data = ContainerSize.createData(1024, 0);
+  }
+
+  @Benchmark
+  public Signature signContainer() {
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration)
+        .withDataFile(new DataFile(data, "data-file.bin", "application/octet-stream")).build();
+    return SignatureBuilder.aSignature(container).withSignatureToken(signatureToken)
+        .withSignatureProfile(SignatureProfile.B_BES).invokeSigning();
+  }
+
+}
@@ -0,0 +1,74 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.impl.asic.AsicFileContainerParser;
+import org.digidoc4j.impl.asic.AsicParseResult;
+import org.digidoc4j.impl.asic.AsicSignatureParser;
+import org.digidoc4j.impl.asic.xades.XadesSignature;
+import org.digidoc4j.impl.asic.xades.XadesSignatureParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a XAdES signature of an ASiC-E container with {@link AsicSignatureParser}, which builds the DSS signature
+ * and selects the signature type with {@link XadesSignatureParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SignatureParserBenchmark {
+
+  private Configuration configuration;
+  private Path directory;
+  private List<DSSDocument> detachedContents;
+  private DSSDocument signatureDocument;
+
+  @Setup(Level.Trial)
+  public void readContainer() {
+    configuration = BenchmarkResources.createOfflineConfiguration();
+    directory = BenchmarkResources.createDirectory();
+    Path container = BenchmarkResources.copyResource(BenchmarkResources.TIMESTAMP_CONTAINER, directory);
+    AsicParseResult parseResult = new AsicFileContainerParser(container.toString(), configuration).read();
+    detachedContents = parseResult.getDetachedContents();
+    signatureDocument = parseResult.getSignatures().get(0).getSignatureDocument();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteContainer() {
+    BenchmarkResources.deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public XadesSignature parseSignature() {
+    return new AsicSignatureParser(detachedContents, configuration).parse(signatureDocument);
+  }
+
+}
@@ -0,0 +1,84 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.DataFile;
+import org.digidoc4j.Signature;
+import org.digidoc4j.SignatureBuilder;
+import org.digidoc4j.SignatureProfile;
+import org.digidoc4j.SignatureToken;
+import org.digidoc4j.testsupport.TrustService;
+import org.digidoc4j.testsupport.TrustServiceStub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing a new container with the LT profile against the local trust service stub, so every signature makes an OCSP
+ * and a timestamp request. The latency of both services is set with {@code -p serviceLatency=<milliseconds>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TimestampSignatureBenchmark {
+
+  @Param({"0"})
+  public long serviceLatency;
+
+  private TrustServiceStub trustServiceStub;
+  private Configuration configuration;
+  private SignatureToken signatureToken;
+  private byte[] data;
+
+  @Setup(Level.Trial)
+  public void startTrustServiceStub() {
+    trustServiceStub = TrustServiceStub.aTrustServiceStub()
+        .withLatency(TrustService.OCSP, serviceLatency, TimeUnit.MILLISECONDS)
+        .withLatency(TrustService.TSA, serviceLatency, TimeUnit.MILLISECONDS)
+        .start();
+    configuration = trustServiceStub.createConfiguration();
+    signatureToken = trustServiceStub.getPki().createSignatureToken("DigiDoc4J benchmark");
+    data = ContainerSize.createData(1024, 0);
+    configuration.getTSL().refresh();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopTrustServiceStub() {
+    trustServiceStub.close();
+  }
+
+  @Benchmark
+  public Signature signContainer() {
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration)
+        .withDataFile(new DataFile(data, "data-file.bin", "application/octet-stream")).build();
+    return SignatureBuilder.aSignature(container).withSignatureToken(signatureToken)
+        .withSignatureProfile(SignatureProfile.LT).invokeSigning();
+  }
+
+}
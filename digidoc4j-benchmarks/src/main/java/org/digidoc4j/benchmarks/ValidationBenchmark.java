@@ -0,0 +1,61 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.benchmarks;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.ContainerValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline validation of a timestamped ASiC-E container against a local TSL. The OCSP response and the timestamp are
+ * embedded in the signature, so the validation does not make any requests.
+ * <p/>
+ * The validation result of a signature is kept by the signature, so every invocation opens the container again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ValidationBenchmark {
+
+  private Configuration configuration;
+  private byte[] container;
+
+  @Setup(Level.Trial)
+  public void loadTsl() {
+    configuration = BenchmarkResources.createOfflineConfiguration();
+    configuration.getTSL().getNumberOfCertificates();
+    container = BenchmarkResources.readResource(BenchmarkResources.TIMESTAMP_CONTAINER);
+  }
+
+  @Benchmark
+  public ContainerValidationResult validateContainer() {
+    return ContainerBuilder.aContainer().withConfiguration(configuration)
+        .fromStream(new ByteArrayInputStream(container)).build().validate();
+  }
+
+}
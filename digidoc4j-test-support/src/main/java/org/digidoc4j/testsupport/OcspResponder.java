@@ -0,0 +1,99 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.IOException;
+import java.security.cert.CertificateEncodingException;
+import java.util.Date;
+
+/**
+ * OCSP responder answering for the certificates of the test CA.
+ * <p/>
+ * Certificates revoked in the {@link TestPki} are reported as revoked, all the others as good. The nonce of the
+ * request is echoed back in the response.
+ */
+class OcspResponder {
+
+  private final TestPki pki;
+  private final RespID responderId;
+  private final X509CertificateHolder[] responderChain;
+
+  OcspResponder(TestPki pki) {
+    this.pki = pki;
+    try {
+      X509CertificateHolder responderCertificate = new JcaX509CertificateHolder(pki.getOcspCertificate());
+      this.responderId = new RespID(responderCertificate.getSubject());
+      this.responderChain = new X509CertificateHolder[]{responderCertificate};
+    } catch (CertificateEncodingException e) {
+      throw new IllegalStateException("Unable to encode OCSP responder certificate", e);
+    }
+  }
+
+  byte[] respond(byte[] request) throws IOException {
+    OCSPReq ocspRequest;
+    try {
+      ocspRequest = new OCSPReq(request);
+    } catch (IOException e) {
+      return createErrorResponse(OCSPResp.MALFORMED_REQUEST);
+    }
+    try {
+      Date now = new Date();
+      BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(this.responderId);
+      for (Req singleRequest : ocspRequest.getRequestList()) {
+        builder.addResponse(singleRequest.getCertID(), getStatus(singleRequest));
+      }
+      Extension nonce = ocspRequest.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+      if (nonce != null) {
+        builder.setResponseExtensions(new Extensions(nonce));
+      }
+      ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(this.pki.getOcspKey());
+      return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL,
+          builder.build(signer, this.responderChain, now)).getEncoded();
+    } catch (OCSPException | OperatorCreationException e) {
+      return createErrorResponse(OCSPResp.INTERNAL_ERROR);
+    }
+  }
+
+  private CertificateStatus getStatus(Req request) {
+    if (this.pki.isRevoked(request.getCertID().getSerialNumber())) {
+      return new RevokedStatus(new Date(), CRLReason.keyCompromise);
+    }
+    return CertificateStatus.GOOD;
+  }
+
+  private static byte[] createErrorResponse(int status) throws IOException {
+    try {
+      return new OCSPRespBuilder().build(status, null).getEncoded();
+    } catch (OCSPException e) {
+      throw new IOException("Unable to build OCSP error response", e);
+    }
+  }
+
+}
@@ -0,0 +1,237 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.asn1.x509.qualified.ETSIQCObjectIdentifiers;
+import org.bouncycastle.asn1.x509.qualified.QCStatement;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.digidoc4j.DigestAlgorithm;
+import org.digidoc4j.SignatureToken;
+import org.digidoc4j.exceptions.TechnicalException;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generated test PKI of the trust service stub.
+ * <p/>
+ * The PKI consists of a certification authority that issues the signer, OCSP responder and time-stamping authority
+ * certificates, and of a self-signed trusted list signer. Certificates are valid from an hour before the PKI is created
+ * until the configured validity ends.
+ */
+public final class TestPki {
+
+  private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+  private static final int KEY_SIZE = 2048;
+
+  private final AtomicLong serialNumbers = new AtomicLong(System.currentTimeMillis());
+  private final Set<BigInteger> revokedSerialNumbers = ConcurrentHashMap.newKeySet();
+  private final Date notBefore;
+  private final Date notAfter;
+  private final KeyPair caKeyPair;
+  private final X509Certificate caCertificate;
+  private final KeyPair ocspKeyPair;
+  private final X509Certificate ocspCertificate;
+  private final KeyPair tsaKeyPair;
+  private final X509Certificate tsaCertificate;
+  private final KeyPair tslSignerKeyPair;
+  private final X509Certificate tslSignerCertificate;
+
+  /**
+   * Generates a PKI with certificates valid for the given number of days.
+   *
+   * @param validityInDays validity of the generated certificates
+   */
+  public TestPki(int validityInDays) {
+    long now = System.currentTimeMillis();
+    this.notBefore = new Date(now - TimeUnit.HOURS.toMillis(1));
+    this.notAfter = new Date(now + TimeUnit.DAYS.toMillis(validityInDays));
+    try {
+      this.caKeyPair = generateKeyPair();
+      X500Name caName = new X500Name("CN=DigiDoc4J TEST CA, O=DigiDoc4J, C=EE");
+      this.caCertificate = issue(caName, this.caKeyPair, caName, this.caKeyPair.getPrivate(), null,
+          new BasicConstraints(0), new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign), null, false);
+      this.ocspKeyPair = generateKeyPair();
+      this.ocspCertificate = issueByCa("CN=DigiDoc4J TEST OCSP RESPONDER, O=DigiDoc4J, C=EE", this.ocspKeyPair,
+          new KeyUsage(KeyUsage.digitalSignature), new ExtendedKeyUsage(KeyPurposeId.id_kp_OCSPSigning), false);
+      this.tsaKeyPair = generateKeyPair();
+      this.tsaCertificate = issueByCa("CN=DigiDoc4J TEST TSA, O=DigiDoc4J, C=EE", this.tsaKeyPair,
+          new KeyUsage(KeyUsage.digitalSignature), new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping), false);
+      this.tslSignerKeyPair = generateKeyPair();
+      X500Name tslSignerName = new X500Name("CN=DigiDoc4J TEST TSL SIGNER, O=DigiDoc4J, C=EE");
+      this.tslSignerCertificate = issue(tslSignerName, this.tslSignerKeyPair, tslSignerName,
+          this.tslSignerKeyPair.getPrivate(), null, null, new KeyUsage(KeyUsage.digitalSignature), null, false);
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to generate test PKI", e);
+    }
+  }
+
+  /**
+   * Issues a new qualified signer certificate with the non-repudiation key usage and the QC statements of a
+   * certificate for electronic signatures on a QSCD.
+   *
+   * @param commonName common name of the signer
+   * @return signature token holding the private key of the issued certificate
+   */
+  public SignatureToken createSignatureToken(String commonName) {
+    try {
+      KeyPair keyPair = generateKeyPair();
+      X509Certificate certificate = issueByCa("CN=" + commonName + ", C=EE", keyPair,
+          new KeyUsage(KeyUsage.nonRepudiation), null, true);
+      return new GeneratedSignatureToken(certificate, keyPair.getPrivate());
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to issue signer certificate", e);
+    }
+  }
+
+  /**
+   * Makes the OCSP responder report the certificate as revoked.
+   *
+   * @param certificate certificate issued by the test CA
+   */
+  public void revoke(X509Certificate certificate) {
+    this.revokedSerialNumbers.add(certificate.getSerialNumber());
+  }
+
+  boolean isRevoked(BigInteger serialNumber) {
+    return this.revokedSerialNumbers.contains(serialNumber);
+  }
+
+  private X509Certificate issueByCa(String subject, KeyPair keyPair, KeyUsage keyUsage,
+                                    ExtendedKeyUsage extendedKeyUsage, boolean qualified) throws Exception {
+    X500Name issuer = X500Name.getInstance(this.caCertificate.getSubjectX500Principal().getEncoded());
+    return issue(new X500Name(subject), keyPair, issuer, this.caKeyPair.getPrivate(), this.caCertificate, null,
+        keyUsage, extendedKeyUsage, qualified);
+  }
+
+  private X509Certificate issue(X500Name subject, KeyPair keyPair, X500Name issuer, PrivateKey issuerKey,
+                                X509Certificate issuerCertificate, BasicConstraints basicConstraints,
+                                KeyUsage keyUsage, ExtendedKeyUsage extendedKeyUsage, boolean qualified)
+      throws Exception {
+    X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer,
+        BigInteger.valueOf(this.serialNumbers.incrementAndGet()), this.notBefore, this.notAfter, subject,
+        keyPair.getPublic());
+    JcaX509ExtensionUtils extensionUtils = new JcaX509ExtensionUtils();
+    builder.addExtension(Extension.subjectKeyIdentifier, false,
+        extensionUtils.createSubjectKeyIdentifier(keyPair.getPublic()));
+    if (issuerCertificate != null) {
+      builder.addExtension(Extension.authorityKeyIdentifier, false,
+          extensionUtils.createAuthorityKeyIdentifier(issuerCertificate));
+    }
+    if (basicConstraints != null) {
+      builder.addExtension(Extension.basicConstraints, true, basicConstraints);
+    }
+    builder.addExtension(Extension.keyUsage, true, keyUsage);
+    if (extendedKeyUsage != null) {
+      builder.addExtension(Extension.extendedKeyUsage, true, extendedKeyUsage);
+    }
+    if (qualified) {
+      builder.addExtension(Extension.qCStatements, false, new DERSequence(new ASN1Encodable[]{
+          new QCStatement(ETSIQCObjectIdentifiers.id_etsi_qcs_QcCompliance),
+          new QCStatement(ETSIQCObjectIdentifiers.id_etsi_qcs_QcSSCD),
+          new QCStatement(ETSIQCObjectIdentifiers.id_etsi_qcs_QcType,
+              new DERSequence(ETSIQCObjectIdentifiers.id_etsi_qct_esign))}));
+    }
+    ContentSigner contentSigner = new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(issuerKey);
+    return new JcaX509CertificateConverter().getCertificate(builder.build(contentSigner));
+  }
+
+  private static KeyPair generateKeyPair() throws GeneralSecurityException {
+    KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(KEY_SIZE);
+    return keyPairGenerator.generateKeyPair();
+  }
+
+  /*
+   * ACCESSORS
+   */
+
+  public X509Certificate getCaCertificate() {
+    return caCertificate;
+  }
+
+  public X509Certificate getOcspCertificate() {
+    return ocspCertificate;
+  }
+
+  public X509Certificate getTsaCertificate() {
+    return tsaCertificate;
+  }
+
+  public X509Certificate getTslSignerCertificate() {
+    return tslSignerCertificate;
+  }
+
+  PrivateKey getOcspKey() {
+    return ocspKeyPair.getPrivate();
+  }
+
+  PrivateKey getTsaKey() {
+    return tsaKeyPair.getPrivate();
+  }
+
+  PrivateKey getTslSignerKey() {
+    return tslSignerKeyPair.getPrivate();
+  }
+
+  private static final class GeneratedSignatureToken implements SignatureToken {
+
+    private final X509Certificate certificate;
+    private final PrivateKey privateKey;
+
+    private GeneratedSignatureToken(X509Certificate certificate, PrivateKey privateKey) {
+      this.certificate = certificate;
+      this.privateKey = privateKey;
+    }
+
+    @Override
+    public X509Certificate getCertificate() {
+      return certificate;
+    }
+
+    @Override
+    public byte[] sign(DigestAlgorithm digestAlgorithm, byte[] dataToSign) {
+      try {
+        Signature signature = Signature.getInstance(digestAlgorithm.name() + "withRSA");
+        signature.initSign(privateKey);
+        signature.update(dataToSign);
+        return signature.sign();
+      } catch (GeneralSecurityException e) {
+        throw new TechnicalException("Unable to sign with the generated signature token", e);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,68 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cms.SignerInfoGenerator;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TSPException;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 3161 time-stamping authority signing with the TSA certificate of the {@link TestPki}.
+ */
+class TimestampAuthority {
+
+  private static final ASN1ObjectIdentifier POLICY = new ASN1ObjectIdentifier("1.3.6.1.4.1.10015.99.1");
+
+  private final AtomicLong serialNumbers = new AtomicLong();
+  private final TimeStampResponseGenerator responseGenerator;
+
+  TimestampAuthority(TestPki pki) {
+    try {
+      SignerInfoGenerator signerInfoGenerator = new JcaSimpleSignerInfoGeneratorBuilder()
+          .build("SHA256withRSA", pki.getTsaKey(), pki.getTsaCertificate());
+      DigestCalculator certificateIdDigest = new JcaDigestCalculatorProviderBuilder().build()
+          .get(new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1));
+      TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(signerInfoGenerator, certificateIdDigest,
+          POLICY);
+      tokenGenerator.addCertificates(new JcaCertStore(Collections.singletonList(pki.getTsaCertificate())));
+      this.responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to initialize time-stamping authority", e);
+    }
+  }
+
+  byte[] respond(byte[] request) throws IOException {
+    try {
+      TimeStampRequest timeStampRequest = new TimeStampRequest(request);
+      return this.responseGenerator.generateGrantedResponse(timeStampRequest,
+          BigInteger.valueOf(this.serialNumbers.incrementAndGet()), new Date()).getEncoded();
+    } catch (TSPException e) {
+      throw new IOException("Unable to generate time-stamp response", e);
+    }
+  }
+
+}
@@ -0,0 +1,33 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+/**
+ * Services of the {@link TrustServiceStub}.
+ */
+public enum TrustService {
+
+  /**
+   * OCSP responder
+   */
+  OCSP,
+
+  /**
+   * RFC 3161 time-stamping authority
+   */
+  TSA,
+
+  /**
+   * List of trusted lists and the trusted list it points to
+   */
+  TSL
+
+}
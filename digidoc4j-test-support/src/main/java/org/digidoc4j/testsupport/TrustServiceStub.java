@@ -0,0 +1,333 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local OCSP responder, RFC 3161 time-stamping authority and LOTL/TL server backed by a generated {@link TestPki}.
+ * <p/>
+ * The stub makes it possible to sign and validate containers without any external services, for example for
+ * performance and load testing. Every service can be given a latency and an error rate to simulate slow or failing
+ * services; failed requests are answered with HTTP status 500.
+ * <p/>
+ * Example:
+ * <pre>
+ * try (TrustServiceStub stub = TrustServiceStub.aTrustServiceStub()
+ *     .withLatency(TrustService.OCSP, 50, TimeUnit.MILLISECONDS)
+ *     .withErrorRate(TrustService.TSA, 0.01)
+ *     .start()) {
+ *   Configuration configuration = stub.createConfiguration();
+ *   SignatureToken signatureToken = stub.getPki().createSignatureToken("SIGNER");
+ *   ...
+ * }
+ * </pre>
+ */
+public final class TrustServiceStub implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TrustServiceStub.class);
+  private static final String TSL_KEYSTORE_PASSWORD = "digidoc4j-password";
+
+  private final TestPki pki;
+  private final String territory;
+  private final Map<TrustService, Long> latencies;
+  private final Map<TrustService, Double> errorRates;
+  private final Map<TrustService, AtomicLong> requestCounts = new EnumMap<>(TrustService.class);
+  private final Random random;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Path tslKeyStore;
+  private final String tslPath;
+
+  private TrustServiceStub(Builder builder) throws IOException {
+    this.pki = new TestPki(builder.validityInDays);
+    this.territory = builder.territory;
+    this.latencies = new EnumMap<>(builder.latencies);
+    this.errorRates = new EnumMap<>(builder.errorRates);
+    this.random = builder.randomSeed == null ? new Random() : new Random(builder.randomSeed);
+    for (TrustService service : TrustService.values()) {
+      this.requestCounts.put(service, new AtomicLong());
+    }
+    // TSL files are cached by their URL, so every stub serves its lists from a path of its own
+    this.tslPath = "/tsl/" + UUID.randomUUID();
+    this.tslKeyStore = createTslKeyStore();
+    this.executor = Executors.newCachedThreadPool(new StubThreadFactory());
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 0);
+    this.server.setExecutor(this.executor);
+    TrustedListGenerator generator = new TrustedListGenerator(this.pki, this.territory,
+        new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(builder.validityInDays)));
+    byte[] trustedList = generator.generateTrustedList();
+    byte[] listOfTrustedLists = generator.generateListOfTrustedLists(getBaseUrl() + this.tslPath + "/tl.xml");
+    OcspResponder ocspResponder = new OcspResponder(this.pki);
+    TimestampAuthority timestampAuthority = new TimestampAuthority(this.pki);
+    this.server.createContext("/ocsp", exchange -> handle(exchange, TrustService.OCSP,
+        "application/ocsp-response", ocspResponder::respond));
+    this.server.createContext("/tsa", exchange -> handle(exchange, TrustService.TSA,
+        "application/timestamp-reply", timestampAuthority::respond));
+    this.server.createContext(this.tslPath + "/lotl.xml", exchange -> handle(exchange, TrustService.TSL,
+        "application/xml", request -> listOfTrustedLists));
+    this.server.createContext(this.tslPath + "/tl.xml", exchange -> handle(exchange, TrustService.TSL,
+        "application/xml", request -> trustedList));
+    this.server.start();
+    logger.info("Trust service stub started at {}", getBaseUrl());
+  }
+
+  /**
+   * @return builder of a stub with no latency and no errors
+   */
+  public static Builder aTrustServiceStub() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a configuration that uses the OCSP responder, the time-stamping authority and the trusted lists of this
+   * stub.
+   *
+   * @return new configuration in TEST mode
+   */
+  public Configuration createConfiguration() {
+    Configuration configuration = new Configuration(Configuration.Mode.TEST);
+    configuration.setOcspSource(getOcspUrl());
+    configuration.setTspSource(getTspUrl());
+    configuration.setPreferAiaOcsp(false);
+    configuration.setTslLocation(getTslUrl());
+    configuration.setTslKeyStoreLocation(this.tslKeyStore.toString());
+    configuration.setTslKeyStorePassword(TSL_KEYSTORE_PASSWORD);
+    configuration.setTrustedTerritories(this.territory);
+    return configuration;
+  }
+
+  /**
+   * @param service stub service
+   * @return number of requests the service has received, including failed requests
+   */
+  public long getRequestCount(TrustService service) {
+    return this.requestCounts.get(service).get();
+  }
+
+  public String getOcspUrl() {
+    return getBaseUrl() + "/ocsp";
+  }
+
+  public String getTspUrl() {
+    return getBaseUrl() + "/tsa";
+  }
+
+  /**
+   * @return URL of the list of trusted lists
+   */
+  public String getTslUrl() {
+    return getBaseUrl() + this.tslPath + "/lotl.xml";
+  }
+
+  public TestPki getPki() {
+    return pki;
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+    FileUtils.deleteQuietly(this.tslKeyStore.getParent().toFile());
+    logger.info("Trust service stub at {} stopped", getBaseUrl());
+  }
+
+  private String getBaseUrl() {
+    InetSocketAddress address = this.server.getAddress();
+    return "http://" + address.getHostString() + ":" + address.getPort();
+  }
+
+  private void handle(HttpExchange exchange, TrustService service, String contentType, Responder responder)
+      throws IOException {
+    try {
+      this.requestCounts.get(service).incrementAndGet();
+      byte[] request = IOUtils.toByteArray(exchange.getRequestBody());
+      long latency = this.latencies.getOrDefault(service, 0L);
+      if (latency > 0) {
+        Thread.sleep(latency);
+      }
+      double errorRate = this.errorRates.getOrDefault(service, 0.0);
+      if (errorRate > 0 && this.random.nextDouble() < errorRate) {
+        logger.debug("Injecting {} error", service);
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+        return;
+      }
+      byte[] response = responder.respond(request);
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.length);
+      try (OutputStream stream = exchange.getResponseBody()) {
+        stream.write(response);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | RuntimeException e) {
+      logger.warn("{} request failed: {}", service, e.getMessage());
+      exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private Path createTslKeyStore() {
+    try {
+      Path directory = Files.createTempDirectory("digidoc4j-trust-service-stub");
+      Path file = directory.resolve("tsl-keystore.jks");
+      KeyStore keyStore = KeyStore.getInstance("JKS");
+      keyStore.load(null, null);
+      keyStore.setCertificateEntry("tsl-signer", this.pki.getTslSignerCertificate());
+      try (OutputStream stream = Files.newOutputStream(file)) {
+        keyStore.store(stream, TSL_KEYSTORE_PASSWORD.toCharArray());
+      }
+      return file;
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to create TSL keystore", e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Responder {
+
+    byte[] respond(byte[] request) throws IOException;
+
+  }
+
+  private static final class StubThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "trust-service-stub-" + this.threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
+  /**
+   * Builder of {@link TrustServiceStub}.
+   */
+  public static final class Builder {
+
+    private final Map<TrustService, Long> latencies = new EnumMap<>(TrustService.class);
+    private final Map<TrustService, Double> errorRates = new EnumMap<>(TrustService.class);
+    private int port;
+    private int validityInDays = 30;
+    private String territory = "EE";
+    private Long randomSeed;
+
+    private Builder() {
+    }
+
+    /**
+     * @param port port to listen on; 0 picks a free port
+     * @return builder
+     */
+    public Builder withPort(int port) {
+      this.port = port;
+      return this;
+    }
+
+    /**
+     * @param service  stub service
+     * @param latency  time to wait before answering each request of the service
+     * @param timeUnit unit of the latency
+     * @return builder
+     */
+    public Builder withLatency(TrustService service, long latency, TimeUnit timeUnit) {
+      this.latencies.put(service, timeUnit.toMillis(latency));
+      return this;
+    }
+
+    /**
+     * @param service   stub service
+     * @param errorRate share of requests, between 0 and 1, the service answers with HTTP status 500
+     * @return builder
+     */
+    public Builder withErrorRate(TrustService service, double errorRate) {
+      if (errorRate < 0 || errorRate > 1) {
+        throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+      }
+      this.errorRates.put(service, errorRate);
+      return this;
+    }
+
+    /**
+     * @param randomSeed seed of the random generator deciding which requests fail
+     * @return builder
+     */
+    public Builder withRandomSeed(long randomSeed) {
+      this.randomSeed = randomSeed;
+      return this;
+    }
+
+    /**
+     * @param territory scheme territory of the trusted list, also used as the trusted territory of the configuration
+     * @return builder
+     */
+    public Builder withTerritory(String territory) {
+      this.territory = territory;
+      return this;
+    }
+
+    /**
+     * @param validityInDays validity of the generated certificates and trusted lists
+     * @return builder
+     */
+    public Builder withValidityInDays(int validityInDays) {
+      this.validityInDays = validityInDays;
+      return this;
+    }
+
+    /**
+     * Generates the PKI and the trusted lists and starts the stub.
+     *
+     * @return running stub
+     */
+    public TrustServiceStub start() {
+      try {
+        return new TrustServiceStub(this);
+      } catch (IOException e) {
+        throw new TechnicalException("Unable to start trust service stub", e);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,240 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.enumerations.SignaturePackaging;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+import eu.europa.esig.dss.xades.XAdESSignatureParameters;
+import eu.europa.esig.dss.xades.signature.XAdESService;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Generates the signed list of trusted lists (LOTL) and the trusted list (TL) of the {@link TestPki}.
+ * <p/>
+ * The TL lists the CA, OCSP responder and TSA certificates as granted services of one trust service provider. The LOTL
+ * points to the TL; both lists are signed with the TSL signer certificate.
+ */
+class TrustedListGenerator {
+
+  private static final String TSL_NAMESPACE = "http://uri.etsi.org/02231/v2#";
+  private static final String ADDITIONAL_TYPES_NAMESPACE = "http://uri.etsi.org/02231/v2/additionaltypes#";
+  private static final String TSL_TAG = "http://uri.etsi.org/19612/TSLTag";
+  private static final String LOTL_TYPE = "http://uri.etsi.org/TrstSvc/TrustedList/TSLType/EUlistofthelists";
+  private static final String TL_TYPE = "http://uri.etsi.org/TrstSvc/TrustedList/TSLType/EUgeneric";
+  private static final String LOTL_STATUS_DETERMINATION = "http://uri.etsi.org/TrstSvc/TrustedList/StatusDetn/EUlistofthelists";
+  private static final String TL_STATUS_DETERMINATION = "http://uri.etsi.org/TrstSvc/TrustedList/StatusDetn/EUappropriate";
+  private static final String GRANTED = "http://uri.etsi.org/TrstSvc/TrustedList/Svcstatus/granted";
+  private static final String CA_SERVICE = "http://uri.etsi.org/TrstSvc/Svctype/CA/QC";
+  private static final String OCSP_SERVICE = "http://uri.etsi.org/TrstSvc/Svctype/Certstatus/OCSP/QC";
+  private static final String TSA_SERVICE = "http://uri.etsi.org/TrstSvc/Svctype/TSA/QTST";
+  private static final String FOR_ESIGNATURES = "http://uri.etsi.org/TrstSvc/TrustedList/SvcInfoExt/ForeSignatures";
+  private static final String TSL_MIME_TYPE = "application/vnd.etsi.tsl+xml";
+  private static final String LOTL_TERRITORY = "EU";
+  private static final String OPERATOR_NAME = "DigiDoc4J trust service stub";
+  private static final String LANGUAGE = "en";
+
+  private final TestPki pki;
+  private final String territory;
+  private final Date issueTime;
+  private final Date nextUpdate;
+
+  TrustedListGenerator(TestPki pki, String territory, Date nextUpdate) {
+    this.pki = pki;
+    this.territory = territory;
+    this.issueTime = new Date();
+    this.nextUpdate = nextUpdate;
+  }
+
+  byte[] generateListOfTrustedLists(String trustedListLocation) {
+    Document document = newDocument();
+    Element schemeInformation = appendSchemeInformation(document, LOTL_TYPE, LOTL_STATUS_DETERMINATION, LOTL_TERRITORY);
+    Element pointer = append(append(schemeInformation, "PointersToOtherTSL"), "OtherTSLPointer");
+    appendDigitalIdentity(append(pointer, "ServiceDigitalIdentities"), pki.getTslSignerCertificate());
+    append(pointer, "TSLLocation", trustedListLocation);
+    Element additionalInformation = append(pointer, "AdditionalInformation");
+    append(append(additionalInformation, "OtherInformation"), "TSLType", TL_TYPE);
+    appendName(append(append(additionalInformation, "OtherInformation"), "SchemeOperatorName"), OPERATOR_NAME);
+    append(append(additionalInformation, "OtherInformation"), "SchemeTerritory", territory);
+    Element mimeType = document.createElementNS(ADDITIONAL_TYPES_NAMESPACE, "tslx:MimeType");
+    mimeType.setTextContent(TSL_MIME_TYPE);
+    append(additionalInformation, "OtherInformation").appendChild(mimeType);
+    appendIssueTimes(schemeInformation);
+    return sign(document);
+  }
+
+  byte[] generateTrustedList() {
+    Document document = newDocument();
+    Element schemeInformation = appendSchemeInformation(document, TL_TYPE, TL_STATUS_DETERMINATION, territory);
+    appendIssueTimes(schemeInformation);
+    Element provider = append(append(document.getDocumentElement(), "TrustServiceProviderList"),
+        "TrustServiceProvider");
+    Element information = append(provider, "TSPInformation");
+    appendName(append(information, "TSPName"), OPERATOR_NAME);
+    appendAddress(append(information, "TSPAddress"));
+    appendUri(append(information, "TSPInformationURI"));
+    Element services = append(provider, "TSPServices");
+    appendService(services, CA_SERVICE, pki.getCaCertificate());
+    appendService(services, OCSP_SERVICE, pki.getOcspCertificate());
+    appendService(services, TSA_SERVICE, pki.getTsaCertificate());
+    return sign(document);
+  }
+
+  private Element appendSchemeInformation(Document document, String type, String statusDetermination,
+                                          String schemeTerritory) {
+    Element list = document.createElementNS(TSL_NAMESPACE, "tsl:TrustServiceStatusList");
+    list.setAttribute("TSLTag", TSL_TAG);
+    document.appendChild(list);
+    Element schemeInformation = append(list, "SchemeInformation");
+    append(schemeInformation, "TSLVersionIdentifier", "5");
+    append(schemeInformation, "TSLSequenceNumber", "1");
+    append(schemeInformation, "TSLType", type);
+    appendName(append(schemeInformation, "SchemeOperatorName"), OPERATOR_NAME);
+    appendAddress(append(schemeInformation, "SchemeOperatorAddress"));
+    appendName(append(schemeInformation, "SchemeName"), OPERATOR_NAME);
+    appendUri(append(schemeInformation, "SchemeInformationURI"));
+    append(schemeInformation, "StatusDeterminationApproach", statusDetermination);
+    append(schemeInformation, "SchemeTerritory", schemeTerritory);
+    append(schemeInformation, "HistoricalInformationPeriod", "65535");
+    return schemeInformation;
+  }
+
+  private void appendIssueTimes(Element schemeInformation) {
+    append(schemeInformation, "ListIssueDateTime", formatTime(issueTime));
+    append(append(schemeInformation, "NextUpdate"), "dateTime", formatTime(nextUpdate));
+  }
+
+  private void appendService(Element services, String type, X509Certificate certificate) {
+    Element information = append(append(services, "TSPService"), "ServiceInformation");
+    append(information, "ServiceTypeIdentifier", type);
+    appendName(append(information, "ServiceName"), certificate.getSubjectX500Principal().getName());
+    appendDigitalIdentity(information, certificate);
+    append(information, "ServiceStatus", GRANTED);
+    append(information, "StatusStartingTime", formatTime(certificate.getNotBefore()));
+    if (CA_SERVICE.equals(type)) {
+      Element extension = append(append(information, "ServiceInformationExtensions"), "Extension");
+      extension.setAttribute("Critical", "true");
+      append(append(extension, "AdditionalServiceInformation"), "URI", FOR_ESIGNATURES)
+          .setAttributeNS(XMLConstants.XML_NS_URI, "xml:lang", LANGUAGE);
+    }
+  }
+
+  private void appendDigitalIdentity(Element parent, X509Certificate certificate) {
+    try {
+      append(append(append(parent, "ServiceDigitalIdentity"), "DigitalId"), "X509Certificate",
+          Utils.toBase64(certificate.getEncoded()));
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to encode trusted list certificate", e);
+    }
+  }
+
+  private void appendAddress(Element parent) {
+    Element postalAddress = append(append(parent, "PostalAddresses"), "PostalAddress");
+    postalAddress.setAttributeNS(XMLConstants.XML_NS_URI, "xml:lang", LANGUAGE);
+    append(postalAddress, "StreetAddress", "localhost");
+    append(postalAddress, "Locality", "localhost");
+    append(postalAddress, "CountryName", territory);
+    appendUri(append(parent, "ElectronicAddress"));
+  }
+
+  private static void appendName(Element parent, String name) {
+    append(parent, "Name", name).setAttributeNS(XMLConstants.XML_NS_URI, "xml:lang", LANGUAGE);
+  }
+
+  private static void appendUri(Element parent) {
+    append(parent, "URI", "http://localhost/").setAttributeNS(XMLConstants.XML_NS_URI, "xml:lang", LANGUAGE);
+  }
+
+  private static Element append(Element parent, String name) {
+    Element element = parent.getOwnerDocument().createElementNS(TSL_NAMESPACE, "tsl:" + name);
+    parent.appendChild(element);
+    return element;
+  }
+
+  private static Element append(Element parent, String name, String value) {
+    Element element = append(parent, name);
+    element.setTextContent(value);
+    return element;
+  }
+
+  private byte[] sign(Document document) {
+    XAdESSignatureParameters parameters = new XAdESSignatureParameters();
+    parameters.setSignatureLevel(SignatureLevel.XAdES_BASELINE_B);
+    parameters.setSignaturePackaging(SignaturePackaging.ENVELOPED);
+    parameters.setDigestAlgorithm(DigestAlgorithm.SHA256);
+    parameters.setSigningCertificate(new CertificateToken(pki.getTslSignerCertificate()));
+    parameters.setEn319132(false);
+    XAdESService service = new XAdESService(new CommonCertificateVerifier());
+    DSSDocument unsignedDocument = new InMemoryDocument(serialize(document));
+    try {
+      ToBeSigned dataToSign = service.getDataToSign(unsignedDocument, parameters);
+      Signature signature = Signature.getInstance("SHA256withRSA");
+      signature.initSign(pki.getTslSignerKey());
+      signature.update(dataToSign.getBytes());
+      SignatureValue signatureValue = new SignatureValue(parameters.getSignatureAlgorithm(), signature.sign());
+      return Utils.toByteArray(service.signDocument(unsignedDocument, parameters, signatureValue).openStream());
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to sign trusted list", e);
+    }
+  }
+
+  private static Document newDocument() {
+    try {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setNamespaceAware(true);
+      return factory.newDocumentBuilder().newDocument();
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to create trusted list document", e);
+    }
+  }
+
+  private static byte[] serialize(Document document) {
+    try {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      Transformer transformer = TransformerFactory.newInstance().newTransformer();
+      transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+      transformer.transform(new DOMSource(document), new StreamResult(stream));
+      return stream.toByteArray();
+    } catch (Exception e) {
+      throw new TechnicalException("Unable to serialize trusted list document", e);
+    }
+  }
+
+  private static String formatTime(Date time) {
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    return format.format(time);
+  }
+
+}
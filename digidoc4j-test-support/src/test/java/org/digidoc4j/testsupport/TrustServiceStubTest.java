@@ -0,0 +1,103 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.testsupport;
+
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.ContainerValidationResult;
+import org.digidoc4j.DataFile;
+import org.digidoc4j.Signature;
+import org.digidoc4j.SignatureBuilder;
+import org.digidoc4j.SignatureProfile;
+import org.digidoc4j.SignatureToken;
+import org.digidoc4j.exceptions.CertificateValidationException;
+import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class TrustServiceStubTest {
+
+  @Test
+  public void signAndValidateContainer_withStubConfiguration_signatureIsValid() {
+    try (TrustServiceStub stub = TrustServiceStub.aTrustServiceStub().start()) {
+      Configuration configuration = stub.createConfiguration();
+      Container container = createSignedContainer(configuration, stub.getPki().createSignatureToken("SIGNER"));
+
+      ContainerValidationResult result = container.validate();
+      Assert.assertTrue(result.getReport(), result.isValid());
+      Assert.assertEquals(1, stub.getRequestCount(TrustService.OCSP));
+      Assert.assertEquals(1, stub.getRequestCount(TrustService.TSA));
+      Assert.assertEquals(2, stub.getRequestCount(TrustService.TSL));
+    }
+  }
+
+  @Test
+  public void signContainer_withRevokedSigner_signingFails() {
+    try (TrustServiceStub stub = TrustServiceStub.aTrustServiceStub().start()) {
+      SignatureToken signatureToken = stub.getPki().createSignatureToken("REVOKED SIGNER");
+      stub.getPki().revoke(signatureToken.getCertificate());
+      try {
+        createSignedContainer(stub.createConfiguration(), signatureToken);
+        Assert.fail("Signing must fail when the signer certificate is revoked");
+      } catch (CertificateValidationException e) {
+        Assert.assertEquals(CertificateValidationException.CertificateValidationStatus.REVOKED,
+            e.getCertificateStatus());
+      }
+    }
+  }
+
+  @Test
+  public void signContainer_whenOcspFails_signingFails() {
+    try (TrustServiceStub stub = TrustServiceStub.aTrustServiceStub()
+        .withErrorRate(TrustService.OCSP, 1.0)
+        .start()) {
+      try {
+        createSignedContainer(stub.createConfiguration(), stub.getPki().createSignatureToken("SIGNER"));
+        Assert.fail("Signing must fail when the OCSP responder fails");
+      } catch (DigiDoc4JException e) {
+        Assert.assertEquals(1, stub.getRequestCount(TrustService.OCSP));
+      }
+    }
+  }
+
+  @Test
+  public void signContainer_withTsaLatency_signingWaitsForTsa() {
+    try (TrustServiceStub stub = TrustServiceStub.aTrustServiceStub()
+        .withLatency(TrustService.TSA, 500, TimeUnit.MILLISECONDS)
+        .start()) {
+      Configuration configuration = stub.createConfiguration();
+      SignatureToken signatureToken = stub.getPki().createSignatureToken("SIGNER");
+      createSignedContainer(configuration, signatureToken);
+
+      long start = System.nanoTime();
+      createSignedContainer(configuration, signatureToken);
+      Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 500);
+    }
+  }
+
+  private static Container createSignedContainer(Configuration configuration, SignatureToken signatureToken) {
+    Container container = ContainerBuilder.aContainer()
+        .withConfiguration(configuration)
+        .withDataFile(new DataFile("test data".getBytes(StandardCharsets.UTF_8), "test.txt", "text/plain"))
+        .build();
+    Signature signature = SignatureBuilder.aSignature(container)
+        .withSignatureToken(signatureToken)
+        .withSignatureProfile(SignatureProfile.LT)
+        .invokeSigning();
+    container.addSignature(signature);
+    return container;
+  }
+
+}
@@ -112,12 +112,20 @@ import static java.util.Arrays.asList;
  * <li>DIGIDOC_PKCS12_PASSWD: OCSP access certificate password</li>
  * <li>OCSP_SOURCE: Online Certificate Service Protocol source</li>
  * <li>SIGN_OCSP_REQUESTS: Should OCSP requests be signed? Allowed values: true, false</li>
+ * <li>OCSP_REQUEST_SIGNATURE_DIGEST_ALGORITHM: Digest algorithm used for signing OCSP requests.
+ * Allowed values: SHA1, SHA224, SHA256, SHA384, SHA512. Default value: SHA1</li>
  * <li>TSL_LOCATION: TSL Location</li>
  * <li>TSP_SOURCE: Time Stamp Protocol source address</li>
  * <li>VALIDATION_POLICY: Validation policy source file</li>
  * <li>TSL_KEYSTORE_LOCATION: keystore location for tsl signing certificates</li>
  * <li>TSL_KEYSTORE_PASSWORD: keystore password for the keystore in TSL_KEYSTORE_LOCATION</li>
  * <li>TSL_CACHE_EXPIRATION_TIME: TSL cache expiration time in milliseconds</li>
+ * <li>TSL_SNAPSHOT_LOCATION: File where the validated TSL is stored and loaded from on start-up if it has not
+ * expired yet</li>
+ * <li>TSL_BACKGROUND_REFRESH: Refresh the TSL on a background thread before the TSL cache expires and keep using the
+ * previously loaded TSL meanwhile. Allowed values: true, false. Default value: false</li>
+ * <li>TSL_MAX_STALENESS: Maximum age of the TSL in milliseconds when it is refreshed on a background thread. An older
+ * TSL is refreshed on the accessing thread, and accessing it fails if the refresh fails. Default value: not limited</li>
  * <li>TRUSTED_TERRITORIES: list of countries and territories to trust and load TSL certificates
  * (for example, EE, LV, FR)</li>
  * <li>HTTP_PROXY_HOST: network proxy host name</li>
@@ -142,6 +150,36 @@ import static java.util.Arrays.asList;
  * NB! Strict Validation applied by default.</li>
  * <li>ALLOWED_OCSP_RESPONDERS_FOR_TM: whitelist of OCSP responders for timemark validation
  * (for example: SK OCSP RESPONDER 2011, ESTEID-SK OCSP RESPONDER, KLASS3-SK OCSP RESPONDER)</li>
+ * <li>LAZY_DATA_FILE_LOADING: Read data files of ASiC containers opened from a file only when their content is
+ * requested. Allowed values: true, false. Default value: false</li>
+ * <li>LAZY_SIGNATURE_PARSING: Parse the signatures of ASiC containers only when signature details other than the
+ * signature id, signing time or signing certificate are requested. Allowed values: true, false.
+ * Default value: false</li>
+ * <li>INCREMENTAL_CONTAINER_SAVING: When saving an ASiC container opened from a file, copy its unchanged entries in
+ * compressed form instead of inflating and deflating them again. Allowed values: true, false. Default value: false</li>
+ * <li>PARALLEL_ZIP_COMPRESSION: Compress the data files of ASiC containers being saved on multiple threads.
+ * Allowed values: true, false. Default value: false</li>
+ * <li>ZIP_COMPRESSION_LEVEL: Deflate compression level (0-9) used for the data files of ASiC containers being saved.</li>
+ * <li>STORED_MIME_TYPES: list of data file mime types that are stored in ASiC containers without compression
+ * (for example: application/pdf, image/jpeg)</li>
+ * <li>TEMPORARY_FILE_DIRECTORY: Directory of the temporary files holding the content of large data files.
+ * Default value: the temporary file directory of the system</li>
+ * <li>TEMPORARY_FILE_QUOTA_IN_BYTES: Maximum number of bytes the temporary files holding the content of large data
+ * files may occupy together. Default value: no limit</li>
+ * <li>MAX_PARALLEL_SIGNATURE_VALIDATIONS: Maximum number of signatures of a single container that are validated
+ * at the same time. Default value: number of available processors</li>
+ * <li>HTTP_CONNECTION_POOLING: Keep the OCSP and TSA connections alive and share them between the requests.
+ * Allowed values: true, false. Default value: false</li>
+ * <li>HTTP_CONNECTIONS_MAX_TOTAL: Maximum number of pooled connections per connection type. Default value: 50</li>
+ * <li>HTTP_CONNECTIONS_MAX_PER_ROUTE: Maximum number of pooled connections per connection type and host.
+ * Default value: 20</li>
+ * <li>HTTP_CONNECTION_IDLE_TIMEOUT_IN_MILLIS: Time after which idle pooled connections are closed.
+ * Default value: 30000</li>
+ * <li>AIA_CACHE: Cache the certificates downloaded from the AIA locations of the certificates being validated.
+ * Allowed values: true, false. Default value: false</li>
+ * <li>AIA_CACHE_MAX_ENTRIES: Maximum number of responses kept in the AIA cache in memory. Default value: 1000</li>
+ * <li>AIA_CACHE_TIME_TO_LIVE_IN_MILLIS: Time the AIA responses are cached. Default value: 86400000 (one day)</li>
+ * <li>AIA_CACHE_DIRECTORY: Directory where the AIA responses are cached on disk in addition to the memory.</li>
  * </ul>
  */
 public class Configuration implements Serializable {
@@ -305,6 +343,26 @@ public class Configuration implements Serializable {
     this.setDDoc4JParameter(Constant.DDoc4J.OCSP_SIGN_REQUESTS, value);
   }
 
+  /**
+   * Set digest algorithm used for signing OCSP requests.
+   *
+   * @param digestAlgorithm digest algorithm.
+   */
+  public void setOcspRequestSignatureDigestAlgorithm(DigestAlgorithm digestAlgorithm) {
+    this.setConfigurationParameter(ConfigurationParameter.OcspRequestSignatureDigestAlgorithm, digestAlgorithm.name());
+  }
+
+  /**
+   * Get digest algorithm used for signing OCSP requests.
+   *
+   * @return digest algorithm, SHA1 if not set.
+   */
+  public DigestAlgorithm getOcspRequestSignatureDigestAlgorithm() {
+    DigestAlgorithm digestAlgorithm = DigestAlgorithm.findByAlgorithm(
+        this.getConfigurationParameter(ConfigurationParameter.OcspRequestSignatureDigestAlgorithm));
+    return digestAlgorithm == null ? DigestAlgorithm.SHA1 : digestAlgorithm;
+  }
+
   /**
    * Set a data loader factory that manages the creation of custom data loaders for creating OCSP requests.
    * @param ocspDataLoaderFactory OCSP data loader factory.
@@ -777,6 +835,73 @@ public class Configuration implements Serializable {
     return this.getConfigurationParameter(ConfigurationParameter.TslCacheExpirationTimeInMillis, Long.class);
   }
 
+  /**
+   * Set the file where the validated TSL is stored after it has been downloaded. When the file exists and is younger
+   * than the TSL cache expiration time, the TSL is loaded from the file instead of being downloaded and validated
+   * again, which makes the first validation after a restart fast.
+   *
+   * @param tslSnapshotLocation file path.
+   */
+  public void setTslSnapshotLocation(String tslSnapshotLocation) {
+    this.setConfigurationParameter(ConfigurationParameter.TslSnapshotLocation, tslSnapshotLocation);
+  }
+
+  /**
+   * Get the file where the validated TSL is stored.
+   *
+   * @return file path or null if the TSL is not stored.
+   */
+  public String getTslSnapshotLocation() {
+    return this.getConfigurationParameter(ConfigurationParameter.TslSnapshotLocation);
+  }
+
+  /**
+   * Set flag if the TSL should be refreshed on a background thread.
+   * <p/>
+   * When enabled, the TSL is downloaded again on a background thread when 80% of the TSL cache expiration time has
+   * passed. The previously loaded TSL is used until the download completes, and it is kept if the download fails.
+   * Only the first loading of the TSL blocks the thread accessing it.
+   *
+   * @param tslBackgroundRefresh true to refresh the TSL on a background thread.
+   */
+  public void setTslBackgroundRefresh(boolean tslBackgroundRefresh) {
+    this.setConfigurationParameter(ConfigurationParameter.TslBackgroundRefresh, String.valueOf(tslBackgroundRefresh));
+  }
+
+  /**
+   * Get flag if the TSL is refreshed on a background thread.
+   *
+   * @return TSL background refresh boolean value.
+   */
+  public boolean isTslBackgroundRefresh() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.TslBackgroundRefresh));
+  }
+
+  /**
+   * Set the maximum age of the TSL in milliseconds when the TSL is refreshed on a background thread.
+   * <p/>
+   * When the background refreshes keep failing and the TSL in use gets older than the maximum staleness, the thread
+   * accessing the TSL refreshes it and waits for the refresh. If that refresh fails as well, accessing the TSL fails
+   * instead of validating against the stale TSL. The maximum staleness should be longer than the TSL cache expiration
+   * time.
+   *
+   * @param tslMaxStalenessInMilliseconds maximum TSL age in milliseconds or a negative value for no limit.
+   */
+  public void setTslMaxStaleness(long tslMaxStalenessInMilliseconds) {
+    this.setConfigurationParameter(ConfigurationParameter.TslMaxStalenessInMillis,
+        String.valueOf(tslMaxStalenessInMilliseconds));
+  }
+
+  /**
+   * Get the maximum age of the TSL in milliseconds when the TSL is refreshed on a background thread.
+   *
+   * @return maximum TSL age in milliseconds or -1 if not limited.
+   */
+  public long getTslMaxStaleness() {
+    Long maxStaleness = this.getConfigurationParameter(ConfigurationParameter.TslMaxStalenessInMillis, Long.class);
+    return maxStaleness == null ? -1 : maxStaleness;
+  }
+
   /**
    * Returns allowed delay between timestamp and OCSP response in minutes.
    *
@@ -1569,6 +1694,363 @@ public class Configuration implements Serializable {
     return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.IsFullSimpleReportNeeded));
   }
 
+  /**
+   * Set flag if data files of ASiC containers opened from a file should be loaded lazily.
+   * <p/>
+   * When enabled, only the ZIP central directory is read when a container is opened from a file. Data file contents
+   * are inflated from the container file only when they are accessed, so the container file must not be modified or
+   * removed while the opened container is in use. {@link Container#saveAsFile(String)} may still be given the path of
+   * the container file: the container is then written to a temporary file first and moved over the original.
+   *
+   * @param lazyDataFileLoading true to load data files lazily.
+   */
+  public void setLazyDataFileLoading(boolean lazyDataFileLoading) {
+    this.setConfigurationParameter(ConfigurationParameter.LazyDataFileLoading, String.valueOf(lazyDataFileLoading));
+  }
+
+  /**
+   * Get flag if data files of ASiC containers opened from a file are loaded lazily.
+   *
+   * @return lazy data file loading boolean value.
+   */
+  public boolean isLazyDataFileLoading() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.LazyDataFileLoading));
+  }
+
+  /**
+   * Set flag if the signatures of ASiC containers should be parsed lazily.
+   * <p/>
+   * When enabled, the signature documents are only scanned for the signature id, signing time and signing
+   * certificate when a container is opened. The signatures are fully parsed when any other signature detail is
+   * requested or the container is validated, so errors in the signature documents are reported only then.
+   *
+   * @param lazySignatureParsing true to parse signatures lazily.
+   */
+  public void setLazySignatureParsing(boolean lazySignatureParsing) {
+    this.setConfigurationParameter(ConfigurationParameter.LazySignatureParsing, String.valueOf(lazySignatureParsing));
+  }
+
+  /**
+   * Get flag if the signatures of ASiC containers are parsed lazily.
+   *
+   * @return lazy signature parsing boolean value.
+   */
+  public boolean isLazySignatureParsing() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.LazySignatureParsing));
+  }
+
+  /**
+   * Set flag if ASiC containers opened from a file should be saved incrementally.
+   * <p/>
+   * When enabled and no data files have been added to the container, the entries already present in the container
+   * file are copied to the output in their compressed form and only the new signatures and the ZIP central directory
+   * are written anew. The container file must not be modified while the opened container is in use, and the output
+   * stream given to {@link Container#save(OutputStream)} must not point to the container file itself.
+   *
+   * @param incrementalContainerSaving true to save containers incrementally.
+   */
+  public void setIncrementalContainerSaving(boolean incrementalContainerSaving) {
+    this.setConfigurationParameter(ConfigurationParameter.IncrementalContainerSaving,
+        String.valueOf(incrementalContainerSaving));
+  }
+
+  /**
+   * Get flag if ASiC containers opened from a file are saved incrementally.
+   *
+   * @return incremental container saving boolean value.
+   */
+  public boolean isIncrementalContainerSaving() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.IncrementalContainerSaving));
+  }
+
+  /**
+   * Set flag if the data files of ASiC containers are compressed on multiple threads when the container is saved.
+   * <p/>
+   * Every data file is deflated on its own thread into a temporary file and the compressed entries are then copied
+   * to the container in their original order. The thread executor set by {@link #setThreadExecutor(ExecutorService)}
+   * is used when present, otherwise a thread pool sized by the number of available processors is created for each
+   * save.
+   *
+   * @param parallelZipCompression true to compress data files in parallel.
+   */
+  public void setParallelZipCompression(boolean parallelZipCompression) {
+    this.setConfigurationParameter(ConfigurationParameter.ParallelZipCompression,
+        String.valueOf(parallelZipCompression));
+  }
+
+  /**
+   * Get flag if the data files of ASiC containers are compressed on multiple threads.
+   *
+   * @return parallel zip compression boolean value.
+   */
+  public boolean isParallelZipCompression() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.ParallelZipCompression));
+  }
+
+  /**
+   * Set deflate compression level for the data files of ASiC containers.
+   *
+   * @param zipCompressionLevel compression level from 0 (no compression) to 9 (best compression).
+   */
+  public void setZipCompressionLevel(int zipCompressionLevel) {
+    this.setConfigurationParameter(ConfigurationParameter.ZipCompressionLevel, String.valueOf(zipCompressionLevel));
+  }
+
+  /**
+   * Get deflate compression level for the data files of ASiC containers.
+   *
+   * @return compression level or null if not set.
+   */
+  public Integer getZipCompressionLevel() {
+    return this.getConfigurationParameter(ConfigurationParameter.ZipCompressionLevel, Integer.class);
+  }
+
+  /**
+   * Set mime types of data files that are stored in ASiC containers without compression, for example already
+   * compressed formats like "application/pdf" or "image/jpeg".
+   *
+   * @param storedMimeTypes list of mime types.
+   */
+  public void setStoredMimeTypes(String... storedMimeTypes) {
+    this.setConfigurationParameter(ConfigurationParameter.StoredMimeTypes, storedMimeTypes);
+  }
+
+  /**
+   * Get mime types of data files that are stored in ASiC containers without compression.
+   *
+   * @return mime types list.
+   */
+  public List<String> getStoredMimeTypes() {
+    List<String> storedMimeTypes = this.getConfigurationValues(ConfigurationParameter.StoredMimeTypes);
+    return storedMimeTypes == null ? Collections.<String>emptyList() : storedMimeTypes;
+  }
+
+  /**
+   * Set the directory of the temporary files holding the content of large data files.
+   *
+   * @param temporaryFileDirectory directory path.
+   */
+  public void setTemporaryFileDirectory(String temporaryFileDirectory) {
+    this.setConfigurationParameter(ConfigurationParameter.TemporaryFileDirectory, temporaryFileDirectory);
+  }
+
+  /**
+   * Get the directory of the temporary files holding the content of large data files.
+   *
+   * @return directory path or null if the default temporary file directory of the system is used.
+   */
+  public String getTemporaryFileDirectory() {
+    return this.getConfigurationParameter(ConfigurationParameter.TemporaryFileDirectory);
+  }
+
+  /**
+   * Set the maximum number of bytes the temporary files holding the content of large data files may occupy together.
+   * Creating a data file that would exceed the quota fails.
+   *
+   * @param temporaryFileQuotaInBytes quota in bytes or a negative value for no limit.
+   */
+  public void setTemporaryFileQuotaInBytes(long temporaryFileQuotaInBytes) {
+    this.setConfigurationParameter(ConfigurationParameter.TemporaryFileQuotaInBytes,
+        String.valueOf(temporaryFileQuotaInBytes));
+  }
+
+  /**
+   * Get the maximum number of bytes the temporary files holding the content of large data files may occupy together.
+   *
+   * @return quota in bytes or -1 if not limited.
+   */
+  public long getTemporaryFileQuotaInBytes() {
+    Long quota = this.getConfigurationParameter(ConfigurationParameter.TemporaryFileQuotaInBytes, Long.class);
+    return quota == null ? -1 : quota;
+  }
+
+  /**
+   * Set the maximum number of signatures of a single container that are validated at the same time.
+   * <p/>
+   * The remaining signatures are submitted to the thread executor only when the validation of the earlier ones
+   * has finished, so that a container with many signatures does not take over the whole thread executor.
+   *
+   * @param maxParallelSignatureValidations maximum number of parallel signature validations per container.
+   */
+  public void setMaxParallelSignatureValidations(int maxParallelSignatureValidations) {
+    this.setConfigurationParameter(ConfigurationParameter.MaxParallelSignatureValidations,
+        String.valueOf(maxParallelSignatureValidations));
+  }
+
+  /**
+   * Get the maximum number of signatures of a single container that are validated at the same time.
+   *
+   * @return maximum number of parallel signature validations or null if not set.
+   */
+  public Integer getMaxParallelSignatureValidations() {
+    return this.getConfigurationParameter(ConfigurationParameter.MaxParallelSignatureValidations, Integer.class);
+  }
+
+  /**
+   * Set flag if the connections to the OCSP and TSA services are pooled.
+   * <p/>
+   * Pooled connections are kept alive and shared by all the data loaders created with the same network settings,
+   * so consecutive requests to the same service do not need a new TCP connection and TLS handshake.
+   * See {@link org.digidoc4j.impl.HttpConnectionPool} for the pool statistics.
+   *
+   * @param httpConnectionPooling true to pool the connections.
+   */
+  public void setHttpConnectionPooling(boolean httpConnectionPooling) {
+    this.setConfigurationParameter(ConfigurationParameter.HttpConnectionPooling, String.valueOf(httpConnectionPooling));
+  }
+
+  /**
+   * Get flag if the connections to the OCSP and TSA services are pooled.
+   *
+   * @return http connection pooling boolean value.
+   */
+  public boolean isHttpConnectionPooling() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.HttpConnectionPooling));
+  }
+
+  /**
+   * Set the maximum number of pooled connections per connection type.
+   *
+   * @param httpConnectionsMaxTotal maximum number of connections.
+   */
+  public void setHttpConnectionsMaxTotal(int httpConnectionsMaxTotal) {
+    this.setConfigurationParameter(ConfigurationParameter.HttpConnectionsMaxTotal,
+        String.valueOf(httpConnectionsMaxTotal));
+  }
+
+  /**
+   * Get the maximum number of pooled connections per connection type.
+   *
+   * @return maximum number of connections.
+   */
+  public int getHttpConnectionsMaxTotal() {
+    Integer maxTotal = this.getConfigurationParameter(ConfigurationParameter.HttpConnectionsMaxTotal, Integer.class);
+    return maxTotal == null ? Constant.Default.HTTP_CONNECTIONS_MAX_TOTAL : maxTotal;
+  }
+
+  /**
+   * Set the maximum number of pooled connections per connection type to a single host.
+   *
+   * @param httpConnectionsMaxPerRoute maximum number of connections per host.
+   */
+  public void setHttpConnectionsMaxPerRoute(int httpConnectionsMaxPerRoute) {
+    this.setConfigurationParameter(ConfigurationParameter.HttpConnectionsMaxPerRoute,
+        String.valueOf(httpConnectionsMaxPerRoute));
+  }
+
+  /**
+   * Get the maximum number of pooled connections per connection type to a single host.
+   *
+   * @return maximum number of connections per host.
+   */
+  public int getHttpConnectionsMaxPerRoute() {
+    Integer maxPerRoute = this.getConfigurationParameter(ConfigurationParameter.HttpConnectionsMaxPerRoute,
+        Integer.class);
+    return maxPerRoute == null ? Constant.Default.HTTP_CONNECTIONS_MAX_PER_ROUTE : maxPerRoute;
+  }
+
+  /**
+   * Set the time after which idle pooled connections are closed.
+   *
+   * @param httpConnectionIdleTimeoutInMillis idle timeout in milliseconds.
+   */
+  public void setHttpConnectionIdleTimeout(long httpConnectionIdleTimeoutInMillis) {
+    this.setConfigurationParameter(ConfigurationParameter.HttpConnectionIdleTimeoutInMillis,
+        String.valueOf(httpConnectionIdleTimeoutInMillis));
+  }
+
+  /**
+   * Get the time after which idle pooled connections are closed.
+   *
+   * @return idle timeout in milliseconds.
+   */
+  public long getHttpConnectionIdleTimeout() {
+    Long idleTimeout = this.getConfigurationParameter(ConfigurationParameter.HttpConnectionIdleTimeoutInMillis,
+        Long.class);
+    return idleTimeout == null ? Constant.Default.HTTP_CONNECTION_IDLE_TIMEOUT_IN_MILLIS : idleTimeout;
+  }
+
+  /**
+   * Set flag if the responses downloaded from the AIA locations of certificates are cached.
+   * <p/>
+   * The cache is shared by all the containers and signatures validated with the same cache settings, so that the
+   * intermediate CA certificates are downloaded only once.
+   * See {@link org.digidoc4j.impl.DataLoaderResponseCache} for the cache statistics.
+   *
+   * @param aiaCache true to cache the AIA responses.
+   */
+  public void setAiaCache(boolean aiaCache) {
+    this.setConfigurationParameter(ConfigurationParameter.AiaCache, String.valueOf(aiaCache));
+  }
+
+  /**
+   * Get flag if the responses downloaded from the AIA locations of certificates are cached.
+   *
+   * @return AIA cache boolean value.
+   */
+  public boolean isAiaCache() {
+    return Boolean.parseBoolean(this.getConfigurationParameter(ConfigurationParameter.AiaCache));
+  }
+
+  /**
+   * Set the maximum number of responses kept in the AIA cache in memory. The least recently used responses are
+   * removed first.
+   *
+   * @param aiaCacheMaxEntries maximum number of cached responses.
+   */
+  public void setAiaCacheMaxEntries(int aiaCacheMaxEntries) {
+    this.setConfigurationParameter(ConfigurationParameter.AiaCacheMaxEntries, String.valueOf(aiaCacheMaxEntries));
+  }
+
+  /**
+   * Get the maximum number of responses kept in the AIA cache in memory.
+   *
+   * @return maximum number of cached responses.
+   */
+  public int getAiaCacheMaxEntries() {
+    Integer maxEntries = this.getConfigurationParameter(ConfigurationParameter.AiaCacheMaxEntries, Integer.class);
+    return maxEntries == null ? Constant.Default.AIA_CACHE_MAX_ENTRIES : maxEntries;
+  }
+
+  /**
+   * Set the time the AIA responses are cached.
+   *
+   * @param aiaCacheTimeToLiveInMillis time to live in milliseconds.
+   */
+  public void setAiaCacheTimeToLive(long aiaCacheTimeToLiveInMillis) {
+    this.setConfigurationParameter(ConfigurationParameter.AiaCacheTimeToLiveInMillis,
+        String.valueOf(aiaCacheTimeToLiveInMillis));
+  }
+
+  /**
+   * Get the time the AIA responses are cached.
+   *
+   * @return time to live in milliseconds.
+   */
+  public long getAiaCacheTimeToLive() {
+    Long timeToLive = this.getConfigurationParameter(ConfigurationParameter.AiaCacheTimeToLiveInMillis, Long.class);
+    return timeToLive == null ? Constant.Default.AIA_CACHE_TIME_TO_LIVE_IN_MILLIS : timeToLive;
+  }
+
+  /**
+   * Set the directory where the AIA responses are cached on disk in addition to the memory. The responses cached on
+   * disk survive restarts and can be shared by several processes.
+   *
+   * @param aiaCacheDirectory directory path.
+   */
+  public void setAiaCacheDirectory(String aiaCacheDirectory) {
+    this.setConfigurationParameter(ConfigurationParameter.AiaCacheDirectory, aiaCacheDirectory);
+  }
+
+  /**
+   * Get the directory where the AIA responses are cached on disk.
+   *
+   * @return directory path or null if the responses are cached only in memory.
+   */
+  public String getAiaCacheDirectory() {
+    return this.getConfigurationParameter(ConfigurationParameter.AiaCacheDirectory);
+  }
+
   /**
    * Set flag if ASN1 Unsafe Integer is Allowed.
    *
@@ -1590,6 +2072,11 @@ public class Configuration implements Serializable {
 
   /**
    * Set thread executor service.
+   * <p/>
+   * By default signatures are validated on a fixed size thread pool with a bounded queue
+   * (see {@link org.digidoc4j.impl.asic.xades.validation.ValidationThreadPoolExecutor}). On Java 21 or newer,
+   * {@link org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager#createVirtualThreadExecutor()} can be used
+   * for validations that mostly wait for OCSP, AIA or TSL responses.
    *
    * @param threadExecutor Thread executor service object.
    */
@@ -1777,10 +2264,15 @@ public class Configuration implements Serializable {
     this.setConfigurationParameterFromFile("CONNECTION_TIMEOUT", ConfigurationParameter.ConnectionTimeoutInMillis);
     this.setConfigurationParameterFromFile("SOCKET_TIMEOUT", ConfigurationParameter.SocketTimeoutInMillis);
     this.setConfigurationParameterFromFile("SIGN_OCSP_REQUESTS", ConfigurationParameter.SignOcspRequests);
+    this.setConfigurationParameterFromFile("OCSP_REQUEST_SIGNATURE_DIGEST_ALGORITHM",
+        ConfigurationParameter.OcspRequestSignatureDigestAlgorithm);
     this.setConfigurationParameterFromFile("TSL_KEYSTORE_LOCATION", ConfigurationParameter.TslKeyStoreLocation);
     this.setConfigurationParameterFromFile("TSL_KEYSTORE_PASSWORD", ConfigurationParameter.TslKeyStorePassword);
     this.setConfigurationParameterFromFile("TSL_CACHE_EXPIRATION_TIME",
         ConfigurationParameter.TslCacheExpirationTimeInMillis);
+    this.setConfigurationParameterFromFile("TSL_SNAPSHOT_LOCATION", ConfigurationParameter.TslSnapshotLocation);
+    this.setConfigurationParameterFromFile("TSL_BACKGROUND_REFRESH", ConfigurationParameter.TslBackgroundRefresh);
+    this.setConfigurationParameterFromFile("TSL_MAX_STALENESS", ConfigurationParameter.TslMaxStalenessInMillis);
     this.setConfigurationParameterFromFile("REVOCATION_AND_TIMESTAMP_DELTA_IN_MINUTES",
         ConfigurationParameter.RevocationAndTimestampDeltaInMinutes);
     this.setConfigurationParameterFromFile("ALLOWED_TS_AND_OCSP_RESPONSE_DELTA_IN_MINUTES",
@@ -1789,6 +2281,30 @@ public class Configuration implements Serializable {
     this.setConfigurationParameterFromFile("SIGNATURE_DIGEST_ALGORITHM",
         ConfigurationParameter.SignatureDigestAlgorithm);
     this.setConfigurationParameterFromFile("PRINT_VALIDATION_REPORT", ConfigurationParameter.PrintValidationReport);
+    this.setConfigurationParameterFromFile("LAZY_DATA_FILE_LOADING", ConfigurationParameter.LazyDataFileLoading);
+    this.setConfigurationParameterFromFile("LAZY_SIGNATURE_PARSING", ConfigurationParameter.LazySignatureParsing);
+    this.setConfigurationParameterFromFile("INCREMENTAL_CONTAINER_SAVING",
+        ConfigurationParameter.IncrementalContainerSaving);
+    this.setConfigurationParameterFromFile("PARALLEL_ZIP_COMPRESSION", ConfigurationParameter.ParallelZipCompression);
+    this.setConfigurationParameterFromFile("ZIP_COMPRESSION_LEVEL", ConfigurationParameter.ZipCompressionLevel);
+    this.setConfigurationParameterValueListFromFile("STORED_MIME_TYPES", ConfigurationParameter.StoredMimeTypes);
+    this.setConfigurationParameterFromFile("TEMPORARY_FILE_DIRECTORY", ConfigurationParameter.TemporaryFileDirectory);
+    this.setConfigurationParameterFromFile("TEMPORARY_FILE_QUOTA_IN_BYTES",
+        ConfigurationParameter.TemporaryFileQuotaInBytes);
+    this.setConfigurationParameterFromFile("MAX_PARALLEL_SIGNATURE_VALIDATIONS",
+        ConfigurationParameter.MaxParallelSignatureValidations);
+    this.setConfigurationParameterFromFile("HTTP_CONNECTION_POOLING", ConfigurationParameter.HttpConnectionPooling);
+    this.setConfigurationParameterFromFile("HTTP_CONNECTIONS_MAX_TOTAL",
+        ConfigurationParameter.HttpConnectionsMaxTotal);
+    this.setConfigurationParameterFromFile("HTTP_CONNECTIONS_MAX_PER_ROUTE",
+        ConfigurationParameter.HttpConnectionsMaxPerRoute);
+    this.setConfigurationParameterFromFile("HTTP_CONNECTION_IDLE_TIMEOUT_IN_MILLIS",
+        ConfigurationParameter.HttpConnectionIdleTimeoutInMillis);
+    this.setConfigurationParameterFromFile("AIA_CACHE", ConfigurationParameter.AiaCache);
+    this.setConfigurationParameterFromFile("AIA_CACHE_MAX_ENTRIES", ConfigurationParameter.AiaCacheMaxEntries);
+    this.setConfigurationParameterFromFile("AIA_CACHE_TIME_TO_LIVE_IN_MILLIS",
+        ConfigurationParameter.AiaCacheTimeToLiveInMillis);
+    this.setConfigurationParameterFromFile("AIA_CACHE_DIRECTORY", ConfigurationParameter.AiaCacheDirectory);
     this.setDDoc4JDocConfigurationValue("SIGN_OCSP_REQUESTS", Boolean.toString(this.hasToBeOCSPRequestSigned()));
     this.setDDoc4JDocConfigurationValue("DIGIDOC_PKCS12_CONTAINER", this.getOCSPAccessCertificateFileName());
     this.initOcspAccessCertPasswordForDDoc4J();
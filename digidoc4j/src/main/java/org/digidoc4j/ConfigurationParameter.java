@@ -8,6 +8,9 @@ public enum ConfigurationParameter {
   ConnectionTimeoutInMillis,
   SocketTimeoutInMillis,
   TslCacheExpirationTimeInMillis,
+  TslSnapshotLocation,
+  TslBackgroundRefresh,
+  TslMaxStalenessInMillis,
   TslKeyStorePassword,
   RevocationAndTimestampDeltaInMinutes,
   AllowedTimestampAndOCSPResponseDeltaInMinutes,
@@ -37,6 +40,7 @@ public enum ConfigurationParameter {
   SupportedSslProtocols("SUPPORTED_SSL_PROTOCOLS"),
   SupportedSslCipherSuites("SUPPORTED_SSL_CIPHER_SUITES"),
   SignOcspRequests,
+  OcspRequestSignatureDigestAlgorithm,
   TspsCount,
   TspCountrySource,
   TspCountryKeystorePath,
@@ -50,6 +54,23 @@ public enum ConfigurationParameter {
   AllowASN1UnsafeInteger,
   PrintValidationReport,
   IsFullSimpleReportNeeded,
+  LazyDataFileLoading,
+  LazySignatureParsing,
+  IncrementalContainerSaving,
+  ParallelZipCompression,
+  ZipCompressionLevel,
+  StoredMimeTypes,
+  TemporaryFileDirectory,
+  TemporaryFileQuotaInBytes,
+  MaxParallelSignatureValidations,
+  HttpConnectionPooling,
+  HttpConnectionsMaxTotal,
+  HttpConnectionsMaxPerRoute,
+  HttpConnectionIdleTimeoutInMillis,
+  AiaCache,
+  AiaCacheMaxEntries,
+  AiaCacheTimeToLiveInMillis,
+  AiaCacheDirectory,
 
   TslHttpProxyHost("TSL_HTTP_PROXY_HOST"),
   TslHttpProxyPort("TSL_HTTP_PROXY_PORT"),
@@ -49,6 +49,11 @@ public final class Constant {
     public static final String SIGNATURE_PROFILE = "LT";
     public static final String SIGNATURE_DIGEST_ALGORITHM = "SHA256";
     public static final String FULL_SIMPLE_REPORT = "false";
+    public static final int HTTP_CONNECTIONS_MAX_TOTAL = 50;
+    public static final int HTTP_CONNECTIONS_MAX_PER_ROUTE = 20;
+    public static final long HTTP_CONNECTION_IDLE_TIMEOUT_IN_MILLIS = 30 * ONE_SECOND_IN_MILLISECONDS;
+    public static final int AIA_CACHE_MAX_ENTRIES = 1000;
+    public static final long AIA_CACHE_TIME_TO_LIVE_IN_MILLIS = ONE_DAY_IN_MILLISECONDS;
   }
 
   public static class Test {
@@ -29,7 +29,7 @@ import eu.europa.esig.dss.model.MimeType;
  * To modify the data list of a signed container by adding or removing datafiles you must first
  * remove all the signatures.
  */
-public interface Container extends Serializable {
+public interface Container extends Serializable, AutoCloseable {
 
   /**
    * Adds a data file from the file system to the container.
@@ -322,6 +322,17 @@ public interface Container extends Serializable {
    */
   void save(OutputStream out);
 
+  /**
+   * Releases the temporary files holding the content of the data files of the container.
+   * <p>
+   * The container and its data files must not be used after closing the container. Containers that do not hold any
+   * temporary files do nothing.
+   * </p>
+   */
+  @Override
+  default void close() {
+  }
+
   /**
    * Signs all data files in the container.
    *
@@ -0,0 +1,288 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j;
+
+import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.asic.AsicFileContainerParser;
+import org.digidoc4j.impl.asic.AsicParseResult;
+import org.digidoc4j.impl.asic.xades.ValidationPolicyCache;
+import org.digidoc4j.impl.ddoc.DDocOpener;
+import org.digidoc4j.impl.pades.PadesContainer;
+import org.digidoc4j.utils.Helper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Validates a large number of containers with the same configuration.
+ * <p/>
+ * The containers are opened and validated concurrently, at most {@link #getMaxParallelContainers()} at a time, and
+ * the results are passed to the result consumer in the order the validations complete. The next container is taken
+ * from the sources only when a validation has completed, so only the containers being validated are held in memory.
+ * <p/>
+ * All the validations share the TSL, the parsed validation policy and, when enabled with
+ * {@link Configuration#setAiaCache(boolean)}, the AIA response cache of the configuration. The TSL and the validation
+ * policy are loaded before the first container is validated.
+ * <p/>
+ * Example:
+ * <pre>
+ *   new ContainerBatchValidator(configuration)
+ *       .withMaxParallelContainers(8)
+ *       .validate(Files.list(directory).map(ContainerBatchValidator.Source::of), result -&gt; ...);
+ * </pre>
+ */
+public class ContainerBatchValidator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ContainerBatchValidator.class);
+  private static final AtomicInteger threadCounter = new AtomicInteger();
+  private final Configuration configuration;
+  private int maxParallelContainers = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * @param configuration configuration used for opening and validating all the containers
+   */
+  public ContainerBatchValidator(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Set the number of containers validated at the same time. Defaults to the number of processors.
+   * <p/>
+   * The signatures of the containers are validated by the thread executor of the configuration, see
+   * {@link Configuration#setThreadExecutor(ExecutorService)}.
+   *
+   * @param maxParallelContainers number of containers validated at the same time
+   * @return ContainerBatchValidator
+   */
+  public ContainerBatchValidator withMaxParallelContainers(int maxParallelContainers) {
+    if (maxParallelContainers < 1) {
+      throw new IllegalArgumentException("Number of parallel containers must be positive: " + maxParallelContainers);
+    }
+    this.maxParallelContainers = maxParallelContainers;
+    return this;
+  }
+
+  public int getMaxParallelContainers() {
+    return maxParallelContainers;
+  }
+
+  /**
+   * Validates the containers.
+   *
+   * @param sources        containers to validate
+   * @param resultConsumer consumer of the results, called on the calling thread as the validations complete
+   */
+  public void validate(Stream<Source> sources, Consumer<Result> resultConsumer) {
+    this.validate(sources.iterator(), resultConsumer);
+  }
+
+  /**
+   * Validates the containers.
+   *
+   * @param sources        containers to validate
+   * @param resultConsumer consumer of the results, called on the calling thread as the validations complete
+   */
+  public void validate(Iterator<Source> sources, Consumer<Result> resultConsumer) {
+    this.loadSharedValidationContext();
+    ExecutorService executor = Executors.newFixedThreadPool(this.maxParallelContainers, runnable -> {
+      Thread thread = new Thread(runnable, "container-batch-validation-" + threadCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<Result> completionService = new ExecutorCompletionService<>(executor);
+      int runningValidations = 0;
+      while (runningValidations > 0 || sources.hasNext()) {
+        while (runningValidations < this.maxParallelContainers && sources.hasNext()) {
+          Source source = sources.next();
+          completionService.submit(() -> this.validate(source));
+          runningValidations++;
+        }
+        Result result = this.takeResult(completionService);
+        runningValidations--;
+        resultConsumer.accept(result);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private void loadSharedValidationContext() {
+    logger.debug("Loading TSL and validation policy for batch validation");
+    int numberOfCertificates = this.configuration.getTSL().getNumberOfCertificates();
+    ValidationPolicyCache.getValidationPolicy(this.configuration);
+    logger.debug("Validating containers with <{}> trusted certificates, <{}> at a time", numberOfCertificates,
+        this.maxParallelContainers);
+  }
+
+  private Result validate(Source source) {
+    logger.debug("Validating container <{}>", source.getName());
+    try {
+      Container container = source.opener.apply(this.configuration);
+      try {
+        return new Result(source.getName(), container.validate(), null);
+      } finally {
+        if (source.closeContainer) {
+          container.close();
+        }
+      }
+    } catch (DigiDoc4JException e) {
+      logger.warn("Unable to validate container <{}>: {}", source.getName(), e.getMessage());
+      return new Result(source.getName(), null, e);
+    } catch (RuntimeException e) {
+      logger.warn("Unable to validate container <{}>: {}", source.getName(), e.getMessage());
+      return new Result(source.getName(), null, new DigiDoc4JException(e));
+    }
+  }
+
+  private Result takeResult(CompletionService<Result> completionService) {
+    try {
+      return completionService.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TechnicalException("Batch validation was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new TechnicalException("Error validating containers on multiple threads: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Opens the container like {@link ContainerOpener#open(String, Configuration)} but without reloading the shared
+   * configuration, which is not safe while other containers are validated with it.
+   */
+  private static Container openFile(Path path, Configuration configuration) {
+    String fileName = path.toString();
+    try {
+      if (Helper.isPdfFile(fileName)) {
+        return new PadesContainer(configuration, fileName);
+      } else if (Helper.isZipFile(path.toFile())) {
+        AsicParseResult parseResult = new AsicFileContainerParser(fileName, configuration).read();
+        return ContainerOpener.open(parseResult, configuration);
+      } else {
+        return new DDocOpener().open(fileName, configuration);
+      }
+    } catch (IOException e) {
+      throw new DigiDoc4JException(e);
+    }
+  }
+
+  /**
+   * Container to validate.
+   */
+  public static final class Source {
+
+    private final String name;
+    private final Function<Configuration, Container> opener;
+    private final boolean closeContainer;
+
+    private Source(String name, Function<Configuration, Container> opener, boolean closeContainer) {
+      this.name = name;
+      this.opener = opener;
+      this.closeContainer = closeContainer;
+    }
+
+    /**
+     * @param path container file
+     * @return container source named by the path
+     */
+    public static Source of(Path path) {
+      return new Source(path.toString(), configuration -> openFile(path, configuration), true);
+    }
+
+    /**
+     * @param name   name of the container in the result
+     * @param stream container stream, closed after the container has been read
+     * @return container source
+     */
+    public static Source of(String name, InputStream stream) {
+      return new Source(name, configuration -> ContainerOpener.open(stream, configuration), true);
+    }
+
+    /**
+     * The parse result stays owned by the caller: the container opened from it is not closed after the validation,
+     * so the temporary files and the container file of the parse result are released only when the caller calls
+     * {@link AsicParseResult#close()}.
+     *
+     * @param name        name of the container in the result
+     * @param parseResult already parsed ASiC container
+     * @return container source
+     */
+    public static Source of(String name, AsicParseResult parseResult) {
+      return new Source(name, configuration -> ContainerOpener.open(parseResult, configuration), false);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+  }
+
+  /**
+   * Validation result of a container.
+   */
+  public static final class Result {
+
+    private final String name;
+    private final ContainerValidationResult validationResult;
+    private final DigiDoc4JException error;
+
+    private Result(String name, ContainerValidationResult validationResult, DigiDoc4JException error) {
+      this.name = name;
+      this.validationResult = validationResult;
+      this.error = error;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return validation result or null if the container could not be opened or validated
+     */
+    public ContainerValidationResult getValidationResult() {
+      return validationResult;
+    }
+
+    /**
+     * @return reason why the container could not be opened or validated or null if it was validated
+     */
+    public DigiDoc4JException getError() {
+      return error;
+    }
+
+    /**
+     * @return true if the container was validated and is valid
+     */
+    public boolean isValid() {
+      return validationResult != null && validationResult.isValid();
+    }
+
+  }
+
+}
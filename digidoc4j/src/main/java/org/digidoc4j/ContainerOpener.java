@@ -107,14 +107,7 @@ public class ContainerOpener {
     try (BufferedInputStream bufferedInputStream = new BufferedInputStream(stream)) {
       if (Helper.isZipFile(bufferedInputStream)) {
         AsicParseResult parseResult = new AsicStreamContainerParser(bufferedInputStream, configuration).read();
-        if (isAsicSContainer(parseResult)){
-          return new AsicSContainer(parseResult, configuration);
-        }
-        if (isBDocContainer(parseResult)) {
-          return new BDocContainer(parseResult, configuration);
-        }
-
-        return new AsicEContainer(parseResult, configuration);
+        return open(parseResult, configuration);
       } else {
         return new DDocOpener().open(bufferedInputStream, configuration);
       }
@@ -123,9 +116,14 @@ public class ContainerOpener {
     }
   }
 
-  private static Container openAsicContainer(String path, Configuration configuration) {
-    configuration.loadConfiguration("digidoc4j.yaml", false);
-    AsicParseResult parseResult = new AsicFileContainerParser(path, configuration).read();
+  /**
+   * Open ASiC container from an already parsed container.
+   *
+   * @param parseResult   parsed ASiC container.
+   * @param configuration configuration settings.
+   * @return opened ASiC-E, ASiC-S or BDOC container.
+   */
+  public static Container open(AsicParseResult parseResult, Configuration configuration) {
     if (isAsicSContainer(parseResult)){
       return new AsicSContainer(parseResult, configuration);
     }
@@ -136,6 +134,12 @@ public class ContainerOpener {
     return new AsicEContainer(parseResult, configuration);
   }
 
+  private static Container openAsicContainer(String path, Configuration configuration) {
+    configuration.loadConfiguration("digidoc4j.yaml", false);
+    AsicParseResult parseResult = new AsicFileContainerParser(path, configuration).read();
+    return open(parseResult, configuration);
+  }
+
   private static Container openPadesContainer(String path, Configuration configuration) {
     configuration.loadConfiguration("digidoc4j.yaml", false);
     return new PadesContainer(configuration, path);
@@ -151,7 +155,7 @@ public class ContainerOpener {
 
   private static boolean hasBDocOnlySignature(List<XadesSignatureWrapper> signatureWrappers) {
     for (XadesSignatureWrapper signatureWrapper : signatureWrappers) {
-      if (SignatureContainerMatcherValidator.isBDocOnlySignature(signatureWrapper.getSignature().getProfile())) {
+      if (signatureWrapper.isBDocOnlySignature()) {
         return true;
       }
     }
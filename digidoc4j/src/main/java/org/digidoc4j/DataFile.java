@@ -12,17 +12,19 @@ package org.digidoc4j;
 
 import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.model.DSSException;
-import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.model.Digest;
 import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.model.FileDocument;
 import eu.europa.esig.dss.model.InMemoryDocument;
 import eu.europa.esig.dss.model.MimeType;
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
 import org.digidoc4j.exceptions.DigiDoc4JException;
 import org.digidoc4j.exceptions.InvalidDataFileException;
 import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.CachingFileDocument;
 import org.digidoc4j.impl.StreamDocument;
+import org.digidoc4j.impl.ZipEntryDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,7 +58,7 @@ public class DataFile implements Serializable {
   public DataFile(String path, String mimeType) {
     logger.debug("Path: " + path + ", mime type: " + mimeType);
     try {
-      document = new FileDocument(path);
+      document = new CachingFileDocument(path);
       document.setMimeType(getMimeType(mimeType));
     } catch (Exception e) {
       logger.error(e.getMessage());
@@ -158,7 +160,7 @@ public class DataFile implements Serializable {
 
   byte[] calculateDigestInternal(DigestAlgorithm digestAlgorithm) {
     logger.debug("Digest algorithm: " + digestAlgorithm);
-    return DSSUtils.digest(digestAlgorithm, getBytes());
+    return Base64.decodeBase64(document.getDigest(digestAlgorithm));
   }
 
   /**
@@ -190,6 +192,11 @@ public class DataFile implements Serializable {
    */
   public long getFileSize() {
     long fileSize;
+    if (document instanceof ZipEntryDocument) {
+      fileSize = ((ZipEntryDocument) document).getSize();
+      logger.debug("Zip entry document size: " + fileSize);
+      return fileSize;
+    }
     if (document instanceof StreamDocument || document instanceof FileDocument) {
       try {
         fileSize = Files.size(Paths.get(document.getAbsolutePath()));
@@ -228,7 +235,7 @@ public class DataFile implements Serializable {
    * @throws java.io.IOException on file write error
    */
   public void saveAs(OutputStream out) throws IOException {
-    out.write(getBytes());
+    document.writeTo(out);
     out.close();
   }
 
@@ -29,16 +29,29 @@ public class LargeDataFile extends DataFile {
   private static final Logger logger = LoggerFactory.getLogger(LargeDataFile.class);
 
   /**
-   * Creates a data file from a stream that is going to be stored as a temporary file on the file system.
+   * Creates a data file from a stream that is going to be stored as a temporary file on the file system. The
+   * temporary file directory and quota of the global configuration, see {@link Configuration#getInstance()}, are used.
    *
    * @param stream   data file stream.
    * @param fileName name of the file
    * @param mimeType MIME type of the stream file, for example 'text/plain' or 'application/msword'
    */
   public LargeDataFile(InputStream stream, String fileName, String mimeType) {
+    this(stream, fileName, mimeType, Configuration.getInstance());
+  }
+
+  /**
+   * Creates a data file from a stream that is going to be stored as a temporary file on the file system.
+   *
+   * @param stream        data file stream.
+   * @param fileName      name of the file
+   * @param mimeType      MIME type of the stream file, for example 'text/plain' or 'application/msword'
+   * @param configuration configuration holding the temporary file directory and quota
+   */
+  public LargeDataFile(InputStream stream, String fileName, String mimeType, Configuration configuration) {
     logger.debug("Large file name: " + fileName + ", mime type: " + mimeType);
     try {
-      DSSDocument document = new StreamDocument(stream, fileName, getMimeType(mimeType));
+      DSSDocument document = new StreamDocument(stream, fileName, getMimeType(mimeType), configuration);
       setDocument(document);
     } catch (Exception e) {
       logger.error(e.getMessage());
@@ -5,6 +5,7 @@ import java.util.concurrent.ExecutorService;
 
 import eu.europa.esig.dss.tsl.job.TLValidationJob;
 import org.digidoc4j.impl.ConfigurationSingeltonHolder;
+import org.digidoc4j.impl.HttpConnectionPool;
 import org.digidoc4j.impl.asic.tsl.LazyTslCertificateSource;
 import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 
@@ -35,6 +36,7 @@ public class ShutdownHook extends Thread {
   @Override
   public void run() {
     this.shutdownDefaultExecutorService();
+    this.closeHttpConnectionPools();
     if (ConfigurationSingeltonHolder.isInitialized()) {
       Configuration configuration = ConfigurationSingeltonHolder.getInstance();
       this.shutdownExecutorService(configuration);
@@ -57,6 +59,14 @@ public class ShutdownHook extends Thread {
     }
   }
 
+  private void closeHttpConnectionPools() {
+    try {
+      HttpConnectionPool.close();
+    } catch (Exception e) {
+      System.err.println(String.format("Unable to close HTTP connection pools: %s", e.getMessage()));
+    }
+  }
+
   private void shutdownExecutorService(Configuration configuration) {
     ExecutorService executorService = configuration.getThreadExecutor();
     if (executorService != null) {
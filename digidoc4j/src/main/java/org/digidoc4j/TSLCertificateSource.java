@@ -88,4 +88,41 @@ public interface TSLCertificateSource extends CertificateSource {
   void invalidateCache();
 
   void refresh();
+
+  /**
+   * Version of the trusted certificates. The version changes every time the TSL is refreshed or a certificate is
+   * added, so the validation results depending on the previous trusted certificates can be recomputed.
+   *
+   * @return trust state version
+   */
+  default long getTrustStateVersion() {
+    return 0;
+  }
+
+  /**
+   * Duration of the last download and validation of the TSL.
+   *
+   * @return duration in milliseconds or -1 if the TSL has not been downloaded
+   */
+  default long getLastRefreshDurationInMillis() {
+    return -1;
+  }
+
+  /**
+   * Time since the TSL in use was downloaded.
+   *
+   * @return age in milliseconds or null if the TSL has not been loaded or is not downloaded
+   */
+  default Long getTslAgeInMillis() {
+    return null;
+  }
+
+  /**
+   * Number of failed TSL refreshes, which left the previously loaded TSL in use.
+   *
+   * @return number of failed refreshes
+   */
+  default long getFailedRefreshCount() {
+    return 0;
+  }
 }
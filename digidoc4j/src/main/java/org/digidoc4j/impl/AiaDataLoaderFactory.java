@@ -49,6 +49,10 @@ public class AiaDataLoaderFactory implements DataLoaderFactory {
     dataLoader.setReadTimeout(configuration.getSocketTimeout());
     dataLoader.setFollowRedirects(MAX_REDIRECTS_TO_FOLLOW);
     dataLoader.setUserAgent(userAgent);
+    if (configuration.isAiaCache()) {
+      logger.debug("Caching AIA responses");
+      return new CachingDataLoader(dataLoader, DataLoaderResponseCache.of(configuration));
+    }
     return dataLoader;
   }
 
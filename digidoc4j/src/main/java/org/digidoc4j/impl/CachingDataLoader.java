@@ -0,0 +1,84 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl;
+
+import eu.europa.esig.dss.spi.client.http.DataLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Data loader that answers GET requests from a {@link DataLoaderResponseCache} and loads only the responses missing
+ * from the cache with the wrapped data loader. POST requests, like OCSP requests with a nonce, are never cached.
+ */
+public class CachingDataLoader implements DataLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingDataLoader.class);
+
+  private final DataLoader dataLoader;
+  private final transient DataLoaderResponseCache cache;
+
+  /**
+   * @param dataLoader data loader to load the responses missing from the cache with
+   * @param cache      response cache
+   */
+  public CachingDataLoader(DataLoader dataLoader, DataLoaderResponseCache cache) {
+    this.dataLoader = dataLoader;
+    this.cache = cache;
+  }
+
+  @Override
+  public byte[] get(String url) {
+    return get(url, false);
+  }
+
+  @Override
+  public DataAndUrl get(List<String> urlStrings) {
+    return dataLoader.get(urlStrings);
+  }
+
+  /**
+   * @param url     the url to access
+   * @param refresh true to bypass the cache and replace the cached response
+   * @return response
+   */
+  @Override
+  public byte[] get(String url, boolean refresh) {
+    if (!refresh && cache != null) {
+      byte[] cachedResponse = cache.get(url);
+      if (cachedResponse != null) {
+        LOGGER.debug("Using cached response of <{}>", url);
+        return cachedResponse;
+      }
+    }
+    byte[] response = refresh ? dataLoader.get(url, true) : dataLoader.get(url);
+    if (response != null && response.length > 0 && cache != null) {
+      cache.put(url, response);
+    }
+    return response;
+  }
+
+  @Override
+  public byte[] post(String url, byte[] content) {
+    return dataLoader.post(url, content);
+  }
+
+  @Override
+  public void setContentType(String contentType) {
+    dataLoader.setContentType(contentType);
+  }
+
+  public DataLoader getDataLoader() {
+    return dataLoader;
+  }
+
+}
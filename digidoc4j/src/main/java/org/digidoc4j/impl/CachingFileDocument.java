@@ -0,0 +1,48 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import java.io.File;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.FileDocument;
+import eu.europa.esig.dss.utils.Utils;
+
+/**
+ * @see FileDocument that accepts digests calculated elsewhere into its digest cache.
+ */
+public class CachingFileDocument extends FileDocument implements DigestCachingDocument {
+
+  /**
+   * @param path path of the file
+   */
+  public CachingFileDocument(String path) {
+    super(path);
+  }
+
+  /**
+   * @param file the file
+   */
+  public CachingFileDocument(File file) {
+    super(file);
+  }
+
+  @Override
+  public boolean isDigestCached(DigestAlgorithm digestAlgorithm) {
+    return base64EncodeDigestMap.containsKey(digestAlgorithm);
+  }
+
+  @Override
+  public void cacheDigest(DigestAlgorithm digestAlgorithm, byte[] digest) {
+    base64EncodeDigestMap.put(digestAlgorithm, Utils.toBase64(digest));
+  }
+
+}
@@ -0,0 +1,235 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.digidoc4j.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size and time bounded cache of the responses downloaded by data loaders, keyed by the URL.
+ * <p/>
+ * The responses are kept in memory and, when a cache directory is configured, also on disk. Caches are shared by all
+ * the configurations with the same cache settings.
+ */
+public class DataLoaderResponseCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataLoaderResponseCache.class);
+  private static final Map<List<Object>, DataLoaderResponseCache> caches = new ConcurrentHashMap<>();
+
+  private final int maxEntries;
+  private final long timeToLiveInMillis;
+  private final File directory;
+  private final Map<String, CachedResponse> responses;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * @param maxEntries         maximum number of responses kept in memory
+   * @param timeToLiveInMillis time the responses are cached
+   * @param directory          directory of the responses cached on disk or null to cache only in memory
+   */
+  public DataLoaderResponseCache(int maxEntries, long timeToLiveInMillis, File directory) {
+    this.maxEntries = maxEntries;
+    this.timeToLiveInMillis = timeToLiveInMillis;
+    this.directory = directory;
+    this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+        if (size() > DataLoaderResponseCache.this.maxEntries) {
+          evictionCount.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get the AIA response cache of the configuration.
+   *
+   * @param configuration configuration
+   * @return cache shared by the configurations with the same AIA cache settings
+   */
+  public static DataLoaderResponseCache of(Configuration configuration) {
+    String directory = configuration.getAiaCacheDirectory();
+    List<Object> settings = Arrays.asList(configuration.getAiaCacheMaxEntries(),
+        configuration.getAiaCacheTimeToLive(), directory);
+    return caches.computeIfAbsent(settings, k -> new DataLoaderResponseCache(configuration.getAiaCacheMaxEntries(),
+        configuration.getAiaCacheTimeToLive(), directory == null ? null : new File(directory)));
+  }
+
+  /**
+   * @param url URL of the response
+   * @return cached response or null if the response is not cached or has expired
+   */
+  public byte[] get(String url) {
+    long now = System.currentTimeMillis();
+    CachedResponse response;
+    synchronized (responses) {
+      response = responses.get(url);
+      if (response != null && response.isExpired(now)) {
+        responses.remove(url);
+        response = null;
+      }
+    }
+    if (response == null && directory != null) {
+      response = readFromDisk(url, now);
+      if (response != null) {
+        synchronized (responses) {
+          responses.put(url, response);
+        }
+      }
+    }
+    if (response == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return response.content.clone();
+  }
+
+  /**
+   * @param url     URL of the response
+   * @param content response
+   */
+  public void put(String url, byte[] content) {
+    CachedResponse response = new CachedResponse(content.clone(), System.currentTimeMillis() + timeToLiveInMillis);
+    synchronized (responses) {
+      responses.put(url, response);
+    }
+    if (directory != null) {
+      writeToDisk(url, response.content);
+    }
+  }
+
+  /**
+   * Removes all the cached responses from memory and disk.
+   */
+  public void clear() {
+    synchronized (responses) {
+      responses.clear();
+    }
+    if (directory != null) {
+      File[] files = directory.listFiles((dir, name) -> name.endsWith(".cache"));
+      if (files != null) {
+        for (File file : files) {
+          if (!file.delete()) {
+            LOGGER.warn("Unable to delete cached response {}", file);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of requests answered from the cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return number of requests not found in the cache
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * @return number of responses removed from memory because the cache was full
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * @return number of responses cached in memory
+   */
+  public int getSize() {
+    synchronized (responses) {
+      return responses.size();
+    }
+  }
+
+  private CachedResponse readFromDisk(String url, long now) {
+    File file = getCacheFile(url);
+    long expirationTime = file.lastModified() + timeToLiveInMillis;
+    if (!file.isFile() || expirationTime <= now) {
+      return null;
+    }
+    try {
+      return new CachedResponse(Files.readAllBytes(file.toPath()), expirationTime);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read cached response of <{}>: {}", url, e.getMessage());
+      return null;
+    }
+  }
+
+  private void writeToDisk(String url, byte[] content) {
+    Path temporaryFile = null;
+    try {
+      Files.createDirectories(directory.toPath());
+      temporaryFile = Files.createTempFile(directory.toPath(), "response", ".tmp");
+      Files.write(temporaryFile, content);
+      Files.move(temporaryFile, getCacheFile(url).toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to cache response of <{}> on disk: {}", url, e.getMessage());
+      deleteQuietly(temporaryFile);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        LOGGER.debug("Unable to delete {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  private File getCacheFile(String url) {
+    return new File(directory, DigestUtils.sha256Hex(url) + ".cache");
+  }
+
+  private static class CachedResponse {
+
+    private final byte[] content;
+    private final long expirationTime;
+
+    CachedResponse(byte[] content, long expirationTime) {
+      this.content = content;
+      this.expirationTime = expirationTime;
+    }
+
+    boolean isExpired(long now) {
+      return expirationTime <= now;
+    }
+
+  }
+
+}
@@ -0,0 +1,35 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSDocument;
+
+/**
+ * Document backed by a file whose digests are cached once calculated and can also be supplied from outside, e.g.
+ * by whoever is already streaming the content for some other purpose, so that the file is not read again just for
+ * {@link #getDigest(DigestAlgorithm)}.
+ */
+public interface DigestCachingDocument extends DSSDocument {
+
+  /**
+   * @param digestAlgorithm digest algorithm
+   * @return true if the digest with the given algorithm is already known
+   */
+  boolean isDigestCached(DigestAlgorithm digestAlgorithm);
+
+  /**
+   * @param digestAlgorithm digest algorithm
+   * @param digest          digest value calculated over the whole content of the document
+   */
+  void cacheDigest(DigestAlgorithm digestAlgorithm, byte[] digest);
+
+}
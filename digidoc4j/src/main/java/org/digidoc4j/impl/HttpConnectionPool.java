@@ -0,0 +1,129 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.digidoc4j.ExternalConnectionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.utils.Utils;
+
+/**
+ * Shared HTTP connection pools of the OCSP and TSA data loaders.
+ * <p/>
+ * There is a pool for every external connection type and set of network settings (proxy, SSL, timeouts). The pooled
+ * connections are kept alive between the requests, so that the OCSP and TSA requests of consecutive signatures do not
+ * need a new TCP connection and TLS handshake. Idle connections are closed by a background thread.
+ */
+public final class HttpConnectionPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+  private static final Map<Key, PooledHttpClient> httpClients = new ConcurrentHashMap<>();
+
+  private HttpConnectionPool() {
+  }
+
+  static CloseableHttpClient getHttpClient(Key key, Function<Key, PooledHttpClient> httpClientFactory) {
+    return httpClients.computeIfAbsent(key, httpClientFactory).httpClient;
+  }
+
+  /**
+   * Get the statistics of the pooled connections of the given type.
+   *
+   * @param connectionType type of external connections
+   * @return number of leased, pending and available connections summed over the pools of the connection type
+   */
+  public static PoolStats getStatistics(ExternalConnectionType connectionType) {
+    int leased = 0;
+    int pending = 0;
+    int available = 0;
+    int max = 0;
+    for (Map.Entry<Key, PooledHttpClient> entry : httpClients.entrySet()) {
+      if (entry.getKey().connectionType == connectionType) {
+        PoolStats stats = entry.getValue().connectionManager.getTotalStats();
+        leased += stats.getLeased();
+        pending += stats.getPending();
+        available += stats.getAvailable();
+        max += stats.getMax();
+      }
+    }
+    return new PoolStats(leased, pending, available, max);
+  }
+
+  /**
+   * Closes all the pooled connections. The pools are created again when a data loader needs them.
+   */
+  public static void close() {
+    Iterator<PooledHttpClient> iterator = httpClients.values().iterator();
+    while (iterator.hasNext()) {
+      PooledHttpClient pooledHttpClient = iterator.next();
+      iterator.remove();
+      logger.debug("Closing {} connection pool", pooledHttpClient.connectionType);
+      Utils.closeQuietly(pooledHttpClient.httpClient);
+    }
+  }
+
+  static final class Key {
+
+    private final ExternalConnectionType connectionType;
+    private final List<Object> settings;
+
+    Key(ExternalConnectionType connectionType, List<Object> settings) {
+      this.connectionType = connectionType;
+      this.settings = settings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return connectionType == key.connectionType && settings.equals(key.settings);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(connectionType, settings);
+    }
+
+  }
+
+  static final class PooledHttpClient {
+
+    private final ExternalConnectionType connectionType;
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    PooledHttpClient(ExternalConnectionType connectionType, CloseableHttpClient httpClient,
+                     PoolingHttpClientConnectionManager connectionManager) {
+      this.connectionType = connectionType;
+      this.httpClient = httpClient;
+      this.connectionManager = connectionManager;
+    }
+
+  }
+
+}
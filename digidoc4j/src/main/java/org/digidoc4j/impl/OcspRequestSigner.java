@@ -0,0 +1,127 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl;
+
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KSPrivateKeyEntry;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.DigestAlgorithm;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.security.PrivateKey;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Signs OCSP requests with the OCSP access certificate of a configuration.
+ * <p/>
+ * The access certificate private key is loaded only once per configuration and OCSP source class, so OCSP sources
+ * of different classes used with the same configuration do not replace each other's signer. The signer is created
+ * again when the keystore file, its password or the signature digest algorithm of the configuration changes.
+ */
+final class OcspRequestSigner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OcspRequestSigner.class);
+  private static final Map<Configuration, Map<Class<?>, OcspRequestSigner>> signers =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final String keyStoreFileName;
+  private final char[] keyStorePassword;
+  private final DigestAlgorithm digestAlgorithm;
+  private final PrivateKey privateKey;
+  private final X509CertificateHolder[] certificateChain;
+  private final GeneralName requestorName;
+  private final JcaContentSignerBuilder contentSignerBuilder;
+
+  private OcspRequestSigner(Configuration configuration, SKOnlineOCSPSource ocspSource)
+      throws IOException, CertificateEncodingException {
+    this.keyStoreFileName = configuration.getOCSPAccessCertificateFileName();
+    this.keyStorePassword = configuration.getOCSPAccessCertificatePassword();
+    this.digestAlgorithm = configuration.getOcspRequestSignatureDigestAlgorithm();
+    LOGGER.debug("Loading OCSP access certificate from <{}>", keyStoreFileName);
+    DSSPrivateKeyEntry privateKeyEntry = ocspSource.getOCSPAccessCertificatePrivateKey();
+    X509Certificate certificate = privateKeyEntry.getCertificate().getCertificate();
+    this.privateKey = ((KSPrivateKeyEntry) privateKeyEntry).getPrivateKey();
+    X509CertificateHolder certificateHolder = new X509CertificateHolder(certificate.getEncoded());
+    this.certificateChain = new X509CertificateHolder[]{certificateHolder};
+    this.requestorName = new GeneralName(certificateHolder.getSubject());
+    this.contentSignerBuilder = new JcaContentSignerBuilder(getSignatureAlgorithm(digestAlgorithm, privateKey));
+  }
+
+  /**
+   * Get the signer of the configuration, loading the OCSP access certificate private key through
+   * {@link SKOnlineOCSPSource#getOCSPAccessCertificatePrivateKey()} if it has not been loaded yet for the OCSP source
+   * class or the access certificate settings have changed.
+   *
+   * @param configuration configuration
+   * @param ocspSource    OCSP source loading the private key
+   * @return OCSP request signer
+   */
+  static OcspRequestSigner of(Configuration configuration, SKOnlineOCSPSource ocspSource) {
+    synchronized (signers) {
+      Map<Class<?>, OcspRequestSigner> signersBySourceClass = signers.get(configuration);
+      if (signersBySourceClass == null) {
+        signersBySourceClass = new HashMap<>();
+        signers.put(configuration, signersBySourceClass);
+      }
+      OcspRequestSigner signer = signersBySourceClass.get(ocspSource.getClass());
+      if (signer == null || !signer.isCreatedFrom(configuration)) {
+        try {
+          signer = new OcspRequestSigner(configuration, ocspSource);
+        } catch (IOException | CertificateEncodingException e) {
+          throw new TechnicalException("Unable to load OCSP access certificate", e);
+        }
+        signersBySourceClass.put(ocspSource.getClass(), signer);
+      }
+      return signer;
+    }
+  }
+
+  /**
+   * Signs the OCSP request.
+   *
+   * @param requestBuilder OCSP request builder with the requests and extensions added
+   * @return signed OCSP request
+   * @throws OCSPException             if the request cannot be built
+   * @throws OperatorCreationException if the signature algorithm is not supported
+   */
+  OCSPReq sign(OCSPReqBuilder requestBuilder) throws OCSPException, OperatorCreationException {
+    requestBuilder.setRequestorName(requestorName);
+    return requestBuilder.build(contentSignerBuilder.build(privateKey), certificateChain);
+  }
+
+  private boolean isCreatedFrom(Configuration configuration) {
+    return keyStoreFileName.equals(configuration.getOCSPAccessCertificateFileName())
+        && Arrays.equals(keyStorePassword, configuration.getOCSPAccessCertificatePassword())
+        && digestAlgorithm == configuration.getOcspRequestSignatureDigestAlgorithm();
+  }
+
+  private static String getSignatureAlgorithm(DigestAlgorithm digestAlgorithm, PrivateKey privateKey) {
+    String encryptionAlgorithm = "EC".equals(privateKey.getAlgorithm()) ? "ECDSA" : "RSA";
+    return digestAlgorithm.name() + "with" + encryptionAlgorithm;
+  }
+
+}
@@ -20,16 +20,13 @@ import eu.europa.esig.dss.spi.client.http.DataLoader;
 import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPSource;
 import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPToken;
 import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
-import eu.europa.esig.dss.token.KSPrivateKeyEntry;
 import eu.europa.esig.dss.token.Pkcs12SignatureToken;
 import org.apache.commons.collections4.CollectionUtils;
 import org.bouncycastle.asn1.DEROctetString;
 import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
-import org.bouncycastle.asn1.x509.GeneralName;
 import org.bouncycastle.cert.X509CertificateHolder;
-import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cert.ocsp.BasicOCSPResp;
 import org.bouncycastle.cert.ocsp.CertificateID;
 import org.bouncycastle.cert.ocsp.OCSPException;
@@ -37,7 +34,6 @@ import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 import org.bouncycastle.cert.ocsp.SingleResp;
 import org.bouncycastle.operator.ContentVerifierProvider;
-import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.Constant;
@@ -150,15 +146,10 @@ public abstract class SKOnlineOCSPSource implements OCSPSource {
       }
       if (this.configuration.hasToBeOCSPRequestSigned()) {
         LOGGER.info("Using signed OCSP request ...");
-        JcaContentSignerBuilder signerBuilder = new JcaContentSignerBuilder("SHA1withRSA");
         if (!this.configuration.isOCSPSigningConfigurationAvailable()) {
           throw new ConfigurationException("Configuration needed for OCSP request signing is not complete");
         }
-        DSSPrivateKeyEntry privateKeyEntry = this.getOCSPAccessCertificatePrivateKey();
-        X509Certificate signingCertificate = privateKeyEntry.getCertificate().getCertificate();
-        builder.setRequestorName(new GeneralName(new JcaX509CertificateHolder(signingCertificate).getSubject()));
-        return builder.build(signerBuilder.build(((KSPrivateKeyEntry) privateKeyEntry).getPrivateKey()),
-                new X509CertificateHolder[]{new X509CertificateHolder(signingCertificate.getEncoded())}).getEncoded();
+        return OcspRequestSigner.of(this.configuration, this).sign(builder).getEncoded();
       }
       return builder.build().getEncoded();
     } catch (Exception e) {
@@ -266,6 +257,13 @@ public abstract class SKOnlineOCSPSource implements OCSPSource {
     }
   }
 
+  /**
+   * Loads the OCSP access certificate private key. The key is loaded once per configuration and cached for signing
+   * the subsequent OCSP requests until the OCSP access certificate settings of the configuration change.
+   *
+   * @return private key entry of the OCSP access certificate
+   * @throws IOException if the keystore cannot be read
+   */
   protected DSSPrivateKeyEntry getOCSPAccessCertificatePrivateKey() throws IOException {
     Pkcs12SignatureToken signatureTokenConnection = new Pkcs12SignatureToken(
             this.configuration.getOCSPAccessCertificateFileName(), new KeyStore.PasswordProtection(this.configuration
@@ -0,0 +1,119 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import eu.europa.esig.dss.model.DSSException;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * ZIP file on disk shared by the {@link ZipEntryDocument}s of a parsed container, so that the central directory of
+ * the file is read once and not every time an entry is opened.
+ * <p/>
+ * The file is opened on first use and kept open until {@link #close()} is called. After that every entry is read
+ * through a ZIP file of its own that is closed together with the entry stream.
+ */
+public class SharedZipFile implements Closeable, Serializable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedZipFile.class);
+
+  private final String path;
+  private transient ZipFile zipFile;
+  private boolean closed;
+
+  /**
+   * @param path path of the ZIP file
+   */
+  public SharedZipFile(String path) {
+    this.path = path;
+  }
+
+  /**
+   * @return path of the ZIP file
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @param entryName name of the entry
+   * @return stream of the inflated entry content
+   * @throws IOException if the ZIP file cannot be read
+   */
+  public InputStream openEntry(String entryName) throws IOException {
+    synchronized (this) {
+      if (!closed) {
+        if (zipFile == null) {
+          logger.debug("Opening shared zip file {}", path);
+          zipFile = new ZipFile(path);
+        }
+        return getEntryStream(zipFile, entryName);
+      }
+    }
+    ZipFile ownZipFile = new ZipFile(path);
+    try {
+      return new OwnZipFileInputStream(ownZipFile, getEntryStream(ownZipFile, entryName));
+    } catch (IOException | RuntimeException e) {
+      IOUtils.closeQuietly(ownZipFile);
+      throw e;
+    }
+  }
+
+  /**
+   * Closes the shared ZIP file. The streams opened from it can not be read any more.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (zipFile != null) {
+      logger.debug("Closing shared zip file {}", path);
+      IOUtils.closeQuietly(zipFile);
+      zipFile = null;
+    }
+  }
+
+  private InputStream getEntryStream(ZipFile zipFile, String entryName) throws IOException {
+    ZipEntry entry = zipFile.getEntry(entryName);
+    if (entry == null) {
+      throw new DSSException("Entry '" + entryName + "' not found in " + path);
+    }
+    return zipFile.getInputStream(entry);
+  }
+
+  private static class OwnZipFileInputStream extends FilterInputStream {
+
+    private final ZipFile zipFile;
+
+    OwnZipFileInputStream(ZipFile zipFile, InputStream entryStream) {
+      super(entryStream);
+      this.zipFile = zipFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        zipFile.close();
+      }
+    }
+  }
+
+}
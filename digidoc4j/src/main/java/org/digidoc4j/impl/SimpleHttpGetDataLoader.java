@@ -169,6 +169,10 @@ class SimpleHttpGetDataLoader implements DataLoader {
     return readTimeout;
   }
 
+  /**
+   * The connection is not disconnected after a successful request, so that the JDK can keep it alive and reuse it for
+   * the following requests to the same host.
+   */
   protected byte[] request(String url, boolean refresh) {
     HttpURLConnection connection = null;
     try {
@@ -178,12 +182,18 @@ class SimpleHttpGetDataLoader implements DataLoader {
       }
       return readFromConnection(connection);
     } catch (IOException e) {
+      disconnect(connection);
       throw new IllegalStateException("Failed to read from '" + url + "': " + e.getMessage(), e);
-    } finally {
-      if (connection != null) connection.disconnect();
+    } catch (RuntimeException e) {
+      disconnect(connection);
+      throw e;
     }
   }
 
+  private static void disconnect(HttpURLConnection connection) {
+    if (connection != null) connection.disconnect();
+  }
+
   private HttpURLConnection openAndConfigureConnection(URL url, boolean refresh) throws IOException {
     HttpURLConnection connection = (HttpURLConnection) url.openConnection();
 
@@ -17,11 +17,19 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.util.EntityUtils;
 import org.digidoc4j.Configuration;
+import org.digidoc4j.ExternalConnectionType;
 import org.digidoc4j.ServiceType;
 import org.digidoc4j.exceptions.ConnectionTimedOutException;
 import org.digidoc4j.exceptions.ServiceUnreachableException;
@@ -33,17 +41,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Data loader implementation for SK ID Solutions AS
+ * <p/>
+ * When connection pooling is enabled in the configuration, the HTTP clients are shared through
+ * {@link HttpConnectionPool} by all the data loaders of the same connection type and network settings.
  */
 public abstract class SkDataLoader extends CommonsDataLoader {
 
   protected static final Logger LOGGER = LoggerFactory.getLogger(SkDataLoader.class);
+  private static final String DEFAULT_SSL_PROTOCOL = "TLSv1.2";
   private String userAgent;
+  private ExternalConnectionType connectionType;
+  private Configuration configuration;
 
   protected SkDataLoader() {}
 
@@ -52,6 +72,15 @@ public abstract class SkDataLoader extends CommonsDataLoader {
     DataLoaderDecorator.decorateWithSslSettings(this, configuration);
   }
 
+  protected SkDataLoader(ExternalConnectionType connectionType, Configuration configuration) {
+    DataLoaderDecorator.decorateWithProxySettingsFor(connectionType, this, configuration);
+    DataLoaderDecorator.decorateWithSslSettingsFor(connectionType, this, configuration);
+    if (configuration.isHttpConnectionPooling()) {
+      this.connectionType = connectionType;
+      this.configuration = configuration;
+    }
+  }
+
   @Override
   public byte[] post(final String url, final byte[] content) {
     if (StringUtils.isBlank(url)) {
@@ -95,18 +124,95 @@ public abstract class SkDataLoader extends CommonsDataLoader {
       throw new NetworkException("Unable to process <" + getServiceType() + "> POST call for service <" + url + ">", url, getServiceType(), e);
     } finally {
       try {
-        if (httpRequest != null) {
-          httpRequest.releaseConnection();
-        }
         if (httpResponse != null) {
           EntityUtils.consumeQuietly(httpResponse.getEntity());
         }
+        if (httpRequest != null) {
+          httpRequest.releaseConnection();
+        }
       } finally {
-        Utils.closeQuietly(client);
+        if (!isConnectionPooled()) {
+          Utils.closeQuietly(client);
+        }
       }
     }
   }
 
+  @Override
+  protected synchronized CloseableHttpClient getHttpClient(String url) {
+    if (!isConnectionPooled()) {
+      return super.getHttpClient(url);
+    }
+    HttpConnectionPool.Key key = new HttpConnectionPool.Key(connectionType, getConnectionSettings(url));
+    return HttpConnectionPool.getHttpClient(key, k -> createPooledHttpClient(url));
+  }
+
+  private boolean isConnectionPooled() {
+    return connectionType != null;
+  }
+
+  private List<Object> getConnectionSettings(String url) {
+    return Arrays.asList(URI.create(url.trim()).getScheme(), getTimeoutConnection(), getTimeoutSocket(),
+        isRedirectsEnabled(), configuration.isNetworkProxyEnabledFor(connectionType),
+        configuration.getHttpProxyHostFor(connectionType), configuration.getHttpProxyPortFor(connectionType),
+        configuration.getHttpsProxyHostFor(connectionType), configuration.getHttpsProxyPortFor(connectionType),
+        configuration.getHttpProxyUserFor(connectionType), configuration.getHttpProxyPasswordFor(connectionType),
+        configuration.isSslConfigurationEnabledFor(connectionType),
+        configuration.getSslKeystorePathFor(connectionType), configuration.getSslKeystoreTypeFor(connectionType),
+        configuration.getSslKeystorePasswordFor(connectionType), configuration.getSslTruststorePathFor(connectionType),
+        configuration.getSslTruststoreTypeFor(connectionType), configuration.getSslTruststorePasswordFor(connectionType),
+        configuration.getSslProtocolFor(connectionType), configuration.getSupportedSslProtocolsFor(connectionType),
+        configuration.getSupportedSslCipherSuitesFor(connectionType), configuration.getHttpConnectionsMaxTotal(),
+        configuration.getHttpConnectionsMaxPerRoute(), configuration.getHttpConnectionIdleTimeout());
+  }
+
+  private HttpConnectionPool.PooledHttpClient createPooledHttpClient(String url) {
+    LOGGER.debug("Creating {} connection pool", connectionType);
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(createSocketFactoryRegistry());
+    connectionManager.setMaxTotal(configuration.getHttpConnectionsMaxTotal());
+    connectionManager.setDefaultMaxPerRoute(configuration.getHttpConnectionsMaxPerRoute());
+    CloseableHttpClient httpClient = getHttpClientBuilder(url)
+        .setConnectionManager(connectionManager)
+        .disableConnectionState()
+        .evictExpiredConnections()
+        .evictIdleConnections(configuration.getHttpConnectionIdleTimeout(), TimeUnit.MILLISECONDS)
+        .build();
+    return new HttpConnectionPool.PooledHttpClient(connectionType, httpClient, connectionManager);
+  }
+
+  private Registry<ConnectionSocketFactory> createSocketFactoryRegistry() {
+    try {
+      SSLContextBuilder sslContextBuilder = SSLContextBuilder.create().setProtocol(getSslProtocol());
+      if (getTrustStrategy() != null) {
+        sslContextBuilder.loadTrustMaterial(null, getTrustStrategy());
+      }
+      KeyStore trustStore = getSSLTrustStore();
+      if (trustStore != null) {
+        sslContextBuilder.loadTrustMaterial(trustStore, null);
+      }
+      KeyStore keyStore = getSSLKeyStore();
+      if (keyStore != null) {
+        String keyStorePassword = configuration.getSslKeystorePasswordFor(connectionType);
+        sslContextBuilder.loadKeyMaterial(keyStore, keyStorePassword == null ? null : keyStorePassword.toCharArray());
+      }
+      SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(sslContextBuilder.build(),
+          getSupportedSSLProtocols(), getSupportedSSLCipherSuites(), getHostnameVerifier());
+      return RegistryBuilder.<ConnectionSocketFactory>create()
+          .register("http", PlainConnectionSocketFactory.getSocketFactory())
+          .register("https", sslSocketFactory)
+          .build();
+    } catch (IOException | GeneralSecurityException e) {
+      throw new TechnicalException("Unable to configure SSL for " + connectionType + " connections", e);
+    }
+  }
+
+  private String getSslProtocol() {
+    String sslProtocol = configuration.isSslConfigurationEnabledFor(connectionType)
+        ? configuration.getSslProtocolFor(connectionType) : null;
+    return sslProtocol == null ? DEFAULT_SSL_PROTOCOL : sslProtocol;
+  }
+
   private void validateHttpResponse(CloseableHttpResponse httpResponse, String url) {
     if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_FORBIDDEN) {
       throw new ServiceAccessDeniedException(url, getServiceType());
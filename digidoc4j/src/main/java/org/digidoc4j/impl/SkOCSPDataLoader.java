@@ -14,7 +14,6 @@ import eu.europa.esig.dss.service.http.commons.OCSPDataLoader;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.ExternalConnectionType;
 import org.digidoc4j.ServiceType;
-import org.digidoc4j.impl.asic.DataLoaderDecorator;
 
 public class SkOCSPDataLoader extends SkDataLoader {
 
@@ -22,8 +21,7 @@ public class SkOCSPDataLoader extends SkDataLoader {
   protected static final String OCSP_CONTENT_TYPE = "application/ocsp-request";
 
   public SkOCSPDataLoader(Configuration configuration) {
-    DataLoaderDecorator.decorateWithProxySettingsFor(ExternalConnectionType.OCSP, this, configuration);
-    DataLoaderDecorator.decorateWithSslSettingsFor(ExternalConnectionType.OCSP, this, configuration);
+    super(ExternalConnectionType.OCSP, configuration);
     contentType = OCSP_CONTENT_TYPE;
   }
 
@@ -14,15 +14,13 @@ import eu.europa.esig.dss.service.http.commons.TimestampDataLoader;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.ExternalConnectionType;
 import org.digidoc4j.ServiceType;
-import org.digidoc4j.impl.asic.DataLoaderDecorator;
 
 public class SkTimestampDataLoader extends SkDataLoader {
 
   protected static final String TIMESTAMP_QUERY_CONTENT_TYPE = "application/timestamp-query";
 
   public SkTimestampDataLoader(Configuration configuration) {
-    DataLoaderDecorator.decorateWithProxySettingsFor(ExternalConnectionType.TSP, this, configuration);
-    DataLoaderDecorator.decorateWithSslSettingsFor(ExternalConnectionType.TSP, this, configuration);
+    super(ExternalConnectionType.TSP, configuration);
     contentType = TIMESTAMP_QUERY_CONTENT_TYPE;
   }
 
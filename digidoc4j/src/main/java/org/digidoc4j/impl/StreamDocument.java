@@ -13,11 +13,11 @@ package org.digidoc4j.impl;
 
 import eu.europa.esig.dss.model.CommonDocument;
 import eu.europa.esig.dss.model.DSSException;
-import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.model.MimeType;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
+import org.digidoc4j.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,55 +27,117 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @see eu.europa.esig.dss.model.DSSDocument implementation to handle big files. It writes data to temporary
  * files.
+ * <p/>
+ * Digests are calculated and the content is saved through the {@link FileChannel} of the temporary file, using
+ * {@link FileChannel#transferTo} instead of small stream copies. Digests are read into large direct buffers taken
+ * from a small pool shared by all the threads, so that the off-heap memory held for reading does not grow with the
+ * number of threads. When all the pooled buffers are in use, the digest is calculated through a heap buffer.
  */
-public class StreamDocument extends CommonDocument {
+public class StreamDocument extends CommonDocument implements DigestCachingDocument {
   private static final Logger logger = LoggerFactory.getLogger(StreamDocument.class);
 
-  private static final int MAX_SIZE_IN_MEMORY = 1024 * 5;
+  private static final int MAX_SIZE_IN_MEMORY = 1024 * 64;
+  private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+  private static final int DIGEST_BUFFER_POOL_SIZE = 4;
+  private static final BlockingQueue<ByteBuffer> DIGEST_BUFFERS = new ArrayBlockingQueue<>(DIGEST_BUFFER_POOL_SIZE);
+  private static final AtomicInteger allocatedDigestBuffers = new AtomicInteger();
   File temporaryFile;
+  private final AtomicInteger references = new AtomicInteger();
 
   //TODO if file is small enough you can read it into byte[] and cache it
 
   /**
-   * Add javadoc here
+   * Creates a document whose temporary file is placed in the directory and counted against the quota of the global
+   * configuration, see {@link Configuration#getInstance()}.
    *
    * @param stream       stream
    * @param documentName document Name
    * @param mimeType     mime type
    */
   public StreamDocument(InputStream stream, String documentName, MimeType mimeType) {
+    this(stream, documentName, mimeType, Configuration.getInstance());
+  }
+
+  /**
+   * Creates a document whose temporary file is placed in the directory and counted against the quota of the given
+   * configuration. The temporary file is deleted after the document has been garbage collected.
+   *
+   * @param stream        stream
+   * @param documentName  document Name
+   * @param mimeType      mime type
+   * @param configuration configuration holding the directory and the quota of the temporary files
+   */
+  public StreamDocument(InputStream stream, String documentName, MimeType mimeType, Configuration configuration) {
+    this(stream, documentName, mimeType, new TemporaryFileManager(configuration), false);
+  }
+
+  /**
+   * Creates a document whose temporary file is owned by the given manager until the manager is closed.
+   *
+   * @param stream               stream
+   * @param documentName         document Name
+   * @param mimeType             mime type
+   * @param temporaryFileManager owner of the temporary file
+   */
+  public StreamDocument(InputStream stream, String documentName, MimeType mimeType,
+                        TemporaryFileManager temporaryFileManager) {
+    this(stream, documentName, mimeType, temporaryFileManager, true);
+  }
+
+  private StreamDocument(InputStream stream, String documentName, MimeType mimeType,
+                         TemporaryFileManager temporaryFileManager, boolean register) {
     logger.debug("Document name: " + documentName + ", mime type: " + mimeType);
-    createTemporaryFileOfStream(stream);
+    createTemporaryFileOfStream(stream, temporaryFileManager);
     super.name = documentName;
     super.mimeType = mimeType;
+    if (register) {
+      temporaryFileManager.register(this);
+    }
   }
 
-  private void createTemporaryFileOfStream(InputStream stream) {
+  private void createTemporaryFileOfStream(InputStream stream, TemporaryFileManager temporaryFileManager) {
     byte[] bytes = new byte[MAX_SIZE_IN_MEMORY];
 
-    FileOutputStream out = null;
-
-    try {
-      temporaryFile = File.createTempFile("digidoc4j", ".tmp");
-      out = new FileOutputStream(temporaryFile);
+    temporaryFile = temporaryFileManager.createTemporaryFile(this);
+    try (FileOutputStream out = new FileOutputStream(temporaryFile)) {
       int result;
       while ((result = stream.read(bytes)) > 0) {
+        temporaryFileManager.allocate(temporaryFile, result);
         out.write(bytes, 0, result);
       }
       out.flush();
-      temporaryFile.deleteOnExit();
     } catch (IOException e) {
       logger.error(e.getMessage());
+      TemporaryFileManager.delete(temporaryFile);
       throw new DSSException(e);
-    } finally {
-      IOUtils.closeQuietly(out);
+    } catch (RuntimeException e) {
+      TemporaryFileManager.delete(temporaryFile);
+      throw e;
     }
   }
 
+  void retain() {
+    references.incrementAndGet();
+  }
+
+  void release() {
+    if (references.decrementAndGet() == 0) {
+      TemporaryFileManager.delete(temporaryFile);
+    }
+  }
 
   @Override
   public InputStream openStream() throws DSSException {
@@ -112,30 +174,93 @@ public class StreamDocument extends CommonDocument {
   @Override
   public void save(String filePath) {
     logger.debug("File Path: " + filePath);
-    try {
-      FileOutputStream fileOutputStream = new FileOutputStream(filePath);
-      try {
-        IOUtils.copy(getTemporaryFileAsStream(), fileOutputStream);
-      } finally {
-        fileOutputStream.close();
-      }
+    try (FileOutputStream fileOutputStream = new FileOutputStream(filePath)) {
+      transferTo(fileOutputStream.getChannel());
     } catch (IOException e) {
       logger.error(e.getMessage());
       throw new DSSException(e);
     }
   }
 
+  @Override
+  public void writeTo(OutputStream stream) throws IOException {
+    if (stream instanceof FileOutputStream) {
+      transferTo(((FileOutputStream) stream).getChannel());
+    } else {
+      try (InputStream inputStream = getTemporaryFileAsStream()) {
+        IOUtils.copyLarge(inputStream, stream, new byte[MAX_SIZE_IN_MEMORY]);
+      }
+    }
+  }
+
   @Override
   public String getDigest(DigestAlgorithm digestAlgorithm) {
     logger.debug("Digest algorithm: " + digestAlgorithm);
-    byte[] digestBytes;
-    try {
-      digestBytes = DSSUtils.digest(digestAlgorithm, getTemporaryFileAsStream());
-    } catch (FileNotFoundException e) {
-      logger.error(e.getMessage());
-      throw new DSSException(e);
+    String digest = base64EncodeDigestMap.get(digestAlgorithm);
+    if (digest == null) {
+      ByteBuffer buffer = acquireDigestBuffer();
+      try (FileInputStream stream = getTemporaryFileAsStream()) {
+        MessageDigest messageDigest = digestAlgorithm.getMessageDigest();
+        if (buffer != null) {
+          FileChannel channel = stream.getChannel();
+          while (channel.read(buffer) != -1) {
+            buffer.flip();
+            messageDigest.update(buffer);
+            buffer.clear();
+          }
+        } else {
+          byte[] bytes = new byte[MAX_SIZE_IN_MEMORY];
+          int result;
+          while ((result = stream.read(bytes)) != -1) {
+            messageDigest.update(bytes, 0, result);
+          }
+        }
+        digest = Base64.encodeBase64String(messageDigest.digest());
+      } catch (IOException | NoSuchAlgorithmException e) {
+        logger.error(e.getMessage());
+        throw new DSSException(e);
+      } finally {
+        releaseDigestBuffer(buffer);
+      }
+      base64EncodeDigestMap.put(digestAlgorithm, digest);
+    }
+    return digest;
+  }
+
+  @Override
+  public boolean isDigestCached(DigestAlgorithm digestAlgorithm) {
+    return base64EncodeDigestMap.containsKey(digestAlgorithm);
+  }
+
+  @Override
+  public void cacheDigest(DigestAlgorithm digestAlgorithm, byte[] digest) {
+    base64EncodeDigestMap.put(digestAlgorithm, Base64.encodeBase64String(digest));
+  }
+
+  private static ByteBuffer acquireDigestBuffer() {
+    ByteBuffer buffer = DIGEST_BUFFERS.poll();
+    if (buffer == null && allocatedDigestBuffers.getAndUpdate(
+        allocated -> allocated < DIGEST_BUFFER_POOL_SIZE ? allocated + 1 : allocated) < DIGEST_BUFFER_POOL_SIZE) {
+      buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+    }
+    return buffer;
+  }
+
+  private static void releaseDigestBuffer(ByteBuffer buffer) {
+    if (buffer != null) {
+      buffer.clear();
+      DIGEST_BUFFERS.offer(buffer);
+    }
+  }
+
+  private void transferTo(WritableByteChannel target) throws IOException {
+    try (FileChannel channel = getTemporaryFileAsStream().getChannel()) {
+      long position = 0;
+      long size = channel.size();
+      while (position < size) {
+        position += channel.transferTo(position, size - position, target);
+      }
     }
-    return Base64.encodeBase64String(digestBytes);
   }
 
   protected FileInputStream getTemporaryFileAsStream() throws FileNotFoundException {
@@ -0,0 +1,231 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileCleaningTracker;
+import org.apache.commons.io.FileDeleteStrategy;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates and owns the temporary files holding the content of large data files.
+ * <p/>
+ * Every {@link StreamDocument} keeps a reference count of its temporary file. The owner of a manager, e.g. a container
+ * parser or a container, registers the documents it uses with the manager and closing the manager releases them. The
+ * temporary file is deleted as soon as the last reference is released. The temporary files of documents that are
+ * never registered, or whose owner is never closed, are deleted after the document has been garbage collected. The
+ * temporary files still existing when the JVM shuts down are deleted by a shutdown hook.
+ * <p/>
+ * The directory of the temporary files and the maximum number of bytes they may occupy together are taken from the
+ * configuration, see {@link Configuration#setTemporaryFileDirectory(String)} and
+ * {@link Configuration#setTemporaryFileQuotaInBytes(long)}. The quota is accounted per configuration instance: all the
+ * managers created from the same configuration share it, managers created from other configurations do not count
+ * against it.
+ */
+public class TemporaryFileManager implements Closeable, Serializable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TemporaryFileManager.class);
+
+  private static final Map<Configuration, AtomicLong> usedBytesByConfiguration =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  private static final Map<File, TemporaryFile> temporaryFiles = new ConcurrentHashMap<>();
+  private static final FileCleaningTracker fileCleaningTracker = new FileCleaningTracker();
+  private static final FileDeleteStrategy deleteStrategy = new TemporaryFileDeleteStrategy();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(
+        new Thread(TemporaryFileManager::deleteRemainingFiles, "digidoc4j-temporary-file-cleaner"));
+  }
+
+  private final String directory;
+  private final long quotaInBytes;
+  private final AtomicLong usedBytes;
+  private final List<StreamDocument> documents = new ArrayList<>();
+  private final List<File> files = new ArrayList<>();
+
+  /**
+   * @param configuration configuration holding the directory and the quota of the temporary files
+   */
+  public TemporaryFileManager(Configuration configuration) {
+    this.directory = configuration.getTemporaryFileDirectory();
+    this.quotaInBytes = configuration.getTemporaryFileQuotaInBytes();
+    this.usedBytes = usedBytesOf(configuration);
+  }
+
+  /**
+   * Creates a temporary file for intermediate data. The file is deleted when this manager is closed at the latest.
+   * The data written to the file must be reserved with {@link #allocate(File, long)} beforehand.
+   *
+   * @return temporary file
+   */
+  public File createTemporaryFile() {
+    File file = newTemporaryFile();
+    synchronized (this) {
+      files.add(file);
+    }
+    return file;
+  }
+
+  /**
+   * Deletes a temporary file created by {@link #createTemporaryFile()} without waiting for this manager to be closed.
+   *
+   * @param file temporary file
+   */
+  public void deleteTemporaryFile(File file) {
+    synchronized (this) {
+      files.remove(file);
+    }
+    delete(file);
+  }
+
+  File createTemporaryFile(StreamDocument document) {
+    File file = newTemporaryFile();
+    fileCleaningTracker.track(file, document, deleteStrategy);
+    return file;
+  }
+
+  private File newTemporaryFile() {
+    try {
+      File file = File.createTempFile("digidoc4j", ".tmp",
+          StringUtils.isBlank(directory) ? null : new File(directory));
+      temporaryFiles.put(file, new TemporaryFile(usedBytes));
+      logger.debug("Created temporary file {}", file);
+      return file;
+    } catch (IOException e) {
+      logger.error("Unable to create temporary file: " + e.getMessage());
+      throw new TechnicalException("Unable to create temporary file", e);
+    }
+  }
+
+  /**
+   * Reserves space for data written to a temporary file created by this manager. The space is freed when the file is
+   * deleted.
+   *
+   * @param file  temporary file
+   * @param bytes number of bytes to be written
+   * @throws TechnicalException if the quota of the temporary files would be exceeded
+   */
+  public void allocate(File file, long bytes) {
+    TemporaryFile temporaryFile = temporaryFiles.get(file);
+    if (temporaryFile == null) {
+      throw new TechnicalException("Temporary file " + file + " does not exist");
+    }
+    long used = usedBytes.addAndGet(bytes);
+    if (quotaInBytes >= 0 && used > quotaInBytes) {
+      usedBytes.addAndGet(-bytes);
+      throw new TechnicalException("Temporary file quota of " + quotaInBytes + " bytes exceeded");
+    }
+    temporaryFile.allocatedBytes.addAndGet(bytes);
+  }
+
+  /**
+   * Takes a reference to the temporary file of the document until this manager is closed.
+   *
+   * @param document document
+   */
+  public synchronized void register(StreamDocument document) {
+    if (!documents.contains(document)) {
+      document.retain();
+      documents.add(document);
+    }
+  }
+
+  /**
+   * Releases the references to the temporary files of all the documents registered with this manager and deletes the
+   * temporary files created by {@link #createTemporaryFile()}.
+   */
+  @Override
+  public synchronized void close() {
+    for (StreamDocument document : documents) {
+      document.release();
+    }
+    documents.clear();
+    for (File file : files) {
+      delete(file);
+    }
+    files.clear();
+  }
+
+  static void delete(File file) {
+    try {
+      deleteStrategy.delete(file);
+    } catch (IOException e) {
+      logger.warn("Unable to delete temporary file {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * @param configuration configuration the temporary files were created with
+   * @return number of bytes reserved for the temporary files of the configuration that have not been deleted yet
+   */
+  public static long getUsedBytes(Configuration configuration) {
+    return usedBytesOf(configuration).get();
+  }
+
+  private static AtomicLong usedBytesOf(Configuration configuration) {
+    return usedBytesByConfiguration.computeIfAbsent(configuration, key -> new AtomicLong());
+  }
+
+  private static void deleteRemainingFiles() {
+    for (File file : temporaryFiles.keySet()) {
+      FileUtils.deleteQuietly(file);
+    }
+  }
+
+  private static class TemporaryFile {
+
+    private final AtomicLong usedBytes;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    private TemporaryFile(AtomicLong usedBytes) {
+      this.usedBytes = usedBytes;
+    }
+
+  }
+
+  private static class TemporaryFileDeleteStrategy extends FileDeleteStrategy {
+
+    private TemporaryFileDeleteStrategy() {
+      super("TemporaryFile");
+    }
+
+    @Override
+    protected boolean doDelete(File file) throws IOException {
+      if (file.exists() && !super.doDelete(file)) {
+        return false;
+      }
+      TemporaryFile temporaryFile = temporaryFiles.remove(file);
+      if (temporaryFile != null) {
+        temporaryFile.usedBytes.addAndGet(-temporaryFile.allocatedBytes.get());
+        logger.debug("Deleted temporary file {}", file);
+      }
+      return true;
+    }
+
+  }
+
+}
@@ -0,0 +1,113 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.CommonDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.utils.Utils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * @see eu.europa.esig.dss.model.DSSDocument implementation that refers to an entry of a ZIP file on disk. Nothing is
+ * read when the document is created; the entry is located through the ZIP central directory and inflated only when
+ * {@link #openStream()} (or anything built on it, like {@link #getDigest}) is called.
+ * <p/>
+ * The underlying ZIP file must stay unchanged for as long as the document is in use. The documents of one container
+ * share a single {@link SharedZipFile}, so the central directory is read once and not every time an entry is opened.
+ */
+public class ZipEntryDocument extends CommonDocument implements DigestCachingDocument {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZipEntryDocument.class);
+
+  private final SharedZipFile zipFile;
+  private final String entryName;
+  private long size;
+
+  /**
+   * @param zipFile  ZIP file containing the entry
+   * @param entry    ZIP entry read from the central directory of the file
+   * @param mimeType mime type
+   */
+  public ZipEntryDocument(SharedZipFile zipFile, ZipEntry entry, MimeType mimeType) {
+    logger.debug("Document name: " + entry.getName() + ", mime type: " + mimeType);
+    this.zipFile = zipFile;
+    this.entryName = entry.getName();
+    this.size = entry.getSize();
+    super.name = entry.getName();
+    super.mimeType = mimeType;
+  }
+
+  @Override
+  public InputStream openStream() throws DSSException {
+    try {
+      return zipFile.openEntry(entryName);
+    } catch (IOException e) {
+      logger.error(e.getMessage());
+      throw new DSSException(e);
+    }
+  }
+
+  @Override
+  public void setName(String s) {
+  }
+
+  @Override
+  public String getAbsolutePath() {
+    return zipFile.getPath();
+  }
+
+  /**
+   * Uncompressed size of the entry. Taken from the central directory, so the entry is inflated only if the
+   * central directory does not declare the size.
+   *
+   * @return entry size in bytes
+   */
+  public long getSize() {
+    if (size < 0) {
+      try (CountingInputStream stream = new CountingInputStream(openStream())) {
+        IOUtils.copy(stream, NullOutputStream.NULL_OUTPUT_STREAM);
+        size = stream.getByteCount();
+      } catch (IOException e) {
+        logger.error(e.getMessage());
+        throw new DSSException(e);
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isDigestCached(DigestAlgorithm digestAlgorithm) {
+    return base64EncodeDigestMap.containsKey(digestAlgorithm);
+  }
+
+  @Override
+  public void cacheDigest(DigestAlgorithm digestAlgorithm, byte[] digest) {
+    base64EncodeDigestMap.put(digestAlgorithm, Utils.toBase64(digest));
+  }
+
+  /**
+   * @return name of the referenced ZIP entry
+   */
+  public String getEntryName() {
+    return entryName;
+  }
+
+}
@@ -11,6 +11,7 @@
 package org.digidoc4j.impl.asic;
 
 import eu.europa.esig.dss.model.DSSDocument;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.digidoc4j.Configuration;
@@ -33,6 +34,8 @@ import org.digidoc4j.exceptions.NotSupportedException;
 import org.digidoc4j.exceptions.RemovingDataFileException;
 import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.impl.AbstractValidationResult;
+import org.digidoc4j.impl.StreamDocument;
+import org.digidoc4j.impl.TemporaryFileManager;
 import org.digidoc4j.impl.asic.asice.AsicEContainerValidator;
 import org.digidoc4j.impl.asic.asice.AsicESignature;
 import org.digidoc4j.impl.asic.asice.bdoc.BDocContainerValidator;
@@ -53,6 +56,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -74,6 +80,7 @@ public abstract class AsicContainer implements Container {
   private AsicParseResult containerParseResult;
   private boolean dataFilesHaveChanged;
   private String containerType = "";
+  private TemporaryFileManager temporaryFileManager;
 
   protected abstract String createUserAgent();
 
@@ -203,6 +210,9 @@ public abstract class AsicContainer implements Container {
   public File saveAsFile(String filePath) {
     LOGGER.debug("Saving container to file: " + filePath);
     File file = new File(filePath);
+    if (isContainerFile(file)) {
+      return saveOverContainerFile(file);
+    }
     try (OutputStream stream = Helper.bufferedOutputStream(file)) {
       save(stream);
       LOGGER.info("Container was saved to file " + filePath);
@@ -213,6 +223,43 @@ public abstract class AsicContainer implements Container {
     }
   }
 
+  private File saveOverContainerFile(File file) {
+    LOGGER.debug("Saving container over the file it was opened from");
+    File temporaryFile = null;
+    try {
+      temporaryFile = File.createTempFile("digidoc4j", ".tmp", file.getAbsoluteFile().getParentFile());
+      try (OutputStream stream = Helper.bufferedOutputStream(temporaryFile)) {
+        save(stream);
+      }
+      Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      LOGGER.info("Container was saved to file " + file.getPath());
+      return file;
+    } catch (IOException e) {
+      LOGGER.error("Unable to save container to file: " + e.getMessage());
+      throw new TechnicalException("Unable to save container to file " + file.getPath(), e);
+    } finally {
+      if (temporaryFile != null) {
+        FileUtils.deleteQuietly(temporaryFile);
+      }
+    }
+  }
+
+  /**
+   * Lazily loaded data files and incrementally copied entries are read from the container file while the container
+   * is being saved, so the container file must not be truncated before the new container has been written.
+   */
+  private boolean isContainerFile(File file) {
+    if (isNewContainer() || containerParseResult.getContainerFilePath() == null || !file.exists()) {
+      return false;
+    }
+    try {
+      return Files.isSameFile(file.toPath(), Paths.get(containerParseResult.getContainerFilePath()));
+    } catch (IOException e) {
+      LOGGER.warn("Unable to compare file paths: " + e.getMessage());
+      return false;
+    }
+  }
+
   @Override
   public Configuration getConfiguration() {
     return configuration;
@@ -339,6 +386,27 @@ public abstract class AsicContainer implements Container {
     this.signatures.addAll(this.openSignatures(parseResult.getSignatures()));
   }
 
+  private void registerTemporaryDocument(DataFile dataFile) {
+    DSSDocument document = dataFile.getDocument();
+    if (document instanceof StreamDocument) {
+      if (temporaryFileManager == null) {
+        temporaryFileManager = new TemporaryFileManager(configuration);
+      }
+      temporaryFileManager.register((StreamDocument) document);
+    }
+  }
+
+  @Override
+  public void close() {
+    LOGGER.debug("Closing container");
+    if (temporaryFileManager != null) {
+      temporaryFileManager.close();
+    }
+    if (containerParseResult != null) {
+      containerParseResult.close();
+    }
+  }
+
   private void removeExistingSignature(AsicSignature signature) {
     DSSDocument signatureDocument = signature.getSignatureDocument();
     if (signatureDocument == null) {
@@ -417,6 +485,7 @@ public abstract class AsicContainer implements Container {
     }
     dataFiles.add(dataFile);
     newDataFiles.add(dataFile);
+    registerTemporaryDocument(dataFile);
     dataFilesHaveChanged = true;
     if (!isNewContainer()) {
       removeExistingFileFromContainer(AsicManifest.XML_PATH);
@@ -559,7 +628,56 @@ public abstract class AsicContainer implements Container {
     return signatures;
   }
 
-  protected void writeAsicContainer(AsicContainerCreator zipCreator) {
+  protected void writeAsicContainer(OutputStream outputStream) {
+    if (canBeSavedIncrementally()) {
+      try (IncrementalAsicContainerCreator zipCreator = new IncrementalAsicContainerCreator(outputStream,
+          containerParseResult.getContainerFilePath())) {
+        writeAsicContainer(zipCreator);
+      }
+    } else {
+      try (AsicContainerWriter zipCreator = createAsicContainerCreator(outputStream)) {
+        writeAsicContainer(zipCreator);
+      }
+    }
+  }
+
+  private AsicContainerWriter createAsicContainerCreator(OutputStream outputStream) {
+    AsicContainerWriter zipCreator;
+    if (configuration.isParallelZipCompression()) {
+      zipCreator = new ParallelAsicContainerCreator(outputStream, configuration.getThreadExecutor(),
+          new TemporaryFileManager(configuration));
+    } else {
+      zipCreator = new AsicContainerCreator(outputStream);
+    }
+    zipCreator.setDataFileDigestAlgorithm(configuration.getSignatureDigestAlgorithm().getDssDigestAlgorithm());
+    if (configuration.getZipCompressionLevel() != null) {
+      zipCreator.setCompressionLevel(configuration.getZipCompressionLevel());
+    }
+    zipCreator.setStoredMimeTypes(configuration.getStoredMimeTypes());
+    return zipCreator;
+  }
+
+  /**
+   * Existing entries can be copied from the container file as long as the container was opened from a file and the
+   * set of data files (and thus the manifest) is unchanged.
+   */
+  private boolean canBeSavedIncrementally() {
+    return configuration.isIncrementalContainerSaving() && !isNewContainer() && !dataFilesHaveChanged
+        && containerParseResult.getContainerFilePath() != null;
+  }
+
+  private void writeAsicContainer(IncrementalAsicContainerCreator zipCreator) {
+    LOGGER.debug("Saving container incrementally");
+    zipCreator.setZipComment(createUserAgent());
+    zipCreator.writeExistingEntries(containerParseResult.getAsicEntries());
+    zipCreator.writeSignatures(newSignatures, determineNextSignatureFileIndex());
+    if (StringUtils.isNotBlank(containerParseResult.getZipFileComment())) {
+      zipCreator.writeContainerComment(containerParseResult.getZipFileComment());
+    }
+    zipCreator.finalizeZipFile();
+  }
+
+  protected void writeAsicContainer(AsicContainerWriter zipCreator) {
     String userAgent = createUserAgent();
     zipCreator.setZipComment(userAgent);
     if (!isNewContainer()) {
@@ -17,29 +17,38 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.digidoc4j.Constant;
 import org.digidoc4j.DataFile;
 import org.digidoc4j.Signature;
 import org.digidoc4j.exceptions.NotSupportedException;
 import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.DigestCachingDocument;
 import org.digidoc4j.impl.asic.manifest.AsicManifest;
-import org.digidoc4j.utils.Helper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.model.MimeType;
 
 /**
  * ASIC container creator
  */
-public class AsicContainerCreator {
+public class AsicContainerCreator implements AsicContainerWriter {
 
   private static final Logger logger = LoggerFactory.getLogger(AsicContainerCreator.class);
 
@@ -49,6 +58,9 @@ public class AsicContainerCreator {
   private final ZipOutputStream zipOutputStream;
   private final OutputStream outputStream;
   private String zipComment;
+  private DigestAlgorithm dataFileDigestAlgorithm;
+  private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+  private Set<String> storedMimeTypes = Collections.emptySet();
 
   /**
    * @param outputStream stream
@@ -58,17 +70,21 @@ public class AsicContainerCreator {
     this.zipOutputStream = new ZipOutputStream(outputStream, CHARSET);
   }
 
+  @Override
   public void finalizeZipFile() {
     logger.debug("Finalizing asic zip file");
     try {
       zipOutputStream.finish();
     } catch (IOException e) {
       handleIOException("Unable to finish creating asic ZIP container", e);
-    } finally {
-      Helper.deleteTmpFiles();
     }
   }
 
+  @Override
+  public void close() {
+    // nothing to release, the target stream is owned by the caller
+  }
+
   @Deprecated
   public InputStream fetchInputStreamOfFinalizedContainer() {
     if (outputStream instanceof ByteArrayOutputStream) {
@@ -81,15 +97,10 @@ public class AsicContainerCreator {
   /**
    * @param containerType type
    */
+  @Override
   public void writeAsiceMimeType(String containerType) {
     logger.debug("Writing asic mime type to asic zip file");
-    String mimeTypeString;
-    if (Constant.ASICS_CONTAINER_TYPE.equals(containerType)){
-      mimeTypeString = MimeType.ASICS.getMimeTypeString();
-    } else {
-      mimeTypeString = MimeType.ASICE.getMimeTypeString();
-    }
-    byte[] mimeTypeBytes = mimeTypeString.getBytes(CHARSET);
+    byte[] mimeTypeBytes = getMimeTypeBytes(containerType);
     new BytesEntryCallback(getAsicMimeTypeZipEntry(mimeTypeBytes), mimeTypeBytes).write();
   }
 
@@ -97,6 +108,7 @@ public class AsicContainerCreator {
    * @param dataFiles list of data files
    * @param containerType type
    */
+  @Override
   public void writeManifest(Collection<DataFile> dataFiles, String containerType) {
     logger.debug("Writing asic manifest");
     final AsicManifest manifest = new AsicManifest(containerType);
@@ -112,26 +124,59 @@ public class AsicContainerCreator {
   /**
    * @param dataFiles list of data files
    */
+  @Override
   public void writeDataFiles(Collection<DataFile> dataFiles) {
     logger.debug("Adding data files to the asic zip container");
     for (DataFile dataFile : dataFiles) {
       String name = dataFile.getName();
       logger.debug("Adding data file {}", name);
-      zipOutputStream.setLevel(ZipEntry.DEFLATED);
-      new StreamEntryCallback(new ZipEntry(name), dataFile.getStream()).write();
+      zipOutputStream.setLevel(compressionLevel);
+      ZipEntry entry = isStoredWithoutCompression(dataFile) ? createStoredZipEntry(dataFile) : new ZipEntry(name);
+      try (InputStream stream = openDataFileStream(dataFile)) {
+        new StreamEntryCallback(entry, stream).write();
+      } catch (IOException e) {
+        handleIOException("Unable to write Zip entry to asic container", e);
+      }
     }
   }
 
+  /**
+   * Sets the algorithm of the digest calculated over the data files while they are being written to the container.
+   * The digest is stored in the data file document, so that signing does not need to read the file once more.
+   *
+   * @param dataFileDigestAlgorithm digest algorithm or <code>null</code> to skip calculating the digests
+   */
+  @Override
+  public void setDataFileDigestAlgorithm(DigestAlgorithm dataFileDigestAlgorithm) {
+    this.dataFileDigestAlgorithm = dataFileDigestAlgorithm;
+  }
+
+  /**
+   * @param compressionLevel deflate compression level of the data file entries
+   */
+  @Override
+  public void setCompressionLevel(int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * @param storedMimeTypes mime types of the data files that are written without compression
+   */
+  @Override
+  public void setStoredMimeTypes(Collection<String> storedMimeTypes) {
+    this.storedMimeTypes = new HashSet<>(storedMimeTypes);
+  }
+
   /**
    * @param signatures list of signatures
    * @param nextSignatureFileNameIndex index
    */
+  @Override
   public void writeSignatures(Collection<Signature> signatures, int nextSignatureFileNameIndex) {
     logger.debug("Adding signatures to the asic zip container");
     int index = nextSignatureFileNameIndex;
     for (Signature signature : signatures) {
-      String signatureFileName = "META-INF/signatures" + index + ".xml";
-      new BytesEntryCallback(new ZipEntry(signatureFileName), signature.getAdESSignature()).write();
+      new BytesEntryCallback(new ZipEntry(getSignatureFileName(index)), signature.getAdESSignature()).write();
       index++;
     }
   }
@@ -139,6 +184,7 @@ public class AsicContainerCreator {
   /**
    * @param dataFile data file
    */
+  @Override
   public void writeTimestampToken(DataFile dataFile) {
     logger.debug("Adding signatures to the asic zip container");
     String signatureFileName = "META-INF/timestamp.tst";
@@ -148,6 +194,7 @@ public class AsicContainerCreator {
   /**
    * @param asicEntries list of ASIC entries
    */
+  @Override
   public void writeExistingEntries(Collection<AsicEntry> asicEntries) {
     logger.debug("Writing existing zip container entries");
     asicEntries.stream()
@@ -162,6 +209,7 @@ public class AsicContainerCreator {
   /**
    * @param comment comment
    */
+  @Override
   public void writeContainerComment(String comment) {
     logger.debug("Writing container comment: " + comment);
     zipOutputStream.setComment(comment);
@@ -170,6 +218,7 @@ public class AsicContainerCreator {
   /**
    * @param zipComment comment
    */
+  @Override
   public void setZipComment(String zipComment) {
     this.zipComment = zipComment;
   }
@@ -242,7 +291,60 @@ public class AsicContainerCreator {
 
   }
 
-  private static ZipEntry getAsicMimeTypeZipEntry(byte[] mimeTypeBytes) {
+  private boolean isStoredWithoutCompression(DataFile dataFile) {
+    return storedMimeTypes.contains(dataFile.getMediaType());
+  }
+
+  private InputStream openDataFileStream(DataFile dataFile) {
+    return openDataFileStream(dataFile, dataFileDigestAlgorithm);
+  }
+
+  /**
+   * Opens the content of the data file. If the digest of the data file document is not known yet, it is calculated
+   * over the returned stream and stored in the document once the stream has been read to the end and closed.
+   *
+   * @param dataFile data file
+   * @param digestAlgorithm algorithm of the digest to calculate or <code>null</code> to skip calculating the digest
+   * @return data file content
+   */
+  static InputStream openDataFileStream(DataFile dataFile, DigestAlgorithm digestAlgorithm) {
+    DSSDocument document = dataFile.getDocument();
+    if (digestAlgorithm == null || !(document instanceof DigestCachingDocument)
+        || ((DigestCachingDocument) document).isDigestCached(digestAlgorithm)) {
+      return dataFile.getStream();
+    }
+    try {
+      return new DigestCachingInputStream((DigestCachingDocument) document, digestAlgorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new TechnicalException("Unable to calculate " + digestAlgorithm + " digest", e);
+    }
+  }
+
+  private static ZipEntry createStoredZipEntry(DataFile dataFile) {
+    ZipEntry entry = new ZipEntry(dataFile.getName());
+    entry.setMethod(ZipEntry.STORED);
+    try (CheckedInputStream stream = new CheckedInputStream(dataFile.getStream(), new CRC32())) {
+      long size = IOUtils.copyLarge(stream, NullOutputStream.NULL_OUTPUT_STREAM);
+      entry.setSize(size);
+      entry.setCompressedSize(size);
+      entry.setCrc(stream.getChecksum().getValue());
+    } catch (IOException e) {
+      handleIOException("Unable to read data file " + dataFile.getName(), e);
+    }
+    return entry;
+  }
+
+  static byte[] getMimeTypeBytes(String containerType) {
+    String mimeTypeString;
+    if (Constant.ASICS_CONTAINER_TYPE.equals(containerType)){
+      mimeTypeString = MimeType.ASICS.getMimeTypeString();
+    } else {
+      mimeTypeString = MimeType.ASICE.getMimeTypeString();
+    }
+    return mimeTypeString.getBytes(CHARSET);
+  }
+
+  static ZipEntry getAsicMimeTypeZipEntry(byte[] mimeTypeBytes) {
     ZipEntry entryMimetype = new ZipEntry(ZIP_ENTRY_MIMETYPE);
     entryMimetype.setMethod(ZipEntry.STORED);
     entryMimetype.setSize(mimeTypeBytes.length);
@@ -253,7 +355,11 @@ public class AsicContainerCreator {
     return entryMimetype;
   }
 
-  private static int compareAsicEntriesPrioritizeMimeType(AsicEntry left, AsicEntry right) {
+  static String getSignatureFileName(int index) {
+    return "META-INF/signatures" + index + ".xml";
+  }
+
+  static int compareAsicEntriesPrioritizeMimeType(AsicEntry left, AsicEntry right) {
     boolean leftIsMimeType = ZIP_ENTRY_MIMETYPE.equalsIgnoreCase(left.getName());
     boolean rightIsMimeType = ZIP_ENTRY_MIMETYPE.equalsIgnoreCase(right.getName());
     if (leftIsMimeType && !rightIsMimeType) {
@@ -270,4 +376,41 @@ public class AsicContainerCreator {
     throw new TechnicalException(message, e);
   }
 
+  private static class DigestCachingInputStream extends DigestInputStream {
+
+    private final DigestCachingDocument document;
+    private final DigestAlgorithm digestAlgorithm;
+    private boolean endOfStream;
+
+    DigestCachingInputStream(DigestCachingDocument document, DigestAlgorithm digestAlgorithm)
+        throws NoSuchAlgorithmException {
+      super(document.openStream(), digestAlgorithm.getMessageDigest());
+      this.document = document;
+      this.digestAlgorithm = digestAlgorithm;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = super.read();
+      endOfStream = result == -1;
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int result = super.read(b, off, len);
+      endOfStream = result == -1;
+      return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+      super.close();
+      if (endOfStream) {
+        document.cacheDigest(digestAlgorithm, getMessageDigest().digest());
+        endOfStream = false;
+      }
+    }
+  }
+
 }
@@ -21,19 +21,19 @@ import org.digidoc4j.DataFile;
 import org.digidoc4j.exceptions.ContainerWithoutFilesException;
 import org.digidoc4j.exceptions.DigiDoc4JException;
 import org.digidoc4j.exceptions.DuplicateDataFileException;
-import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.exceptions.UnsupportedFormatException;
 import org.digidoc4j.impl.StreamDocument;
+import org.digidoc4j.impl.TemporaryFileManager;
 import org.digidoc4j.impl.UncompressedAsicEntry;
 import org.digidoc4j.impl.asic.manifest.ManifestEntry;
 import org.digidoc4j.impl.asic.manifest.ManifestParser;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
+import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 import org.digidoc4j.utils.MimeTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -41,6 +41,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -64,6 +65,7 @@ public abstract class AsicContainerParser {
   private Integer currentSignatureFileIndex;
   private String mimeType;
   private String zipFileComment;
+  private String containerFilePath;
   private List<AsicEntry> asicEntries = new ArrayList<>();
   private Map<String, ManifestEntry> manifestFileItems = Collections.emptyMap();
   private ManifestParser manifestParser;
@@ -72,9 +74,11 @@ public abstract class AsicContainerParser {
   private boolean mimeTypeFound = false;
   private long maxDataFileCachedInBytes;
   private DataFile timestampToken;
+  private final TemporaryFileManager temporaryFileManager;
 
   protected AsicContainerParser(Configuration configuration) {
     this.configuration = configuration;
+    this.temporaryFileManager = new TemporaryFileManager(configuration);
     storeDataFilesOnlyInMemory = configuration.storeDataFilesOnlyInMemory();
     maxDataFileCachedInBytes = configuration.getMaxDataFileCachedInBytes();
   }
@@ -84,10 +88,15 @@ public abstract class AsicContainerParser {
    * @return parsing result
    */
   public AsicParseResult read() {
-    parseContainer();
-    validateParseResult();
-    populateParseResult();
-    return parseResult;
+    try {
+      parseContainer();
+      validateParseResult();
+      populateParseResult();
+      return parseResult;
+    } catch (RuntimeException e) {
+      temporaryFileManager.close();
+      throw e;
+    }
   }
 
   protected abstract void parseContainer();
@@ -130,16 +139,11 @@ public abstract class AsicContainerParser {
   }
 
   private void extractMimeType(ZipEntry entry) {
-    try {
-      InputStream zipFileInputStream = getZipEntryInputStream(entry);
-      BOMInputStream bomInputStream = new BOMInputStream(zipFileInputStream);
-      InMemoryDocument document = new InMemoryDocument(bomInputStream);
-      mimeType = StringUtils.trim(IOUtils.toString(document.getBytes(), "UTF-8"));
-      extractUncompressedAsicEntry(entry, document);
-    } catch (IOException e) {
-      logger.error("Error parsing container mime type: " + e.getMessage());
-      throw new TechnicalException("Error parsing container mime type: " + e.getMessage(), e);
-    }
+    InputStream zipFileInputStream = getZipEntryInputStream(entry);
+    BOMInputStream bomInputStream = new BOMInputStream(zipFileInputStream);
+    InMemoryDocument document = new InMemoryDocument(bomInputStream);
+    mimeType = StringUtils.trim(IOUtils.toString(document.getBytes(), "UTF-8"));
+    extractUncompressedAsicEntry(entry, document);
   }
 
   private void extractSignature(ZipEntry entry) {
@@ -169,16 +173,21 @@ public abstract class AsicContainerParser {
     extractAsicEntry(entry, document);
   }
 
-  private DSSDocument extractStreamDocument(ZipEntry entry) {
+  protected DSSDocument extractStreamDocument(ZipEntry entry) {
     logger.debug("Zip entry size is <{}> bytes", entry.getSize());
-    MimeType mimeTypeCode = MimeTypeUtil.mimeTypeOf(this.getDataFileMimeType(entry.getName()));
+    MimeType mimeTypeCode = getEntryMimeType(entry);
     if (this.storeDataFilesOnlyInMemory || entry.getSize() <= this.maxDataFileCachedInBytes) {
       return new InMemoryDocument(this.getZipEntryInputStream(entry), entry.getName(), mimeTypeCode);
     } else {
-      return new StreamDocument(this.getZipEntryInputStream(entry), entry.getName(), mimeTypeCode);
+      return new StreamDocument(this.getZipEntryInputStream(entry), entry.getName(), mimeTypeCode,
+          this.temporaryFileManager);
     }
   }
 
+  protected MimeType getEntryMimeType(ZipEntry entry) {
+    return MimeTypeUtil.mimeTypeOf(this.getDataFileMimeType(entry.getName()));
+  }
+
   protected AsicEntry extractAsicEntry(ZipEntry entry) {
     logger.debug("Extracting asic entry");
     DSSDocument document = extractStreamDocument(entry);
@@ -245,16 +254,30 @@ public abstract class AsicContainerParser {
     parseResult.setAsicEntries(asicEntries);
     parseResult.setTimeStampToken(timestampToken);
     parseResult.setMimeType(mimeType);
+    parseResult.setContainerFilePath(containerFilePath);
+    parseResult.setTemporaryFileManager(temporaryFileManager);
   }
 
   private List<XadesSignatureWrapper> parseSignatures() {
     AsicSignatureParser signatureParser = new AsicSignatureParser(parseResult.getDetachedContents(), configuration);
     List<XadesSignatureWrapper> parsedSignatures = new ArrayList<>();
+    if (configuration.isLazySignatureParsing()) {
+      for (DSSDocument signatureDocument : signatures) {
+        parsedSignatures.add(new XadesSignatureWrapper(signatureDocument, signatureParser::parse));
+      }
+      return parsedSignatures;
+    }
+    List<Callable<XadesSignatureWrapper>> parsingTasks = new ArrayList<>(signatures.size());
     for (DSSDocument signatureDocument : signatures) {
-      XadesSignature signature = signatureParser.parse(signatureDocument);
-      parsedSignatures.add(new XadesSignatureWrapper(signature, signatureDocument));
+      parsingTasks.add(() -> parseSignature(signatureParser, signatureDocument));
     }
-    return parsedSignatures;
+    return new ThreadPoolManager(configuration).invokeAll(parsingTasks);
+  }
+
+  private static XadesSignatureWrapper parseSignature(AsicSignatureParser signatureParser,
+                                                      DSSDocument signatureDocument) {
+    XadesSignature signature = signatureParser.parse(signatureDocument);
+    return new XadesSignatureWrapper(signature, signatureDocument);
   }
 
   private boolean isMimeType(String entryName) {
@@ -294,6 +317,10 @@ public abstract class AsicContainerParser {
     this.zipFileComment = zipFileComment;
   }
 
+  void setContainerFilePath(String containerFilePath) {
+    this.containerFilePath = containerFilePath;
+  }
+
   LinkedHashMap<String, DataFile> getDataFiles() {
     return dataFiles;
   }
@@ -0,0 +1,100 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.asic;
+
+import java.io.Closeable;
+import java.util.Collection;
+
+import org.digidoc4j.DataFile;
+import org.digidoc4j.Signature;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+
+/**
+ * Writes the entries of an ASIC container to a ZIP stream.
+ * <p/>
+ * The writer must be closed after the container has been written, also when writing it failed, to release the
+ * resources it holds while writing.
+ *
+ * @see AsicContainerCreator
+ * @see ParallelAsicContainerCreator
+ */
+public interface AsicContainerWriter extends Closeable {
+
+  /**
+   * @param containerType type
+   */
+  void writeAsiceMimeType(String containerType);
+
+  /**
+   * @param dataFiles list of data files
+   * @param containerType type
+   */
+  void writeManifest(Collection<DataFile> dataFiles, String containerType);
+
+  /**
+   * @param dataFiles list of data files
+   */
+  void writeDataFiles(Collection<DataFile> dataFiles);
+
+  /**
+   * @param signatures list of signatures
+   * @param nextSignatureFileNameIndex index
+   */
+  void writeSignatures(Collection<Signature> signatures, int nextSignatureFileNameIndex);
+
+  /**
+   * @param dataFile data file
+   */
+  void writeTimestampToken(DataFile dataFile);
+
+  /**
+   * @param asicEntries list of ASIC entries
+   */
+  void writeExistingEntries(Collection<AsicEntry> asicEntries);
+
+  /**
+   * @param comment comment
+   */
+  void writeContainerComment(String comment);
+
+  void finalizeZipFile();
+
+  /**
+   * @param zipComment comment of the entries
+   */
+  void setZipComment(String zipComment);
+
+  /**
+   * Sets the algorithm of the digest calculated over the data files while they are being written to the container.
+   * The digest is stored in the data file document, so that signing does not need to read the file once more.
+   *
+   * @param dataFileDigestAlgorithm digest algorithm or <code>null</code> to skip calculating the digests
+   */
+  void setDataFileDigestAlgorithm(DigestAlgorithm dataFileDigestAlgorithm);
+
+  /**
+   * @param compressionLevel deflate compression level of the data file entries
+   */
+  void setCompressionLevel(int compressionLevel);
+
+  /**
+   * @param storedMimeTypes mime types of the data files that are written without compression
+   */
+  void setStoredMimeTypes(Collection<String> storedMimeTypes);
+
+  /**
+   * Releases the resources held for writing the container. The target stream is not closed.
+   */
+  @Override
+  void close();
+
+}
@@ -19,9 +19,12 @@ import java.util.zip.ZipFile;
 import org.apache.commons.io.IOUtils;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.SharedZipFile;
+import org.digidoc4j.impl.ZipEntryDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.model.InMemoryDocument;
 
 /**
@@ -30,7 +33,10 @@ import eu.europa.esig.dss.model.InMemoryDocument;
 public class AsicFileContainerParser extends AsicContainerParser {
 
   private static final Logger logger = LoggerFactory.getLogger(AsicFileContainerParser.class);
+  private final String containerPath;
+  private final boolean lazyDataFileLoading;
   private ZipFile zipFile;
+  private SharedZipFile sharedZipFile;
 
   /**
    * @param containerPath path
@@ -38,6 +44,8 @@ public class AsicFileContainerParser extends AsicContainerParser {
    */
   public AsicFileContainerParser(String containerPath, Configuration configuration) {
     super(configuration);
+    this.containerPath = containerPath;
+    this.lazyDataFileLoading = configuration.isLazyDataFileLoading();
     try {
       zipFile = new ZipFile(containerPath);
     } catch (IOException e) {
@@ -46,12 +54,25 @@ public class AsicFileContainerParser extends AsicContainerParser {
     }
   }
 
+  @Override
+  public AsicParseResult read() {
+    try {
+      AsicParseResult parseResult = super.read();
+      parseResult.setSharedZipFile(sharedZipFile);
+      return parseResult;
+    } catch (RuntimeException e) {
+      IOUtils.closeQuietly(sharedZipFile);
+      throw e;
+    }
+  }
+
   @Override
   protected void parseContainer() {
     logger.debug("Parsing zip file");
     try {
       String zipFileComment = zipFile.getComment();
       setZipFileComment(zipFileComment);
+      setContainerFilePath(containerPath);
       parseZipFileManifest();
       Enumeration<? extends ZipEntry> entries = zipFile.entries();
       while (entries.hasMoreElements()) {
@@ -68,6 +89,18 @@ public class AsicFileContainerParser extends AsicContainerParser {
     extractAsicEntry(entry);
   }
 
+  @Override
+  protected DSSDocument extractStreamDocument(ZipEntry entry) {
+    if (!lazyDataFileLoading) {
+      return super.extractStreamDocument(entry);
+    }
+    logger.debug("Zip entry <{}> will be read on demand", entry.getName());
+    if (sharedZipFile == null) {
+      sharedZipFile = new SharedZipFile(containerPath);
+    }
+    return new ZipEntryDocument(sharedZipFile, entry, getEntryMimeType(entry));
+  }
+
   @Override
   protected InputStream getZipEntryInputStream(ZipEntry entry) {
     try {
@@ -13,16 +13,22 @@ package org.digidoc4j.impl.asic;
 import eu.europa.esig.dss.model.DSSDocument;
 import org.apache.commons.lang3.StringUtils;
 import org.digidoc4j.DataFile;
+import org.digidoc4j.impl.SharedZipFile;
+import org.digidoc4j.impl.TemporaryFileManager;
 import org.digidoc4j.impl.asic.manifest.ManifestParser;
 import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
 
+import java.io.Closeable;
 import java.io.Serializable;
 import java.util.List;
 
 /**
  * ASIC parse result
+ * <p/>
+ * Closing the parse result releases the temporary files of the parsed data files and the container file shared by
+ * the data files read on demand. A container opened from the parse result closes it when the container is closed.
  */
-public class AsicParseResult implements Serializable {
+public class AsicParseResult implements Closeable, Serializable {
 
   private List<XadesSignatureWrapper> signatures;
   private List<DataFile> dataFiles;
@@ -33,6 +39,9 @@ public class AsicParseResult implements Serializable {
   private ManifestParser manifestParser;
   private DataFile timeStampToken;
   private String mimeType;
+  private String containerFilePath;
+  private TemporaryFileManager temporaryFileManager;
+  private SharedZipFile sharedZipFile;
 
   /**
    * @return list of data files
@@ -137,4 +146,47 @@ public class AsicParseResult implements Serializable {
   public String getMimeType() {
     return mimeType;
   }
+
+  /**
+   * @return path of the file the container was parsed from or null if it was parsed from a stream
+   */
+  public String getContainerFilePath() {
+    return containerFilePath;
+  }
+
+  public void setContainerFilePath(String containerFilePath) {
+    this.containerFilePath = containerFilePath;
+  }
+
+  /**
+   * @return owner of the temporary files of the parsed data files, closed together with the container
+   */
+  public TemporaryFileManager getTemporaryFileManager() {
+    return temporaryFileManager;
+  }
+
+  public void setTemporaryFileManager(TemporaryFileManager temporaryFileManager) {
+    this.temporaryFileManager = temporaryFileManager;
+  }
+
+  /**
+   * @return container file shared by the data files read on demand or null if there are none
+   */
+  public SharedZipFile getSharedZipFile() {
+    return sharedZipFile;
+  }
+
+  public void setSharedZipFile(SharedZipFile sharedZipFile) {
+    this.sharedZipFile = sharedZipFile;
+  }
+
+  @Override
+  public void close() {
+    if (temporaryFileManager != null) {
+      temporaryFileManager.close();
+    }
+    if (sharedZipFile != null) {
+      sharedZipFile.close();
+    }
+  }
 }
@@ -15,13 +15,16 @@ import org.digidoc4j.exceptions.DigiDoc4JException;
 import org.digidoc4j.exceptions.NotYetImplementedException;
 import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
+import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
 import org.digidoc4j.impl.asic.xades.validation.SignatureValidator;
+import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidatorFactory;
 import org.digidoc4j.impl.asic.xades.validation.XadesValidationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.validation.reports.Reports;
 
 /**
  * Created by Andrei on 29.11.2017.
@@ -30,7 +33,9 @@ public class AsicSignature implements Signature {
 
   private static final Logger logger = LoggerFactory.getLogger(AsicSignature.class);
   private transient ValidationResult validationResult;
+  private transient Reports validationReports;
   private XadesSignature xadesSignature;
+  private XadesSignatureWrapper signatureWrapper;
   private SignatureValidator validator;
   private DSSDocument signatureDocument;
   private Configuration configuration;
@@ -46,34 +51,50 @@ public class AsicSignature implements Signature {
     this.validator = validator;
   }
 
+  /**
+   * Asic signature constructor. The XADES signature is parsed and its validator created only when the signature is
+   * accessed for the first time.
+   *
+   * @param signatureWrapper wrapper containing signature document and it's xades signature
+   * @param configuration    configuration
+   */
+  public AsicSignature(XadesSignatureWrapper signatureWrapper, Configuration configuration) {
+    this.signatureWrapper = signatureWrapper;
+    this.signatureDocument = signatureWrapper.getSignatureDocument();
+    this.configuration = configuration;
+  }
+
   @Override
   public String getCity() {
-    return xadesSignature.getCity();
+    return getOrigin().getCity();
   }
 
   @Override
   public String getCountryName() {
-    return xadesSignature.getCountryName();
+    return getOrigin().getCountryName();
   }
 
   @Override
   public String getId() {
-    return xadesSignature.getId();
+    if (xadesSignature == null && signatureWrapper != null) {
+      return signatureWrapper.getId();
+    }
+    return getOrigin().getId();
   }
 
   @Override
   public String getUniqueId() {
-    return xadesSignature.getUniqueId();
+    return getOrigin().getUniqueId();
   }
 
   @Override
   public byte[] getOCSPNonce() {
-    return xadesSignature.getOCSPNonce();
+    return getOrigin().getOCSPNonce();
   }
 
   @Override
   public X509Cert getOCSPCertificate() {
-    return xadesSignature.getOCSPCertificate();
+    return getOrigin().getOCSPCertificate();
   }
 
   @Override
@@ -84,7 +105,7 @@ public class AsicSignature implements Signature {
 
   @Override
   public String getPostalCode() {
-    return xadesSignature.getPostalCode();
+    return getOrigin().getPostalCode();
   }
 
 
@@ -95,7 +116,7 @@ public class AsicSignature implements Signature {
    */
   @Override
   public Date getOCSPResponseCreationTime() {
-    return xadesSignature.getOCSPResponseCreationTime();
+    return getOrigin().getOCSPResponseCreationTime();
   }
 
   /**
@@ -111,7 +132,7 @@ public class AsicSignature implements Signature {
 
   @Override
   public Date getTimeStampCreationTime() {
-    return xadesSignature.getTimeStampCreationTime();
+    return getOrigin().getTimeStampCreationTime();
   }
 
   /**
@@ -124,27 +145,30 @@ public class AsicSignature implements Signature {
    */
   @Override
   public Date getTrustedSigningTime() {
-    return xadesSignature.getTrustedSigningTime();
+    return getOrigin().getTrustedSigningTime();
   }
 
   @Override
   public SignatureProfile getProfile() {
-    return xadesSignature.getProfile();
+    return getOrigin().getProfile();
   }
 
   @Override
   public String getSignatureMethod() {
-    return xadesSignature.getSignatureMethod();
+    return getOrigin().getSignatureMethod();
   }
 
   @Override
   public List<String> getSignerRoles() {
-    return xadesSignature.getSignerRoles();
+    return getOrigin().getSignerRoles();
   }
 
   @Override
   public X509Cert getSigningCertificate() {
-    return xadesSignature.getSigningCertificate();
+    if (xadesSignature == null && signatureWrapper != null) {
+      return signatureWrapper.getSigningCertificate();
+    }
+    return getOrigin().getSigningCertificate();
   }
 
   /**
@@ -154,7 +178,10 @@ public class AsicSignature implements Signature {
    */
   @Override
   public Date getClaimedSigningTime() {
-    return xadesSignature.getSigningTime();
+    if (xadesSignature == null && signatureWrapper != null) {
+      return signatureWrapper.getSigningTime();
+    }
+    return getOrigin().getSigningTime();
   }
 
   /**
@@ -183,19 +210,21 @@ public class AsicSignature implements Signature {
 
   @Override
   public String getStateOrProvince() {
-    return xadesSignature.getStateOrProvince();
+    return getOrigin().getStateOrProvince();
   }
 
   @Override
   public X509Cert getTimeStampTokenCertificate() {
-    return xadesSignature.getTimeStampTokenCertificate();
+    return getOrigin().getTimeStampTokenCertificate();
   }
 
   @Override
   public ValidationResult validateSignature() {
     logger.debug("Validating signature");
-    if (validationResult == null) {
-      validationResult = this.validator.extractResult();
+    Reports reports = getOrigin().validate().getReports();
+    if (validationResult == null || reports != validationReports) {
+      validationResult = getValidator().extractResult();
+      validationReports = reports;
       logger.info(
           "Signature has " + validationResult.getErrors().size() + " validation errors and " + validationResult.getWarnings().size() + " warnings");
     } else {
@@ -233,9 +262,22 @@ public class AsicSignature implements Signature {
    * @return xades signature.
    */
   public XadesSignature getOrigin() {
+    if (xadesSignature == null) {
+      xadesSignature = signatureWrapper.getSignature();
+    }
     return xadesSignature;
   }
 
+  private synchronized SignatureValidator getValidator() {
+    if (validator == null) {
+      XadesSignatureValidatorFactory validatorFactory = new XadesSignatureValidatorFactory();
+      validatorFactory.setConfiguration(configuration);
+      validatorFactory.setSignature(getOrigin());
+      validator = validatorFactory.create();
+    }
+    return validator;
+  }
+
   /**
    * Set signature document.
    *
@@ -251,7 +293,7 @@ public class AsicSignature implements Signature {
    * @return XadesValidationResult.
    */
   public XadesValidationResult getDssValidationReport() {
-    return xadesSignature.validate();
+    return getOrigin().validate();
   }
 
   /**
@@ -269,7 +311,7 @@ public class AsicSignature implements Signature {
    * @return DigestAlgorithm
    */
   public DigestAlgorithm getSignatureDigestAlgorithm() {
-    return xadesSignature.getDssSignature().getDigestAlgorithm();
+    return getOrigin().getDssSignature().getDigestAlgorithm();
   }
 
   /**
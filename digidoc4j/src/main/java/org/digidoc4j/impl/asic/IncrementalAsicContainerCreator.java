@@ -0,0 +1,170 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.asic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.digidoc4j.Signature;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.UncompressedAsicEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ASIC container creator that re-saves an existing container file without inflating and deflating its entries.
+ * <p/>
+ * Existing entries are copied from the source file together with their local headers in compressed form, only the
+ * new signature entries are deflated and the ZIP central directory is written anew. The creator must be closed after
+ * the container has been written, also when writing it failed, to close the source container file.
+ */
+public class IncrementalAsicContainerCreator implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(IncrementalAsicContainerCreator.class);
+
+  private final ZipFile sourceZipFile;
+  private final ZipArchiveOutputStream zipOutputStream;
+  private String zipComment;
+
+  /**
+   * @param outputStream        stream
+   * @param sourceContainerPath path of the container file the existing entries are copied from
+   */
+  public IncrementalAsicContainerCreator(OutputStream outputStream, String sourceContainerPath) {
+    try {
+      this.sourceZipFile = new ZipFile(sourceContainerPath, StandardCharsets.UTF_8.name());
+    } catch (IOException e) {
+      logger.error("Error reading container from " + sourceContainerPath + " - " + e.getMessage());
+      throw new TechnicalException("Error reading container from " + sourceContainerPath, e);
+    }
+    this.zipOutputStream = new ZipArchiveOutputStream(outputStream);
+    this.zipOutputStream.setEncoding(StandardCharsets.UTF_8.name());
+  }
+
+  public void finalizeZipFile() {
+    logger.debug("Finalizing asic zip file");
+    try {
+      zipOutputStream.finish();
+    } catch (IOException e) {
+      handleIOException("Unable to finish creating asic ZIP container", e);
+    }
+  }
+
+  /**
+   * Closes the source container file. The target stream is not closed.
+   */
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(sourceZipFile);
+  }
+
+  /**
+   * @param asicEntries list of ASIC entries
+   */
+  public void writeExistingEntries(Collection<AsicEntry> asicEntries) {
+    logger.debug("Copying existing zip container entries");
+    asicEntries.stream()
+        .sorted(AsicContainerCreator::compareAsicEntriesPrioritizeMimeType)
+        .forEach(this::writeExistingEntry);
+  }
+
+  /**
+   * @param signatures list of signatures
+   * @param nextSignatureFileNameIndex index
+   */
+  public void writeSignatures(Collection<Signature> signatures, int nextSignatureFileNameIndex) {
+    logger.debug("Adding signatures to the asic zip container");
+    int index = nextSignatureFileNameIndex;
+    for (Signature signature : signatures) {
+      ZipArchiveEntry entry = new ZipArchiveEntry(AsicContainerCreator.getSignatureFileName(index));
+      entry.setComment(zipComment);
+      writeEntry(entry, signature.getAdESSignature());
+      index++;
+    }
+  }
+
+  /**
+   * @param comment comment
+   */
+  public void writeContainerComment(String comment) {
+    logger.debug("Writing container comment: " + comment);
+    zipOutputStream.setComment(comment);
+  }
+
+  /**
+   * @param zipComment comment
+   */
+  public void setZipComment(String zipComment) {
+    this.zipComment = zipComment;
+  }
+
+  private void writeExistingEntry(AsicEntry asicEntry) {
+    if (asicEntry instanceof UncompressedAsicEntry) {
+      // Written anew and STORED, as the source entry might have been deflated
+      try (InputStream stream = asicEntry.getContent().openStream()) {
+        byte[] data = IOUtils.toByteArray(stream);
+        writeEntry(createStoredEntry(asicEntry.getZipEntry(), data), data);
+      } catch (IOException e) {
+        handleIOException("Unable to write Zip entry to asic container", e);
+      }
+      return;
+    }
+    ZipArchiveEntry sourceEntry = sourceZipFile.getEntry(asicEntry.getName());
+    if (sourceEntry == null) {
+      throw new TechnicalException("Entry '" + asicEntry.getName() + "' not found in the source container");
+    }
+    logger.debug("Copying zip entry {}", sourceEntry.getName());
+    try (InputStream rawStream = sourceZipFile.getRawInputStream(sourceEntry)) {
+      zipOutputStream.addRawArchiveEntry(sourceEntry, rawStream);
+    } catch (IOException e) {
+      handleIOException("Unable to copy Zip entry to asic container", e);
+    }
+  }
+
+  private static ZipArchiveEntry createStoredEntry(ZipEntry zipEntry, byte[] data) {
+    ZipArchiveEntry entry = new ZipArchiveEntry(zipEntry.getName());
+    entry.setTime(zipEntry.getTime());
+    entry.setComment(zipEntry.getComment());
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(data.length);
+    entry.setCompressedSize(data.length);
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    entry.setCrc(crc.getValue());
+    return entry;
+  }
+
+  private void writeEntry(ZipArchiveEntry entry, byte[] data) {
+    try {
+      zipOutputStream.putArchiveEntry(entry);
+      zipOutputStream.write(data);
+      zipOutputStream.closeArchiveEntry();
+    } catch (IOException e) {
+      handleIOException("Unable to write Zip entry to asic container", e);
+    }
+  }
+
+  private static void handleIOException(String message, IOException e) {
+    logger.error(message + ": " + e.getMessage());
+    throw new TechnicalException(message, e);
+  }
+
+}
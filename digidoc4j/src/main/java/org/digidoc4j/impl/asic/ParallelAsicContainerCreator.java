@@ -0,0 +1,330 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.asic;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
+import org.apache.commons.compress.archivers.zip.StreamCompressor;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.io.IOUtils;
+import org.digidoc4j.DataFile;
+import org.digidoc4j.Signature;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.TemporaryFileManager;
+import org.digidoc4j.impl.asic.manifest.AsicManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+
+/**
+ * ASIC container creator that compresses the data files on multiple threads.
+ * <p/>
+ * Every data file is deflated on its own thread into a temporary file. The compressed entries are then copied to the
+ * container one by one in the order of the data files, so the resulting container is identical in structure to the
+ * one written by {@link AsicContainerCreator}. All the other entries are written on the calling thread. The temporary
+ * files are deleted as soon as their entries have been copied.
+ */
+public class ParallelAsicContainerCreator implements AsicContainerWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelAsicContainerCreator.class);
+  private static final AtomicInteger threadCounter = new AtomicInteger();
+
+  private final ZipArchiveOutputStream zipOutputStream;
+  private final ExecutorService executorService;
+  private final boolean ownExecutorService;
+  private final TemporaryFileManager temporaryFileManager;
+  private String zipComment;
+  private DigestAlgorithm dataFileDigestAlgorithm;
+  private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+  private Set<String> storedMimeTypes = Collections.emptySet();
+
+  /**
+   * @param outputStream         stream
+   * @param executorService      executor to compress the data files with or <code>null</code> to create a pool of
+   *                             daemon threads sized by the number of available processors, shut down on close
+   * @param temporaryFileManager owner of the temporary files holding the compressed data files, closed on close
+   */
+  public ParallelAsicContainerCreator(OutputStream outputStream, ExecutorService executorService,
+                                      TemporaryFileManager temporaryFileManager) {
+    this.temporaryFileManager = temporaryFileManager;
+    this.zipOutputStream = new ZipArchiveOutputStream(outputStream);
+    this.zipOutputStream.setEncoding(StandardCharsets.UTF_8.name());
+    this.ownExecutorService = executorService == null;
+    this.executorService = ownExecutorService
+        ? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+          Thread thread = new Thread(runnable, "asic-data-file-compression-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }) : executorService;
+  }
+
+  @Override
+  public void finalizeZipFile() {
+    logger.debug("Finalizing asic zip file");
+    try {
+      zipOutputStream.finish();
+    } catch (IOException e) {
+      handleIOException("Unable to finish creating asic ZIP container", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    logger.debug("Releasing temporary files of the compressed data files");
+    temporaryFileManager.close();
+    if (ownExecutorService) {
+      executorService.shutdown();
+    }
+  }
+
+  @Override
+  public void writeAsiceMimeType(String containerType) {
+    logger.debug("Writing asic mime type to asic zip file");
+    byte[] mimeTypeBytes = AsicContainerCreator.getMimeTypeBytes(containerType);
+    writeEntry(toZipArchiveEntry(AsicContainerCreator.getAsicMimeTypeZipEntry(mimeTypeBytes)), mimeTypeBytes);
+  }
+
+  @Override
+  public void writeManifest(Collection<DataFile> dataFiles, String containerType) {
+    logger.debug("Writing asic manifest");
+    AsicManifest manifest = new AsicManifest(containerType);
+    manifest.addFileEntry(dataFiles);
+    ZipArchiveEntry entry = new ZipArchiveEntry(AsicManifest.XML_PATH);
+    entry.setComment(zipComment);
+    try {
+      zipOutputStream.putArchiveEntry(entry);
+      manifest.writeTo(zipOutputStream);
+      zipOutputStream.closeArchiveEntry();
+    } catch (IOException e) {
+      handleIOException("Unable to write Zip entry to asic container", e);
+    }
+  }
+
+  @Override
+  public void writeDataFiles(Collection<DataFile> dataFiles) {
+    logger.debug("Compressing {} data files in parallel", dataFiles.size());
+    List<Future<CompressedDataFile>> compressedDataFiles = new ArrayList<>();
+    for (DataFile dataFile : dataFiles) {
+      compressedDataFiles.add(executorService.submit(() -> compress(dataFile)));
+    }
+    int written = 0;
+    try {
+      for (; written < compressedDataFiles.size(); written++) {
+        try (CompressedDataFile compressedDataFile = compressedDataFiles.get(written).get()) {
+          compressedDataFile.writeTo(zipOutputStream);
+        }
+      }
+    } catch (IOException e) {
+      handleIOException("Unable to write Zip entry to asic container", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TechnicalException("Interrupted while compressing data files", e);
+    } catch (ExecutionException e) {
+      throw new TechnicalException("Unable to compress data file", e.getCause());
+    } finally {
+      for (int i = written + 1; i < compressedDataFiles.size(); i++) {
+        discard(compressedDataFiles.get(i));
+      }
+    }
+  }
+
+  @Override
+  public void writeSignatures(Collection<Signature> signatures, int nextSignatureFileNameIndex) {
+    logger.debug("Adding signatures to the asic zip container");
+    int index = nextSignatureFileNameIndex;
+    for (Signature signature : signatures) {
+      ZipArchiveEntry entry = new ZipArchiveEntry(AsicContainerCreator.getSignatureFileName(index));
+      entry.setComment(zipComment);
+      writeEntry(entry, signature.getAdESSignature());
+      index++;
+    }
+  }
+
+  @Override
+  public void writeTimestampToken(DataFile dataFile) {
+    logger.debug("Adding signatures to the asic zip container");
+    ZipArchiveEntry entry = new ZipArchiveEntry("META-INF/timestamp.tst");
+    entry.setComment(zipComment);
+    writeEntry(entry, dataFile.getBytes());
+  }
+
+  @Override
+  public void writeExistingEntries(Collection<AsicEntry> asicEntries) {
+    logger.debug("Writing existing zip container entries");
+    asicEntries.stream()
+        .sorted(AsicContainerCreator::compareAsicEntriesPrioritizeMimeType)
+        .forEach(this::writeExistingEntry);
+  }
+
+  @Override
+  public void writeContainerComment(String comment) {
+    logger.debug("Writing container comment: " + comment);
+    zipOutputStream.setComment(comment);
+  }
+
+  @Override
+  public void setZipComment(String zipComment) {
+    this.zipComment = zipComment;
+  }
+
+  @Override
+  public void setDataFileDigestAlgorithm(DigestAlgorithm dataFileDigestAlgorithm) {
+    this.dataFileDigestAlgorithm = dataFileDigestAlgorithm;
+  }
+
+  @Override
+  public void setCompressionLevel(int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  @Override
+  public void setStoredMimeTypes(Collection<String> storedMimeTypes) {
+    this.storedMimeTypes = new HashSet<>(storedMimeTypes);
+  }
+
+  private CompressedDataFile compress(DataFile dataFile) throws IOException {
+    logger.debug("Compressing data file {}", dataFile.getName());
+    ZipArchiveEntry entry = new ZipArchiveEntry(dataFile.getName());
+    entry.setComment(zipComment);
+    entry.setMethod(storedMimeTypes.contains(dataFile.getMediaType()) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+    CompressedDataFile compressedDataFile = new CompressedDataFile(temporaryFileManager.createTemporaryFile());
+    try {
+      compressedDataFile.scatterStream.addArchiveEntry(ZipArchiveEntryRequest.createZipArchiveEntryRequest(entry,
+          () -> AsicContainerCreator.openDataFileStream(dataFile, dataFileDigestAlgorithm)));
+    } catch (IOException | RuntimeException e) {
+      IOUtils.closeQuietly(compressedDataFile);
+      throw e;
+    }
+    return compressedDataFile;
+  }
+
+  private void writeExistingEntry(AsicEntry asicEntry) {
+    ZipEntry zipEntry = asicEntry.getZipEntry();
+    ZipArchiveEntry entry;
+    if (zipEntry.getMethod() == ZipEntry.STORED) {
+      entry = toZipArchiveEntry(zipEntry);
+    } else {
+      entry = new ZipArchiveEntry(zipEntry.getName());
+      entry.setTime(zipEntry.getTime());
+      entry.setComment(zipEntry.getComment());
+    }
+    try (InputStream stream = asicEntry.getContent().openStream()) {
+      zipOutputStream.putArchiveEntry(entry);
+      IOUtils.copy(stream, zipOutputStream);
+      zipOutputStream.closeArchiveEntry();
+    } catch (IOException e) {
+      handleIOException("Unable to write Zip entry to asic container", e);
+    }
+  }
+
+  private static ZipArchiveEntry toZipArchiveEntry(ZipEntry zipEntry) {
+    try {
+      return new ZipArchiveEntry(zipEntry);
+    } catch (ZipException e) {
+      throw new TechnicalException("Invalid Zip entry " + zipEntry.getName(), e);
+    }
+  }
+
+  private void writeEntry(ZipArchiveEntry entry, byte[] data) {
+    try {
+      zipOutputStream.putArchiveEntry(entry);
+      zipOutputStream.write(data);
+      zipOutputStream.closeArchiveEntry();
+    } catch (IOException e) {
+      handleIOException("Unable to write Zip entry to asic container", e);
+    }
+  }
+
+  private static void discard(Future<CompressedDataFile> compressedDataFile) {
+    if (!compressedDataFile.cancel(false)) {
+      try {
+        IOUtils.closeQuietly(compressedDataFile.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        logger.debug("Data file compression failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  private static void handleIOException(String message, IOException e) {
+    logger.error(message + ": " + e.getMessage());
+    throw new TechnicalException(message, e);
+  }
+
+  /**
+   * Data file entry compressed into a temporary file. The compressed data is counted against the temporary file quota
+   * before it is written. Closing it deletes the temporary file.
+   */
+  private class CompressedDataFile implements Closeable {
+
+    private final File file;
+    private final ScatterZipOutputStream scatterStream;
+
+    CompressedDataFile(File file) throws IOException {
+      this.file = file;
+      try {
+        ScatterGatherBackingStore backingStore = new FileBasedScatterGatherBackingStore(file) {
+          @Override
+          public void writeOut(byte[] data, int offset, int length) throws IOException {
+            temporaryFileManager.allocate(file, length);
+            super.writeOut(data, offset, length);
+          }
+        };
+        this.scatterStream = new ScatterZipOutputStream(backingStore,
+            StreamCompressor.create(compressionLevel, backingStore));
+      } catch (IOException | RuntimeException e) {
+        temporaryFileManager.deleteTemporaryFile(file);
+        throw e;
+      }
+    }
+
+    void writeTo(ZipArchiveOutputStream target) throws IOException {
+      scatterStream.writeTo(target);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        scatterStream.close();
+      } finally {
+        temporaryFileManager.deleteTemporaryFile(file);
+      }
+    }
+
+  }
+
+}
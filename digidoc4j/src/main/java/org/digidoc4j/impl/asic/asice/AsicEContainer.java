@@ -20,7 +20,6 @@ import org.digidoc4j.SignatureContainerMatcherValidator;
 import org.digidoc4j.exceptions.IllegalSignatureProfileException;
 import org.digidoc4j.exceptions.NotSupportedException;
 import org.digidoc4j.impl.asic.AsicContainer;
-import org.digidoc4j.impl.asic.AsicContainerCreator;
 import org.digidoc4j.impl.asic.AsicParseResult;
 import org.digidoc4j.impl.asic.AsicSignatureOpener;
 import org.slf4j.Logger;
@@ -157,7 +156,7 @@ public class AsicEContainer extends AsicContainer {
 
   @Override
   public void save(OutputStream out) {
-    writeAsicContainer(new AsicContainerCreator(out));
+    writeAsicContainer(out);
   }
 
   @Override
@@ -37,8 +37,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 /**
  * ASIC-E container validator
@@ -100,30 +98,21 @@ public class AsicEContainerValidator {
   }
 
   protected void validateSignatures(List<Signature> signatures) {
-    List<Future<SignatureValidationData>> validationData = startSignatureValidationInParallel(signatures);
-    extractValidatedSignatureErrors(validationData);
-  }
-
-  protected List<Future<SignatureValidationData>> startSignatureValidationInParallel(List<Signature> signatures) {
-    List<Future<SignatureValidationData>> futures = new ArrayList<>();
+    List<SignatureValidationTask> validationTasks = new ArrayList<>(signatures.size());
     for (Signature signature : signatures) {
-      SignatureValidationTask validationExecutor = new SignatureValidationTask(signature);
-      Future<SignatureValidationData> validationDataFuture = threadPoolManager.submit(validationExecutor);
-      futures.add(validationDataFuture);
+      validationTasks.add(new SignatureValidationTask(signature));
     }
-    return futures;
-  }
-
-  protected void extractValidatedSignatureErrors(List<Future<SignatureValidationData>> validationFutures) {
-    logger.debug("Extracting errors from the signatures");
-    for (Future<SignatureValidationData> validationFuture : validationFutures) {
-      try {
-        SignatureValidationData validationData = validationFuture.get();
-        extractSignatureErrors(validationData);
-      } catch (InterruptedException | ExecutionException e) {
-        logger.error("Error validating signatures on multiple threads: " + e.getMessage());
-        throw new TechnicalException("Error validating signatures on multiple threads: " + e.getMessage(), e);
-      }
+    List<SignatureValidationData> validatedSignatures;
+    try {
+      validatedSignatures = threadPoolManager.invokeAll(validationTasks);
+    } catch (TechnicalException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      logger.error("Error validating signatures on multiple threads: " + e.getMessage());
+      throw new TechnicalException("Error validating signatures on multiple threads: " + e.getMessage(), e);
+    }
+    for (SignatureValidationData validationData : validatedSignatures) {
+      extractSignatureErrors(validationData);
     }
   }
 
@@ -175,7 +164,7 @@ public class AsicEContainerValidator {
 
     List<DSSDocument> detachedContents = containerParseResult.getDetachedContents();
     List<ManifestErrorMessage> manifestErrorMessageList = new ManifestValidator(manifestParser, detachedContents,
-        signatures).validateDocument();
+        signatures, threadPoolManager).validateDocument();
     for (ManifestErrorMessage manifestErrorMessage : manifestErrorMessageList) {
       manifestExceptions.add(
           new DigiDoc4JException(manifestErrorMessage.getErrorMessage(), manifestErrorMessage.getSignatureId()));
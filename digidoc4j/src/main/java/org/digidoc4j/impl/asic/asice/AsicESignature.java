@@ -1,7 +1,9 @@
 package org.digidoc4j.impl.asic.asice;
 
+import org.digidoc4j.Configuration;
 import org.digidoc4j.impl.asic.AsicSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
+import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
 import org.digidoc4j.impl.asic.xades.validation.SignatureValidator;
 
 /**
@@ -19,4 +21,14 @@ public class AsicESignature extends AsicSignature {
     super(xadesSignature, validator);
   }
 
+  /**
+   * AsicE signature constructor.
+   *
+   * @param signatureWrapper wrapper containing signature document and it's xades signature
+   * @param configuration configuration
+   */
+  public AsicESignature(XadesSignatureWrapper signatureWrapper, Configuration configuration) {
+    super(signatureWrapper, configuration);
+  }
+
 }
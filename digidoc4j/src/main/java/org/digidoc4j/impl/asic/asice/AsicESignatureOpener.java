@@ -13,10 +13,7 @@ package org.digidoc4j.impl.asic.asice;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.impl.asic.AsicSignature;
 import org.digidoc4j.impl.asic.AsicSignatureOpener;
-import org.digidoc4j.impl.asic.xades.XadesSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
-import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidator;
-import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidatorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,21 +42,6 @@ public class AsicESignatureOpener implements AsicSignatureOpener {
   @Override
   public AsicSignature open(XadesSignatureWrapper signatureWrapper) {
     logger.debug("Opening xades signature");
-    return createAsicESignature(signatureWrapper);
-  }
-
-  private AsicESignature createAsicESignature(XadesSignatureWrapper signatureWrapper) {
-    XadesSignatureValidator xadesValidator = createSignatureValidator(signatureWrapper.getSignature());
-    AsicESignature asicESignature = new AsicESignature(signatureWrapper.getSignature(), xadesValidator);
-    asicESignature.setSignatureDocument(signatureWrapper.getSignatureDocument());
-    return asicESignature;
-  }
-
-  private XadesSignatureValidator createSignatureValidator(XadesSignature signature) {
-    XadesSignatureValidatorFactory validatorFactory = new XadesSignatureValidatorFactory();
-    validatorFactory.setConfiguration(configuration);
-    validatorFactory.setSignature(signature);
-    XadesSignatureValidator xadesValidator = validatorFactory.create();
-    return xadesValidator;
+    return new AsicESignature(signatureWrapper, configuration);
   }
 }
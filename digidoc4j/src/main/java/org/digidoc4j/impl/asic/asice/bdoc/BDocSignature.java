@@ -10,8 +10,10 @@
 
 package org.digidoc4j.impl.asic.asice.bdoc;
 
+import org.digidoc4j.Configuration;
 import org.digidoc4j.impl.asic.asice.AsicESignature;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
+import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
 import org.digidoc4j.impl.asic.xades.validation.SignatureValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,4 +36,15 @@ public class BDocSignature extends AsicESignature {
     logger.debug("New BDoc signature created");
   }
 
+  /**
+   * BDoc signature constructor.
+   *
+   * @param signatureWrapper wrapper containing signature document and it's xades signature
+   * @param configuration configuration
+   */
+  public BDocSignature(XadesSignatureWrapper signatureWrapper, Configuration configuration) {
+    super(signatureWrapper, configuration);
+    logger.debug("New BDoc signature created");
+  }
+
 }
@@ -13,10 +13,7 @@ package org.digidoc4j.impl.asic.asice.bdoc;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.impl.asic.AsicSignature;
 import org.digidoc4j.impl.asic.AsicSignatureOpener;
-import org.digidoc4j.impl.asic.xades.XadesSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
-import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidator;
-import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidatorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,21 +40,6 @@ public class BDocSignatureOpener implements AsicSignatureOpener {
   @Override
   public AsicSignature open(XadesSignatureWrapper signatureWrapper) {
     logger.debug("Opening xades signature");
-    return createBDocSignature(signatureWrapper);
-  }
-
-  private BDocSignature createBDocSignature(XadesSignatureWrapper signatureWrapper) {
-    XadesSignatureValidator xadesValidator = createSignatureValidator(signatureWrapper.getSignature());
-    BDocSignature bDocSignature = new BDocSignature(signatureWrapper.getSignature(), xadesValidator);
-    bDocSignature.setSignatureDocument(signatureWrapper.getSignatureDocument());
-    return bDocSignature;
-  }
-
-  private XadesSignatureValidator createSignatureValidator(XadesSignature signature) {
-    XadesSignatureValidatorFactory validatorFactory = new XadesSignatureValidatorFactory();
-    validatorFactory.setConfiguration(configuration);
-    validatorFactory.setSignature(signature);
-    XadesSignatureValidator xadesValidator = validatorFactory.create();
-    return xadesValidator;
+    return new BDocSignature(signatureWrapper, configuration);
   }
 }
@@ -16,7 +16,6 @@ import org.digidoc4j.DataFile;
 import org.digidoc4j.Signature;
 import org.digidoc4j.exceptions.NotSupportedException;
 import org.digidoc4j.impl.asic.AsicContainer;
-import org.digidoc4j.impl.asic.AsicContainerCreator;
 import org.digidoc4j.impl.asic.AsicParseResult;
 import org.digidoc4j.impl.asic.AsicSignatureOpener;
 import org.digidoc4j.impl.asic.asice.AsicESignatureOpener;
@@ -93,7 +92,7 @@ public class AsicSContainer extends AsicContainer {
 
   @Override
   public void save(OutputStream out) {
-    writeAsicContainer(new AsicContainerCreator(out));
+    writeAsicContainer(out);
   }
 
   @Override
@@ -41,7 +41,7 @@ public final class ManifestEntry implements Serializable{
    * @return filename
    */
   public String getFileName() {
-    logger.debug("Filename: " + fileName);
+    logger.debug("Filename: {}", fileName);
     return fileName;
   }
 
@@ -51,7 +51,7 @@ public final class ManifestEntry implements Serializable{
    * @return mimetype
    */
   public String getMimeType() {
-    logger.debug("Mime type: " + mimeType);
+    logger.debug("Mime type: {}", mimeType);
     return mimeType;
   }
 
@@ -15,21 +15,27 @@ import eu.europa.esig.dss.model.DSSDocument;
 import org.apache.xml.security.signature.Reference;
 import org.digidoc4j.Signature;
 import org.digidoc4j.exceptions.DigiDoc4JException;
-import org.digidoc4j.impl.asic.asice.AsicESignature;
-import org.digidoc4j.impl.asic.asice.bdoc.BDocSignature;
+import org.digidoc4j.impl.asic.AsicSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
+import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * For validating meta data within the manifest file and signature files.
@@ -41,6 +47,7 @@ public class ManifestValidator {
   private List<DSSDocument> detachedContents;
   private ManifestParser manifestParser;
   private Collection<Signature> signatures;
+  private ThreadPoolManager threadPoolManager;
 
   public ManifestValidator(ManifestParser manifestParser, List<DSSDocument> detachedContents,
                            Collection<Signature> signatures) {
@@ -49,6 +56,26 @@ public class ManifestValidator {
     this.signatures = signatures;
   }
 
+  /**
+   * @param manifestParser    manifest parser
+   * @param detachedContents  files of the container
+   * @param signatures        signatures of the container
+   * @param threadPoolManager thread pool for validating the signatures in parallel
+   */
+  public ManifestValidator(ManifestParser manifestParser, List<DSSDocument> detachedContents,
+                           Collection<Signature> signatures, ThreadPoolManager threadPoolManager) {
+    this(manifestParser, detachedContents, signatures);
+    this.threadPoolManager = threadPoolManager;
+  }
+
+  /**
+   * Compare the entries of a signature to the manifest entries.
+   *
+   * @param manifestEntries  manifest entries keyed by the file name
+   * @param signatureEntries entries of the signature
+   * @param signatureId      signature id
+   * @return list of error messages
+   */
   public static List<ManifestErrorMessage> validateEntries(Map<String, ManifestEntry> manifestEntries,
                                                            Set<ManifestEntry> signatureEntries,
                                                            String signatureId) {
@@ -57,32 +84,46 @@ public class ManifestValidator {
     if (signatureEntries.size() == 0)
       return errorMessages;
 
-    Set<ManifestEntry> one = new HashSet(manifestEntries.values());
-    Set<ManifestEntry> onePrim = new HashSet(manifestEntries.values());
-    Set<ManifestEntry> two = new HashSet(signatureEntries);
-    Set<ManifestEntry> twoPrim = new HashSet();
-    for (ManifestEntry manifestEntry : signatureEntries) {
-      String mimeType = manifestEntry.getMimeType();
-      String alterName = manifestEntry.getFileName().replaceAll("\\+", " ");
-      twoPrim.add(new ManifestEntry(alterName, mimeType));
+    Map<String, ManifestEntry> signatureEntriesByFileName = new HashMap<>(signatureEntries.size() * 2);
+    Set<ManifestEntry> alternativeSignatureEntries = new HashSet<>(signatureEntries.size() * 2);
+    for (ManifestEntry signatureEntry : signatureEntries) {
+      signatureEntriesByFileName.putIfAbsent(signatureEntry.getFileName(), signatureEntry);
+      alternativeSignatureEntries.add(toAlternativeEntry(signatureEntry));
     }
 
-    one.removeAll(signatureEntries);
-    onePrim.removeAll(twoPrim);
-    two.removeAll(manifestEntries.values());
-    twoPrim.removeAll(manifestEntries.values());
+    List<ManifestEntry> entriesMissingFromSignature = new ArrayList<>();
+    boolean entriesMissingFromAlternativeSignature = false;
+    for (ManifestEntry manifestEntry : manifestEntries.values()) {
+      if (!signatureEntries.contains(manifestEntry)) {
+        entriesMissingFromSignature.add(manifestEntry);
+      }
+      if (!alternativeSignatureEntries.contains(manifestEntry)) {
+        entriesMissingFromAlternativeSignature = true;
+      }
+    }
 
-    if (one.size() > 0 && onePrim.size() > 0) {
-      for (ManifestEntry manifestEntry : one) {
+    Set<ManifestEntry> entriesMissingFromManifest = new LinkedHashSet<>();
+    boolean alternativeEntriesMissingFromManifest = false;
+    for (ManifestEntry signatureEntry : signatureEntries) {
+      if (!isInManifest(manifestEntries, signatureEntry)) {
+        entriesMissingFromManifest.add(signatureEntry);
+      }
+      if (!isInManifest(manifestEntries, toAlternativeEntry(signatureEntry))) {
+        alternativeEntriesMissingFromManifest = true;
+      }
+    }
+
+    if (entriesMissingFromSignature.size() > 0 && entriesMissingFromAlternativeSignature) {
+      for (ManifestEntry manifestEntry : entriesMissingFromSignature) {
 
         String fileName = manifestEntry.getFileName();
-        ManifestEntry signatureEntry = signatureEntryForFile(fileName, signatureEntries);
+        ManifestEntry signatureEntry = signatureEntriesByFileName.get(fileName);
         if (signatureEntry != null) {
           errorMessages.add(new ManifestErrorMessage("Manifest file has an entry for file <"
                   + fileName + "> with mimetype <"
                   + manifestEntry.getMimeType() + "> but the signature file for signature " + signatureId
                   + " indicates the mimetype is <" + signatureEntry.getMimeType() + ">", signatureId));
-          two.remove(signatureEntry);
+          entriesMissingFromManifest.remove(signatureEntry);
         } else {
           errorMessages.add(new ManifestErrorMessage("Manifest file has an entry for file <"
                   + fileName + "> with mimetype <"
@@ -92,8 +133,8 @@ public class ManifestValidator {
       }
     }
 
-    if (two.size() > 0 && twoPrim.size() > 0) {
-      for (ManifestEntry manifestEntry : two) {
+    if (entriesMissingFromManifest.size() > 0 && alternativeEntriesMissingFromManifest) {
+      for (ManifestEntry manifestEntry : entriesMissingFromManifest) {
         errorMessages.add(new ManifestErrorMessage("The signature file for signature "
                 + signatureId + " has an entry for file <"
                 + manifestEntry.getFileName() + "> with mimetype <" + manifestEntry.getMimeType()
@@ -104,14 +145,13 @@ public class ManifestValidator {
     return errorMessages;
   }
 
-  private static ManifestEntry signatureEntryForFile(String fileName, Set<ManifestEntry> signatureEntries) {
-    logger.debug("File name: " + fileName);
-    for (ManifestEntry signatureEntry : signatureEntries) {
-      if (fileName.equals(signatureEntry.getFileName())) {
-        return signatureEntry;
-      }
-    }
-    return null;
+  private static ManifestEntry toAlternativeEntry(ManifestEntry signatureEntry) {
+    return new ManifestEntry(signatureEntry.getFileName().replace('+', ' '), signatureEntry.getMimeType());
+  }
+
+  private static boolean isInManifest(Map<String, ManifestEntry> manifestEntries, ManifestEntry signatureEntry) {
+    ManifestEntry manifestEntry = manifestEntries.get(signatureEntry.getFileName());
+    return manifestEntry != null && manifestEntry.equals(signatureEntry);
   }
 
   /**
@@ -129,10 +169,9 @@ public class ManifestValidator {
     Map<String, ManifestEntry> manifestEntries = manifestParser.getManifestFileItems();
     Set<ManifestEntry> signatureEntries = new HashSet<>();
 
-    for (Signature signature : signatures) {
-      signatureEntries = getSignatureEntries(signature);
-
-      errorMessages.addAll(validateEntries(manifestEntries, signatureEntries, signature.getId()));
+    for (SignatureManifestValidation validation : validateSignatures(manifestEntries)) {
+      signatureEntries = validation.signatureEntries;
+      errorMessages.addAll(validation.errorMessages);
     }
 
     errorMessages.addAll(validateFilesInContainer(signatureEntries));
@@ -142,6 +181,28 @@ public class ManifestValidator {
     return errorMessages;
   }
 
+  private List<SignatureManifestValidation> validateSignatures(Map<String, ManifestEntry> manifestEntries) {
+    if (threadPoolManager == null) {
+      List<SignatureManifestValidation> validations = new ArrayList<>(signatures.size());
+      for (Signature signature : signatures) {
+        validations.add(validateSignature(manifestEntries, signature));
+      }
+      return validations;
+    }
+    List<Callable<SignatureManifestValidation>> validationTasks = new ArrayList<>(signatures.size());
+    for (Signature signature : signatures) {
+      validationTasks.add(() -> validateSignature(manifestEntries, signature));
+    }
+    return threadPoolManager.invokeAll(validationTasks);
+  }
+
+  private static SignatureManifestValidation validateSignature(Map<String, ManifestEntry> manifestEntries,
+                                                               Signature signature) {
+    Set<ManifestEntry> signatureEntries = getSignatureEntries(signature);
+    return new SignatureManifestValidation(signatureEntries,
+        validateEntries(manifestEntries, signatureEntries, signature.getId()));
+  }
+
   private List<ManifestErrorMessage> validateFilesInContainer(Set<ManifestEntry> signatureEntries) {
     List<ManifestErrorMessage> errorMessages = new ArrayList<>();
     if (signatureEntries.size() == 0) {
@@ -150,7 +211,7 @@ public class ManifestValidator {
     Set<String> signatureEntriesFileNames = this.getFileNamesFromManifestEntrySet(signatureEntries);
     List<String> filesInContainer = getFilesInContainer();
     for (String fileInContainer : filesInContainer) {
-      String alterName = fileInContainer.replaceAll("\\ ", "+");
+      String alterName = fileInContainer.replace(' ', '+');
       if (!signatureEntriesFileNames.contains(fileInContainer) && !signatureEntriesFileNames.contains(alterName)) {
         errorMessages.add(new ManifestErrorMessage(String.format("Container contains a file named <%s> which is not "
                 + "found in the signature file", fileInContainer)));
@@ -160,38 +221,33 @@ public class ManifestValidator {
   }
 
   private Set<String> getFileNamesFromManifestEntrySet(Set<ManifestEntry> signatureEntries) {
-    Set<String> signatureEntriesFileNames = new HashSet<>(signatureEntries.size());
-
-
+    Set<String> signatureEntriesFileNames = new HashSet<>(signatureEntries.size() * 2);
     for (ManifestEntry entry : signatureEntries) {
       signatureEntriesFileNames.add(entry.getFileName());
     }
     return signatureEntriesFileNames;
   }
 
-  private Set<ManifestEntry> getSignatureEntries(Signature signature) {
-    Set<ManifestEntry> signatureEntries = new HashSet<>();
-    XadesSignature origin;
-    if (signature.getClass() == BDocSignature.class) {
-      origin = ((BDocSignature) signature).getOrigin();
-    } else {
-      origin = ((AsicESignature) signature).getOrigin();
-    }
+  /**
+   * Reads the data file entries of the signature in the order of the signature references. The reference elements
+   * and the data object formats are indexed in one pass over the signature element.
+   */
+  private static Set<ManifestEntry> getSignatureEntries(Signature signature) {
+    Set<ManifestEntry> signatureEntries = new LinkedHashSet<>();
+    XadesSignature origin = ((AsicSignature) signature).getOrigin();
+    Element signatureElement = origin.getDssSignature().getSignatureElement();
+    String xAdESPrefix = origin.getDssSignature().getXAdESPaths().getNamespace().getPrefix();
+    Map<String, Element> referenceElements = getReferenceElementsByUri(signatureElement);
+    Map<String, String> mimeTypes = getMimeTypesByObjectReference(signatureElement, xAdESPrefix);
     List<Reference> references = origin.getReferences();
     for (Reference reference : references) {
       if (reference.getType().equals("")) {
         String mimeTypeString = null;
 
-        Node signatureNode = origin.getDssSignature().getSignatureElement();
-        Node node = DomUtils.getNode(signatureNode, "./ds:SignedInfo/ds:Reference[@URI=\""
-                + reference.getURI() + "\"]");
-        if (node != null) {
-          String referenceId = node.getAttributes().getNamedItem("Id").getNodeValue();
-          String xAdESPrefix = origin.getDssSignature().getXAdESPaths().getNamespace().getPrefix();
-          mimeTypeString = DomUtils.getValue(signatureNode,
-                  "./ds:Object/" + xAdESPrefix + ":QualifyingProperties/" + xAdESPrefix + ":SignedProperties/"
-                          + xAdESPrefix + ":SignedDataObjectProperties/" + xAdESPrefix + ":DataObjectFormat"
-                          + "[@ObjectReference=\"#" + referenceId + "\"]/" + xAdESPrefix + ":MimeType");
+        Element referenceElement = referenceElements.get(reference.getURI());
+        if (referenceElement != null) {
+          String referenceId = referenceElement.getAttribute("Id");
+          mimeTypeString = mimeTypes.getOrDefault("#" + referenceId, "");
         }
 
         // TODO: mimeTypeString == null ? node == null?
@@ -203,7 +259,42 @@ public class ManifestValidator {
     return signatureEntries;
   }
 
-  private String getFileURI(Reference reference) {
+  private static Map<String, Element> getReferenceElementsByUri(Element signatureElement) {
+    NodeList referenceNodes = DomUtils.getNodeList(signatureElement, "./ds:SignedInfo/ds:Reference");
+    Map<String, Element> referenceElements = new HashMap<>(referenceNodes.getLength() * 2);
+    for (int i = 0; i < referenceNodes.getLength(); i++) {
+      Element referenceElement = (Element) referenceNodes.item(i);
+      referenceElements.putIfAbsent(referenceElement.getAttribute("URI"), referenceElement);
+    }
+    return referenceElements;
+  }
+
+  private static Map<String, String> getMimeTypesByObjectReference(Element signatureElement, String xAdESPrefix) {
+    NodeList dataObjectFormats = DomUtils.getNodeList(signatureElement,
+        "./ds:Object/" + xAdESPrefix + ":QualifyingProperties/" + xAdESPrefix + ":SignedProperties/"
+            + xAdESPrefix + ":SignedDataObjectProperties/" + xAdESPrefix + ":DataObjectFormat");
+    Map<String, String> mimeTypes = new HashMap<>(dataObjectFormats.getLength() * 2);
+    for (int i = 0; i < dataObjectFormats.getLength(); i++) {
+      Element dataObjectFormat = (Element) dataObjectFormats.item(i);
+      Element mimeType = getChildElement(dataObjectFormat, "MimeType");
+      if (mimeType != null) {
+        mimeTypes.putIfAbsent(dataObjectFormat.getAttribute("ObjectReference"), mimeType.getTextContent().trim());
+      }
+    }
+    return mimeTypes;
+  }
+
+  private static Element getChildElement(Element parent, String localName) {
+    for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() == Node.ELEMENT_NODE && localName.equals(child.getLocalName())
+          && Objects.equals(parent.getNamespaceURI(), child.getNamespaceURI())) {
+        return (Element) child;
+      }
+    }
+    return null;
+  }
+
+  private static String getFileURI(Reference reference) {
     String uri = reference.getURI();
     try {
       uri = new URI(uri).getPath();
@@ -217,7 +308,7 @@ public class ManifestValidator {
   private List<String> getFilesInContainer() {
     List<String> fileEntries = new ArrayList<>();
 
-    List<String> signatureFileNames = getSignatureFileNames();
+    Set<String> signatureFileNames = getSignatureFileNames();
 
     for (DSSDocument detachedContent : detachedContents) {
       String name = detachedContent.getName();
@@ -229,12 +320,24 @@ public class ManifestValidator {
     return fileEntries;
   }
 
-  private List<String> getSignatureFileNames() {
-    List<String> signatureFileNames = new ArrayList<>();
+  private Set<String> getSignatureFileNames() {
+    Set<String> signatureFileNames = new HashSet<>(signatures.size() * 2);
     for (Signature signature : signatures) {
       String signatureFileName = "META-INF/signature" + signature.getId().toLowerCase() + ".xml";
       signatureFileNames.add(signatureFileName);
     }
     return signatureFileNames;
   }
+
+  private static class SignatureManifestValidation {
+
+    private final Set<ManifestEntry> signatureEntries;
+    private final List<ManifestErrorMessage> errorMessages;
+
+    SignatureManifestValidation(Set<ManifestEntry> signatureEntries, List<ManifestErrorMessage> errorMessages) {
+      this.signatureEntries = signatureEntries;
+      this.errorMessages = errorMessages;
+    }
+
+  }
 }
@@ -19,16 +19,26 @@ import eu.europa.esig.dss.spi.tsl.TLValidationJobSummary;
 import eu.europa.esig.dss.spi.tsl.TrustProperties;
 import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
 import eu.europa.esig.dss.tsl.job.TLValidationJob;
+import org.digidoc4j.Configuration;
 import org.digidoc4j.TSLCertificateSource;
+import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.exceptions.TslCertificateSourceInitializationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.PublicKey;
 import java.security.cert.X509Certificate;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Lazily initialized certificate source. It allows to initialize objects and populate parameters
@@ -40,15 +50,33 @@ import java.util.Set;
  * it is really necessary to check the certificates.
  * <p>
  * To achieve that, a lazily initialized certificate source is used.
+ * <p>
+ * When a snapshot location is set, the validated TSL is stored in a {@link TslSnapshot} after every download and the
+ * first access loads the snapshot instead of downloading the TSL, as long as the snapshot has not expired.
+ * <p>
+ * When background refresh is enabled, the TSL is refreshed on a background thread before the cache expires. The
+ * previously loaded TSL is used until the refreshed one replaces it, and it is kept when the refresh fails. Only the
+ * very first loading of the TSL blocks the accessing thread, unless a maximum staleness is set and the background
+ * refreshes have kept failing for longer than that. Then the accessing thread refreshes the TSL and waits for it, and
+ * accessing the TSL fails if the refresh fails.
  */
 public class LazyTslCertificateSource extends TrustedListsCertificateSource implements TSLCertificateSource {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LazyTslCertificateSource.class);
   private static final String CACHE_ERROR_STATUS = "ERROR";
+  private static final double BACKGROUND_REFRESH_POINT = 0.8;
+  private static final long BACKGROUND_REFRESH_RETRY_DELAY_IN_MILLIS = TimeUnit.MINUTES.toMillis(1);
   private transient TLValidationJob tlValidationJob;
-  private TSLCertificateSource certificateSource;
-  private Long lastCacheReloadingTime;
+  private volatile TSLCertificateSource certificateSource;
+  private volatile Long lastCacheReloadingTime;
   private Long cacheExpirationTime;
+  private String snapshotLocation;
+  private boolean backgroundRefresh;
+  private long maxStaleness = -1;
+  private volatile long lastRefreshDurationInMillis = -1;
+  private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+  private final AtomicLong failedRefreshCount = new AtomicLong();
+  private final AtomicLong trustStateVersion = new AtomicLong();
   private final TslLoader tslLoader;
 
   /**
@@ -92,6 +120,7 @@ public class LazyTslCertificateSource extends TrustedListsCertificateSource impl
   @Override
   public void addTSLCertificate(X509Certificate certificate) {
     this.getCertificateSource().addTSLCertificate(certificate);
+    this.trustStateVersion.incrementAndGet();
   }
 
   @Override
@@ -125,6 +154,15 @@ public class LazyTslCertificateSource extends TrustedListsCertificateSource impl
     this.refreshTsl();
   }
 
+  /**
+   * Loads the TSL if it has not been loaded yet, so that the returned version already accounts for the initial load.
+   */
+  @Override
+  public long getTrustStateVersion() {
+    this.getCertificateSource();
+    return this.trustStateVersion.get();
+  }
+
   /*
    * RESTRICTED METHODS
    */
@@ -137,37 +175,181 @@ public class LazyTslCertificateSource extends TrustedListsCertificateSource impl
 
   protected TSLCertificateSource getCertificateSource() {
     LOGGER.debug("Accessing TSL");
+    TSLCertificateSource currentSource = this.certificateSource;
+    if (this.backgroundRefresh && currentSource != null) {
+      if (this.isStale()) {
+        this.refreshStaleTsl();
+        return this.certificateSource;
+      }
+      if (this.isCacheExpired()) {
+        this.scheduleRefresh(0);
+      }
+      return currentSource;
+    }
     this.refreshIfCacheExpired();
     return this.certificateSource;
   }
 
+  void refreshInBackground() {
+    long nextRefreshDelay;
+    try {
+      this.refreshTsl();
+      nextRefreshDelay = this.getNextRefreshDelay();
+    } catch (RuntimeException e) {
+      this.failedRefreshCount.incrementAndGet();
+      LOGGER.warn("Background TSL refresh failed, using the TSL loaded at {}: {}",
+          new Date(this.lastCacheReloadingTime), e.getMessage());
+      nextRefreshDelay = Math.min(BACKGROUND_REFRESH_RETRY_DELAY_IN_MILLIS, this.cacheExpirationTime);
+    }
+    this.refreshScheduled.set(false);
+    this.scheduleRefresh(nextRefreshDelay);
+  }
+
   private synchronized void initTsl() {
     //Using double-checked locking to avoid other threads to start loading TSL
     if (this.isCacheExpired()) {
+      if (this.lastCacheReloadingTime == null && this.loadSnapshot()) {
+        return;
+      }
       LOGGER.debug("Initializing TSL");
       this.refreshTsl();
     }
   }
 
+  private synchronized void refreshStaleTsl() {
+    //Using double-checked locking to avoid other threads to refresh the TSL again
+    if (this.isStale()) {
+      LOGGER.warn("TSL loaded at {} is older than the maximum staleness of {} ms, refreshing it",
+          new Date(this.lastCacheReloadingTime), this.maxStaleness);
+      try {
+        this.refreshTsl();
+      } catch (RuntimeException e) {
+        this.failedRefreshCount.incrementAndGet();
+        throw new TslCertificateSourceInitializationException("TSL loaded at " + new Date(this.lastCacheReloadingTime)
+            + " is older than the maximum staleness and could not be refreshed: " + e.getMessage(), e);
+      }
+    }
+  }
+
   private synchronized void refreshTsl() {
+    TSLCertificateSourceImpl refreshedSource;
     try {
+      // The validation job fills the certificate source only with the trusted lists that have changed since its
+      // previous refresh, so a new certificate source starts with the trust properties of the previous one
+      refreshedSource = this.tlValidationJob == null || this.certificateSource == null
+          ? new TSLCertificateSourceImpl() : copyOf(this.certificateSource);
       this.populateTsl();
       LOGGER.debug("Refreshing TSL");
+      long startTime = System.nanoTime();
+      this.tlValidationJob.setTrustedListCertificateSource(refreshedSource);
       this.tlValidationJob.onlineRefresh();
-      this.lastCacheReloadingTime = new Date().getTime();
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Finished refreshing TSL, cache expires at {}", this.getNextCacheExpirationDate());
-      }
+      this.lastRefreshDurationInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
     } catch (DSSException e) {
       throw new TslCertificateSourceInitializationException("Failed to initialize TSL: " + e.getMessage(), e);
     }
+    if (this.backgroundRefresh && this.certificateSource != null && !isRefreshSuccessful(refreshedSource)) {
+      throw new TslCertificateSourceInitializationException("Failed to download the LOTL or it contains no "
+          + "certificates");
+    }
+    this.certificateSource = refreshedSource;
+    this.lastCacheReloadingTime = new Date().getTime();
+    this.trustStateVersion.incrementAndGet();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Finished refreshing TSL in {} ms, cache expires at {}", this.lastRefreshDurationInMillis,
+          this.getNextCacheExpirationDate());
+    }
+    this.writeSnapshot(refreshedSource);
+    this.scheduleNextRefresh();
+  }
+
+  private static boolean isRefreshSuccessful(TSLCertificateSourceImpl refreshedSource) {
+    for (LOTLInfo lotlInfo : refreshedSource.getSummary().getLOTLInfos()) {
+      if (lotlInfo.getDownloadCacheInfo().isError()) {
+        return false;
+      }
+    }
+    return refreshedSource.getNumberOfCertificates() > 0;
+  }
+
+  private static TSLCertificateSourceImpl copyOf(TSLCertificateSource source) {
+    Map<CertificateToken, List<TrustProperties>> trustProperties = new HashMap<>();
+    for (CertificateToken certificate : source.getCertificates()) {
+      trustProperties.put(certificate, source.getTrustServices(certificate));
+    }
+    TSLCertificateSourceImpl copy = new TSLCertificateSourceImpl();
+    copy.setTrustPropertiesByCertificates(trustProperties);
+    return copy;
   }
 
   private void populateTsl() {
-    if (this.tlValidationJob == null || this.certificateSource == null) {
+    if (this.tlValidationJob == null) {
       this.tslLoader.prepareTsl();
       this.tlValidationJob = this.tslLoader.getTlValidationJob();
-      this.certificateSource = this.tslLoader.getTslCertificateSource();
+    }
+  }
+
+  private boolean loadSnapshot() {
+    if (this.snapshotLocation == null) {
+      return false;
+    }
+    Path snapshotFile = Paths.get(this.snapshotLocation);
+    if (!Files.isRegularFile(snapshotFile)) {
+      LOGGER.debug("TSL snapshot {} does not exist", snapshotFile);
+      return false;
+    }
+    try {
+      TslSnapshot snapshot = TslSnapshot.read(snapshotFile);
+      Configuration configuration = this.tslLoader.getConfiguration();
+      if (!snapshot.isCreatedFor(configuration.getTslLocation(), configuration.getTrustedTerritories())) {
+        LOGGER.info("TSL snapshot {} was created for other TSL settings, ignoring it", snapshotFile);
+        return false;
+      }
+      if (new Date().getTime() > snapshot.getCreationTime() + this.cacheExpirationTime) {
+        LOGGER.info("TSL snapshot {} has expired, ignoring it", snapshotFile);
+        return false;
+      }
+      this.certificateSource = snapshot.toCertificateSource();
+      this.lastCacheReloadingTime = snapshot.getCreationTime();
+      this.trustStateVersion.incrementAndGet();
+      LOGGER.info("Loaded TSL with {} certificates from snapshot {}, cache expires at {}",
+          snapshot.getNumberOfCertificates(), snapshotFile, this.getNextCacheExpirationDate());
+      this.scheduleNextRefresh();
+      return true;
+    } catch (TechnicalException e) {
+      LOGGER.warn("Unable to load TSL snapshot: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private void writeSnapshot(TSLCertificateSourceImpl source) {
+    if (this.snapshotLocation == null) {
+      return;
+    }
+    try {
+      Configuration configuration = this.tslLoader.getConfiguration();
+      TslSnapshot.of(source, configuration.getTslLocation(),
+          configuration.getTrustedTerritories()).write(Paths.get(this.snapshotLocation));
+      LOGGER.debug("Stored TSL snapshot to {}", this.snapshotLocation);
+    } catch (TechnicalException e) {
+      LOGGER.warn("Unable to store TSL snapshot: {}", e.getMessage());
+    }
+  }
+
+  private void scheduleNextRefresh() {
+    if (this.backgroundRefresh) {
+      this.scheduleRefresh(this.getNextRefreshDelay());
+    }
+  }
+
+  private long getNextRefreshDelay() {
+    long refreshTime = this.lastCacheReloadingTime + (long) (this.cacheExpirationTime * BACKGROUND_REFRESH_POINT);
+    return refreshTime - new Date().getTime();
+  }
+
+  private void scheduleRefresh(long delayInMillis) {
+    if (this.refreshScheduled.compareAndSet(false, true)) {
+      LOGGER.debug("Scheduling background TSL refresh in {} ms", delayInMillis);
+      TslRefreshScheduler.schedule(this, delayInMillis);
     }
   }
 
@@ -180,6 +362,11 @@ public class LazyTslCertificateSource extends TrustedListsCertificateSource impl
     return currentTime > timeToReload;
   }
 
+  private boolean isStale() {
+    Long reloadingTime = this.lastCacheReloadingTime;
+    return this.maxStaleness >= 0 && reloadingTime != null && new Date().getTime() > reloadingTime + this.maxStaleness;
+  }
+
   private String getNextCacheExpirationDate() {
     return new Date(this.lastCacheReloadingTime + this.cacheExpirationTime).toString();
   }
@@ -200,6 +387,46 @@ public class LazyTslCertificateSource extends TrustedListsCertificateSource impl
     this.cacheExpirationTime = cacheExpirationTime;
   }
 
+  @Override
+  public long getLastRefreshDurationInMillis() {
+    return lastRefreshDurationInMillis;
+  }
+
+  @Override
+  public Long getTslAgeInMillis() {
+    Long reloadingTime = this.lastCacheReloadingTime;
+    return reloadingTime == null ? null : new Date().getTime() - reloadingTime;
+  }
+
+  @Override
+  public long getFailedRefreshCount() {
+    return failedRefreshCount.get();
+  }
+
+  public boolean isBackgroundRefresh() {
+    return backgroundRefresh;
+  }
+
+  public void setBackgroundRefresh(boolean backgroundRefresh) {
+    this.backgroundRefresh = backgroundRefresh;
+  }
+
+  public long getMaxStaleness() {
+    return maxStaleness;
+  }
+
+  public void setMaxStaleness(long maxStaleness) {
+    this.maxStaleness = maxStaleness;
+  }
+
+  public String getSnapshotLocation() {
+    return snapshotLocation;
+  }
+
+  public void setSnapshotLocation(String snapshotLocation) {
+    this.snapshotLocation = snapshotLocation;
+  }
+
   public TslLoader getTslLoader() {
     return tslLoader;
   }
@@ -41,7 +41,9 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Certificate source with the purpose of adding trusted certificate(s) manually
@@ -56,6 +58,7 @@ public class TSLCertificateSourceImpl extends TrustedListsCertificateSource impl
 
 
   private static final Logger logger = LoggerFactory.getLogger(TSLCertificateSourceImpl.class);
+  private final AtomicLong trustStateVersion = new AtomicLong();
 
   public TSLCertificateSourceImpl() {
   }
@@ -78,17 +81,14 @@ public class TSLCertificateSourceImpl extends TrustedListsCertificateSource impl
   @Override
   public void addTSLCertificate(X509Certificate certificate) {
 
+    // Plain maps instead of anonymous subclasses, which would drag this certificate source into TSL snapshots
     TrustServiceProviderBuilder trustServiceProviderBuilder = new TrustServiceProviderBuilder();
     trustServiceProviderBuilder.setTerritory("EU");
-    trustServiceProviderBuilder.setNames(new HashMap<String, List<String>>() {{
-      put("EN", Arrays.asList(getCN(certificate)));
-    }});
+    trustServiceProviderBuilder.setNames(createNames(certificate));
 
     TrustServiceStatusAndInformationExtensions.TrustServiceStatusAndInformationExtensionsBuilder extensionsBuilder = new TrustServiceStatusAndInformationExtensions.
             TrustServiceStatusAndInformationExtensionsBuilder();
-    extensionsBuilder.setNames(new HashMap<String, List<String>>() {{
-      put("EN", Arrays.asList(getCN(certificate)));
-    }});
+    extensionsBuilder.setNames(createNames(certificate));
 
     extensionsBuilder.setType(getServiceType(certificate));
     extensionsBuilder.setStatus(getStatus(certificate.getNotBefore()));
@@ -108,6 +108,13 @@ public class TSLCertificateSourceImpl extends TrustedListsCertificateSource impl
             trustServiceProviderBuilder.build(), statusHistoryList);
 
     addCertificate(new CertificateToken(certificate), Arrays.asList(trustProperties));
+    trustStateVersion.incrementAndGet();
+  }
+
+  private Map<String, List<String>> createNames(X509Certificate certificate) {
+    Map<String, List<String>> names = new HashMap<>();
+    names.put("EN", Arrays.asList(getCN(certificate)));
+    return names;
   }
 
   /**
@@ -134,6 +141,11 @@ public class TSLCertificateSourceImpl extends TrustedListsCertificateSource impl
     logger.warn("Not possible to refresh this certificate source");
   }
 
+  @Override
+  public long getTrustStateVersion() {
+    return trustStateVersion.get();
+  }
+
   private TLInfo getFirstSuitableTLInfo() {
     Optional<TLInfo> tlInfo = this.getSummary().getLOTLInfos().stream()
             .flatMap(lotlInfo -> lotlInfo.getTLInfos().stream())
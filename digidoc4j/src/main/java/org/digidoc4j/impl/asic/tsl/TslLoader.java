@@ -177,4 +177,8 @@ public class TslLoader implements Serializable {
     return tlValidationJob;
   }
 
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
 }
@@ -50,6 +50,9 @@ public class TslManager implements Serializable {
       TslLoader tslLoader = new TslLoader(this.configuration);
       LazyTslCertificateSource lazyTsl = new LazyTslCertificateSource(tslLoader);
       lazyTsl.setCacheExpirationTime(this.configuration.getTslCacheExpirationTime());
+      lazyTsl.setSnapshotLocation(this.configuration.getTslSnapshotLocation());
+      lazyTsl.setBackgroundRefresh(this.configuration.isTslBackgroundRefresh());
+      lazyTsl.setMaxStaleness(this.configuration.getTslMaxStaleness());
       this.tslCertificateSource = lazyTsl;
       logger.debug("Finished loading TSL in a synchronized block");
     }
@@ -0,0 +1,45 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl.asic.tsl;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the background TSL refreshes of the lazy TSL certificate sources on a single daemon thread.
+ * <p/>
+ * The scheduled refreshes reference the certificate sources weakly, so a certificate source that is no longer used
+ * is not kept alive by its next scheduled refresh.
+ */
+final class TslRefreshScheduler {
+
+  private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "digidoc4j-tsl-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private TslRefreshScheduler() {
+  }
+
+  static void schedule(LazyTslCertificateSource certificateSource, long delayInMillis) {
+    WeakReference<LazyTslCertificateSource> reference = new WeakReference<>(certificateSource);
+    scheduler.schedule(() -> {
+      LazyTslCertificateSource source = reference.get();
+      if (source != null) {
+        source.refreshInBackground();
+      }
+    }, Math.max(0, delayInMillis), TimeUnit.MILLISECONDS);
+  }
+
+}
@@ -0,0 +1,284 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl.asic.tsl;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.spi.tsl.TLValidationJobSummary;
+import eu.europa.esig.dss.spi.tsl.TrustProperties;
+import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
+import org.digidoc4j.exceptions.TechnicalException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot of the validated state of a TSL certificate source.
+ * <p/>
+ * The snapshot holds the trusted certificates with their trust properties and the summary of the TSL validation. It
+ * is written to disk after the TSL has been downloaded and validated, so that a restarted process can load it instead
+ * of downloading and validating the TSL again. The snapshot remembers the TSL location and the trusted territories it
+ * was created for and must not be used with other settings.
+ */
+public final class TslSnapshot implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private static final int FORMAT_VERSION = 1;
+  private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+      TslSnapshot.class.getName(),
+      "[B",
+      "[Ljava.lang.Object;",
+      "[Ljava.lang.String;",
+      "[Leu.europa.esig.dss.spi.tsl.ConditionForQualifiers;",
+      "[Leu.europa.esig.dss.spi.tsl.LOTLInfo;",
+      "[Leu.europa.esig.dss.spi.tsl.PivotInfo;",
+      "[Leu.europa.esig.dss.spi.tsl.TLInfo;",
+      "java.lang.Boolean",
+      "java.lang.Enum",
+      "java.lang.Integer",
+      "java.lang.Long",
+      "java.lang.Number",
+      "java.security.KeyRep",
+      "java.security.KeyRep$Type",
+      "java.security.cert.Certificate$CertificateRep",
+      "java.util.ArrayList",
+      "java.util.Arrays$ArrayList",
+      "java.util.Collections$EmptyList",
+      "java.util.Collections$EmptyMap",
+      "java.util.Collections$SingletonList",
+      "java.util.Collections$UnmodifiableCollection",
+      "java.util.Collections$UnmodifiableList",
+      "java.util.Collections$UnmodifiableMap",
+      "java.util.Collections$UnmodifiableRandomAccessList",
+      "java.util.Date",
+      "java.util.EnumMap",
+      "java.util.HashMap",
+      "java.util.LinkedHashMap",
+      "java.util.LinkedList",
+      "eu.europa.esig.dss.enumerations.DigestAlgorithm",
+      "eu.europa.esig.dss.enumerations.EncryptionAlgorithm",
+      "eu.europa.esig.dss.enumerations.Indication",
+      "eu.europa.esig.dss.enumerations.KeyUsageBit",
+      "eu.europa.esig.dss.enumerations.MaskGenerationFunction",
+      "eu.europa.esig.dss.enumerations.SignatureAlgorithm",
+      "eu.europa.esig.dss.enumerations.SignatureValidity",
+      "eu.europa.esig.dss.enumerations.SubIndication",
+      "eu.europa.esig.dss.model.Digest",
+      "eu.europa.esig.dss.model.identifier.CertificateTokenIdentifier",
+      "eu.europa.esig.dss.model.identifier.EntityIdentifier",
+      "eu.europa.esig.dss.model.identifier.Identifier",
+      "eu.europa.esig.dss.model.identifier.MultipleDigestIdentifier",
+      "eu.europa.esig.dss.model.identifier.TokenIdentifier",
+      "eu.europa.esig.dss.model.x509.CertificateToken",
+      "eu.europa.esig.dss.model.x509.Token",
+      "eu.europa.esig.dss.spi.tsl.CertificatePivotStatus",
+      "eu.europa.esig.dss.spi.tsl.ConditionForQualifiers",
+      "eu.europa.esig.dss.spi.tsl.LOTLInfo",
+      "eu.europa.esig.dss.spi.tsl.OtherTSLPointer",
+      "eu.europa.esig.dss.spi.tsl.PivotInfo",
+      "eu.europa.esig.dss.spi.tsl.TLInfo",
+      "eu.europa.esig.dss.spi.tsl.TLValidationJobSummary",
+      "eu.europa.esig.dss.spi.tsl.TrustProperties",
+      "eu.europa.esig.dss.spi.tsl.TrustService",
+      "eu.europa.esig.dss.spi.tsl.TrustServiceProvider",
+      "eu.europa.esig.dss.spi.tsl.TrustServiceStatusAndInformationExtensions",
+      "eu.europa.esig.dss.spi.tsl.identifier.AbstractTLIdentifier",
+      "eu.europa.esig.dss.spi.tsl.identifier.LOTLIdentifier",
+      "eu.europa.esig.dss.spi.tsl.identifier.PivotIdentifier",
+      "eu.europa.esig.dss.spi.tsl.identifier.TrustedListIdentifier",
+      "eu.europa.esig.dss.spi.util.BaseTimeDependent",
+      "eu.europa.esig.dss.spi.util.MutableTimeDependentValues",
+      "eu.europa.esig.dss.spi.util.TimeDependentValues",
+      "eu.europa.esig.dss.tsl.cache.state.CacheStateEnum",
+      "eu.europa.esig.dss.tsl.dto.AbstractCacheDTO",
+      "eu.europa.esig.dss.tsl.dto.DownloadCacheDTO",
+      "eu.europa.esig.dss.tsl.dto.ParsingCacheDTO",
+      "eu.europa.esig.dss.tsl.dto.ValidationCacheDTO",
+      "eu.europa.esig.dss.tsl.dto.condition.CertSubjectDNAttributeCondition",
+      "eu.europa.esig.dss.tsl.dto.condition.CompositeCondition",
+      "eu.europa.esig.dss.tsl.dto.condition.ExtendedKeyUsageCondition",
+      "eu.europa.esig.dss.tsl.dto.condition.KeyUsageCondition",
+      "eu.europa.esig.dss.tsl.dto.condition.PolicyIdCondition",
+      "eu.europa.esig.trustedlist.enums.Assert"));
+
+  private final int formatVersion;
+  private final long creationTime;
+  private final String tslLocation;
+  private final List<String> trustedTerritories;
+  private final LinkedHashMap<CertificateToken, List<TrustProperties>> trustPropertiesByCertificates;
+  private final TLValidationJobSummary summary;
+
+  private TslSnapshot(long creationTime, String tslLocation, List<String> trustedTerritories,
+                      LinkedHashMap<CertificateToken, List<TrustProperties>> trustPropertiesByCertificates,
+                      TLValidationJobSummary summary) {
+    this.formatVersion = FORMAT_VERSION;
+    this.creationTime = creationTime;
+    this.tslLocation = tslLocation;
+    this.trustedTerritories = trustedTerritories;
+    this.trustPropertiesByCertificates = trustPropertiesByCertificates;
+    this.summary = summary;
+  }
+
+  /**
+   * Takes a snapshot of the certificate source.
+   *
+   * @param certificateSource  validated certificate source
+   * @param tslLocation        location of the TSL the certificate source was populated from
+   * @param trustedTerritories territories trusted when the certificate source was populated
+   * @return snapshot of the certificate source
+   */
+  public static TslSnapshot of(TrustedListsCertificateSource certificateSource, String tslLocation,
+                               List<String> trustedTerritories) {
+    LinkedHashMap<CertificateToken, List<TrustProperties>> trustProperties = new LinkedHashMap<>();
+    for (CertificateToken certificate : certificateSource.getCertificates()) {
+      trustProperties.put(certificate, new ArrayList<>(certificateSource.getTrustServices(certificate)));
+    }
+    return new TslSnapshot(System.currentTimeMillis(), tslLocation, copyOf(trustedTerritories), trustProperties,
+        certificateSource.getSummary());
+  }
+
+  /**
+   * Reads the snapshot from a file.
+   *
+   * @param file snapshot file
+   * @return snapshot
+   * @throws TechnicalException if the file cannot be read or is not a snapshot of the supported format
+   */
+  public static TslSnapshot read(Path file) {
+    try (ObjectInputStream in = new SnapshotInputStream(
+        new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+      Object snapshot = in.readObject();
+      if (!(snapshot instanceof TslSnapshot) || ((TslSnapshot) snapshot).formatVersion != FORMAT_VERSION) {
+        throw new TechnicalException("Unsupported TSL snapshot format in " + file);
+      }
+      return (TslSnapshot) snapshot;
+    } catch (IOException | ClassNotFoundException e) {
+      throw new TechnicalException("Unable to read TSL snapshot from " + file, e);
+    }
+  }
+
+  /**
+   * Writes the snapshot to a file. The snapshot is written to a temporary file first and then moved in place, so a
+   * concurrent reader sees either the previous or the new snapshot.
+   *
+   * @param file snapshot file
+   * @throws TechnicalException if the snapshot cannot be written
+   */
+  public void write(Path file) {
+    Path temporaryFile = null;
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      temporaryFile = Files.createTempFile(directory, "tsl-snapshot", ".tmp");
+      try (OutputStream fileOut = Files.newOutputStream(temporaryFile);
+           ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(fileOut)))) {
+        out.writeObject(this);
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new TechnicalException("Unable to write TSL snapshot to " + file, e);
+    } finally {
+      if (temporaryFile != null) {
+        try {
+          Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+          // The temporary file is left behind, the snapshot itself is not affected
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if the snapshot was created for the given TSL settings.
+   *
+   * @param tslLocation        location of the TSL
+   * @param trustedTerritories trusted territories
+   * @return true if the snapshot can be used with the settings
+   */
+  public boolean isCreatedFor(String tslLocation, List<String> trustedTerritories) {
+    return this.tslLocation != null && this.tslLocation.equals(tslLocation)
+        && this.trustedTerritories.equals(copyOf(trustedTerritories));
+  }
+
+  /**
+   * Creates a new certificate source populated from the snapshot.
+   *
+   * @return certificate source
+   */
+  public TSLCertificateSourceImpl toCertificateSource() {
+    TSLCertificateSourceImpl certificateSource = new TSLCertificateSourceImpl();
+    certificateSource.setTrustPropertiesByCertificates(this.trustPropertiesByCertificates);
+    certificateSource.setSummary(this.summary);
+    return certificateSource;
+  }
+
+  private static List<String> copyOf(List<String> trustedTerritories) {
+    List<String> territories = trustedTerritories == null ? new ArrayList<>() : new ArrayList<>(trustedTerritories);
+    Collections.sort(territories);
+    return territories;
+  }
+
+  /*
+   * ACCESSORS
+   */
+
+  public long getCreationTime() {
+    return creationTime;
+  }
+
+  public int getNumberOfCertificates() {
+    return trustPropertiesByCertificates.size();
+  }
+
+  /**
+   * Deserializes only the exact classes a snapshot consists of and no proxies.
+   */
+  private static class SnapshotInputStream extends ObjectInputStream {
+
+    SnapshotInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+      if (!ALLOWED_CLASSES.contains(descriptor.getName())) {
+        throw new InvalidClassException(descriptor.getName(), "Class is not allowed in a TSL snapshot");
+      }
+      return super.resolveClass(descriptor);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws InvalidClassException {
+      throw new InvalidClassException(Arrays.toString(interfaces), "Proxy is not allowed in a TSL snapshot");
+    }
+
+  }
+
+}
@@ -37,6 +37,13 @@ public abstract class DssXadesSignature implements XadesSignature {
     return new XadesValidationResult(this.reportGenerator.openValidationReport());
   }
 
+  /**
+   * @return number of times the signature has been validated with DSS
+   */
+  public int getValidationCount() {
+    return this.reportGenerator.getValidationCount();
+  }
+
   @Override
   public XAdESSignature getDssSignature() {
     return this.reportGenerator.openDssSignature();
@@ -0,0 +1,116 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl.asic.xades;
+
+import eu.europa.esig.dss.enumerations.Context;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.policy.SubContext;
+import eu.europa.esig.dss.policy.ValidationPolicy;
+import eu.europa.esig.dss.policy.ValidationPolicyFacade;
+import org.digidoc4j.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the parsed validation policy of every configuration.
+ * <p/>
+ * The policy is read from the file or classpath resource named by {@link Configuration#getValidationPolicy()} only
+ * once and again when the configured policy or the modification time of the policy file changes. The cached policy
+ * is fully initialized before it is returned, so it can be shared by the validation threads.
+ */
+public final class ValidationPolicyCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ValidationPolicyCache.class);
+  private static final Map<Configuration, CachedValidationPolicy> policies =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private ValidationPolicyCache() {
+  }
+
+  /**
+   * @param configuration configuration
+   * @return validation policy of the configuration
+   */
+  public static ValidationPolicy getValidationPolicy(Configuration configuration) {
+    String policyFile = configuration.getValidationPolicy();
+    long lastModified = new File(policyFile).lastModified();
+    synchronized (policies) {
+      CachedValidationPolicy cachedPolicy = policies.get(configuration);
+      if (cachedPolicy == null || !cachedPolicy.isLoadedFrom(policyFile, lastModified)) {
+        cachedPolicy = new CachedValidationPolicy(policyFile, lastModified, loadValidationPolicy(policyFile));
+        policies.put(configuration, cachedPolicy);
+      }
+      return cachedPolicy.policy;
+    }
+  }
+
+  private static ValidationPolicy loadValidationPolicy(String policyFile) {
+    logger.debug("Loading validation policy <{}>", policyFile);
+    try {
+      ValidationPolicy policy;
+      File file = new File(policyFile);
+      if (file.isFile()) {
+        policy = ValidationPolicyFacade.newFacade().getValidationPolicy(file);
+      } else {
+        try (InputStream stream = ValidationPolicyCache.class.getClassLoader().getResourceAsStream(policyFile)) {
+          if (stream == null) {
+            logger.debug("Validation policy <{}> not found, using the default policy", policyFile);
+            policy = ValidationPolicyFacade.newFacade().getDefaultValidationPolicy();
+          } else {
+            policy = ValidationPolicyFacade.newFacade().getValidationPolicy(stream);
+          }
+        }
+      }
+      initializeCryptographicConstraints(policy);
+      return policy;
+    } catch (Exception e) {
+      throw new DSSException("Unable to load the policy", e);
+    }
+  }
+
+  /**
+   * The cryptographic constraints are completed with the default values on the first access. Accessing them all
+   * up front keeps the shared policy from being modified during validation.
+   */
+  private static void initializeCryptographicConstraints(ValidationPolicy policy) {
+    for (Context context : Context.values()) {
+      policy.getSignatureCryptographicConstraint(context);
+      for (SubContext subContext : SubContext.values()) {
+        policy.getCertificateCryptographicConstraint(context, subContext);
+      }
+    }
+  }
+
+  private static class CachedValidationPolicy {
+
+    private final String policyFile;
+    private final long lastModified;
+    private final ValidationPolicy policy;
+
+    CachedValidationPolicy(String policyFile, long lastModified, ValidationPolicy policy) {
+      this.policyFile = policyFile;
+      this.lastModified = lastModified;
+      this.policy = policy;
+    }
+
+    boolean isLoadedFrom(String policyFile, long lastModified) {
+      return this.policyFile.equals(policyFile) && this.lastModified == lastModified;
+    }
+
+  }
+
+}
@@ -0,0 +1,188 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j.impl.asic.xades;
+
+import eu.europa.esig.dss.DomUtils;
+import eu.europa.esig.dss.model.DSSDocument;
+import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Signature details read from a XAdES signature document with a streaming parser, without building a DOM of the
+ * document or parsing the signature with DSS.
+ * <p/>
+ * The details are read from the first ds:Signature element of the document, the same way as the parsed
+ * {@link XadesSignature} reads them.
+ */
+public final class XadesSignatureSummary implements Serializable {
+
+  private static final Logger logger = LoggerFactory.getLogger(XadesSignatureSummary.class);
+  private static final String XMLDSIG_NAMESPACE = "http://www.w3.org/2000/09/xmldsig#";
+  private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+  private String id;
+  private Date signingTime;
+  private final List<byte[]> keyInfoCertificates = new ArrayList<>();
+  private String policyIdentifier;
+
+  private XadesSignatureSummary() {
+  }
+
+  /**
+   * Scans the signature document.
+   *
+   * @param signatureDocument XAdES signature document
+   * @return signature summary or null if the document could not be scanned
+   */
+  public static XadesSignatureSummary scan(DSSDocument signatureDocument) {
+    logger.debug("Scanning signature document <{}>", signatureDocument.getName());
+    try (InputStream stream = signatureDocument.openStream()) {
+      XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(stream);
+      try {
+        return scan(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException | IOException | RuntimeException e) {
+      logger.debug("Unable to scan signature document <{}>: {}", signatureDocument.getName(), e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @return value of the Id attribute of the signature or null if missing
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return claimed signing time or null if missing
+   */
+  public Date getSigningTime() {
+    return signingTime == null ? null : new Date(signingTime.getTime());
+  }
+
+  /**
+   * @return DER encoded signing certificate or null if the key info does not contain exactly one certificate
+   */
+  public byte[] getSigningCertificate() {
+    return keyInfoCertificates.size() == 1 ? keyInfoCertificates.get(0).clone() : null;
+  }
+
+  /**
+   * @return identifier of the signature policy or null if the signature has no explicit policy
+   */
+  public String getPolicyIdentifier() {
+    return policyIdentifier;
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private static XadesSignatureSummary scan(XMLStreamReader reader) throws XMLStreamException {
+    XadesSignatureSummary summary = new XadesSignatureSummary();
+    List<String> path = new ArrayList<>();
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (path.isEmpty()) {
+          if (!isSignatureElement(reader)) {
+            continue;
+          }
+          summary.id = getIdAttribute(reader);
+        }
+        path.add(reader.getLocalName());
+        if (summary.readElement(reader, path)) {
+          path.remove(path.size() - 1);
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT && !path.isEmpty()) {
+        path.remove(path.size() - 1);
+        if (path.isEmpty()) {
+          return summary;
+        }
+      }
+    }
+    throw new XMLStreamException("Signature element not found");
+  }
+
+  /**
+   * @return true if the element text was read, moving the reader to the end of the element
+   */
+  private boolean readElement(XMLStreamReader reader, List<String> path) throws XMLStreamException {
+    if (endsWith(path, "Signature", "KeyInfo", "X509Data", "X509Certificate") && path.size() == 4) {
+      addKeyInfoCertificate(Base64.decodeBase64(reader.getElementText()));
+      return true;
+    }
+    if (endsWith(path, "SignedSignatureProperties", "SigningTime")) {
+      signingTime = DomUtils.getDate(reader.getElementText().trim());
+      return true;
+    }
+    if (endsWith(path, "SignaturePolicyId", "SigPolicyId", "Identifier")) {
+      policyIdentifier = reader.getElementText().trim();
+      return true;
+    }
+    return false;
+  }
+
+  private void addKeyInfoCertificate(byte[] certificate) {
+    for (byte[] keyInfoCertificate : keyInfoCertificates) {
+      if (Arrays.equals(keyInfoCertificate, certificate)) {
+        return;
+      }
+    }
+    keyInfoCertificates.add(certificate);
+  }
+
+  private static boolean isSignatureElement(XMLStreamReader reader) {
+    return "Signature".equals(reader.getLocalName()) && XMLDSIG_NAMESPACE.equals(reader.getNamespaceURI());
+  }
+
+  private static String getIdAttribute(XMLStreamReader reader) {
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Id".equalsIgnoreCase(reader.getAttributeLocalName(i))) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  private static boolean endsWith(List<String> path, String... names) {
+    if (path.size() < names.length) {
+      return false;
+    }
+    List<String> end = path.subList(path.size() - names.length, path.size());
+    return end.equals(Arrays.asList(names));
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
+  }
+
+}
@@ -11,24 +11,108 @@
 package org.digidoc4j.impl.asic.xades;
 
 import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.spi.DSSUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.digidoc4j.SignatureContainerMatcherValidator;
+import org.digidoc4j.X509Cert;
+import org.digidoc4j.impl.asic.xades.validation.XadesSignatureValidator;
+import org.digidoc4j.utils.Helper;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Date;
+import java.util.function.Function;
 
 public class XadesSignatureWrapper implements Serializable {
 
-    private final XadesSignature signature;
+    private XadesSignature signature;
     private final DSSDocument signatureDocument;
+    private XadesSignatureSummary signatureSummary;
+    private X509Cert signingCertificate;
+    private transient Function<DSSDocument, XadesSignature> signatureParser;
 
     public XadesSignatureWrapper(XadesSignature signature, DSSDocument signatureDocument) {
         this.signature = signature;
         this.signatureDocument = signatureDocument;
     }
 
-    public XadesSignature getSignature() {
+    /**
+     * Creates a wrapper of a signature that is parsed only when it is accessed for the first time. Until then the
+     * signature id, signing time and signing certificate are read from a {@link XadesSignatureSummary} of the
+     * signature document.
+     *
+     * @param signatureDocument signature document
+     * @param signatureParser   parser of the signature document
+     */
+    public XadesSignatureWrapper(DSSDocument signatureDocument, Function<DSSDocument, XadesSignature> signatureParser) {
+        this.signatureDocument = signatureDocument;
+        this.signatureParser = signatureParser;
+        this.signatureSummary = XadesSignatureSummary.scan(signatureDocument);
+    }
+
+    public synchronized XadesSignature getSignature() {
+        if (signature == null) {
+            signature = signatureParser.apply(signatureDocument);
+            signatureParser = null;
+        }
         return signature;
     }
 
+    public synchronized boolean isSignatureParsed() {
+        return signature != null;
+    }
+
     public DSSDocument getSignatureDocument() {
         return signatureDocument;
     }
+
+    public String getId() {
+        if (signatureSummary != null && !isSignatureParsed()) {
+            return signatureSummary.getId();
+        }
+        return getSignature().getId();
+    }
+
+    public Date getSigningTime() {
+        if (signatureSummary != null && !isSignatureParsed()) {
+            return signatureSummary.getSigningTime();
+        }
+        return getSignature().getSigningTime();
+    }
+
+    public X509Cert getSigningCertificate() {
+        if (signatureSummary != null && !isSignatureParsed() && signatureSummary.getSigningCertificate() != null) {
+            if (signingCertificate == null) {
+                byte[] certificate = signatureSummary.getSigningCertificate();
+                signingCertificate = new X509Cert(DSSUtils.loadCertificate(certificate).getCertificate());
+            }
+            return signingCertificate;
+        }
+        return getSignature().getSigningCertificate();
+    }
+
+    /**
+     * Signatures with a time-mark policy are always BDOC signatures, signatures without a policy never. The signature
+     * is parsed only for the other policies.
+     *
+     * @return true if the signature can be in a BDOC container only
+     */
+    public boolean isBDocOnlySignature() {
+        if (signatureSummary != null && !isSignatureParsed()) {
+            String policyIdentifier = signatureSummary.getPolicyIdentifier();
+            if (StringUtils.isBlank(policyIdentifier)) {
+                return false;
+            }
+            if (XadesSignatureValidator.TM_POLICY.equals(Helper.getIdentifier(policyIdentifier))) {
+                return true;
+            }
+        }
+        return SignatureContainerMatcherValidator.isBDocOnlySignature(getSignature().getProfile());
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getSignature();
+        out.defaultWriteObject();
+    }
 }
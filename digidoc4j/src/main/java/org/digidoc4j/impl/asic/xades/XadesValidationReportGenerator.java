@@ -23,12 +23,7 @@ import org.digidoc4j.exceptions.SignatureNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
 import java.io.Serializable;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 public class XadesValidationReportGenerator implements Serializable {
@@ -36,6 +31,8 @@ public class XadesValidationReportGenerator implements Serializable {
   private static final Logger log = LoggerFactory.getLogger(XadesValidationReportGenerator.class);
   private transient SignedDocumentValidator signedDocumentValidator;
   private transient Reports reports;
+  private transient long reportsTrustStateVersion;
+  private transient int validationCount;
   private transient XAdESSignature xadesSignature;
   private DSSDocument document;
   private List<DSSDocument> detachedContents;
@@ -53,14 +50,31 @@ public class XadesValidationReportGenerator implements Serializable {
     this.configuration = configuration;
   }
 
-  public Reports openValidationReport() {
-    if (this.reports == null) {
+  /**
+   * Validates the signature with DSS only if it has not been validated yet or the trusted certificates have changed
+   * after the previous validation.
+   *
+   * @return validation reports
+   */
+  public synchronized Reports openValidationReport() {
+    long trustStateVersion = this.getTrustStateVersion();
+    if (this.reports == null || this.reportsTrustStateVersion != trustStateVersion) {
+      // The version is read before validating, so a TSL change during the validation triggers another validation
       this.reports = this.generateReports();
+      this.reportsTrustStateVersion = trustStateVersion;
+      this.validationCount++;
       print();
     }
     return this.reports;
   }
 
+  /**
+   * @return number of times the signature has been validated with DSS
+   */
+  public synchronized int getValidationCount() {
+    return this.validationCount;
+  }
+
   public XAdESSignature openDssSignature() {
     if (this.xadesSignature == null) {
       this.xadesSignature = this.getXAdESSignature();
@@ -75,7 +89,8 @@ public class XadesValidationReportGenerator implements Serializable {
   private Reports generateReports() {
     try {
       this.log.debug("Creating a new validation report");
-      Reports validationReports = this.getSignedDocumentValidator().validateDocument(this.getValidationPolicyAsStream());
+      Reports validationReports = this.getSignedDocumentValidator().validateDocument(
+          ValidationPolicyCache.getValidationPolicy(this.configuration));
       XadesValidationReportProcessor.process(validationReports);
       return validationReports;
     } catch (DSSException e) {
@@ -83,16 +98,8 @@ public class XadesValidationReportGenerator implements Serializable {
     }
   }
 
-  private InputStream getValidationPolicyAsStream() {
-    String policyFile = this.configuration.getValidationPolicy();
-    if (Files.exists(Paths.get(policyFile))) {
-      try {
-        return new FileInputStream(policyFile);
-      } catch (FileNotFoundException ignore) {
-        this.log.warn(ignore.getMessage());
-      }
-    }
-    return this.getClass().getClassLoader().getResourceAsStream(policyFile);
+  private long getTrustStateVersion() {
+    return this.configuration.getTSL().getTrustStateVersion();
   }
 
   private XAdESSignature getXAdESSignature() {
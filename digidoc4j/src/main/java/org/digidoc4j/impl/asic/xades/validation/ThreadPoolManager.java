@@ -10,12 +10,22 @@
 
 package org.digidoc4j.impl.asic.xades.validation;
 
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.digidoc4j.Configuration;
+import org.digidoc4j.exceptions.NotSupportedException;
+import org.digidoc4j.exceptions.TechnicalException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +35,7 @@ import org.slf4j.LoggerFactory;
 public class ThreadPoolManager {
 
   private static final Logger logger = LoggerFactory.getLogger(ThreadPoolManager.class);
+  private static final int DEFAULT_QUEUE_CAPACITY_PER_THREAD = 64;
   private static ExecutorService defaultThreadExecutor;
   private Configuration configuration;
 
@@ -63,16 +74,113 @@ public class ThreadPoolManager {
     return this.getThreadExecutor().submit(task);
   }
 
+  /**
+   * Maximum number of tasks of a single container that are submitted to the thread executor at the same time, so
+   * that a container with many signatures does not hold up the validation of other containers.
+   *
+   * @return maximum number of parallel tasks
+   */
+  public int getMaxParallelTasks() {
+    Integer maxParallelTasks = this.configuration.getMaxParallelSignatureValidations();
+    if (maxParallelTasks == null || maxParallelTasks < 1) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    return maxParallelTasks;
+  }
+
+  /**
+   * Executes the tasks on the thread executor keeping at most {@link #getMaxParallelTasks()} of them submitted at the
+   * same time. A single task is executed in the calling thread. The tasks not yet finished are cancelled if a task
+   * fails.
+   *
+   * @param tasks tasks to execute
+   * @param <T> type of the task results
+   * @return results of the tasks in the order of the tasks
+   * @throws TechnicalException if the execution is interrupted or a task throws a checked exception; unchecked
+   * exceptions of the tasks are rethrown as they are
+   */
+  public <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (tasks.size() < 2) {
+      for (Callable<T> task : tasks) {
+        results.add(call(task));
+      }
+      return results;
+    }
+    int maxParallelTasks = this.getMaxParallelTasks();
+    logger.debug("Executing {} tasks, at most {} at a time", tasks.size(), maxParallelTasks);
+    Iterator<? extends Callable<T>> pendingTasks = tasks.iterator();
+    Deque<Future<T>> runningTasks = new ArrayDeque<>();
+    try {
+      while (pendingTasks.hasNext() || !runningTasks.isEmpty()) {
+        while (pendingTasks.hasNext() && runningTasks.size() < maxParallelTasks) {
+          runningTasks.add(this.submit(pendingTasks.next()));
+        }
+        results.add(getResult(runningTasks.poll()));
+      }
+    } finally {
+      for (Future<T> runningTask : runningTasks) {
+        runningTask.cancel(false);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. Useful for validations that spend most of
+   * their time waiting for OCSP, AIA or TSL responses. Requires Java 21 or newer.
+   *
+   * @return virtual thread executor
+   * @throws NotSupportedException if virtual threads are not supported by the Java runtime
+   */
+  public static ExecutorService createVirtualThreadExecutor() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new NotSupportedException("Virtual threads are not supported by this Java runtime");
+    }
+  }
+
   /*
    * RESTRICTED METHODS
    */
 
+  private static <T> T call(Callable<T> task) {
+    try {
+      return task.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new TechnicalException("Error executing task: " + e.getMessage(), e);
+    }
+  }
+
+  private static <T> T getResult(Future<T> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TechnicalException("Interrupted while waiting for tasks executed on multiple threads", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new TechnicalException("Error executing tasks on multiple threads: " + e.getMessage(), e);
+    }
+  }
+
   private static synchronized void initializeDefaultThreadExecutor() {
     //Using double-checked locking to avoid other threads to start initializing another executor
     if (ThreadPoolManager.defaultThreadExecutor == null) {
       int numberOfProcessors = Runtime.getRuntime().availableProcessors();
-      logger.debug("Initializing a new default thread pool executor with <{}> threads", numberOfProcessors);
-      ThreadPoolManager.defaultThreadExecutor = Executors.newFixedThreadPool(numberOfProcessors);
+      int queueCapacity = numberOfProcessors * DEFAULT_QUEUE_CAPACITY_PER_THREAD;
+      logger.debug("Initializing a new default thread pool executor with <{}> threads and queue capacity <{}>",
+          numberOfProcessors, queueCapacity);
+      ThreadPoolManager.defaultThreadExecutor = new ValidationThreadPoolExecutor(numberOfProcessors, queueCapacity);
     }
   }
 
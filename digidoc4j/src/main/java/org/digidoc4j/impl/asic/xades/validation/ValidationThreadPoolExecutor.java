@@ -0,0 +1,113 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.asic.xades.validation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size thread pool with a bounded task queue.
+ * <p/>
+ * When the queue is full, the submitting thread runs the task itself, which slows down the submitters instead of
+ * letting the queue grow without limit. The pool keeps track of the time the tasks spend waiting in the queue.
+ */
+public class ValidationThreadPoolExecutor extends ThreadPoolExecutor {
+
+  private final AtomicLong executedTaskCount = new AtomicLong();
+  private final AtomicLong totalWaitTimeInNanos = new AtomicLong();
+  private final AtomicLong maxWaitTimeInNanos = new AtomicLong();
+
+  /**
+   * @param numberOfThreads number of threads
+   * @param queueCapacity   maximum number of tasks waiting for a free thread
+   */
+  public ValidationThreadPoolExecutor(int numberOfThreads, int queueCapacity) {
+    super(numberOfThreads, numberOfThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        new NamedThreadFactory(), new CallerRunsPolicy());
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    super.execute(new TimedTask(command));
+  }
+
+  /**
+   * @return number of tasks waiting in the queue
+   */
+  public int getQueueDepth() {
+    return getQueue().size();
+  }
+
+  /**
+   * @return number of tasks started, including the ones run by the submitting thread
+   */
+  public long getExecutedTaskCount() {
+    return executedTaskCount.get();
+  }
+
+  /**
+   * @return average time the tasks waited before they were started
+   */
+  public long getAverageWaitTimeInMillis() {
+    long count = executedTaskCount.get();
+    return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitTimeInNanos.get() / count);
+  }
+
+  /**
+   * @return longest time a task waited before it was started
+   */
+  public long getMaxWaitTimeInMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxWaitTimeInNanos.get());
+  }
+
+  private void recordWaitTime(long waitTimeInNanos) {
+    executedTaskCount.incrementAndGet();
+    totalWaitTimeInNanos.addAndGet(waitTimeInNanos);
+    maxWaitTimeInNanos.accumulateAndGet(waitTimeInNanos, Math::max);
+  }
+
+  private class TimedTask implements Runnable {
+
+    private final Runnable task;
+    private final long submitTime = System.nanoTime();
+
+    TimedTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      recordWaitTime(System.nanoTime() - submitTime);
+      task.run();
+    }
+
+  }
+
+  private static class NamedThreadFactory implements ThreadFactory {
+
+    private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = threadFactory.newThread(runnable);
+      thread.setName("digidoc4j-validation-" + threadNumber.getAndIncrement());
+      return thread;
+    }
+
+  }
+
+}
@@ -82,6 +82,8 @@ public class XadesSignatureValidator implements SignatureValidator {
   @Override
   public ValidationResult extractResult() {
     LOGGER.debug("Extracting validation errors");
+    this.validationErrors = new ArrayList<>();
+    this.validationWarnings = new ArrayList<>();
     XadesValidationResult validationResult = this.signature.validate();
     this.validationReport = validationResult.getReports();
     this.simpleReport = this.getSimpleReport(validationResult.buildSimpleReports());
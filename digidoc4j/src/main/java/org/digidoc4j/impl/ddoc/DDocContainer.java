@@ -287,6 +287,11 @@ public class DDocContainer implements Container {
     ddoc4jFacade.save(out);
   }
 
+  @Override
+  public void close() {
+    ddoc4jFacade.close();
+  }
+
   /**
    * Signs all data files in the container.
    *
@@ -24,6 +24,7 @@ import org.digidoc4j.ddoc.DigiDocException;
 import org.digidoc4j.ddoc.KeyInfo;
 import org.digidoc4j.ddoc.SignedDoc;
 import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,6 +135,13 @@ public class DDocFacade implements Serializable {
     }
   }
 
+  public void close() {
+    logger.debug("Removing data file cache files");
+    if (ddoc != null) {
+      ddoc.cleanupDfCache();
+    }
+  }
+
   public List<Signature> getSignatures() {
     List<Signature> signatures = new ArrayList<>();
     ArrayList dDocSignatures = ddoc.getSignatures();
@@ -185,7 +193,9 @@ public class DDocFacade implements Serializable {
     logger.debug("Validating DDoc container ...");
     List containerExceptions = this.ddoc.validate(true);
     containerExceptions.addAll(this.openContainerExceptions);
-    DDocSignatureValidationResult result = new DDocSignatureValidationResult(this.ddoc.verify(true, true),
+    ThreadPoolManager threadPoolManager = new ThreadPoolManager(this.configuration);
+    List verificationExceptions = this.ddoc.verify(true, true, threadPoolManager::invokeAll);
+    DDocSignatureValidationResult result = new DDocSignatureValidationResult(verificationExceptions,
         containerExceptions, this.ddoc.getFormat());
     result.print(this.configuration);
     return result;
@@ -159,6 +159,16 @@ public class CommandLineExecutor {
     }
   }
 
+  /**
+   * Closes the container opened by {@link #executeCommand()}, if any
+   */
+  public void closeContainer() {
+    try {
+      this.context.getContainer().close();
+    } catch (DigiDoc4JException ignored) {
+    }
+  }
+
   /**
    * Gets container type for util logic
    *
@@ -134,12 +134,17 @@ public final class DigiDoc4J {
         CommandLineExecutor executor = new CommandLineExecutor(
             ExecutionContext.of(commandLine, DigiDoc4J.checkSupportedFunctionality(commandLine)));
         if (executor.hasCommand()) {
-          executor.executeCommand();
+          try {
+            executor.executeCommand();
+          } finally {
+            executor.closeContainer();
+          }
         } else if (commandLine.hasOption(ExecutionOption.IN.getName())) {
           String containerPath = commandLine.getOptionValue(ExecutionOption.IN.getName());
-          Container container = executor.openContainer(containerPath);
-          executor.processContainer(container);
-          executor.saveContainer(container, containerPath);
+          try (Container container = executor.openContainer(containerPath)) {
+            executor.processContainer(container);
+            executor.saveContainer(container, containerPath);
+          }
         } else if (DigiDoc4J.isMultipleContainerCreation(commandLine)) {
           MultipleContainersExecutor containersCreator = new MultipleContainersExecutor(commandLine);
           containersCreator.execute();
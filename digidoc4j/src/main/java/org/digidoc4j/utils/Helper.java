@@ -411,7 +411,11 @@ public final class Helper {
 
   /**
    * delete tmp files from temp folder created by StreamDocument
+   *
+   * @deprecated deletes the temporary files of all the containers in use, close the container instead
+   * (see {@link org.digidoc4j.Container#close()})
    */
+  @Deprecated
   public static void deleteTmpFiles() {
     File dir = new File(System.getProperty("java.io.tmpdir"));
     FilenameFilter filenameFilter = new FilenameFilter() {
@@ -0,0 +1,143 @@
+/* DigiDoc4J library
+ *
+ * This software is released under either the GNU Library General Public
+ * License (see LICENSE.LGPL).
+ *
+ * Note that the only valid version of the LGPL license as far as this
+ * project is concerned is the original GNU Library General Public License
+ * Version 2.1, February 1999
+ */
+
+package org.digidoc4j;
+
+import eu.europa.esig.dss.spi.DSSUtils;
+import org.digidoc4j.impl.asic.AsicFileContainerParser;
+import org.digidoc4j.impl.asic.AsicParseResult;
+import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ContainerBatchValidatorTest extends AbstractTest {
+
+  private static final String VALID_CONTAINER = "src/test/resources/prodFiles/valid-containers/IB-4183_3.4kaart_RSA2047_TS.asice";
+
+  @Test
+  public void validate_resultsOfAllSourcesAreReturned() throws Exception {
+    Path path = Paths.get(VALID_CONTAINER);
+    Stream<ContainerBatchValidator.Source> sources = Stream.of(
+        ContainerBatchValidator.Source.of(path),
+        ContainerBatchValidator.Source.of("stream", new FileInputStream(VALID_CONTAINER)),
+        ContainerBatchValidator.Source.of("parsed", new AsicFileContainerParser(VALID_CONTAINER, this.configuration).read()),
+        ContainerBatchValidator.Source.of(Paths.get("src/test/resources/testFiles/invalid-containers/missing.asice")));
+    Map<String, ContainerBatchValidator.Result> results = new HashMap<>();
+    new ContainerBatchValidator(this.configuration).withMaxParallelContainers(2)
+        .validate(sources, result -> results.put(result.getName(), result));
+    Assert.assertEquals(4, results.size());
+    Assert.assertTrue(results.get(path.toString()).isValid());
+    Assert.assertTrue(results.get("stream").isValid());
+    Assert.assertTrue(results.get("parsed").isValid());
+    ContainerBatchValidator.Result missingContainer = results.get(
+        Paths.get("src/test/resources/testFiles/invalid-containers/missing.asice").toString());
+    Assert.assertFalse(missingContainer.isValid());
+    Assert.assertNull(missingContainer.getValidationResult());
+    Assert.assertNotNull(missingContainer.getError());
+  }
+
+  @Test
+  public void validate_takesNextSourceOnlyWhenValidationCompletes() {
+    List<String> events = new ArrayList<>();
+    Stream<ContainerBatchValidator.Source> sources = Stream.of("1", "2", "3").map(name -> {
+      events.add("open " + name);
+      return ContainerBatchValidator.Source.of(Paths.get(VALID_CONTAINER + "#" + name));
+    });
+    new ContainerBatchValidator(this.configuration).withMaxParallelContainers(1)
+        .validate(sources, result -> events.add("result"));
+    Assert.assertEquals(6, events.size());
+    for (int i = 0; i < events.size(); i += 2) {
+      Assert.assertTrue(events.get(i).startsWith("open"));
+      Assert.assertEquals("result", events.get(i + 1));
+    }
+  }
+
+  @Test
+  public void validate_temporaryFilesOfValidatedContainersAreDeleted() throws Exception {
+    File temporaryFileDirectory = this.testFolder.newFolder("batch");
+    this.configuration.setTemporaryFileDirectory(temporaryFileDirectory.getPath());
+    this.configuration.setMaxFileSizeCachedInMemoryInMB(0);
+    List<ContainerBatchValidator.Result> results = new ArrayList<>();
+    new ContainerBatchValidator(this.configuration).withMaxParallelContainers(2)
+        .validate(Stream.of(ContainerBatchValidator.Source.of(Paths.get(VALID_CONTAINER)),
+            ContainerBatchValidator.Source.of("stream", new FileInputStream(VALID_CONTAINER))), results::add);
+    Assert.assertEquals(2, results.size());
+    Assert.assertTrue(results.get(0).isValid());
+    Assert.assertTrue(results.get(1).isValid());
+    Assert.assertArrayEquals(new String[0], temporaryFileDirectory.list());
+  }
+
+  @Test
+  public void validate_temporaryFilesOfCallerSuppliedParseResultAreKept() throws Exception {
+    File temporaryFileDirectory = this.testFolder.newFolder("parsed");
+    this.configuration.setTemporaryFileDirectory(temporaryFileDirectory.getPath());
+    this.configuration.setMaxFileSizeCachedInMemoryInMB(0);
+    AsicParseResult parseResult = new AsicFileContainerParser(VALID_CONTAINER, this.configuration).read();
+    List<ContainerBatchValidator.Result> results = new ArrayList<>();
+    new ContainerBatchValidator(this.configuration)
+        .validate(Stream.of(ContainerBatchValidator.Source.of("parsed", parseResult)), results::add);
+    Assert.assertTrue(results.get(0).isValid());
+    Assert.assertNotEquals(0, temporaryFileDirectory.list().length);
+    Assert.assertTrue(parseResult.getDataFiles().get(0).getBytes().length > 0);
+    parseResult.close();
+    Assert.assertArrayEquals(new String[0], temporaryFileDirectory.list());
+  }
+
+  @Test
+  public void validate_pdfSource_isValidated() {
+    Path path = Paths.get("src/test/resources/testFiles/invalid-containers/hello_signed_INCSAVE_signed_EDITED.pdf");
+    List<ContainerBatchValidator.Result> results = new ArrayList<>();
+    new ContainerBatchValidator(this.configuration)
+        .validate(Stream.of(ContainerBatchValidator.Source.of(path)), results::add);
+    Assert.assertNull(results.get(0).getError());
+    Assert.assertNotNull(results.get(0).getValidationResult());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void withMaxParallelContainers_zero_throwsException() {
+    new ContainerBatchValidator(this.configuration).withMaxParallelContainers(0);
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  @Override
+  protected void before() {
+    this.configuration = new Configuration(Configuration.Mode.PROD);
+    this.configuration.setAllowASN1UnsafeInteger(true);
+    TSLCertificateSourceImpl tsl = new TSLCertificateSourceImpl();
+    this.configuration.setTSL(tsl);
+    for (String certificate : new String[]{"ESTEID-SK_2011.pem.crt", "SK_OCSP_RESPONDER_2011.pem.cer", "SK_TSA.pem.crt"}) {
+      try (InputStream inputStream = new FileInputStream("src/test/resources/prodFiles/certs/" + certificate)) {
+        tsl.addTSLCertificate(DSSUtils.loadCertificate(inputStream).getCertificate());
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  @Override
+  protected void after() {
+    this.configuration.setAllowASN1UnsafeInteger(false);
+  }
+
+}
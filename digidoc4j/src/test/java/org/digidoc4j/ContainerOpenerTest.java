@@ -89,6 +89,18 @@ public class ContainerOpenerTest extends AbstractTest {
     TestAssert.assertContainerIsOpened(container, Container.DocumentType.BDOC);
   }
 
+  @Test
+  public void openContainersWithLazySignatureParsing_containerTypeIsDetectedFromSignatures() {
+    this.configuration.setLazySignatureParsing(true);
+    Container bdocContainer = ContainerOpener.open(BDOC_WITH_TM_AND_TS_SIG, this.configuration);
+    assertBDocContainer(bdocContainer);
+    assertTimemarkSignature(bdocContainer.getSignatures().get(0));
+    assertTimestampSignature(bdocContainer.getSignatures().get(1));
+    Container asiceContainer = ContainerOpener.open(ASICE_WITH_TS_SIG, this.configuration);
+    assertAsicEContainer(asiceContainer);
+    assertTimestampSignature(asiceContainer.getSignatures().get(0));
+  }
+
   @Test
   public void openAsicEContainerAsStream() throws Exception {
     FileInputStream stream = FileUtils.openInputStream(new File(ASICE_WITH_TS_SIG));
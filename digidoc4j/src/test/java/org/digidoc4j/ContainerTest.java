@@ -468,6 +468,27 @@ public class ContainerTest extends AbstractTest {
     Assert.assertNotNull(container.getSignatures().get(0).getOCSPCertificate());
   }
 
+  @Test
+  public void saveLazilyLoadedContainerOverItsSourceFile_dataFilesAreKept() throws Exception {
+    String dataFilePath = "src/test/resources/testFiles/helper-files/test.txt";
+    Container unsignedContainer = this.createEmptyContainerBy(Container.DocumentType.BDOC);
+    unsignedContainer.addDataFile(dataFilePath, "text/plain");
+    String file = this.getFileBy("bdoc");
+    unsignedContainer.saveAsFile(file);
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setLazyDataFileLoading(true);
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.BDOC).fromExistingFile(file)
+        .withConfiguration(configuration).build();
+    container.addRawSignature(FileUtils.readFileToByteArray(
+        new File("src/test/resources/testFiles/xades/valid-bdoc-tm.xml")));
+    container.saveAsFile(file);
+    Container savedContainer = ContainerOpener.open(file);
+    Assert.assertEquals(1, savedContainer.getSignatures().size());
+    Assert.assertEquals(1, savedContainer.getDataFiles().size());
+    Assert.assertArrayEquals(FileUtils.readFileToByteArray(new File(dataFilePath)),
+        savedContainer.getDataFiles().get(0).getBytes());
+  }
+
   @Test
   public void addRawSignatureToBDocContainer() throws Exception {
     Container container = this.createEmptyContainerBy(Container.DocumentType.BDOC);
@@ -1,19 +1,28 @@
 package org.digidoc4j;
 
 import eu.europa.esig.dss.model.MimeType;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.digidoc4j.ddoc.Manifest;
 import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.TemporaryFileManager;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -204,6 +213,166 @@ public class ContainerZipTest extends AbstractTest {
     openContainerBy(Paths.get("src/test/resources/testFiles/degenerate-containers/2-mimetypes.asics"));
   }
 
+  @Test
+  public void loadedContainerSavedIncrementallyShouldCopyExistingEntriesInCompressedForm() throws Exception {
+    File originalFile = createTestTwoSignatureBdocFile();
+    Container container = ContainerOpener.open(originalFile.getPath(), createIncrementalSavingConfiguration());
+    container.removeSignature(container.getSignatures().get(1));
+    File testFile = createTestContainerFile(container, "incrementally-saved.bdoc");
+
+    try (ZipFile originalZip = new ZipFile(originalFile); ZipFile savedZip = new ZipFile(testFile)) {
+      ZipEntry originalDataFile = originalZip.getEntry("test.txt");
+      ZipEntry savedDataFile = savedZip.getEntry("test.txt");
+      Assert.assertEquals(originalDataFile.getCompressedSize(), savedDataFile.getCompressedSize());
+      Assert.assertEquals(originalDataFile.getCrc(), savedDataFile.getCrc());
+      Assert.assertNotNull(savedZip.getEntry("META-INF/signatures0.xml"));
+      Assert.assertNull(savedZip.getEntry("META-INF/signatures1.xml"));
+    }
+    readAndAssertFirstEntryStoredMimeType(new FileInputStream(testFile));
+    Container savedContainer = ContainerOpener.open(testFile.getPath());
+    Assert.assertEquals(1, savedContainer.getSignatures().size());
+    Assert.assertArrayEquals(container.getDataFiles().get(0).getBytes(), savedContainer.getDataFiles().get(0).getBytes());
+  }
+
+  @Test
+  public void loadedContainerSavedIncrementallyOverItsOwnFileShouldRemainReadable() throws Exception {
+    File originalFile = createTestTwoSignatureBdocFile();
+    Container container = ContainerOpener.open(originalFile.getPath(), createIncrementalSavingConfiguration());
+    container.removeSignature(container.getSignatures().get(1));
+    container.saveAsFile(originalFile.getPath());
+
+    Container savedContainer = ContainerOpener.open(originalFile.getPath());
+    Assert.assertEquals(1, savedContainer.getSignatures().size());
+    Assert.assertEquals("test.txt", savedContainer.getDataFiles().get(0).getName());
+  }
+
+  @Test
+  public void newContainerWithDataFilesCompressedInParallelShouldKeepDataFileOrder() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setParallelZipCompression(true);
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration).build();
+    for (int i = 0; i < 10; i++) {
+      container.addDataFile(new DataFile(("data file " + i).getBytes(StandardCharsets.UTF_8), "test" + i + ".txt", "text/plain"));
+    }
+    File testFile = createTestContainerFile(container, "parallel-compressed.asice");
+
+    readAndAssertFirstEntryStoredMimeType(new FileInputStream(testFile));
+    Container savedContainer = ContainerOpener.open(testFile.getPath());
+    Assert.assertEquals(10, savedContainer.getDataFiles().size());
+    for (int i = 0; i < 10; i++) {
+      DataFile dataFile = savedContainer.getDataFiles().get(i);
+      Assert.assertEquals("test" + i + ".txt", dataFile.getName());
+      Assert.assertEquals("data file " + i, new String(dataFile.getBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void dataFilesCompressedInParallelShouldNotLeaveTemporaryFiles() throws Exception {
+    File temporaryFileDirectory = testFolder.newFolder("parallel-compression-tmp");
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setParallelZipCompression(true);
+    configuration.setTemporaryFileDirectory(temporaryFileDirectory.getPath());
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration).build();
+    for (int i = 0; i < 3; i++) {
+      container.addDataFile(new DataFile(("data file " + i).getBytes(StandardCharsets.UTF_8), "test" + i + ".txt", "text/plain"));
+    }
+    createTestContainerFile(container, "parallel-compressed-tmp.asice");
+
+    Assert.assertArrayEquals(new String[0], temporaryFileDirectory.list());
+  }
+
+  @Test
+  public void dataFilesCompressedInParallelShouldBeCountedAgainstTemporaryFileQuota() throws Exception {
+    File temporaryFileDirectory = testFolder.newFolder("parallel-compression-quota");
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setParallelZipCompression(true);
+    configuration.setTemporaryFileDirectory(temporaryFileDirectory.getPath());
+    configuration.setTemporaryFileQuotaInBytes(10);
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration).build();
+    byte[] content = new byte[1024];
+    new Random(1).nextBytes(content);
+    container.addDataFile(new DataFile(content, "test.bin", "application/octet-stream"));
+    try {
+      container.saveAsStream();
+      Assert.fail("Expected temporary file quota to be exceeded");
+    } catch (TechnicalException e) {
+      Assert.assertTrue(ExceptionUtils.getRootCause(e).getMessage().contains("quota"));
+    }
+    Assert.assertArrayEquals(new String[0], temporaryFileDirectory.list());
+    Assert.assertEquals(0, TemporaryFileManager.getUsedBytes(configuration));
+  }
+
+  @Test
+  public void failedParallelCompressionShouldReleaseTemporaryFilesAndThreads() throws Exception {
+    File temporaryFileDirectory = testFolder.newFolder("parallel-compression-failed");
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setParallelZipCompression(true);
+    configuration.setTemporaryFileDirectory(temporaryFileDirectory.getPath());
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration).build();
+    Random random = new Random(1);
+    for (int i = 0; i < 3; i++) {
+      byte[] content = new byte[16 * 1024];
+      random.nextBytes(content);
+      container.addDataFile(new DataFile(content, "test" + i + ".bin", "application/octet-stream"));
+    }
+    try {
+      container.save(new OutputStream() {
+        private int written;
+
+        @Override
+        public void write(int b) throws IOException {
+          if (++written > 20 * 1024) {
+            throw new IOException("Disk full");
+          }
+        }
+      });
+      Assert.fail("Expected saving the container to fail");
+    } catch (TechnicalException e) {
+      Assert.assertEquals("Disk full", ExceptionUtils.getRootCause(e).getMessage());
+    }
+    Assert.assertArrayEquals(new String[0], temporaryFileDirectory.list());
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.getName().startsWith("asic-data-file-compression-")) {
+        Assert.assertTrue(thread.isDaemon());
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+      }
+    }
+  }
+
+  @Test
+  public void dataFilesWithStoredMimeTypeShouldBeWrittenWithoutCompression() throws Exception {
+    for (boolean parallelZipCompression : new boolean[]{false, true}) {
+      Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+      configuration.setParallelZipCompression(parallelZipCompression);
+      configuration.setStoredMimeTypes(MimeType.PDF.getMimeTypeString());
+      Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).withConfiguration(configuration).build();
+      container.addDataFile(new DataFile("%PDF-1.4".getBytes(StandardCharsets.UTF_8), "test.pdf", MimeType.PDF.getMimeTypeString()));
+      container.addDataFile(new DataFile("some text".getBytes(StandardCharsets.UTF_8), "test.txt", "text/plain"));
+      File testFile = createTestContainerFile(container, "stored-pdf-" + parallelZipCompression + ".asice");
+
+      try (ZipFile savedZip = new ZipFile(testFile)) {
+        Assert.assertEquals(ZipEntry.STORED, savedZip.getEntry("test.pdf").getMethod());
+        Assert.assertEquals(ZipEntry.DEFLATED, savedZip.getEntry("test.txt").getMethod());
+      }
+      Container savedContainer = ContainerOpener.open(testFile.getPath());
+      Assert.assertEquals("%PDF-1.4", new String(savedContainer.getDataFiles().get(0).getBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private Configuration createIncrementalSavingConfiguration() {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setIncrementalContainerSaving(true);
+    return configuration;
+  }
+
+  private File createTestTwoSignatureBdocFile() throws Exception {
+    File testTwoSignatureBdocFile = testFolder.newFile("original-two-signatures.bdoc");
+    Files.copy(Paths.get("src/test/resources/testFiles/invalid-containers/two_signatures.bdoc"),
+        testTwoSignatureBdocFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    return testTwoSignatureBdocFile;
+  }
+
   private File createTestUnsignedBdocFile() throws Exception {
     File testUnsignedBdocFile = testFolder.newFile("original-unsigned-bdoc.bdoc");
     createNonEmptyContainerBy(Container.DocumentType.BDOC).saveAsFile(testUnsignedBdocFile.getPath());
@@ -19,6 +19,7 @@ import java.net.URL;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.FileUtils;
 import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.digidoc4j.impl.DigestCachingDocument;
 import org.digidoc4j.test.MockDataFile;
 import org.junit.Assert;
 import org.junit.Test;
@@ -150,6 +151,18 @@ public class DataFileTest extends AbstractTest {
     Assert.assertEquals(digest, this.dataFile.calculateDigest(new URL("http://NonExisting.test")));
   }
 
+  @Test
+  public void digestIsCachedWhenDataFileIsWrittenToContainer() throws Exception {
+    Container container = ContainerBuilder.aContainer(Container.DocumentType.ASICE).build();
+    container.addDataFile(this.dataFile);
+    DigestCachingDocument document = (DigestCachingDocument) this.dataFile.getDocument();
+    Assert.assertFalse(document.isDigestCached(eu.europa.esig.dss.enumerations.DigestAlgorithm.SHA256));
+    container.save(new ByteArrayOutputStream());
+    Assert.assertTrue(document.isDigestCached(eu.europa.esig.dss.enumerations.DigestAlgorithm.SHA256));
+    Assert.assertEquals("RqDqtqi3rTsWj07rrWc5kATAZIw7T1XHP/NPLCF05RU=",
+        document.getDigest(eu.europa.esig.dss.enumerations.DigestAlgorithm.SHA256));
+  }
+
   /*
    * RESTRICTED METHODS
    */
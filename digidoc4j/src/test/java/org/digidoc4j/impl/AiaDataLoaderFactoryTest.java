@@ -8,6 +8,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.File;
+
 public class AiaDataLoaderFactoryTest extends AbstractTest {
 
     @Test
@@ -38,6 +40,50 @@ public class AiaDataLoaderFactoryTest extends AbstractTest {
         Mockito.verifyNoMoreInteractions(mockDataLoaderFactory, mockDataLoader);
     }
 
+    @Test
+    public void testCachingAiaDataLoaderCreatedWhenAiaCacheEnabled() throws Exception {
+        configuration.setAiaCache(true);
+        configuration.setAiaCacheDirectory(testFolder.newFolder("aia-cache").getPath());
+
+        DataLoader dataLoader = new AiaDataLoaderFactory(configuration, USER_AGENT_STRING).create();
+        Assert.assertTrue("Data loader should be of type " + CachingDataLoader.class.getSimpleName(), dataLoader instanceof CachingDataLoader);
+        Assert.assertTrue(((CachingDataLoader) dataLoader).getDataLoader() instanceof SimpleHttpGetDataLoader);
+    }
+
+    @Test
+    public void testCachingDataLoaderDownloadsResponseOnlyOnce() throws Exception {
+        DataLoader mockDataLoader = Mockito.mock(DataLoader.class);
+        Mockito.doReturn(new byte[]{1, 2, 3}).when(mockDataLoader).get("http://aia.test/ca.crt");
+        File cacheDirectory = testFolder.newFolder("aia-cache");
+        DataLoaderResponseCache cache = new DataLoaderResponseCache(10, 60000, cacheDirectory);
+
+        CachingDataLoader dataLoader = new CachingDataLoader(mockDataLoader, cache);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertArrayEquals(new byte[]{1, 2, 3}, dataLoader.get("http://aia.test/ca.crt"));
+        }
+        Mockito.verify(mockDataLoader, Mockito.times(1)).get("http://aia.test/ca.crt");
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(2, cache.getHitCount());
+
+        DataLoaderResponseCache diskCache = new DataLoaderResponseCache(10, 60000, cacheDirectory);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, new CachingDataLoader(mockDataLoader, diskCache).get("http://aia.test/ca.crt"));
+        Mockito.verifyNoMoreInteractions(mockDataLoader);
+    }
+
+    @Test
+    public void testResponseCacheEvictsLeastRecentlyUsedResponses() {
+        DataLoaderResponseCache cache = new DataLoaderResponseCache(2, 60000, null);
+        cache.put("http://aia.test/1.crt", new byte[]{1});
+        cache.put("http://aia.test/2.crt", new byte[]{2});
+        Assert.assertNotNull(cache.get("http://aia.test/1.crt"));
+        cache.put("http://aia.test/3.crt", new byte[]{3});
+
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNull(cache.get("http://aia.test/2.crt"));
+        Assert.assertNotNull(cache.get("http://aia.test/1.crt"));
+    }
+
     @Override
     protected void before() {
         configuration = Configuration.of(Configuration.Mode.TEST);
@@ -14,9 +14,11 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import eu.europa.esig.dss.service.http.commons.OCSPDataLoader;
+import org.apache.http.pool.PoolStats;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
+import org.digidoc4j.ExternalConnectionType;
 import org.digidoc4j.ServiceType;
 import org.digidoc4j.exceptions.ConnectionTimedOutException;
 import org.digidoc4j.exceptions.ServiceAccessDeniedException;
@@ -50,6 +52,7 @@ public class SkOCSPDataLoaderTest extends AbstractTest {
   @After
   public void tearDown() {
     WireMock.reset();
+    HttpConnectionPool.close();
   }
 
   @Test
@@ -134,6 +137,26 @@ public class SkOCSPDataLoaderTest extends AbstractTest {
     assertFalse(capturedEvent.isSuccess());
   }
 
+  @Test
+  public void pooledConnectionIsReusedByDataLoadersWithSameConfiguration() {
+    instanceRule.stubFor(post("/").withHeader("User-Agent", equalTo(USER_AGENT_STRING))
+            .willReturn(WireMock.aResponse().withStatus(200).withBody(new byte[] {0, 1, 2, 3})));
+    Configuration configuration = Configuration.of(TEST);
+    configuration.setHttpConnectionPooling(true);
+    String serviceUrl = MOCK_PROXY_URL + instanceRule.port() + "/";
+
+    for (int i = 0; i < 3; i++) {
+      SkOCSPDataLoader dataLoader = new SkOCSPDataLoader(configuration);
+      dataLoader.setUserAgent(USER_AGENT_STRING);
+      assertArrayEquals(new byte[] {0, 1, 2, 3}, dataLoader.post(serviceUrl, new byte[] {1}));
+    }
+
+    PoolStats statistics = HttpConnectionPool.getStatistics(ExternalConnectionType.OCSP);
+    assertEquals(0, statistics.getLeased());
+    assertEquals(1, statistics.getAvailable());
+    assertEquals(0, HttpConnectionPool.getStatistics(ExternalConnectionType.TSP).getAvailable());
+  }
+
   @Test
   public void getOcspViaSpy() throws Exception {
     Configuration configuration = Configuration.of(TEST);
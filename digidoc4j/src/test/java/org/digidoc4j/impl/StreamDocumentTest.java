@@ -13,19 +13,33 @@ package org.digidoc4j.impl;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.digidoc4j.AbstractTest;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
 import org.digidoc4j.DataFile;
+import org.digidoc4j.LargeDataFile;
+import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.test.MockStreamDocument;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -36,6 +50,8 @@ import org.slf4j.LoggerFactory;
 import eu.europa.esig.dss.model.DSSException;
 import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
 
 public class StreamDocumentTest extends AbstractTest {
 
@@ -192,6 +208,143 @@ public class StreamDocumentTest extends AbstractTest {
     new MockStreamDocument().getDigest(DigestAlgorithm.SHA1);
   }
 
+  @Test
+  public void largeDocumentDigestAndSavedCopyMatchContent() throws Exception {
+    byte[] content = new byte[3 * 1024 * 1024 + 17];
+    new Random(42).nextBytes(content);
+    StreamDocument largeDocument = new StreamDocument(new ByteArrayInputStream(content), "large.bin", MimeType.BINARY);
+    Assert.assertEquals(Utils.toBase64(DSSUtils.digest(DigestAlgorithm.SHA256, content)),
+        largeDocument.getDigest(DigestAlgorithm.SHA256));
+    File savedFile = this.testFolder.newFile("large.bin");
+    largeDocument.save(savedFile.getPath());
+    Assert.assertArrayEquals(content, Files.readAllBytes(savedFile.toPath()));
+    File writtenFile = this.testFolder.newFile("large-written.bin");
+    try (FileOutputStream stream = new FileOutputStream(writtenFile)) {
+      largeDocument.writeTo(stream);
+    }
+    Assert.assertArrayEquals(content, Files.readAllBytes(writtenFile.toPath()));
+  }
+
+  @Test
+  public void digestsOfConsecutiveDocumentsAreCalculatedIndependently() throws Exception {
+    byte[] largeContent = new byte[1024 * 1024 + 5];
+    new Random(7).nextBytes(largeContent);
+    byte[] smallContent = "small".getBytes(StandardCharsets.UTF_8);
+    StreamDocument largeDocument = new StreamDocument(new ByteArrayInputStream(largeContent), "large.bin", MimeType.BINARY);
+    StreamDocument smallDocument = new StreamDocument(new ByteArrayInputStream(smallContent), "small.txt", MimeType.TEXT);
+    Assert.assertEquals(Utils.toBase64(DSSUtils.digest(DigestAlgorithm.SHA256, largeContent)),
+        largeDocument.getDigest(DigestAlgorithm.SHA256));
+    Assert.assertEquals(Utils.toBase64(DSSUtils.digest(DigestAlgorithm.SHA256, smallContent)),
+        smallDocument.getDigest(DigestAlgorithm.SHA256));
+  }
+
+  @Test
+  public void digestsCalculatedOnMoreThreadsThanPooledBuffers_matchContent() throws Exception {
+    byte[] content = new byte[2 * 1024 * 1024 + 3];
+    new Random(11).nextBytes(content);
+    String expectedDigest = Utils.toBase64(DSSUtils.digest(DigestAlgorithm.SHA256, content));
+    List<Callable<String>> tasks = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      tasks.add(() -> new StreamDocument(new ByteArrayInputStream(content), "large.bin", MimeType.BINARY)
+          .getDigest(DigestAlgorithm.SHA256));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      for (Future<String> digest : executor.invokeAll(tasks)) {
+        Assert.assertEquals(expectedDigest, digest.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void temporaryFileIsDeletedWhenLastContainerUsingItIsClosed() throws Exception {
+    DataFile dataFile = new LargeDataFile(new ByteArrayInputStream(new byte[]{0x041}), "suur_a.txt", "text/plain");
+    File temporaryFile = ((StreamDocument) dataFile.getDocument()).temporaryFile;
+    Container firstContainer = ContainerBuilder.aContainer(Container.DocumentType.ASICE).build();
+    Container secondContainer = ContainerBuilder.aContainer(Container.DocumentType.ASICE).build();
+    firstContainer.addDataFile(dataFile);
+    secondContainer.addDataFile(dataFile);
+    firstContainer.saveAsStream();
+    Assert.assertTrue(temporaryFile.exists());
+    firstContainer.close();
+    Assert.assertTrue(temporaryFile.exists());
+    secondContainer.close();
+    Assert.assertFalse(temporaryFile.exists());
+  }
+
+  @Test
+  public void temporaryFileQuotaExceeded_temporaryFileIsDeleted() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setTemporaryFileDirectory(this.testFolder.newFolder("quota").getPath());
+    configuration.setTemporaryFileQuotaInBytes(10);
+    try (ByteArrayInputStream stream = new ByteArrayInputStream(new byte[20]);
+         TemporaryFileManager temporaryFileManager = new TemporaryFileManager(configuration)) {
+      new StreamDocument(stream, "too_large.txt", MimeType.TEXT, temporaryFileManager);
+      Assert.fail("Expected temporary file quota to be exceeded");
+    } catch (TechnicalException e) {
+      Assert.assertTrue(e.getMessage().contains("quota"));
+    }
+    Assert.assertArrayEquals(new String[0], new File(configuration.getTemporaryFileDirectory()).list());
+  }
+
+  @Test
+  public void temporaryFileIsCreatedInConfiguredDirectoryAndDeletedWhenOwnerIsClosed() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    File directory = this.testFolder.newFolder("owned");
+    configuration.setTemporaryFileDirectory(directory.getPath());
+    TemporaryFileManager temporaryFileManager = new TemporaryFileManager(configuration);
+    StreamDocument ownedDocument = new StreamDocument(new ByteArrayInputStream(new byte[]{0x041}), "suur_a.txt",
+        MimeType.TEXT, temporaryFileManager);
+    Assert.assertEquals(directory.getCanonicalFile(), ownedDocument.temporaryFile.getParentFile().getCanonicalFile());
+    Assert.assertEquals(1, TemporaryFileManager.getUsedBytes(configuration));
+    temporaryFileManager.close();
+    Assert.assertFalse(ownedDocument.temporaryFile.exists());
+    Assert.assertEquals(0, TemporaryFileManager.getUsedBytes(configuration));
+  }
+
+  @Test
+  public void temporaryFileQuotaIsNotUsedUpByFilesOfOtherConfiguration() throws Exception {
+    Configuration limitedConfiguration = Configuration.of(Configuration.Mode.TEST);
+    limitedConfiguration.setTemporaryFileQuotaInBytes(10);
+    Configuration otherConfiguration = Configuration.of(Configuration.Mode.TEST);
+    try (TemporaryFileManager otherTemporaryFileManager = new TemporaryFileManager(otherConfiguration);
+         TemporaryFileManager limitedTemporaryFileManager = new TemporaryFileManager(limitedConfiguration)) {
+      new StreamDocument(new ByteArrayInputStream(new byte[20]), "other.txt", MimeType.TEXT,
+          otherTemporaryFileManager);
+      new StreamDocument(new ByteArrayInputStream(new byte[10]), "limited.txt", MimeType.TEXT,
+          limitedTemporaryFileManager);
+      Assert.assertEquals(20, TemporaryFileManager.getUsedBytes(otherConfiguration));
+      Assert.assertEquals(10, TemporaryFileManager.getUsedBytes(limitedConfiguration));
+    }
+  }
+
+  @Test
+  public void largeDataFileUsesTemporaryFileDirectoryOfGivenConfiguration() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    File directory = this.testFolder.newFolder("large");
+    configuration.setTemporaryFileDirectory(directory.getPath());
+    DataFile dataFile = new LargeDataFile(new ByteArrayInputStream(new byte[]{0x041}), "suur_a.txt", "text/plain",
+        configuration);
+    File temporaryFile = ((StreamDocument) dataFile.getDocument()).temporaryFile;
+    Assert.assertEquals(directory.getCanonicalFile(), temporaryFile.getParentFile().getCanonicalFile());
+    Assert.assertEquals(1, TemporaryFileManager.getUsedBytes(configuration));
+  }
+
+  @Test
+  public void temporaryFilesOfParsedContainerEntriesAreDeletedWhenContainerIsClosed() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setMaxFileSizeCachedInMemoryInMB(0);
+    File directory = this.testFolder.newFolder("parsed");
+    configuration.setTemporaryFileDirectory(directory.getPath());
+    Container container = ContainerBuilder.aContainer().fromExistingFile(BDOC_WITH_TM_SIG)
+        .withConfiguration(configuration).build();
+    Assert.assertNotEquals(0, directory.list().length);
+    container.close();
+    Assert.assertArrayEquals(new String[0], directory.list());
+  }
+
   /*
    * RESTRICTED METHODS
    */
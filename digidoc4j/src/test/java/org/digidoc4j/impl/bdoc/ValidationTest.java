@@ -13,7 +13,9 @@ package org.digidoc4j.impl.bdoc;
 import eu.europa.esig.dss.i18n.I18nProvider;
 import eu.europa.esig.dss.i18n.MessageTag;
 import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.policy.ValidationPolicy;
 import eu.europa.esig.dss.spi.DSSUtils;
+import org.apache.commons.io.FileUtils;
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.Container;
@@ -34,6 +36,9 @@ import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.exceptions.TimestampAfterOCSPResponseTimeException;
 import org.digidoc4j.exceptions.UnsupportedFormatException;
 import org.digidoc4j.exceptions.UntrustedRevocationSourceException;
+import org.digidoc4j.impl.asic.AsicSignature;
+import org.digidoc4j.impl.asic.xades.DssXadesSignature;
+import org.digidoc4j.impl.asic.xades.ValidationPolicyCache;
 import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
 import org.digidoc4j.signers.PKCS12SignatureToken;
 import org.digidoc4j.test.TestAssert;
@@ -45,6 +50,7 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Paths;
@@ -810,6 +816,47 @@ public class ValidationTest extends AbstractTest {
     TestAssert.assertContainerIsValid(container);
   }
 
+  @Test
+  public void signatureValidation_isPerformedOnceUntilTrustedCertificatesChange() throws Exception {
+    TSLCertificateSourceImpl tsl = new TSLCertificateSourceImpl();
+    Configuration conf = Configuration.of(Configuration.Mode.PROD);
+    conf.setAllowASN1UnsafeInteger(true);
+    conf.setTSL(tsl);
+    try (InputStream inputStream = new FileInputStream("src/test/resources/prodFiles/certs/ESTEID-SK_2011.pem.crt")) {
+      tsl.addTSLCertificate(DSSUtils.loadCertificate(inputStream).getCertificate());
+    }
+    try (InputStream inputStream = new FileInputStream("src/test/resources/prodFiles/certs/SK_OCSP_RESPONDER_2011.pem.cer")) {
+      tsl.addTSLCertificate(DSSUtils.loadCertificate(inputStream).getCertificate());
+    }
+    Container container = this.openContainerByConfiguration(
+        Paths.get("src/test/resources/prodFiles/valid-containers/IB-4183_3.4kaart_RSA2047_TS.asice"), conf);
+    Assert.assertFalse(container.validate().isValid());
+    AsicSignature signature = (AsicSignature) container.getSignatures().get(0);
+    Assert.assertFalse(signature.validateSignature().isValid());
+    signature.getDssValidationReport();
+    DssXadesSignature xadesSignature = (DssXadesSignature) signature.getOrigin();
+    Assert.assertEquals(1, xadesSignature.getValidationCount());
+    try (InputStream inputStream = new FileInputStream("src/test/resources/prodFiles/certs/SK_TSA.pem.crt")) {
+      tsl.addTSLCertificate(DSSUtils.loadCertificate(inputStream).getCertificate());
+    }
+    Assert.assertTrue(signature.validateSignature().isValid());
+    Assert.assertTrue(container.validate().isValid());
+    Assert.assertEquals(2, xadesSignature.getValidationCount());
+    conf.setAllowASN1UnsafeInteger(false);
+  }
+
+  @Test
+  public void validationPolicy_isLoadedOncePerConfigurationUntilPolicyFileChanges() throws Exception {
+    File policyFile = this.testFolder.newFile("constraint.xml");
+    FileUtils.copyFile(new File("src/main/resources/conf/test_constraint.xml"), policyFile);
+    this.configuration.setValidationPolicy(policyFile.getPath());
+    ValidationPolicy policy = ValidationPolicyCache.getValidationPolicy(this.configuration);
+    Assert.assertSame(policy, ValidationPolicyCache.getValidationPolicy(this.configuration));
+    Assert.assertNotSame(policy, ValidationPolicyCache.getValidationPolicy(Configuration.of(Configuration.Mode.TEST)));
+    Assert.assertTrue(policyFile.setLastModified(policyFile.lastModified() - 60000));
+    Assert.assertNotSame(policy, ValidationPolicyCache.getValidationPolicy(this.configuration));
+  }
+
   /*
    * RESTRICTED METHODS
    */
@@ -12,16 +12,28 @@ package org.digidoc4j.impl.bdoc.asic;
 
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerOpener;
 import org.digidoc4j.DataFile;
+import org.digidoc4j.X509Cert;
+import org.digidoc4j.impl.ZipEntryDocument;
 import org.digidoc4j.impl.asic.AsicEntry;
+import org.digidoc4j.impl.asic.AsicFileContainerParser;
 import org.digidoc4j.impl.asic.AsicParseResult;
 import org.digidoc4j.impl.asic.AsicStreamContainerParser;
+import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Paths;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class AsicContainerParserTest extends AbstractTest {
 
@@ -83,6 +95,91 @@ public class AsicContainerParserTest extends AbstractTest {
     }
   }
 
+  @Test
+  public void parseBdocFromFile_withLazyDataFileLoading_dataFilesAreReadOnDemand() throws Exception {
+    String path = "src/test/resources/testFiles/valid-containers/23147_weak-warning-sha1.bdoc";
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setLazyDataFileLoading(true);
+    AsicParseResult lazyResult = new AsicFileContainerParser(path, configuration).read();
+    AsicParseResult eagerResult = this.getParseResultFromFile(Paths.get(path));
+    DataFile lazyDataFile = lazyResult.getDataFiles().get(0);
+    DataFile eagerDataFile = eagerResult.getDataFiles().get(0);
+    Assert.assertTrue(lazyDataFile.getDocument() instanceof ZipEntryDocument);
+    Assert.assertEquals("jdigidoc.cfg", lazyDataFile.getName());
+    Assert.assertEquals("text/html", lazyDataFile.getMediaType());
+    Assert.assertEquals(eagerDataFile.getFileSize(), lazyDataFile.getFileSize());
+    Assert.assertArrayEquals(eagerDataFile.getBytes(), lazyDataFile.getBytes());
+    Assert.assertArrayEquals(eagerDataFile.calculateDigest(), lazyDataFile.calculateDigest());
+  }
+
+  @Test
+  public void parseBdocFromFile_withLazyDataFileLoading_containerFileIsSharedUntilContainerIsClosed() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setLazyDataFileLoading(true);
+    AsicParseResult result = new AsicFileContainerParser(
+        "src/test/resources/testFiles/valid-containers/23147_weak-warning-sha1.bdoc", configuration).read();
+    Assert.assertNotNull(result.getSharedZipFile());
+    DataFile dataFile = result.getDataFiles().get(0);
+    byte[] content = dataFile.getBytes();
+    Container container = ContainerOpener.open(result, configuration);
+    InputStream openedBeforeClose = dataFile.getDocument().openStream();
+    container.close();
+    try {
+      openedBeforeClose.read();
+      Assert.fail("Expected the shared container file to be closed");
+    } catch (IOException expected) {
+    }
+    Assert.assertArrayEquals(content, dataFile.getBytes());
+  }
+
+  @Test
+  public void parseContainerWithMultipleSignatures_signaturesAreParsedOnThreadExecutorInContainerOrder() throws Exception {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setThreadExecutor(executor);
+    configuration.setMaxParallelSignatureValidations(1);
+    AsicParseResult result = new AsicFileContainerParser(
+        "src/test/resources/testFiles/invalid-containers/two_signatures.bdoc", configuration).read();
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(2, executor.getCompletedTaskCount());
+    this.assertParseResultValid(result);
+    Assert.assertEquals("S0", result.getSignatures().get(0).getSignature().getId());
+    Assert.assertEquals("S1", result.getSignatures().get(1).getSignature().getId());
+  }
+
+  @Test
+  public void parseContainerWithLazySignatureParsing_signaturesAreParsedOnFirstAccess() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setLazySignatureParsing(true);
+    AsicParseResult result = new AsicFileContainerParser(
+        "src/test/resources/testFiles/invalid-containers/two_signatures.bdoc", configuration).read();
+    this.assertParseResultValid(result);
+    XadesSignatureWrapper signatureWrapper = result.getSignatures().get(0);
+    Assert.assertFalse(signatureWrapper.isSignatureParsed());
+    Assert.assertEquals("S0", signatureWrapper.getId());
+    Date signingTime = signatureWrapper.getSigningTime();
+    X509Cert signingCertificate = signatureWrapper.getSigningCertificate();
+    Assert.assertFalse(signatureWrapper.isBDocOnlySignature());
+    Assert.assertFalse(signatureWrapper.isSignatureParsed());
+    Assert.assertEquals(signatureWrapper.getSignature().getSigningTime(), signingTime);
+    Assert.assertEquals(signatureWrapper.getSignature().getSigningCertificate().getX509Certificate(),
+        signingCertificate.getX509Certificate());
+    Assert.assertTrue(signatureWrapper.isSignatureParsed());
+    Assert.assertEquals("S1", result.getSignatures().get(1).getId());
+    Assert.assertFalse(result.getSignatures().get(1).isSignatureParsed());
+  }
+
+  @Test
+  public void parseContainerWithLazySignatureParsing_timemarkSignatureIsBDocOnlyWithoutParsing() throws Exception {
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setLazySignatureParsing(true);
+    AsicParseResult result = new AsicFileContainerParser(BDOC_WITH_TM_SIG, configuration).read();
+    XadesSignatureWrapper signatureWrapper = result.getSignatures().get(0);
+    Assert.assertTrue(signatureWrapper.isBDocOnlySignature());
+    Assert.assertFalse(signatureWrapper.isSignatureParsed());
+  }
+
   /*
    * RESTRICTED METHODS
    */
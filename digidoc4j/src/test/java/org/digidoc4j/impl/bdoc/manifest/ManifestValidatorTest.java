@@ -27,6 +27,7 @@ import org.digidoc4j.impl.asic.manifest.ManifestParser;
 import org.digidoc4j.impl.asic.manifest.ManifestValidator;
 import org.digidoc4j.impl.asic.xades.XadesSignature;
 import org.digidoc4j.impl.asic.xades.XadesSignatureWrapper;
+import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -37,6 +38,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class ManifestValidatorTest {
 
@@ -183,6 +187,27 @@ public class ManifestValidatorTest {
     Assert.assertTrue(errors.isEmpty());
   }
 
+  @Test
+  public void container_withMultipleSignatures_signaturesAreValidatedOnThreadExecutorInSignatureOrder() throws Exception {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    Configuration configuration = Configuration.of(Configuration.Mode.TEST);
+    configuration.setThreadExecutor(executor);
+    ManifestParser manifestParser = this.createManifest(dataFile("test.txt", "text/xml"));
+    List<DSSDocument> detachedContents = Arrays.asList(detachedContent("test.txt", "text/plain"));
+    List<Signature> signatures = this.openSignature("src/test/resources/testFiles/xades/test-bdoc-ts.xml", detachedContents);
+    signatures.addAll(this.openSignature("src/test/resources/testFiles/xades/test-bdoc-ts.xml", detachedContents));
+    List<ManifestErrorMessage> errors = new ManifestValidator(manifestParser, detachedContents, signatures,
+        new ThreadPoolManager(configuration)).validateDocument();
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(2, executor.getCompletedTaskCount());
+    Assert.assertEquals(2, errors.size());
+    for (ManifestErrorMessage error : errors) {
+      Assert.assertEquals("Manifest file has an entry for file <test.txt> with mimetype <text/xml> but the signature "
+          + "file for signature S0 indicates the mimetype is <text/plain>", error.getErrorMessage());
+    }
+  }
+
   /*
    * RESTRICTED METHODS
    */
@@ -16,11 +16,16 @@ import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.spi.x509.CertificateSource;
 import eu.europa.esig.dss.model.x509.CertificateToken;
 import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPToken;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
 import org.bouncycastle.asn1.ocsp.OCSPResponseStatus;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cert.ocsp.OCSPReq;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.bouncycastle.util.encoders.Base64;
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
+import org.digidoc4j.DigestAlgorithm;
 import org.digidoc4j.OCSPSourceBuilder;
 import org.digidoc4j.ServiceType;
 import org.digidoc4j.exceptions.CertificateValidationException;
@@ -29,21 +34,26 @@ import org.digidoc4j.exceptions.ServiceAccessDeniedException;
 import org.digidoc4j.exceptions.ServiceUnavailableException;
 import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.impl.CommonOCSPCertificateSource;
+import org.digidoc4j.impl.CommonOCSPSource;
 import org.digidoc4j.impl.SKOnlineOCSPSource;
 import org.digidoc4j.impl.SkOCSPDataLoader;
+import org.digidoc4j.impl.asic.ocsp.BDocTMOcspSource;
 import org.digidoc4j.test.util.TestSigningUtil;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.security.Security;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.digidoc4j.Configuration.Mode.TEST;
 import static org.junit.Assert.assertEquals;
@@ -52,6 +62,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -145,6 +157,115 @@ public class SKOnlineOCSPSourceTest extends AbstractTest {
     }
   }
 
+  @Test
+  public void signedOCSPRequestsUseConfiguredDigestAlgorithm() throws Exception {
+    configuration.setSignOCSPRequests(true);
+    configuration.setOCSPAccessCertificateFileName("src/test/resources/testFiles/p12/signout.p12");
+    configuration.setOCSPAccessCertificatePassword("test".toCharArray());
+    configuration.setOcspRequestSignatureDigestAlgorithm(DigestAlgorithm.SHA256);
+    mockOcspResponse(OCSPResponseStatus.MALFORMED_REQUEST);
+
+    for (int i = 0; i < 2; i++) {
+      SKOnlineOCSPSource ocspSource = constructOCSPSource();
+      ocspSource.setDataLoader(dataLoader);
+      try {
+        ocspSource.getRevocationToken(new CertificateToken(TestSigningUtil.SIGN_CERT), new CertificateToken(this.issuerCert));
+        fail("Expected to throw CertificateValidationException");
+      } catch (CertificateValidationException e) {
+        assertEquals("OCSP request malformed", e.getMessage());
+      }
+    }
+
+    ArgumentCaptor<byte[]> requestCaptor = ArgumentCaptor.forClass(byte[].class);
+    verify(dataLoader, times(2)).post(anyString(), requestCaptor.capture());
+    for (byte[] request : requestCaptor.getAllValues()) {
+      OCSPReq ocspRequest = new OCSPReq(request);
+      assertTrue(ocspRequest.isSigned());
+      assertEquals(PKCSObjectIdentifiers.sha256WithRSAEncryption, ocspRequest.getSignatureAlgOID());
+      assertTrue(ocspRequest.isSignatureValid(new JcaContentVerifierProviderBuilder().build(ocspRequest.getCerts()[0])));
+    }
+  }
+
+  @Test
+  public void signedOCSPRequests_loadOcspAccessCertificateOnlyOnce() throws Exception {
+    configuration.setSignOCSPRequests(true);
+    configuration.setOCSPAccessCertificateFileName("src/test/resources/testFiles/p12/signout.p12");
+    configuration.setOCSPAccessCertificatePassword("test".toCharArray());
+    mockOcspResponse(OCSPResponseStatus.MALFORMED_REQUEST);
+    AtomicInteger privateKeyLoadCount = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      SKOnlineOCSPSource ocspSource = new CommonOCSPSource(configuration) {
+        @Override
+        protected DSSPrivateKeyEntry getOCSPAccessCertificatePrivateKey() throws IOException {
+          privateKeyLoadCount.incrementAndGet();
+          return super.getOCSPAccessCertificatePrivateKey();
+        }
+      };
+      ocspSource.setDataLoader(dataLoader);
+      try {
+        ocspSource.getRevocationToken(new CertificateToken(TestSigningUtil.SIGN_CERT), new CertificateToken(this.issuerCert));
+        fail("Expected to throw CertificateValidationException");
+      } catch (CertificateValidationException e) {
+        assertEquals("OCSP request malformed", e.getMessage());
+      }
+    }
+
+    assertEquals(1, privateKeyLoadCount.get());
+    ArgumentCaptor<byte[]> requestCaptor = ArgumentCaptor.forClass(byte[].class);
+    verify(dataLoader, times(3)).post(anyString(), requestCaptor.capture());
+    for (byte[] request : requestCaptor.getAllValues()) {
+      assertTrue(new OCSPReq(request).isSigned());
+    }
+  }
+
+  @Test
+  public void signedOCSPRequests_withAlternatingOcspSourceClasses_loadOcspAccessCertificateOncePerClass()
+      throws Exception {
+    configuration.setSignOCSPRequests(true);
+    configuration.setOCSPAccessCertificateFileName("src/test/resources/testFiles/p12/signout.p12");
+    configuration.setOCSPAccessCertificatePassword("test".toCharArray());
+    mockOcspResponse(OCSPResponseStatus.MALFORMED_REQUEST);
+    AtomicInteger commonPrivateKeyLoadCount = new AtomicInteger();
+    AtomicInteger timemarkPrivateKeyLoadCount = new AtomicInteger();
+
+    for (int i = 0; i < 4; i++) {
+      SKOnlineOCSPSource ocspSource;
+      if (i % 2 == 0) {
+        ocspSource = new CommonOCSPSource(configuration) {
+          @Override
+          protected DSSPrivateKeyEntry getOCSPAccessCertificatePrivateKey() throws IOException {
+            commonPrivateKeyLoadCount.incrementAndGet();
+            return super.getOCSPAccessCertificatePrivateKey();
+          }
+        };
+      } else {
+        ocspSource = new BDocTMOcspSource(configuration, new byte[]{1, 2, 3}) {
+          @Override
+          protected DSSPrivateKeyEntry getOCSPAccessCertificatePrivateKey() throws IOException {
+            timemarkPrivateKeyLoadCount.incrementAndGet();
+            return super.getOCSPAccessCertificatePrivateKey();
+          }
+        };
+      }
+      ocspSource.setDataLoader(dataLoader);
+      try {
+        ocspSource.getRevocationToken(new CertificateToken(TestSigningUtil.SIGN_CERT), new CertificateToken(this.issuerCert));
+        fail("Expected to throw CertificateValidationException");
+      } catch (CertificateValidationException e) {
+        assertEquals("OCSP request malformed", e.getMessage());
+      }
+    }
+
+    assertEquals(1, commonPrivateKeyLoadCount.get());
+    assertEquals(1, timemarkPrivateKeyLoadCount.get());
+    ArgumentCaptor<byte[]> requestCaptor = ArgumentCaptor.forClass(byte[].class);
+    verify(dataLoader, times(4)).post(anyString(), requestCaptor.capture());
+    for (byte[] request : requestCaptor.getAllValues()) {
+      assertTrue(new OCSPReq(request).isSigned());
+    }
+  }
+
   @Test
   public void ocspRespondsWithEmptyBody_thenThrowTechnicalCertificateValidationException() throws CertificateEncodingException {
     CommonOCSPCertificateSource certificateSource = new CommonOCSPCertificateSource();
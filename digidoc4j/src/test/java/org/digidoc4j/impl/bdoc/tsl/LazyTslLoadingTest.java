@@ -14,11 +14,18 @@ import eu.europa.esig.dss.spi.x509.ListCertificateSource;
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.TSLCertificateSource;
+import org.digidoc4j.exceptions.TslCertificateSourceInitializationException;
 import org.digidoc4j.impl.asic.SKCommonCertificateVerifier;
+import org.digidoc4j.impl.asic.tsl.LazyTslCertificateSource;
+import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
+import org.digidoc4j.impl.asic.tsl.TslSnapshot;
 import org.digidoc4j.test.util.TestCommonUtil;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Paths;
+
 public class LazyTslLoadingTest extends AbstractTest {
 
   @Test
@@ -75,6 +82,58 @@ public class LazyTslLoadingTest extends AbstractTest {
     Assert.assertTrue(tslCacheModificationTime < newTslCacheModificationTime);
   }
 
+  @Test
+  public void tslCertSource_withBackgroundRefresh_keepsUsingLoadedTslWhenRefreshFails() throws Exception {
+    this.configuration.setTslLocation(new File(this.testFolder.getRoot(), "missing-lotl.xml").toURI().toString());
+    this.configuration.setTslCacheExpirationTime(500);
+    this.configuration.setTslBackgroundRefresh(true);
+    TSLCertificateSourceImpl loadedSource = new TSLCertificateSourceImpl();
+    this.addCertificateToTSL(Paths.get("src/test/resources/testFiles/certs/TESTofESTEID-SK2011.crt"), loadedSource);
+    File snapshotFile = new File(this.testFolder.getRoot(), "tsl.snapshot");
+    TslSnapshot.of(loadedSource, this.configuration.getTslLocation(), this.configuration.getTrustedTerritories())
+        .write(snapshotFile.toPath());
+    this.configuration.setTslSnapshotLocation(snapshotFile.getPath());
+
+    LazyTslCertificateSource tsl = (LazyTslCertificateSource) this.configuration.getTSL();
+    Assert.assertEquals(1, tsl.getNumberOfCertificates());
+    for (int i = 0; i < 100 && tsl.getFailedRefreshCount() == 0; i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertTrue(tsl.getFailedRefreshCount() > 0);
+    TestCommonUtil.sleepInSeconds(1);
+    Assert.assertEquals(1, tsl.getNumberOfCertificates());
+    Assert.assertTrue(tsl.getTslAgeInMillis() > 500);
+  }
+
+  @Test
+  public void tslCertSource_withBackgroundRefreshOlderThanMaxStaleness_failsWhenRefreshFails() throws Exception {
+    this.configuration.setTslLocation(new File(this.testFolder.getRoot(), "missing-lotl.xml").toURI().toString());
+    this.configuration.setTslCacheExpirationTime(500);
+    this.configuration.setTslBackgroundRefresh(true);
+    this.configuration.setTslMaxStaleness(1500);
+    TSLCertificateSourceImpl loadedSource = new TSLCertificateSourceImpl();
+    this.addCertificateToTSL(Paths.get("src/test/resources/testFiles/certs/TESTofESTEID-SK2011.crt"), loadedSource);
+    File snapshotFile = new File(this.testFolder.getRoot(), "tsl.snapshot");
+    TslSnapshot.of(loadedSource, this.configuration.getTslLocation(), this.configuration.getTrustedTerritories())
+        .write(snapshotFile.toPath());
+    this.configuration.setTslSnapshotLocation(snapshotFile.getPath());
+
+    TSLCertificateSource tsl = this.configuration.getTSL();
+    Assert.assertEquals(1, tsl.getNumberOfCertificates());
+    Assert.assertTrue(tsl.getTslAgeInMillis() < 1500);
+    TestCommonUtil.sleepInSeconds(2);
+    long failedRefreshCount = tsl.getFailedRefreshCount();
+    Assert.assertTrue(failedRefreshCount > 0);
+    Assert.assertTrue(tsl.getTslAgeInMillis() > 1500);
+    try {
+      tsl.getNumberOfCertificates();
+      Assert.fail("Accessing a TSL older than the maximum staleness should fail");
+    } catch (TslCertificateSourceInitializationException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("older than the maximum staleness"));
+    }
+    Assert.assertTrue(tsl.getFailedRefreshCount() > failedRefreshCount);
+  }
+
   /*
    * RESTRICTED METHODS
    */
@@ -52,6 +52,21 @@ public class TslManagerTest extends AbstractTest {
     Assert.assertEquals(1337, tsl.getCacheExpirationTime().longValue());
   }
 
+  @Test
+  public void getTslWithBackgroundRefresh() throws Exception {
+    this.configuration.setTslBackgroundRefresh(true);
+    LazyTslCertificateSource tsl = (LazyTslCertificateSource) this.tslManager.getTsl();
+    Assert.assertTrue(tsl.isBackgroundRefresh());
+  }
+
+  @Test
+  public void getTslWithMaxStaleness() throws Exception {
+    Assert.assertEquals(-1, this.configuration.getTslMaxStaleness());
+    this.configuration.setTslMaxStaleness(1337);
+    LazyTslCertificateSource tsl = (LazyTslCertificateSource) this.tslManager.getTsl();
+    Assert.assertEquals(1337, tsl.getMaxStaleness());
+  }
+
   /*
    * RESTRICTED METHODS
    */
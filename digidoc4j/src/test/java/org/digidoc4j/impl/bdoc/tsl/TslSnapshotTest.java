@@ -0,0 +1,168 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.bdoc.tsl;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import org.digidoc4j.AbstractTest;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.TSLCertificateSource;
+import org.digidoc4j.exceptions.TechnicalException;
+import org.digidoc4j.impl.asic.tsl.LazyTslCertificateSource;
+import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
+import org.digidoc4j.impl.asic.tsl.TslSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.zip.GZIPOutputStream;
+
+public class TslSnapshotTest extends AbstractTest {
+
+  private static final Path CA_CERTIFICATE = Paths.get("src/test/resources/testFiles/certs/TESTofESTEID-SK2011.crt");
+  private static final Path OCSP_CERTIFICATE =
+      Paths.get("src/test/resources/testFiles/certs/SK-OCSP-RESPONDER-2011_test.cer");
+
+  @Test
+  public void writeAndReadSnapshot_certificatesAndTrustPropertiesArePreserved() throws Exception {
+    TSLCertificateSourceImpl certificateSource = new TSLCertificateSourceImpl();
+    this.addCertificateToTSL(CA_CERTIFICATE, certificateSource);
+    this.addCertificateToTSL(OCSP_CERTIFICATE, certificateSource);
+    Path snapshotFile = new File(this.testFolder.getRoot(), "tsl.snapshot").toPath();
+
+    TslSnapshot.of(certificateSource, "http://tsl.test/lotl.xml", Collections.singletonList("EE")).write(snapshotFile);
+    TslSnapshot snapshot = TslSnapshot.read(snapshotFile);
+
+    Assert.assertEquals(2, snapshot.getNumberOfCertificates());
+    TSLCertificateSourceImpl restoredSource = snapshot.toCertificateSource();
+    Assert.assertEquals(2, restoredSource.getNumberOfCertificates());
+    for (CertificateToken certificate : certificateSource.getCertificates()) {
+      Assert.assertTrue(restoredSource.isTrusted(certificate));
+      Assert.assertEquals(certificateSource.getTrustServices(certificate).get(0).getTrustService().getLatest().getType(),
+          restoredSource.getTrustServices(certificate).get(0).getTrustService().getLatest().getType());
+    }
+    Assert.assertEquals(certificateSource.getSummary().getLOTLInfos().get(0).getUrl(),
+        restoredSource.getSummary().getLOTLInfos().get(0).getUrl());
+  }
+
+  @Test
+  public void snapshot_isCreatedOnlyForTheSameTslSettings() {
+    TslSnapshot snapshot = TslSnapshot.of(new TSLCertificateSourceImpl(), "http://tsl.test/lotl.xml",
+        Arrays.asList("LV", "EE"));
+    Assert.assertTrue(snapshot.isCreatedFor("http://tsl.test/lotl.xml", Arrays.asList("EE", "LV")));
+    Assert.assertFalse(snapshot.isCreatedFor("http://tsl.test/other-lotl.xml", Arrays.asList("EE", "LV")));
+    Assert.assertFalse(snapshot.isCreatedFor("http://tsl.test/lotl.xml", Collections.singletonList("EE")));
+  }
+
+  @Test(expected = TechnicalException.class)
+  public void readSnapshot_fromInvalidFile_throwsException() throws Exception {
+    Path snapshotFile = new File(this.testFolder.getRoot(), "invalid.snapshot").toPath();
+    Files.write(snapshotFile, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+    TslSnapshot.read(snapshotFile);
+  }
+
+  @Test
+  public void tslCertificateSource_withSnapshotLocation_loadsTslFromSnapshotWithoutDownloading() throws Exception {
+    TSLCertificateSourceImpl certificateSource = new TSLCertificateSourceImpl();
+    this.addCertificateToTSL(CA_CERTIFICATE, certificateSource);
+    Path snapshotFile = new File(this.testFolder.getRoot(), "tsl.snapshot").toPath();
+    TslSnapshot.of(certificateSource, this.configuration.getTslLocation(),
+        this.configuration.getTrustedTerritories()).write(snapshotFile);
+    this.configuration.setTslSnapshotLocation(snapshotFile.toString());
+    this.evictTSLCache();
+
+    TSLCertificateSource tsl = this.configuration.getTSL();
+    Assert.assertEquals(1, tsl.getNumberOfCertificates());
+    Assert.assertTrue(this.isTSLCacheEmpty());
+    Assert.assertEquals(1, tsl.getTrustStateVersion());
+    Assert.assertNotNull(((LazyTslCertificateSource) tsl).getLastCacheReloadingTime());
+  }
+
+  @Test
+  public void tslCertificateSource_trustStateVersion_accountsForInitialLoad() throws Exception {
+    TSLCertificateSourceImpl certificateSource = new TSLCertificateSourceImpl();
+    this.addCertificateToTSL(CA_CERTIFICATE, certificateSource);
+    Path snapshotFile = new File(this.testFolder.getRoot(), "tsl.snapshot").toPath();
+    TslSnapshot.of(certificateSource, this.configuration.getTslLocation(),
+        this.configuration.getTrustedTerritories()).write(snapshotFile);
+    this.configuration.setTslSnapshotLocation(snapshotFile.toString());
+    this.evictTSLCache();
+
+    TSLCertificateSource tsl = this.configuration.getTSL();
+    long trustStateVersion = tsl.getTrustStateVersion();
+    Assert.assertEquals(1, tsl.getNumberOfCertificates());
+    Assert.assertEquals(trustStateVersion, tsl.getTrustStateVersion());
+  }
+
+  @Test
+  public void readSnapshot_withClassOutsideAllowlist_throwsException() throws Exception {
+    Path snapshotFile = this.writeObject(new HashSet<>(Collections.singleton("not a snapshot")));
+    this.assertReadFailsWithInvalidClass(snapshotFile, "java.util.HashSet");
+  }
+
+  @Test
+  public void readSnapshot_withProxy_throwsException() throws Exception {
+    Object proxy = Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{Runnable.class},
+        new SerializableInvocationHandler());
+    Path snapshotFile = this.writeObject(proxy);
+    this.assertReadFailsWithInvalidClass(snapshotFile, "Proxy is not allowed");
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private Path writeObject(Object object) throws IOException {
+    Path file = new File(this.testFolder.getRoot(), "object.snapshot").toPath();
+    try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+      out.writeObject(object);
+    }
+    return file;
+  }
+
+  private void assertReadFailsWithInvalidClass(Path snapshotFile, String expectedMessage) {
+    try {
+      TslSnapshot.read(snapshotFile);
+      Assert.fail("Snapshot should not have been read");
+    } catch (TechnicalException e) {
+      Assert.assertTrue(e.getCause() instanceof InvalidClassException);
+      Assert.assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains(expectedMessage));
+    }
+  }
+
+  private static class SerializableInvocationHandler implements InvocationHandler, Serializable {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      return null;
+    }
+
+  }
+
+  @Override
+  protected void before() {
+    this.configuration = new Configuration(Configuration.Mode.TEST);
+  }
+
+}
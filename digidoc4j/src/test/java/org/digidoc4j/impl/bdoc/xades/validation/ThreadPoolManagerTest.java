@@ -10,8 +10,11 @@
 
 package org.digidoc4j.impl.bdoc.xades.validation;
 
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
@@ -24,7 +27,9 @@ import java.util.concurrent.TimeUnit;
 import org.digidoc4j.AbstractTest;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.SignatureValidationResult;
+import org.digidoc4j.exceptions.TechnicalException;
 import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
+import org.digidoc4j.impl.asic.xades.validation.ValidationThreadPoolExecutor;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -76,6 +81,102 @@ public class ThreadPoolManagerTest extends AbstractTest {
     Assert.assertEquals(2, executor.getTasks().size());  //Two signatures must be validated within a thread pool
   }
 
+  @Test
+  public void validateContainerWithLimitedParallelSignatureValidations() throws Exception {
+    CustomExecutorService executor = new CustomExecutorService();
+    this.configuration.setThreadExecutor(executor);
+    this.configuration.setMaxParallelSignatureValidations(1);
+    SignatureValidationResult result = this.openContainerByConfiguration(Paths.get("src/test/resources/testFiles/invalid-containers/two_signatures.bdoc"), this.configuration).validate();
+    Assert.assertFalse(result.isValid());
+    Assert.assertEquals(2, executor.getTasks().size());
+    Assert.assertEquals(0, executor.getMaxUnfinishedTasksOnSubmit());
+  }
+
+  @Test
+  public void maxParallelTasksDefaultsToNumberOfProcessors() throws Exception {
+    Assert.assertEquals(Runtime.getRuntime().availableProcessors(), this.manager.getMaxParallelTasks());
+    this.configuration.setMaxParallelSignatureValidations(3);
+    Assert.assertEquals(3, this.manager.getMaxParallelTasks());
+  }
+
+  @Test
+  public void invokeAll_returnsResultsInOrderOfTasksKeepingAtMostMaxParallelTasksSubmitted() throws Exception {
+    CustomExecutorService executor = new CustomExecutorService();
+    this.configuration.setThreadExecutor(executor);
+    this.configuration.setMaxParallelSignatureValidations(2);
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      int result = i;
+      tasks.add(() -> {
+        Thread.sleep(10);
+        return result;
+      });
+    }
+    Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), this.manager.invokeAll(tasks));
+    Assert.assertEquals(5, executor.getTasks().size());
+    Assert.assertTrue(executor.getMaxUnfinishedTasksOnSubmit() <= 1);
+  }
+
+  @Test
+  public void invokeAll_withSingleTask_executesTaskInCallingThread() throws Exception {
+    CustomExecutorService executor = new CustomExecutorService();
+    this.configuration.setThreadExecutor(executor);
+    List<String> threadNames = this.manager.invokeAll(
+        Collections.singletonList(() -> Thread.currentThread().getName()));
+    Assert.assertEquals(Collections.singletonList(Thread.currentThread().getName()), threadNames);
+    Assert.assertTrue(executor.getTasks().isEmpty());
+  }
+
+  @Test
+  public void invokeAll_whenTaskFails_rethrowsUncheckedExceptionOfTask() throws Exception {
+    List<Callable<String>> tasks = Arrays.asList(() -> "first", () -> {
+      throw new IllegalStateException("task failed");
+    });
+    try {
+      this.manager.invokeAll(tasks);
+      Assert.fail("Exception of the task should have been rethrown");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("task failed", e.getMessage());
+    }
+  }
+
+  @Test
+  public void invokeAll_whenTaskThrowsCheckedException_throwsTechnicalException() throws Exception {
+    List<Callable<String>> tasks = Arrays.asList(() -> "first", () -> {
+      throw new IOException("task failed");
+    });
+    try {
+      this.manager.invokeAll(tasks);
+      Assert.fail("Exception of the task should have been rethrown");
+    } catch (TechnicalException e) {
+      Assert.assertTrue(e.getCause().getCause() instanceof IOException);
+    }
+  }
+
+  @Test
+  public void validationThreadPoolExecutorRunsTasksInCallerThreadWhenQueueIsFull() throws Exception {
+    ValidationThreadPoolExecutor executor = new ValidationThreadPoolExecutor(1, 1);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        futures.add(executor.submit(() -> {
+          Thread.sleep(50);
+          return Thread.currentThread().getName();
+        }));
+      }
+      List<String> threadNames = new ArrayList<>();
+      for (Future<String> future : futures) {
+        threadNames.add(future.get());
+      }
+      Assert.assertTrue(threadNames.contains(Thread.currentThread().getName()));
+      Assert.assertEquals(5, executor.getExecutedTaskCount());
+      Assert.assertEquals(0, executor.getQueueDepth());
+      Assert.assertTrue(executor.getMaxWaitTimeInMillis() >= executor.getAverageWaitTimeInMillis());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   /*
    * PROTECTED METHODS
    */
@@ -89,6 +190,8 @@ public class ThreadPoolManagerTest extends AbstractTest {
   private static class CustomExecutorService extends ThreadPoolExecutor {
 
     private List<Callable> tasks = new ArrayList<>();
+    private List<Future> futures = new ArrayList<>();
+    private int maxUnfinishedTasksOnSubmit;
 
     public CustomExecutorService() {
       super(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue(10));
@@ -96,14 +199,22 @@ public class ThreadPoolManagerTest extends AbstractTest {
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
+      int unfinishedTasks = (int) this.futures.stream().filter(future -> !future.isDone()).count();
+      this.maxUnfinishedTasksOnSubmit = Math.max(this.maxUnfinishedTasksOnSubmit, unfinishedTasks);
       this.tasks.add(task);
-      return super.submit(task);
+      Future<T> future = super.submit(task);
+      this.futures.add(future);
+      return future;
     }
 
     public List<Callable> getTasks() {
       return tasks;
     }
 
+    public int getMaxUnfinishedTasksOnSubmit() {
+      return maxUnfinishedTasksOnSubmit;
+    }
+
   }
 
 }
@@ -0,0 +1,79 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.ddoc;
+
+import org.digidoc4j.AbstractTest;
+import org.digidoc4j.ddoc.SignedDoc;
+import org.digidoc4j.ddoc.c14n.TinyXMLCanonicalizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the output of the DDOC canonicalizer with a golden corpus. The corpus holds SignedInfo and
+ * SignedProperties elements as they are canonicalized when the test DDOCs are read, and documents with entities,
+ * CDATA sections and non-ASCII text. Every <code>name.xml</code> is expected to canonicalize to the bytes of
+ * <code>name.c14n</code>, which were recorded with the canonicalizer before its optimization, with both LF and CRLF
+ * line breaks.
+ */
+public class DDocCanonicalizationTest extends AbstractTest {
+
+  private static final Path CORPUS = Paths.get("src/test/resources/testFiles/c14n");
+
+  @Test
+  public void canonicalizeWithLfLineBreaks_matchesGoldenOutput() throws Exception {
+    for (Path input : this.getCorpusInputs()) {
+      this.assertCanonicalizedToGoldenOutput(input, Files.readAllBytes(input));
+    }
+  }
+
+  @Test
+  public void canonicalizeWithCrLfLineBreaks_matchesGoldenOutput() throws Exception {
+    for (Path input : this.getCorpusInputs()) {
+      String xml = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
+      Assert.assertFalse(xml.contains("\r"));
+      this.assertCanonicalizedToGoldenOutput(input, xml.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private List<Path> getCorpusInputs() throws IOException {
+    List<Path> inputs = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(CORPUS, "*.xml")) {
+      for (Path file : files) {
+        inputs.add(file);
+      }
+    }
+    Collections.sort(inputs);
+    Assert.assertFalse("Corpus is empty", inputs.isEmpty());
+    return inputs;
+  }
+
+  private void assertCanonicalizedToGoldenOutput(Path input, byte[] xml) throws Exception {
+    String fileName = input.getFileName().toString();
+    Path goldenOutput = input.resolveSibling(fileName.substring(0, fileName.length() - ".xml".length()) + ".c14n");
+    byte[] canonicalized = new TinyXMLCanonicalizer().canonicalize(xml, SignedDoc.CANONICALIZATION_METHOD_20010315);
+    Assert.assertArrayEquals(fileName, Files.readAllBytes(goldenOutput), canonicalized);
+  }
+
+}
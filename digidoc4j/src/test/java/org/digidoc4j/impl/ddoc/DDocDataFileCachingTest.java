@@ -0,0 +1,135 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.ddoc;
+
+import org.digidoc4j.AbstractTest;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.ddoc.DataFile;
+import org.digidoc4j.ddoc.SignedDoc;
+import org.digidoc4j.ddoc.factory.SAXDigiDocFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the embedded DataFiles of DDOCs read with a DataFile cache limit to the DataFiles read in memory. The
+ * limit makes the parser write the body to a cache file either from the start, when the declared size exceeds the
+ * limit, or in the middle of the body, when only the base64 encoded body exceeds the limit.
+ */
+public class DDocDataFileCachingTest extends AbstractTest {
+
+  private static final String DIGIDOC_XML_1_2 = "src/test/resources/prodFiles/valid-containers/DIGIDOC-XML1.2.ddoc";
+  private static final String DIGIDOC_XML_1_3 = "src/test/resources/testFiles/valid-containers/BOM_algusega.ddoc";
+  private static final String SK_XML_1_0 = "src/test/resources/prodFiles/valid-containers/SK-XML1.0.ddoc";
+
+  private final List<DataFile> cachedDataFiles = new ArrayList<>();
+
+  @Test
+  public void digiDocXml12DataFileCachedFromStart_equalsDataFileInMemory() throws Exception {
+    this.assertCachedDataFileEqualsDataFileInMemory(DIGIDOC_XML_1_2, 1);
+  }
+
+  @Test
+  public void digiDocXml13DataFileCachedFromStart_equalsDataFileInMemory() throws Exception {
+    this.assertCachedDataFileEqualsDataFileInMemory(DIGIDOC_XML_1_3, 1);
+  }
+
+  @Test
+  public void digiDocXml13DataFileMovedToCacheWhileParsing_equalsDataFileInMemory() throws Exception {
+    this.assertCachedDataFileEqualsDataFileInMemory(DIGIDOC_XML_1_3, 19436);
+  }
+
+  @Test
+  public void skXmlDataFileCachedFromStart_equalsDataFileInMemory() throws Exception {
+    this.assertCachedDataFileEqualsDataFileInMemory(SK_XML_1_0, 1);
+  }
+
+  @Test
+  public void skXmlDataFileMovedToCacheWhileParsing_equalsDataFileInMemory() throws Exception {
+    this.assertCachedDataFileEqualsDataFileInMemory(SK_XML_1_0, 44544);
+  }
+
+  @Test
+  public void dataFileWithEscapedCarriageReturnsCachedFromStart_hasSameDataAsDataFileWithoutThem() throws Exception {
+    DataFile dataFile = this.readDataFile(DIGIDOC_XML_1_3, -1);
+    DataFile cachedDataFile = this.readDataFile(this.createDDocWithEscapedCarriageReturns(DIGIDOC_XML_1_3), 1);
+    Assert.assertArrayEquals(dataFile.getBodyAsData(), cachedDataFile.getBodyAsData());
+  }
+
+  @Test
+  public void dataFileWithEscapedCarriageReturnsMovedToCacheWhileParsing_hasSameDataAsDataFileWithoutThem()
+      throws Exception {
+    DataFile dataFile = this.readDataFile(DIGIDOC_XML_1_3, -1);
+    DataFile cachedDataFile = this.readDataFile(this.createDDocWithEscapedCarriageReturns(DIGIDOC_XML_1_3), 19436);
+    Assert.assertNotNull(cachedDataFile.getDfCacheFile());
+    Assert.assertArrayEquals(dataFile.getBodyAsData(), cachedDataFile.getBodyAsData());
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private String createDDocWithEscapedCarriageReturns(String path) throws Exception {
+    String ddoc = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+    int bodyStart = ddoc.indexOf('>', ddoc.indexOf("<DataFile")) + 1;
+    int bodyEnd = ddoc.indexOf("</DataFile>");
+    String body = ddoc.substring(bodyStart, bodyEnd);
+    Assert.assertTrue(body.contains("\n"));
+    File file = this.testFolder.newFile("escaped-carriage-returns.ddoc");
+    Files.write(file.toPath(), (ddoc.substring(0, bodyStart) + body.replace("\n", "&#13;\n") + ddoc.substring(bodyEnd))
+        .getBytes(StandardCharsets.UTF_8));
+    return file.getPath();
+  }
+
+  private void assertCachedDataFileEqualsDataFileInMemory(String path, long maxDataFileCached) throws Exception {
+    DataFile dataFileInMemory = this.readDataFile(path, -1);
+    Assert.assertNull(dataFileInMemory.getDfCacheFile());
+    DataFile cachedDataFile = this.readDataFile(path, maxDataFileCached);
+    Assert.assertNotNull(cachedDataFile.getDfCacheFile());
+    Assert.assertEquals(dataFileInMemory.getSize(), cachedDataFile.getSize());
+    Assert.assertArrayEquals(dataFileInMemory.getBodyAsData(), cachedDataFile.getBodyAsData());
+    Assert.assertArrayEquals(dataFileInMemory.getDigest(), cachedDataFile.getDigest());
+    Assert.assertArrayEquals(dataFileInMemory.getDigestValueOfType(SignedDoc.SHA1_DIGEST_TYPE),
+        cachedDataFile.getDigestValueOfType(SignedDoc.SHA1_DIGEST_TYPE));
+  }
+
+  private DataFile readDataFile(String path, long maxDataFileCached) throws Exception {
+    this.configuration.setMaxFileSizeCachedInMemoryInMB(maxDataFileCached);
+    ConfigManagerInitializer.forceInitConfigManager(this.configuration);
+    List<Exception> errors = new ArrayList<>();
+    SignedDoc signedDoc = new SAXDigiDocFactory().readSignedDoc(path, errors);
+    Assert.assertEquals(errors.toString(), 0, errors.size());
+    Assert.assertEquals(1, signedDoc.countDataFiles());
+    DataFile dataFile = signedDoc.getDataFile(0);
+    this.cachedDataFiles.add(dataFile);
+    return dataFile;
+  }
+
+  @Override
+  protected void before() {
+    this.configuration = new Configuration(Configuration.Mode.TEST);
+  }
+
+  @Override
+  protected void after() {
+    for (DataFile dataFile : this.cachedDataFiles) {
+      dataFile.cleanupDfCache();
+    }
+    ConfigManagerInitializer.forceInitConfigManager(new Configuration(Configuration.Mode.TEST));
+  }
+
+}
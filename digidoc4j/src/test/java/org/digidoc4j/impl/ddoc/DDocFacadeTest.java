@@ -22,6 +22,7 @@ import org.digidoc4j.ddoc.utils.ConfigManager;
 import org.digidoc4j.exceptions.ConfigurationException;
 import org.digidoc4j.exceptions.DigiDoc4JException;
 import org.digidoc4j.exceptions.NotSupportedException;
+import org.digidoc4j.impl.asic.xades.validation.ThreadPoolManager;
 import org.digidoc4j.test.MockConfigManagerInitializer;
 import org.junit.Assert;
 import org.junit.Before;
@@ -35,7 +36,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class DDocFacadeTest extends AbstractTest {
 
@@ -83,6 +87,23 @@ public class DDocFacadeTest extends AbstractTest {
     Assert.assertEquals(3, result.getErrors().size());
   }
 
+  @Test
+  public void verifyWithThreadPoolManager_returnsSameErrorsInSameOrderAsSequentialVerification() {
+    SignedDoc ddoc = openDDocFacade("src/test/resources/prodFiles/invalid-containers/Belgia_kandeavaldus_LIV.ddoc").ddoc;
+    List<String> sequentialErrors = this.toStrings(ddoc.verify(true, true));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      this.configuration.setThreadExecutor(executor);
+      this.configuration.setMaxParallelSignatureValidations(2);
+      ThreadPoolManager threadPoolManager = new ThreadPoolManager(this.configuration);
+      List<String> parallelErrors = this.toStrings(ddoc.verify(true, true, threadPoolManager::invokeAll));
+      Assert.assertFalse(sequentialErrors.isEmpty());
+      Assert.assertEquals(sequentialErrors, parallelErrors);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   public void testCountDataFiles() {
     DDocFacade facade = openDDocFacade("src/test/resources/testFiles/valid-containers/ddoc_for_testing.ddoc");
@@ -243,6 +264,14 @@ public class DDocFacadeTest extends AbstractTest {
     return new DDocOpener().open(path).getDDoc4JFacade();
   }
 
+  private List<String> toStrings(List<?> errors) {
+    List<String> strings = new ArrayList<>();
+    for (Object error : errors) {
+      strings.add(error.toString());
+    }
+    return strings;
+  }
+
   @Before
   public void beforeMethod() {
     this.configuration = Configuration.of(Configuration.Mode.PROD);
@@ -0,0 +1,215 @@
+/* DigiDoc4J library
+*
+* This software is released under either the GNU Library General Public
+* License (see LICENSE.LGPL).
+*
+* Note that the only valid version of the LGPL license as far as this
+* project is concerned is the original GNU Library General Public License
+* Version 2.1, February 1999
+*/
+
+package org.digidoc4j.impl.ddoc;
+
+import org.digidoc4j.AbstractTest;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.ddoc.tsl.DigiDocTrustServiceFactory;
+import org.digidoc4j.ddoc.tsl.TSPService;
+import org.digidoc4j.ddoc.tsl.TrustServiceProvider;
+import org.digidoc4j.ddoc.utils.ConfigManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Hashtable;
+
+/**
+ * Tests the CA and OCSP responder certificate lookups of the DDOC trust service factory. The factory is initialized
+ * with a local configuration, which holds a CA and an OCSP responder with two certificates, and with a non-local TSL,
+ * which holds another CA and another OCSP responder.
+ */
+public class DDocTrustServiceFactoryTest extends AbstractTest {
+
+  private static final Path ROOT_CA = Paths.get("src/test/resources/testFiles/certs/TESTofEECertificationCentreRootCA.crt");
+  private static final Path LOCAL_CA = Paths.get("src/test/resources/testFiles/certs/TEST_of_ESTEID-SK_2015.pem.crt");
+  private static final Path LOCAL_CA_USER = Paths.get("src/test/resources/testFiles/certs/signout.pem");
+  private static final Path LOCAL_OCSP = Paths.get("src/test/resources/testFiles/certs/TEST_of_SK_OCSP_RESPONDER_2020.der.cer");
+  private static final Path TSL_CA = Paths.get("src/test/resources/testFiles/certs/TESTofESTEID-SK2011.crt");
+  private static final Path TSL_CA_USER = Paths.get("src/test/resources/testFiles/certs/TESTofStatusRevoked.cer");
+  private static final Path TSL_OCSP = Paths.get("src/test/resources/testFiles/certs/SK-OCSP-RESPONDER-2011_test.cer");
+  private static final String LOCAL_OCSP_CN = "TEST of SK OCSP RESPONDER 2020";
+  private static final String TSL_OCSP_CN = "TEST of SK OCSP RESPONDER 2011";
+
+  private DigiDocTrustServiceFactory factory;
+
+  @Test
+  public void findCaForCert_inNonLocalTsl_isFoundWithAndWithoutLocalTsl() {
+    X509Certificate user = this.openX509Certificate(TSL_CA_USER);
+    X509Certificate ca = this.openX509Certificate(TSL_CA);
+    Assert.assertEquals(ca, this.factory.findCaForCert(user, true, null));
+    Assert.assertEquals(ca, this.factory.findCaForCert(user, false, null));
+  }
+
+  @Test
+  public void findCaForCert_inLocalTsl_isFoundOnlyWithLocalTsl() {
+    X509Certificate user = this.openX509Certificate(LOCAL_CA_USER);
+    Assert.assertEquals(this.openX509Certificate(LOCAL_CA), this.factory.findCaForCert(user, true, null));
+    Assert.assertNull(this.factory.findCaForCert(user, false, null));
+  }
+
+  @Test
+  public void findCaForCert_withSigningTime_isFoundOnlyWithinCaValidity() {
+    X509Certificate user = this.openX509Certificate(TSL_CA_USER);
+    X509Certificate ca = this.openX509Certificate(TSL_CA);
+    Assert.assertEquals(ca, this.factory.findCaForCert(user, true, new Date(ca.getNotBefore().getTime() + 1000)));
+    Assert.assertNull(this.factory.findCaForCert(user, true, new Date(ca.getNotBefore().getTime() - 1000)));
+    Assert.assertNull(this.factory.findCaForCert(user, true, new Date(ca.getNotAfter().getTime() + 1000)));
+  }
+
+  @Test
+  public void findCaForCert_withoutCaInTsls_returnsNull() {
+    Assert.assertNull(this.factory.findCaForCert(this.openX509Certificate(TSL_CA), true, null));
+  }
+
+  @Test
+  public void findOcspsByCNAndNr_withLocalTsl_returnsAllCertsOfLocalResponder() {
+    X509Certificate[] certs = this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN, true, null);
+    Assert.assertArrayEquals(new X509Certificate[]{this.openX509Certificate(LOCAL_OCSP),
+        this.openX509Certificate(TSL_OCSP)}, certs);
+  }
+
+  @Test
+  public void findOcspsByCNAndNr_withSerialNumber_returnsOnlyCertWithSerialNumber() {
+    X509Certificate ocsp = this.openX509Certificate(TSL_OCSP);
+    X509Certificate[] certs = this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN, true, ocsp.getSerialNumber().toString());
+    Assert.assertArrayEquals(new X509Certificate[]{ocsp}, certs);
+    Assert.assertEquals(0, this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN, true, "1").length);
+  }
+
+  @Test
+  public void findOcspsByCNAndNr_withCnInOtherCase_returnsSameCerts() {
+    X509Certificate[] certs = this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN, true, null);
+    Assert.assertArrayEquals(certs, this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN.toLowerCase(), true, null));
+    Assert.assertArrayEquals(certs, this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN.toUpperCase(), true, null));
+    Assert.assertArrayEquals(certs, this.factory.findOcspsByCNAndNr("tEST OF sk ocsp RESPONDER 2020", true, null));
+    Assert.assertEquals(0, this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN + " ", true, null).length);
+  }
+
+  @Test
+  public void findOcspsByCNAndNr_searchesOnlyFirstTslThatMayBeUsed() {
+    X509Certificate ocsp = this.openX509Certificate(TSL_OCSP);
+    Assert.assertEquals(0, this.factory.findOcspsByCNAndNr(TSL_OCSP_CN, true, null).length);
+    Assert.assertArrayEquals(new X509Certificate[]{ocsp}, this.factory.findOcspsByCNAndNr(TSL_OCSP_CN, false, null));
+    Assert.assertEquals(0, this.factory.findOcspsByCNAndNr(LOCAL_OCSP_CN, false, null).length);
+  }
+
+  @Test
+  public void findOcspsByCNAndNr_withoutNonLocalTsl_returnsNullWithoutLocalTsl() throws Exception {
+    ConfigManager.init(this.createLocalConfiguration(null));
+    DigiDocTrustServiceFactory localFactory = new DigiDocTrustServiceFactory();
+    localFactory.init();
+    Assert.assertNull(localFactory.findOcspsByCNAndNr(LOCAL_OCSP_CN, false, null));
+    Assert.assertEquals(2, localFactory.findOcspsByCNAndNr(LOCAL_OCSP_CN, true, null).length);
+  }
+
+  @Test
+  public void findAfterAddingServices_findsAddedCerts() {
+    X509Certificate ca = this.openX509Certificate(TSL_CA);
+    X509Certificate ocsp = this.openX509Certificate(TSL_OCSP);
+    Assert.assertNull(this.factory.findCaForCert(ca, true, null));
+    Assert.assertEquals(0, this.factory.findOcspsByCNAndNr("Added OCSP", true, null).length);
+
+    TrustServiceProvider provider = this.factory.addTspProvider("Added", "Added TSP");
+    X509Certificate rootCa = this.openX509Certificate(ROOT_CA);
+    this.factory.addCATspService(provider, rootCa);
+    this.factory.addOcspTspService(provider, ocsp, "Added OCSP", "http://ocsp.test", "Added OCSP",
+        "TEST of EE Certification Centre Root CA");
+
+    Assert.assertEquals(rootCa, this.factory.findCaForCert(ca, true, null));
+    Assert.assertNull(this.factory.findCaForCert(ca, false, null));
+    Assert.assertArrayEquals(new X509Certificate[]{ocsp}, this.factory.findOcspsByCNAndNr("added ocsp", true, null));
+  }
+
+  /*
+   * RESTRICTED METHODS
+   */
+
+  private Hashtable<String, String> createLocalConfiguration(String tslDirectory) {
+    Hashtable<String, String> properties = new Hashtable<>(this.configuration.getDDoc4JConfiguration());
+    properties.put("DIGIDOC_CAS", "1");
+    properties.put("DIGIDOC_CA_1_NAME", "Local CA");
+    properties.put("DIGIDOC_CA_1_TRADENAME", "Local CA");
+    properties.put("DIGIDOC_CA_1_CERTS", "1");
+    properties.put("DIGIDOC_CA_1_CERT1", LOCAL_CA.toString());
+    properties.put("DIGIDOC_CA_1_OCSPS", "1");
+    properties.put("DIGIDOC_CA_1_OCSP1_CN", LOCAL_OCSP_CN);
+    properties.put("DIGIDOC_CA_1_OCSP1_CA_CN", "TEST of EE Certification Centre Root CA");
+    properties.put("DIGIDOC_CA_1_OCSP1_URL", "http://ocsp.test");
+    properties.put("DIGIDOC_CA_1_OCSP1_CERT", LOCAL_OCSP.toString());
+    properties.put("DIGIDOC_CA_1_OCSP1_CERT_1", TSL_OCSP.toString());
+    properties.remove("DIGIDOC_TSL_DIR");
+    if (tslDirectory != null) {
+      properties.put("DIGIDOC_TSL_DIR", tslDirectory);
+    }
+    return properties;
+  }
+
+  private File createTslDirectory() throws Exception {
+    File directory = this.testFolder.newFolder("tsl");
+    String tsl = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<TrustServiceStatusList>\n"
+        + "<SchemeInformation>\n"
+        + "<TSLVersionIdentifier>3</TSLVersionIdentifier>\n"
+        + "<TSLSequenceNumber>1</TSLSequenceNumber>\n"
+        + "<TSLType>http://uri.etsi.org/TrstSvc/eSigDir-1999-93-EC-TrustedList/TSLType/generic</TSLType>\n"
+        + "</SchemeInformation>\n"
+        + "<TrustServiceProviderList>\n"
+        + "<TrustServiceProvider>\n"
+        + "<TSPInformation><TSPName><Name xml:lang=\"en\">Test TSP</Name></TSPName></TSPInformation>\n"
+        + "<TSPServices>\n"
+        + this.createTslService(TSPService.TSP_TYPE_CA_QC, TSL_CA, null)
+        + this.createTslService(TSPService.TSP_TYPE_OCSP, TSL_OCSP,
+        this.openX509Certificate(TSL_OCSP).getSubjectX500Principal().getName())
+        + "</TSPServices>\n"
+        + "</TrustServiceProvider>\n"
+        + "</TrustServiceProviderList>\n"
+        + "</TrustServiceStatusList>\n";
+    Files.write(new File(directory, "tsl.xml").toPath(), tsl.getBytes(StandardCharsets.UTF_8));
+    return directory;
+  }
+
+  private String createTslService(String type, Path certificate, String subjectName) throws Exception {
+    return "<TSPService><ServiceInformation>\n"
+        + "<ServiceTypeIdentifier>" + type + "</ServiceTypeIdentifier>\n"
+        + "<ServiceDigitalIdentity>\n"
+        + "<DigitalId><X509Certificate>" + Base64.getEncoder().encodeToString(
+        this.openX509Certificate(certificate).getEncoded()) + "</X509Certificate></DigitalId>\n"
+        + (subjectName != null ? "<DigitalId><X509SubjectName>" + subjectName + "</X509SubjectName></DigitalId>\n" : "")
+        + "</ServiceDigitalIdentity>\n"
+        + "</ServiceInformation></TSPService>\n";
+  }
+
+  @Override
+  protected void before() {
+    this.configuration = new Configuration(Configuration.Mode.TEST);
+    try {
+      ConfigManager.init(this.createLocalConfiguration(this.createTslDirectory().getPath()));
+      this.factory = new DigiDocTrustServiceFactory();
+      this.factory.init();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected void after() {
+    ConfigManagerInitializer.forceInitConfigManager(new Configuration(Configuration.Mode.TEST));
+  }
+
+}